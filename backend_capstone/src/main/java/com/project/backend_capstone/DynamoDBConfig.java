@@ -1,14 +1,30 @@
 package com.project.backend_capstone;
 
+import java.net.URI;
+import java.time.Duration;
+
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.retry.RetryMode;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.project.backend_capstone.repository.UnitOfWork;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 
 @Configuration
 public class DynamoDBConfig {
@@ -21,19 +37,82 @@ public class DynamoDBConfig {
     @Value("${amazon.aws.region}")
     String region;
 
+    // Connection pool, timeouts and retries shared by both clients (see application.properties)
+    @Value("${app.dynamodb.client.max-connections:200}")
+    int maxConnections;
+    @Value("${app.dynamodb.client.connection-ttl-ms:60000}")
+    long connectionTtlMs;
+    @Value("${app.dynamodb.client.connection-timeout-ms:1000}")
+    int connectionTimeoutMs;
+    @Value("${app.dynamodb.client.attempt-timeout-ms:2000}")
+    int attemptTimeoutMs;
+    @Value("${app.dynamodb.client.call-timeout-ms:10000}")
+    int callTimeoutMs;
+    @Value("${app.dynamodb.client.max-retries:5}")
+    int maxRetries;
+
     @Bean
     public DynamoDBMapper dynamoDBMapper(AmazonDynamoDB amazonDynamoDB) {
         return new DynamoDBMapper(amazonDynamoDB);
     }
 
+    // The "local" profile swaps in the embedded engine instead (see LocalDynamoDBConfig)
     @Bean
+    @Profile("!local")
     public AmazonDynamoDB amazonDynamoDB() {
-        return AmazonDynamoDBClientBuilder
+        ClientConfiguration clientConfiguration = new ClientConfiguration()
+                // Default is 50, fewer than the fan-out and scan pools can have in flight at once
+                .withMaxConnections(maxConnections)
+                // Recycle connections so DNS changes on DynamoDB's side are picked up
+                .withConnectionTTL(connectionTtlMs)
+                .withConnectionTimeout(connectionTimeoutMs)
+                .withSocketTimeout(attemptTimeoutMs)
+                .withRequestTimeout(attemptTimeoutMs)
+                .withClientExecutionTimeout(callTimeoutMs)
+                .withTcpKeepAlive(true)
+                // Standard retry mode with client-side throttling of retries (the v1 client has no
+                // adaptive mode), so a throttled table isn't hammered by every caller at once
+                .withRetryMode(RetryMode.STANDARD)
+                .withMaxErrorRetry(maxRetries)
+                .withThrottledRetries(true);
+
+        // Calls made while handling a request are counted and identical reads memoized (see UnitOfWork)
+        return UnitOfWork.tracking(AmazonDynamoDBClientBuilder
                 .standard()
                 .withEndpointConfiguration(
                         new AwsClientBuilder.EndpointConfiguration(endpoint, region))
                 .withCredentials(new AWSStaticCredentialsProvider(
                         new BasicAWSCredentials(accesskey, secretkey)))
+                .withClientConfiguration(clientConfiguration)
+                .build());
+    }
+
+    // Non-blocking client for fan-out reads (see BatchLoader): requests wait on Netty's event loop
+    // instead of holding a thread each. Not created under the "local" profile, where callers fall
+    // back to the blocking client.
+    @Bean(destroyMethod = "close")
+    @Profile("!local")
+    @ConditionalOnProperty(name = "app.dynamodb.async.enabled", havingValue = "true", matchIfMissing = true)
+    public DynamoDbAsyncClient dynamoDbAsyncClient() {
+        return DynamoDbAsyncClient.builder()
+                .region(Region.of(region))
+                .endpointOverride(URI.create(endpoint.contains("://") ? endpoint : "https://" + endpoint))
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accesskey, secretkey)))
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(maxConnections)
+                        .connectionTimeToLive(Duration.ofMillis(connectionTtlMs))
+                        .connectionTimeout(Duration.ofMillis(connectionTimeoutMs))
+                        .connectionAcquisitionTimeout(Duration.ofMillis(callTimeoutMs))
+                        .readTimeout(Duration.ofMillis(attemptTimeoutMs))
+                        .tcpKeepAlive(true))
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .apiCallAttemptTimeout(Duration.ofMillis(attemptTimeoutMs))
+                        .apiCallTimeout(Duration.ofMillis(callTimeoutMs))
+                        // Adaptive retries also slow the send rate down while DynamoDB is throttling
+                        .retryStrategy(AwsRetryStrategy.adaptiveRetryStrategy().toBuilder()
+                                .maxAttempts(maxRetries + 1)
+                                .build())
+                        .build())
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package com.project.backend_capstone;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.model.BillingMode;
+import com.amazonaws.services.dynamodbv2.util.TableUtils;
+import com.project.backend_capstone.localdb.LocalDynamoDB;
+import com.project.backend_capstone.model.Category;
+import com.project.backend_capstone.model.User;
+import com.project.backend_capstone.model.UserGroup;
+import com.project.backend_capstone.model.Version;
+import com.project.backend_capstone.model.VersionConfiguration;
+import com.project.backend_capstone.repository.UnitOfWork;
+
+// Storage for single-node deployments and offline runs (spring.profiles.active=local): the
+// embedded engine stands in for the AmazonDynamoDB client, so every service, repository and the
+// DynamoDBMapper bean work against it unchanged.
+//
+// Why an engine behind the client rather than per-model repository interfaces: the services reach
+// DynamoDB through the mapper, raw Query/Scan/TransactWriteItems requests and the document API, not
+// one repository layer, so repositories would have meant rewriting every access path. The
+// spring-data-dynamodb 5.1.0 on the classpath is built for Spring Data 2.1 (this runs Spring Data 3),
+// is not enabled anywhere, and generates its repositories on top of DynamoDBMapper, so it would
+// still need DynamoDB or this engine underneath. MVStore and LMDB are not available to this build
+// (the SDK v2 artifacts were), so ItemJournal persists the tables instead.
+@Configuration
+@Profile("local")
+public class LocalDynamoDBConfig {
+    // Core model tables, which on AWS are provisioned outside the service (DynamoDBTableInitializer
+    // creates the service-managed ones as usual)
+    private static final List<Class<?>> MODEL_TABLES = List.of(
+            Category.class,
+            Version.class,
+            com.project.backend_capstone.model.Configuration.class,
+            VersionConfiguration.class,
+            User.class,
+            UserGroup.class);
+
+    @Value("${app.local-store.path:data/local-store.jsonl}")
+    private String path;
+
+    // On by default: the journal is the only copy of the data, so a write is acknowledged only once
+    // it is on disk
+    @Value("${app.local-store.sync-writes:true}")
+    private boolean syncWrites;
+
+    @Value("${app.local-store.compact-after-writes:100000}")
+    private long compactAfterWrites;
+
+    @Bean(destroyMethod = "shutdown")
+    public AmazonDynamoDB amazonDynamoDB() {
+        LocalDynamoDB localDynamoDB = path.isBlank()
+                ? new LocalDynamoDB()
+                : new LocalDynamoDB(Path.of(path), syncWrites, compactAfterWrites);
+
+        DynamoDBMapper mapper = new DynamoDBMapper(localDynamoDB);
+        for (Class<?> tableClass : MODEL_TABLES) {
+            TableUtils.createTableIfNotExists(localDynamoDB, mapper.generateCreateTableRequest(tableClass)
+                    .withBillingMode(BillingMode.PAY_PER_REQUEST));
+        }
+        return UnitOfWork.tracking(localDynamoDB);
+    }
+}
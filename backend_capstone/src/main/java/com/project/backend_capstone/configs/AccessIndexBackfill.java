@@ -0,0 +1,39 @@
+package com.project.backend_capstone.configs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.project.backend_capstone.repository.UserGroupMembershipRepository;
+import com.project.backend_capstone.service.UserGroupService;
+
+// Populates the UserGroupMembership index from UserGroups until a backfill has completed. Completion
+// is recorded in the index table itself, so a backfill that failed (on any node) runs again on the
+// next startup.
+@Component
+public class AccessIndexBackfill implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(AccessIndexBackfill.class);
+
+    @Autowired
+    private UserGroupMembershipRepository membershipRepository;
+
+    @Autowired
+    private UserGroupService userGroupService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            if (membershipRepository.isBackfilled()) {
+                return;
+            }
+            int indexed = userGroupService.rebuildMembershipIndex();
+            membershipRepository.markBackfilled();
+            logger.info("Backfilled {} user group memberships", indexed);
+        } catch (Exception e) {
+            logger.error("User group membership backfill failed: {}", e.getMessage());
+        }
+    }
+}
@@ -16,6 +16,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.project.backend_capstone.utils.JwtUtils;
 
+import io.jsonwebtoken.Claims;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -29,6 +31,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -39,10 +44,16 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         logger.debug("AuthTokenFilter called for URI: {}", request.getRequestURI());
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            // Verify the signature once and reuse the parsed claims
+            Claims claims = jwt != null ? jwtUtils.verifyToken(jwt) : null;
+            if (claims != null) {
+                String username = claims.getSubject();
+                long issuedAt = claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L;
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // Served from the token's roles or the principal cache when possible
+                UserDetails userDetails = principalCache.resolve(username, issuedAt,
+                        jwtUtils.getRolesFromClaims(claims),
+                        () -> userDetailsService.loadUserByUsername(username));
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails,
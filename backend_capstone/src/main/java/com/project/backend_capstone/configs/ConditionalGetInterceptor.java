@@ -0,0 +1,111 @@
+package com.project.backend_capstone.configs;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.project.backend_capstone.controller.CategoryController;
+import com.project.backend_capstone.controller.ConfigurationController;
+import com.project.backend_capstone.controller.VersionConfigurationController;
+import com.project.backend_capstone.controller.VersionController;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Answers conditional GETs on the read endpoints with 304 straight from ReadMarkers, before the
+// handler (and its DynamoDB reads) runs, and tells ReadMarkers about every write request. Any
+// non-GET request counts as a write unless its handler is marked @ReadOnlyRequest.
+// The ETags themselves are computed from the response body by ETagResponseAdvice.
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    // Controllers whose GET responses carry ETags
+    static final Set<Class<?>> CONDITIONAL_CONTROLLERS = Set.of(
+            CategoryController.class,
+            ConfigurationController.class,
+            VersionController.class,
+            VersionConfigurationController.class);
+
+    static final String READ_KEY_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".readKey";
+    static final String READ_GENERATION_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".generation";
+    private static final String WRITE_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".write";
+
+    // Clients (browsers included) must revalidate every time, which is what makes 304s possible
+    static final String CACHE_CONTROL = "no-cache";
+
+    @Autowired
+    private ReadMarkers readMarkers;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        String method = request.getMethod();
+        if ("GET".equals(method)) {
+            if (!CONDITIONAL_CONTROLLERS.contains(handlerMethod.getBeanType())) {
+                return true;
+            }
+
+            String key = readKey(request);
+            String etag = readMarkers.currentEtag(key);
+            if (etag != null && matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                response.setStatus(HttpStatus.NOT_MODIFIED.value());
+                response.setHeader(HttpHeaders.ETAG, etag);
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+                readMarkers.countNotModified(true);
+                return false;
+            }
+
+            request.setAttribute(READ_KEY_ATTRIBUTE, key);
+            request.setAttribute(READ_GENERATION_ATTRIBUTE, readMarkers.beginRead());
+        } else if (!"HEAD".equals(method) && !"OPTIONS".equals(method)
+                && !handlerMethod.hasMethodAnnotation(ReadOnlyRequest.class)) {
+            readMarkers.writeStarted();
+            request.setAttribute(WRITE_ATTRIBUTE, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        if (request.getAttribute(WRITE_ATTRIBUTE) != null) {
+            request.removeAttribute(WRITE_ATTRIBUTE);
+            readMarkers.writeFinished();
+        }
+    }
+
+    // Results depend on who is asking (e.g. accessible categories), so the user is part of the key
+    private static String readKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String user = authentication != null ? authentication.getName() : "";
+        String query = request.getQueryString();
+        return user + " " + request.getRequestURI() + (query != null ? "?" + query : "");
+    }
+
+    // Whether an If-None-Match header (possibly a list) names this ETag
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals(etag) || trimmed.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
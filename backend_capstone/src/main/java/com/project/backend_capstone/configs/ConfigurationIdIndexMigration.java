@@ -0,0 +1,31 @@
+package com.project.backend_capstone.configs;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.project.backend_capstone.model.Configuration;
+import com.project.backend_capstone.repository.ConfigurationRepository;
+
+// Adds the configuration-id-index GSI to the Configuration table if it is missing; lookups by
+// configuration ID alone keep using a scan until the backfill finishes.
+@Component
+public class ConfigurationIdIndexMigration extends GlobalIndexMigration {
+    private final ConfigurationRepository configurationRepository;
+
+    @Autowired
+    public ConfigurationIdIndexMigration(AmazonDynamoDB amazonDynamoDB,
+            ConfigurationRepository configurationRepository,
+            @Value("${app.migrations.configuration-id-index.enabled:true}") boolean enabled,
+            @Value("${app.migrations.configuration-id-index.poll-interval-ms:10000}") long pollIntervalMs) {
+        super(amazonDynamoDB, "Configuration", Configuration.CONFIGURATION_ID_INDEX, "configuration_id", enabled,
+                pollIntervalMs);
+        this.configurationRepository = configurationRepository;
+    }
+
+    @Override
+    protected void onIndexReady() {
+        configurationRepository.setConfigurationIdIndexReady(true);
+    }
+}
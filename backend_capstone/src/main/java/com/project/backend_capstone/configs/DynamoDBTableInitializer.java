@@ -0,0 +1,85 @@
+package com.project.backend_capstone.configs;
+
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.model.BillingMode;
+import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.TimeToLiveSpecification;
+import com.amazonaws.services.dynamodbv2.model.UpdateTimeToLiveRequest;
+import com.amazonaws.services.dynamodbv2.util.TableUtils;
+import com.project.backend_capstone.model.ChangeLogEntry;
+import com.project.backend_capstone.model.UniqueName;
+import com.project.backend_capstone.model.UserGroupMembership;
+
+// Creates the service-managed tables (indexes and bookkeeping, not the core model tables)
+// on startup if they don't exist yet, using on-demand capacity
+@Component
+public class DynamoDBTableInitializer implements InitializingBean {
+    private static final Logger logger = LoggerFactory.getLogger(DynamoDBTableInitializer.class);
+
+    // Tables the service owns and can safely create on its own
+    private static final List<Class<?>> MANAGED_TABLES = List.of(
+            UserGroupMembership.class,
+            ChangeLogEntry.class,
+            UniqueName.class);
+
+    // Attribute DynamoDB TTL should expire items by, for managed tables that have one
+    private static final Map<Class<?>, String> TTL_ATTRIBUTES = Map.of(
+            ChangeLogEntry.class, "expires_at");
+
+    private final AmazonDynamoDB amazonDynamoDB;
+    private final DynamoDBMapper dynamoDBMapper;
+
+    @Value("${app.dynamodb.create-missing-tables:true}")
+    private boolean createMissingTables;
+
+    @Autowired
+    public DynamoDBTableInitializer(AmazonDynamoDB amazonDynamoDB, DynamoDBMapper dynamoDBMapper) {
+        this.amazonDynamoDB = amazonDynamoDB;
+        this.dynamoDBMapper = dynamoDBMapper;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!createMissingTables) {
+            return;
+        }
+
+        for (Class<?> tableClass : MANAGED_TABLES) {
+            CreateTableRequest createTableRequest = dynamoDBMapper.generateCreateTableRequest(tableClass)
+                    .withBillingMode(BillingMode.PAY_PER_REQUEST);
+            String tableName = createTableRequest.getTableName();
+            try {
+                boolean created = TableUtils.createTableIfNotExists(amazonDynamoDB, createTableRequest);
+                if (created) {
+                    logger.info("Created table {}", tableName);
+                }
+                TableUtils.waitUntilActive(amazonDynamoDB, tableName);
+
+                String ttlAttribute = TTL_ATTRIBUTES.get(tableClass);
+                if (created && ttlAttribute != null) {
+                    amazonDynamoDB.updateTimeToLive(new UpdateTimeToLiveRequest()
+                            .withTableName(tableName)
+                            .withTimeToLiveSpecification(new TimeToLiveSpecification()
+                                    .withAttributeName(ttlAttribute)
+                                    .withEnabled(true)));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Could not create table {}: {}", tableName, e.getMessage());
+            }
+        }
+    }
+}
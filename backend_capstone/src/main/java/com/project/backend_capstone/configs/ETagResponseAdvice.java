@@ -0,0 +1,92 @@
+package com.project.backend_capstone.configs;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// Sets a strong ETag on successful GET responses of the conditional read endpoints, computed from
+// the response body, answers a matching If-None-Match with 304, and records the ETag in ReadMarkers
+// so the next matching request can be answered before any DynamoDB read.
+//
+// Hashing the body rather than e.g. the max version_num keeps the ETag strong: status changes
+// (approve / retire) and non-version lists change it too.
+@ControllerAdvice
+public class ETagResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Autowired
+    private ReadMarkers readMarkers;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return ConditionalGetInterceptor.CONDITIONAL_CONTROLLERS.contains(returnType.getContainingClass());
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        if (body == null || !(request instanceof ServletServerHttpRequest servletRequest)
+                || !(response instanceof ServletServerHttpResponse servletResponse)) {
+            return body;
+        }
+
+        HttpServletRequest httpRequest = servletRequest.getServletRequest();
+        String key = (String) httpRequest.getAttribute(ConditionalGetInterceptor.READ_KEY_ATTRIBUTE);
+        Long generation = (Long) httpRequest.getAttribute(ConditionalGetInterceptor.READ_GENERATION_ATTRIBUTE);
+        if (key == null || generation == null
+                || servletResponse.getServletResponse().getStatus() != HttpStatus.OK.value()) {
+            return body;
+        }
+
+        String etag = etagOf(body);
+        if (etag == null) {
+            return body;
+        }
+        readMarkers.remember(key, etag, generation);
+
+        response.getHeaders().setETag(etag);
+        response.getHeaders().setCacheControl(ConditionalGetInterceptor.CACHE_CONTROL);
+        if (ConditionalGetInterceptor.matches(httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            readMarkers.countNotModified(false);
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return null;
+        }
+        readMarkers.countFullResponse();
+        return body;
+    }
+
+    // Quoted, base64url-encoded first 16 bytes of the SHA-256 of the JSON body
+    private String etagOf(Object body) {
+        try {
+            byte[] json = body instanceof String text ? text.getBytes(StandardCharsets.UTF_8) : objectMapper.writeValueAsBytes(body);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            // Serve the response without an ETag; the message converter will report real problems
+            return null;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.project.backend_capstone.configs;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.project.backend_capstone.repository.UnitOfWork;
+import com.project.backend_capstone.utils.VirtualThreads;
+
+@Configuration
+public class ExecutorConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorConfig.class);
+
+    // Bounded pool for issuing independent DynamoDB requests in parallel. With virtual threads
+    // switched on (and a runtime that has them) every request gets its own virtual thread instead,
+    // still limited to the same number running at once, so a large fan-out can't swamp the HTTP
+    // client's connection pool.
+    @Bean(name = "dynamoFanOutExecutor", destroyMethod = "shutdown")
+    public ExecutorService dynamoFanOutExecutor(@Value("${app.dynamodb.fan-out-threads:16}") int threads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        return requestScopedPool("dynamo-fan-out-", threads, virtualThreads);
+    }
+
+    // Lookups that plan an approval. Kept apart from the fan-out pool because the plan waits for them
+    // while itself possibly running on a fan-out thread (e.g. inside a TaskScope fork), and a pool
+    // that waits on its own tasks can deadlock once every thread is doing so.
+    @Bean(name = "approvalExecutor", destroyMethod = "shutdown")
+    public ExecutorService approvalExecutor(@Value("${app.approval.lookup-threads:8}") int threads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        return requestScopedPool("approval-", threads, virtualThreads);
+    }
+
+    private static ExecutorService requestScopedPool(String namePrefix, int threads, boolean virtualThreads) {
+        if (virtualThreads) {
+            ExecutorService virtual = VirtualThreads.newBoundedPerTaskExecutor(namePrefix, threads).orElse(null);
+            if (virtual != null) {
+                return UnitOfWork.propagating(virtual);
+            }
+            logger.warn("Virtual threads requested but not available on Java {}; using {} platform threads",
+                    Runtime.version().feature(), threads);
+        }
+
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        // Tasks count towards (and share the memo of) the request that issued them
+        return UnitOfWork.propagating(Executors.newFixedThreadPool(threads, threadFactory));
+    }
+
+    // Workers for parallel segmented scans. Kept apart from the fan-out pool because a scan worker
+    // blocks while its consumer is behind, which must not starve short fan-out requests. Like the
+    // other pools, its calls count towards the request that started the scan.
+    @Bean(name = "parallelScanExecutor", destroyMethod = "shutdown")
+    public ExecutorService parallelScanExecutor(@Value("${app.dynamodb.scan.threads:8}") int threads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "parallel-scan-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return UnitOfWork.propagating(Executors.newFixedThreadPool(threads, threadFactory));
+    }
+}
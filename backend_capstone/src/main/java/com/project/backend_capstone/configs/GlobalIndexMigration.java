@@ -0,0 +1,125 @@
+package com.project.backend_capstone.configs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeDefinition;
+import com.amazonaws.services.dynamodbv2.model.BillingMode;
+import com.amazonaws.services.dynamodbv2.model.CreateGlobalSecondaryIndexAction;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndexDescription;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndexUpdate;
+import com.amazonaws.services.dynamodbv2.model.IndexStatus;
+import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
+import com.amazonaws.services.dynamodbv2.model.KeyType;
+import com.amazonaws.services.dynamodbv2.model.Projection;
+import com.amazonaws.services.dynamodbv2.model.ProjectionType;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughputDescription;
+import com.amazonaws.services.dynamodbv2.model.ScalarAttributeType;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import com.amazonaws.services.dynamodbv2.model.UpdateTableRequest;
+
+// Adds a string-keyed GSI to an existing table if it is missing. DynamoDB backfills the index from
+// the existing items on its own; onIndexReady is called once it is ACTIVE and backfilled, and until
+// then lookups keep using their scan fallback.
+public abstract class GlobalIndexMigration implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(GlobalIndexMigration.class);
+
+    private final AmazonDynamoDB amazonDynamoDB;
+    private final String tableName;
+    private final String indexName;
+    private final String hashKeyAttribute;
+    private final boolean enabled;
+    private final long pollIntervalMs;
+
+    protected GlobalIndexMigration(AmazonDynamoDB amazonDynamoDB, String tableName, String indexName,
+            String hashKeyAttribute, boolean enabled, long pollIntervalMs) {
+        this.amazonDynamoDB = amazonDynamoDB;
+        this.tableName = tableName;
+        this.indexName = indexName;
+        this.hashKeyAttribute = hashKeyAttribute;
+        this.enabled = enabled;
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    // Switch lookups over to the index
+    protected abstract void onIndexReady();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            logger.info("{} migration disabled; lookups on {} will scan the table", indexName, tableName);
+            return;
+        }
+
+        // Backfilling can take a while on a large table, so don't hold up startup
+        Thread migration = new Thread(this::migrate, indexName + "-migration");
+        migration.setDaemon(true);
+        migration.start();
+    }
+
+    private void migrate() {
+        try {
+            TableDescription table = amazonDynamoDB.describeTable(tableName).getTable();
+            if (findIndex(table) == null) {
+                createIndex(table);
+            }
+
+            while (!isIndexActive()) {
+                logger.info("Waiting for {} on {} to finish backfilling", indexName, tableName);
+                Thread.sleep(pollIntervalMs);
+            }
+
+            onIndexReady();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("{} migration failed; lookups on {} will keep scanning: {}", indexName, tableName,
+                    e.getMessage());
+        }
+    }
+
+    private void createIndex(TableDescription table) {
+        logger.info("Creating {} on {}", indexName, tableName);
+
+        CreateGlobalSecondaryIndexAction createIndex = new CreateGlobalSecondaryIndexAction()
+                .withIndexName(indexName)
+                .withKeySchema(new KeySchemaElement(hashKeyAttribute, KeyType.HASH))
+                // Project everything so a lookup needs no follow-up read of the base table
+                .withProjection(new Projection().withProjectionType(ProjectionType.ALL));
+
+        // Provisioned tables need capacity for the new index too; on-demand tables must not set it
+        boolean onDemand = table.getBillingModeSummary() != null
+                && BillingMode.PAY_PER_REQUEST.toString().equals(table.getBillingModeSummary().getBillingMode());
+        if (!onDemand) {
+            ProvisionedThroughputDescription throughput = table.getProvisionedThroughput();
+            createIndex.withProvisionedThroughput(new ProvisionedThroughput(
+                    throughput.getReadCapacityUnits(), throughput.getWriteCapacityUnits()));
+        }
+
+        amazonDynamoDB.updateTable(new UpdateTableRequest()
+                .withTableName(tableName)
+                .withAttributeDefinitions(new AttributeDefinition(hashKeyAttribute, ScalarAttributeType.S))
+                .withGlobalSecondaryIndexUpdates(new GlobalSecondaryIndexUpdate().withCreate(createIndex)));
+    }
+
+    private boolean isIndexActive() {
+        GlobalSecondaryIndexDescription index = findIndex(amazonDynamoDB.describeTable(tableName).getTable());
+        return index != null
+                && IndexStatus.ACTIVE.toString().equals(index.getIndexStatus())
+                && !Boolean.TRUE.equals(index.getBackfilling());
+    }
+
+    private GlobalSecondaryIndexDescription findIndex(TableDescription table) {
+        if (table.getGlobalSecondaryIndexes() == null) {
+            return null;
+        }
+        return table.getGlobalSecondaryIndexes().stream()
+                .filter(index -> indexName.equals(index.getIndexName()))
+                .findFirst()
+                .orElse(null);
+    }
+}
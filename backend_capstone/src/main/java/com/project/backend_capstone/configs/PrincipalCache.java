@@ -0,0 +1,130 @@
+package com.project.backend_capstone.configs;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+// Bounded, TTL-based cache of authenticated principals keyed by (username, token issue time),
+// so AuthTokenFilter doesn't hit the Users table on every request
+@Component
+public class PrincipalCache {
+
+    private record PrincipalKey(String username, long issuedAtMillis) {
+    }
+
+    private record CachedPrincipal(UserDetails userDetails, long expiresAtNanos) {
+    }
+
+    @Value("${app.auth.principal-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.auth.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.auth.principal-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    // Whether a token's "roles" claim is enough to authenticate without touching the store. Only
+    // tokens issued within ttl-ms are trusted this way: revocations are local to this node, so the
+    // TTL is what bounds how long another node keeps honouring roles that were taken away.
+    @Value("${app.auth.trust-token-roles:false}")
+    private boolean trustTokenRoles;
+
+    @Value("${spring.app.jwtExpirationMs}")
+    private long jwtExpirationMs;
+
+    // Access-ordered so the least recently used principal is evicted first
+    private final LinkedHashMap<PrincipalKey, CachedPrincipal> principals =
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<PrincipalKey, CachedPrincipal> eldest) {
+                    if (size() > maxSize) {
+                        evictions.incrementAndGet();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+
+    // Username -> time its roles last changed; tokens issued before then can't be trusted
+    private final Map<String, Long> revokedAt = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong claimHits = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Resolve the principal for a verified token, loading from the store only when needed
+    public UserDetails resolve(String username, long issuedAtMillis, Collection<String> tokenRoles,
+            Supplier<UserDetails> loader) {
+        if (!enabled) {
+            misses.incrementAndGet();
+            return loader.get();
+        }
+
+        if (trustTokenRoles && tokenRoles != null && !tokenRoles.isEmpty()
+                && System.currentTimeMillis() - issuedAtMillis <= ttlMs
+                && issuedAtMillis > revokedAt.getOrDefault(username, Long.MIN_VALUE)) {
+            claimHits.incrementAndGet();
+            return User.withUsername(username)
+                    .password("")
+                    .authorities(tokenRoles.stream().map(SimpleGrantedAuthority::new).toList())
+                    .build();
+        }
+
+        PrincipalKey key = new PrincipalKey(username, issuedAtMillis);
+        long now = System.nanoTime();
+        synchronized (principals) {
+            CachedPrincipal cached = principals.get(key);
+            if (cached != null && cached.expiresAtNanos() - now > 0) {
+                hits.incrementAndGet();
+                return cached.userDetails();
+            }
+        }
+
+        misses.incrementAndGet();
+        UserDetails userDetails = loader.get();
+        synchronized (principals) {
+            principals.put(key, new CachedPrincipal(userDetails, now + TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+        }
+        return userDetails;
+    }
+
+    // Drop every cached principal for a user and stop trusting role claims in their older tokens
+    public void invalidate(String username) {
+        long now = System.currentTimeMillis();
+        revokedAt.put(username, now);
+        // Older revocations stop mattering once every token issued before them has expired
+        revokedAt.values().removeIf(time -> now - time > jwtExpirationMs);
+
+        synchronized (principals) {
+            principals.keySet().removeIf(key -> key.username().equals(username));
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        int size;
+        synchronized (principals) {
+            size = principals.size();
+        }
+        return Map.of(
+                "enabled", enabled,
+                "size", size,
+                "maxSize", maxSize,
+                "hits", hits.get(),
+                "misses", misses.get(),
+                "claimHits", claimHits.get(),
+                "evictions", evictions.get());
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.project.backend_capstone.configs;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Node-local record of the ETag last served for each read (request URI + query + user), so a
+// conditional GET whose If-None-Match still matches can be answered 304 without reading DynamoDB.
+//
+// A marker is trusted only while no write request has run on this node since it was taken, and
+// for at most ttl-ms (which bounds how long writes made on other nodes can go unnoticed).
+@Component
+public class ReadMarkers {
+
+    private record Marker(String etag, long writeGeneration, long expiresAtNanos) {
+    }
+
+    @Value("${app.http.etag-marker.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.http.etag-marker.ttl-ms:5000}")
+    private long ttlMs;
+
+    // Access-ordered so the least recently used marker is evicted first
+    private final LinkedHashMap<String, Marker> markers = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Marker> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    // Bumped before and after every write request
+    private final AtomicLong writeGeneration = new AtomicLong();
+    private final AtomicInteger writesInFlight = new AtomicInteger();
+
+    private final AtomicLong notModifiedWithoutRead = new AtomicLong();
+    private final AtomicLong notModifiedAfterRead = new AtomicLong();
+    private final AtomicLong fullResponses = new AtomicLong();
+
+    // ETag that can be trusted for this read right now, or null
+    public String currentEtag(String key) {
+        Marker marker;
+        synchronized (markers) {
+            marker = markers.get(key);
+        }
+        if (marker == null || marker.writeGeneration() != writeGeneration.get()
+                || marker.expiresAtNanos() - System.nanoTime() < 0) {
+            return null;
+        }
+        return marker.etag();
+    }
+
+    // Generation to pass to remember() for a read that is about to start
+    public long beginRead() {
+        return writeGeneration.get();
+    }
+
+    // Remember the ETag a read produced, unless a write started or ran while it was reading
+    public void remember(String key, String etag, long generationAtStart) {
+        if (writesInFlight.get() > 0 || writeGeneration.get() != generationAtStart) {
+            return;
+        }
+        Marker marker = new Marker(etag, generationAtStart,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMs));
+        synchronized (markers) {
+            markers.put(key, marker);
+        }
+    }
+
+    public void writeStarted() {
+        writesInFlight.incrementAndGet();
+        writeGeneration.incrementAndGet();
+    }
+
+    public void writeFinished() {
+        writeGeneration.incrementAndGet();
+        writesInFlight.decrementAndGet();
+    }
+
+    public void countNotModified(boolean readSkipped) {
+        (readSkipped ? notModifiedWithoutRead : notModifiedAfterRead).incrementAndGet();
+    }
+
+    public void countFullResponse() {
+        fullResponses.incrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        int size;
+        synchronized (markers) {
+            size = markers.size();
+        }
+        return Map.of(
+                "size", size,
+                "maxSize", maxSize,
+                "ttlMs", ttlMs,
+                "writeGeneration", writeGeneration.get(),
+                "notModifiedWithoutRead", notModifiedWithoutRead.get(),
+                "notModifiedAfterRead", notModifiedAfterRead.get(),
+                "fullResponses", fullResponses.get());
+    }
+}
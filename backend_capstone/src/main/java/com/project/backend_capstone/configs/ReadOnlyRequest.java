@@ -0,0 +1,13 @@
+package com.project.backend_capstone.configs;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a non-GET handler that changes nothing the conditional read endpoints serve (a POST that only
+// carries a request body, a login), so ConditionalGetInterceptor leaves the ETag markers alone
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnlyRequest {
+}
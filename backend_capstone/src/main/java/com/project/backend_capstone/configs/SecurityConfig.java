@@ -20,7 +20,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.project.backend_capstone.repository.UserRepository;
 import com.project.backend_capstone.service.DynamoUserDetailsService;
 
 @Configuration
@@ -28,11 +28,11 @@ import com.project.backend_capstone.service.DynamoUserDetailsService;
 @EnableMethodSecurity
 public class SecurityConfig {
 
-    private final AmazonDynamoDB amazonDynamoDB;
+    private final UserRepository userRepository;
 
     @Autowired
-    public SecurityConfig(AmazonDynamoDB amazonDynamoDB) {
-        this.amazonDynamoDB = amazonDynamoDB;
+    public SecurityConfig(UserRepository userRepository) {
+        this.userRepository = userRepository;
     }
 
     @Value("${frontend.url}")
@@ -86,7 +86,7 @@ public class SecurityConfig {
 
     @Bean
     public UserDetailsService userDetailsService() {
-        return new DynamoUserDetailsService(amazonDynamoDB);
+        return new DynamoUserDetailsService(userRepository);
     }
 
     @Bean
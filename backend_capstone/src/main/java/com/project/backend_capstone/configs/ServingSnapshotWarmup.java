@@ -0,0 +1,29 @@
+package com.project.backend_capstone.configs;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.project.backend_capstone.service.ConfigServingService;
+
+// Starts following the change log and loading every category into the serving snapshot once the
+// application is up. Both run in the background; /api/ready reports when the load is done.
+@Component
+public class ServingSnapshotWarmup implements ApplicationRunner {
+
+    @Autowired
+    private ConfigServingService configServingService;
+
+    @Value("${app.serving.warm-load:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        configServingService.followChanges();
+        if (enabled) {
+            configServingService.warmLoad();
+        }
+    }
+}
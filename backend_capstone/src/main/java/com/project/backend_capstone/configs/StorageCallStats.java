@@ -0,0 +1,55 @@
+package com.project.backend_capstone.configs;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.project.backend_capstone.repository.UnitOfWork;
+
+// DynamoDB calls per endpoint since startup, from each request's unit of work
+@Component
+public class StorageCallStats {
+
+    private final Map<String, EndpointStats> byEndpoint = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, UnitOfWork unitOfWork) {
+        byEndpoint.computeIfAbsent(endpoint, key -> new EndpointStats()).add(unitOfWork);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new TreeMap<>();
+        byEndpoint.forEach((endpoint, endpointStats) -> stats.put(endpoint, endpointStats.snapshot()));
+        return stats;
+    }
+
+    private static class EndpointStats {
+        private long requests;
+        private long calls;
+        private long maxCalls;
+        private long memoHits;
+        private final Map<String, Long> callsByOperation = new TreeMap<>();
+
+        synchronized void add(UnitOfWork unitOfWork) {
+            requests++;
+            calls += unitOfWork.getCalls();
+            maxCalls = Math.max(maxCalls, unitOfWork.getCalls());
+            memoHits += unitOfWork.getMemoHits();
+            unitOfWork.getCallsByOperation().forEach((operation, count) -> callsByOperation.merge(operation,
+                    (long) count, Long::sum));
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("requests", requests);
+            snapshot.put("calls", calls);
+            snapshot.put("callsPerRequest", requests == 0 ? 0.0 : (double) calls / requests);
+            snapshot.put("maxCallsPerRequest", maxCalls);
+            snapshot.put("memoHits", memoHits);
+            snapshot.put("callsByOperation", new TreeMap<>(callsByOperation));
+            return snapshot;
+        }
+    }
+}
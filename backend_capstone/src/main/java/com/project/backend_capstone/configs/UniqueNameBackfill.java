@@ -0,0 +1,67 @@
+package com.project.backend_capstone.configs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.project.backend_capstone.model.Category;
+import com.project.backend_capstone.model.Configuration;
+import com.project.backend_capstone.model.UserGroup;
+import com.project.backend_capstone.repository.UniqueNameRepository;
+
+// Claims the names of existing categories, configurations and user groups until a backfill has
+// completed. Completion is recorded in the UniqueNames table itself, so a backfill that failed (on any
+// node) runs again on the next startup; creates are refused until then. Names that were already
+// duplicated (ignoring case) before the index existed keep working; only the first one seen gets the
+// claim, and the rest are logged.
+@Component
+public class UniqueNameBackfill implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(UniqueNameBackfill.class);
+
+    @Autowired
+    private DynamoDBMapper dynamoDBMapper;
+
+    @Autowired
+    private UniqueNameRepository uniqueNameRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            if (uniqueNameRepository.isBackfilled()) {
+                return;
+            }
+            int claimed = 0;
+            for (Category category : dynamoDBMapper.scan(Category.class, new DynamoDBScanExpression())) {
+                claimed += claim(UniqueNameRepository.CATEGORY, category.getName(), category.getCategoryId());
+            }
+            for (Configuration config : dynamoDBMapper.scan(Configuration.class, new DynamoDBScanExpression())) {
+                claimed += claim(UniqueNameRepository.configurationScope(config.getCategoryId()), config.getName(),
+                        config.getConfigurationId());
+            }
+            for (UserGroup userGroup : dynamoDBMapper.scan(UserGroup.class, new DynamoDBScanExpression())) {
+                claimed += claim(UniqueNameRepository.USER_GROUP, userGroup.getUser_group_name(),
+                        userGroup.getUser_group_id());
+            }
+            uniqueNameRepository.markBackfilled();
+            logger.info("Backfilled {} unique names", claimed);
+        } catch (Exception e) {
+            logger.error("Unique name backfill failed: {}", e.getMessage());
+        }
+    }
+
+    private int claim(String scope, String name, String ownerId) {
+        if (name == null) {
+            return 0;
+        }
+        if (!uniqueNameRepository.claimExisting(scope, name, ownerId)) {
+            logger.warn("Duplicate name in {} left unclaimed: {} ({})", scope, name, ownerId);
+            return 0;
+        }
+        return 1;
+    }
+}
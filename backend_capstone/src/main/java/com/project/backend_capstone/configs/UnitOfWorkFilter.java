@@ -0,0 +1,56 @@
+package com.project.backend_capstone.configs;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.project.backend_capstone.repository.UnitOfWork;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Runs each request in its own UnitOfWork (ahead of security, so the principal lookup counts too)
+// and records its DynamoDB calls against the matched endpoint pattern
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class UnitOfWorkFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private StorageCallStats storageCallStats;
+
+    @Value("${app.unit-of-work.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.unit-of-work.max-cached-items:5000}")
+    private int maxCachedItems;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        UnitOfWork unitOfWork = UnitOfWork.begin(maxCachedItems);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            unitOfWork.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            storageCallStats.record(request.getMethod() + " " + (pattern != null ? pattern : "(unmatched)"),
+                    unitOfWork);
+        }
+    }
+}
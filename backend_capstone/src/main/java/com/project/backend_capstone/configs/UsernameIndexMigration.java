@@ -0,0 +1,29 @@
+package com.project.backend_capstone.configs;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.project.backend_capstone.model.User;
+import com.project.backend_capstone.repository.UserRepository;
+
+// Adds the username-index GSI to the Users table if it is missing; user lookups keep using a scan
+// until the backfill finishes.
+@Component
+public class UsernameIndexMigration extends GlobalIndexMigration {
+    private final UserRepository userRepository;
+
+    @Autowired
+    public UsernameIndexMigration(AmazonDynamoDB amazonDynamoDB, UserRepository userRepository,
+            @Value("${app.migrations.username-index.enabled:true}") boolean enabled,
+            @Value("${app.migrations.username-index.poll-interval-ms:10000}") long pollIntervalMs) {
+        super(amazonDynamoDB, "Users", User.USERNAME_INDEX, "username", enabled, pollIntervalMs);
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    protected void onIndexReady() {
+        userRepository.setUsernameIndexReady(true);
+    }
+}
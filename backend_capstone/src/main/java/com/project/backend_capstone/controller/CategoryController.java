@@ -1,17 +1,25 @@
 package com.project.backend_capstone.controller;
 
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.project.backend_capstone.service.CategoryService;
 import com.project.backend_capstone.dto.AddCategoryRequest;
+import com.project.backend_capstone.dto.ApprovalProgress;
+import com.project.backend_capstone.dto.PageResponse;
+import com.project.backend_capstone.dto.RawItem;
 import com.project.backend_capstone.dto.UpdateCategoryRequest;
 import com.project.backend_capstone.model.Category;
+import com.project.backend_capstone.utils.JsonItemWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @RestController
 public class CategoryController {
@@ -59,16 +67,32 @@ public class CategoryController {
         }
     }
 
-    // Get ALL raw categories without caring about the model - to be deleted later
+    // Get ALL raw categories without caring about the model - to be deleted later, streamed as a JSON array
+    // (or newline-delimited JSON with format=ndjson) while the table is being scanned
     @GetMapping("/api/allcategories")
-    public ResponseEntity<List<Map<String, Object>>> getALLCategories() {
+    public ResponseEntity<StreamingResponseBody> getALLCategories(@RequestParam(defaultValue = "json") String format) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        StreamingResponseBody body = out -> {
+            try (Stream<Map<String, AttributeValue>> items = categoryService.streamALLCategories()) {
+                JsonItemWriter.writeRawItems(items, out, ndjson);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // Get one page of ALL raw categories
+    @GetMapping("/api/allcategories/page")
+    public ResponseEntity<PageResponse<RawItem>> getALLCategoriesPage(
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = "100") int limit) {
         try {
-            List<Map<String, Object>> categories = categoryService.getALLCategories();
-            return ResponseEntity.ok(categories);
+            return ResponseEntity.ok(categoryService.getALLCategoriesPage(pageToken, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(List.of(Map.of(
-                            "error", "Error getting all categories: " + e.getMessage())));
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
 
@@ -86,6 +110,16 @@ public class CategoryController {
         }
     }
 
+    // Get the progress of the latest approval of a category
+    @GetMapping("/api/approveCategory/progress")
+    public ResponseEntity<ApprovalProgress> getApprovalProgress(@RequestParam String categoryId) {
+        ApprovalProgress progress = categoryService.getApprovalProgress(categoryId);
+        if (progress == null) {
+            return ResponseEntity.status(404).body(null);
+        }
+        return ResponseEntity.ok(progress);
+    }
+
     // Update a category
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     @PutMapping("/api/categories/{categoryId}")
@@ -0,0 +1,35 @@
+package com.project.backend_capstone.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.project.backend_capstone.dto.ChangesResponse;
+import com.project.backend_capstone.service.ChangeLogService;
+
+@RestController
+public class ChangeLogController {
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    // Category, Version, Configuration and VersionConfiguration records changed after a cursor, in
+    // order, for replicating into other caches. Call without "since" to get a starting cursor.
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/api/changes")
+    public ResponseEntity<ChangesResponse> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        try {
+            return ResponseEntity.ok(changeLogService.getChangesSince(since, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.project.backend_capstone.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.project.backend_capstone.configs.ReadOnlyRequest;
+import com.project.backend_capstone.service.ConfigServingService;
+
+// Read-only API for client applications: the currently approved fields of configurations,
+// answered from the in-memory serving snapshot
+@RestController
+@RequestMapping("/api/serve")
+@PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+public class ConfigServingController {
+
+    @Autowired
+    private ConfigServingService configServingService;
+
+    // Approved fields of every configuration in a category, by configuration name
+    @GetMapping("/{categoryId}")
+    public ResponseEntity<Map<String, Map<String, Object>>> getCategory(@PathVariable String categoryId) {
+        try {
+            return ResponseEntity.ok(configServingService.getCategoryFields(categoryId));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
+    // Approved fields of one configuration
+    @GetMapping("/{categoryId}/{name}")
+    public ResponseEntity<Map<String, Object>> getConfiguration(@PathVariable String categoryId,
+            @PathVariable String name) {
+        try {
+            Map<String, Object> fields = configServingService.getConfigurationFields(categoryId, name);
+            if (fields == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+            }
+            return ResponseEntity.ok(fields);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
+    // Approved configuration (with its version number) by configuration ID
+    @GetMapping("/configurations/{configurationId}")
+    public ResponseEntity<ConfigServingService.ServedConfiguration> getConfigurationById(
+            @PathVariable String configurationId) {
+        try {
+            ConfigServingService.ServedConfiguration served = configServingService
+                    .getServedConfigurationById(configurationId);
+            if (served == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+            }
+            return ResponseEntity.ok(served);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
+    // Approved fields of a batch of configurations in a category; names with nothing approved are left out
+    @PostMapping("/{categoryId}/batch")
+    @ReadOnlyRequest
+    public ResponseEntity<Map<String, Map<String, Object>>> getConfigurations(@PathVariable String categoryId,
+            @RequestBody List<String> names) {
+        try {
+            return ResponseEntity.ok(configServingService.getConfigurationFields(categoryId, names));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.project.backend_capstone.controller;
+
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.project.backend_capstone.dto.WatchResponse;
+import com.project.backend_capstone.service.ConfigServingService;
+import com.project.backend_capstone.service.ConfigWatchService;
+import com.project.backend_capstone.service.ConfigWatchService.WatchFilter;
+
+// Watch API for client applications: get told when the approved version of a configuration changes
+// instead of re-polling. Pass the sequence of the last event seen as "since" to resume without gaps.
+@RestController
+@RequestMapping("/api/watch")
+@PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+public class ConfigWatchController {
+
+    @Autowired
+    private ConfigWatchService configWatchService;
+
+    @Autowired
+    private ConfigServingService configServingService;
+
+    // Long-poll: returns as soon as a watched configuration changes, or empty after the timeout
+    @GetMapping
+    public DeferredResult<WatchResponse> poll(
+            @RequestParam List<String> categoryId,
+            @RequestParam(required = false) List<String> configurationId,
+            @RequestParam(required = false) Long since) {
+        WatchFilter filter = subscribe(categoryId, configurationId);
+        try {
+            return configWatchService.poll(filter, since);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    // Server-Sent Events: streams every change to the watched configurations ("change" events).
+    // Reconnecting clients can send Last-Event-ID instead of "since".
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam List<String> categoryId,
+            @RequestParam(required = false) List<String> configurationId,
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        WatchFilter filter = subscribe(categoryId, configurationId);
+        try {
+            return configWatchService.stream(filter, since != null ? since : lastEventId);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    // Changes are detected against the serving snapshot, so the watched categories must be loaded
+    private WatchFilter subscribe(List<String> categoryIds, List<String> configurationIds) {
+        try {
+            categoryIds.forEach(configServingService::getCategoryFields);
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error loading categories", e);
+        }
+        return new WatchFilter(Set.copyOf(categoryIds),
+                configurationIds != null ? Set.copyOf(configurationIds) : Set.of());
+    }
+}
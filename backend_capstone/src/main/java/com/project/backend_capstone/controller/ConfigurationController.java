@@ -16,8 +16,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.project.backend_capstone.dto.AddConfigurationRequest;
+import com.project.backend_capstone.dto.RetireConfigurationsRequest;
+import com.project.backend_capstone.dto.RetireResult;
 import com.project.backend_capstone.dto.UpdateConfigurationRequest;
 import com.project.backend_capstone.model.Configuration;
+import com.project.backend_capstone.schema.SchemaValidationException;
 import com.project.backend_capstone.service.ConfigurationService;
 
 @RestController
@@ -34,6 +37,9 @@ public class ConfigurationController {
             // Call the service to add the configuration using the configRequest
             configurationService.addConfiguration(request);
             return ResponseEntity.ok("Configuration added successfully!");
+        } catch (SchemaValidationException e) {
+            // The fields don't match the category version's schema
+            return ResponseEntity.status(HttpStatus.SC_BAD_REQUEST).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.SC_INTERNAL_SERVER_ERROR)
                     .body("Error adding configuration: " + e.getMessage());
@@ -100,6 +106,9 @@ public class ConfigurationController {
             // Call the service method to update the configuration
             configurationService.updateConfiguration(updateRequest);
             return ResponseEntity.ok("Configuration updated successfully!");
+        } catch (SchemaValidationException e) {
+            // The fields don't match the category version's schema
+            return ResponseEntity.status(HttpStatus.SC_BAD_REQUEST).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.SC_INTERNAL_SERVER_ERROR)
                     .body("Error updating configuration: " + e.getMessage());
@@ -119,6 +128,29 @@ public class ConfigurationController {
         }
     }
 
+    // Retire many configurations (all versions of each) at once
+    @PutMapping("/retireConfigurations")
+    public ResponseEntity<List<RetireResult>> retireConfigurations(
+            @RequestBody RetireConfigurationsRequest request) {
+        try {
+            return ResponseEntity.ok(configurationService.retireConfigurations(request.getConfigurationIds()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.SC_INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
+    // Retire every configuration of one category version
+    @PutMapping("/retireCategoryVersion")
+    public ResponseEntity<List<RetireResult>> retireCategoryVersion(
+            @RequestParam String categoryId,
+            @RequestParam Integer versionNum) {
+        try {
+            return ResponseEntity.ok(configurationService.retireCategoryVersion(categoryId, versionNum));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.SC_INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
     // Delete a configuration: For testing purposes
     @DeleteMapping("/deleteConfiguration")
     public ResponseEntity<String> deleteConfiguration(
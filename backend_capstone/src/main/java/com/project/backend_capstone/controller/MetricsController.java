@@ -0,0 +1,78 @@
+package com.project.backend_capstone.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.project.backend_capstone.configs.PrincipalCache;
+import com.project.backend_capstone.configs.ReadMarkers;
+import com.project.backend_capstone.configs.StorageCallStats;
+import com.project.backend_capstone.service.ConfigServingService;
+import com.project.backend_capstone.service.ConfigWatchService;
+import com.project.backend_capstone.service.SchemaService;
+
+// Node-local counters for the caches and indexes in this service
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private ReadMarkers readMarkers;
+
+    @Autowired
+    private ConfigServingService configServingService;
+
+    @Autowired
+    private ConfigWatchService configWatchService;
+
+    @Autowired
+    private SchemaService schemaService;
+
+    @Autowired
+    private StorageCallStats storageCallStats;
+
+    // Only admin can read metrics
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/principalCache")
+    public Map<String, Object> getPrincipalCacheStats() {
+        return principalCache.getStats();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/serving")
+    public Map<String, Object> getServingStats() {
+        return configServingService.getStats();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/watch")
+    public Map<String, Object> getWatchStats() {
+        return configWatchService.getStats();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/etags")
+    public Map<String, Object> getETagStats() {
+        return readMarkers.getStats();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/schemas")
+    public Map<String, Object> getSchemaCacheStats() {
+        return schemaService.getStats();
+    }
+
+    // DynamoDB calls and memoized reads per endpoint
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/storageCalls")
+    public Map<String, Object> getStorageCallStats() {
+        return storageCallStats.getStats();
+    }
+}
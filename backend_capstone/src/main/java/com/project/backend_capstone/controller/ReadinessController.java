@@ -0,0 +1,30 @@
+package com.project.backend_capstone.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.project.backend_capstone.service.ConfigServingService;
+
+// Readiness probe for load balancers: 503 until the serving snapshot has been warm-loaded
+@RestController
+public class ReadinessController {
+
+    @Autowired
+    private ConfigServingService configServingService;
+
+    @Value("${app.serving.warm-load:true}")
+    private boolean warmLoadEnabled;
+
+    @GetMapping("/api/ready")
+    public ResponseEntity<Map<String, Object>> ready() {
+        boolean ready = !warmLoadEnabled || configServingService.isReady();
+        return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("ready", ready));
+    }
+}
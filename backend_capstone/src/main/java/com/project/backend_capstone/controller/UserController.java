@@ -23,6 +23,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.project.backend_capstone.configs.ReadOnlyRequest;
 import com.project.backend_capstone.dto.LoginRequest;
 import com.project.backend_capstone.dto.LoginResponse;
 import com.project.backend_capstone.dto.RegisterRequest;
@@ -106,6 +107,7 @@ public class UserController {
     }
 
     @PostMapping("/login")
+    @ReadOnlyRequest
     public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
         Authentication authentication;
         try {
@@ -145,6 +145,19 @@ public class UserGroupController {
     }
 }
 
+    // POST: Rebuild the user -> group -> category access index from the UserGroups table
+    // Only admin can rebuild the index
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/usergroups/rebuildAccessIndex")
+    public ResponseEntity<String> rebuildAccessIndex() {
+        try {
+            int indexed = userGroupService.rebuildMembershipIndex();
+            return ResponseEntity.ok("Access index rebuilt with " + indexed + " memberships.");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to rebuild access index.");
+        }
+    }
+
 @PreAuthorize("hasRole('ADMIN')")
 @DeleteMapping("/usergroups/{user_group_id}/{user_group_name}")
 public ResponseEntity<?> deleteUserGroup(
@@ -2,9 +2,11 @@ package com.project.backend_capstone.controller;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,12 +14,19 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.project.backend_capstone.model.VersionConfiguration;
+import com.project.backend_capstone.schema.SchemaValidationException;
 import com.project.backend_capstone.service.VersionConfigService;
 import com.project.backend_capstone.dto.AddVersionConfigRequest;
+import com.project.backend_capstone.dto.PageResponse;
+import com.project.backend_capstone.dto.RawItem;
 import com.project.backend_capstone.dto.UpdateVersionConfigRequest;
+import com.project.backend_capstone.utils.JsonItemWriter;
 
 @RestController
 public class VersionConfigurationController {
@@ -37,6 +46,9 @@ public class VersionConfigurationController {
                     request.getDescription(),
                     request.getFields());
             return ResponseEntity.ok("Config Version added successfully!");
+        } catch (SchemaValidationException e) {
+            // The fields don't match the category version's schema
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error adding config version: " + e.getMessage());
@@ -49,16 +61,59 @@ public class VersionConfigurationController {
     // return versionConfigService.getAllConfigVersions();
     // }
 
-    // Get all versions of a specific config
+    // Get all versions of a specific config, optionally limited to a version_num range
     @GetMapping("/api/configVersions/{configId}")
-    public List<VersionConfiguration> getConfigVersions(@PathVariable String configId) {
-        return versionConfigService.getConfigVersions(configId);
+    public List<VersionConfiguration> getConfigVersions(@PathVariable String configId,
+            @RequestParam(required = false) Integer fromVersion,
+            @RequestParam(required = false) Integer toVersion) {
+        return versionConfigService.getConfigVersions(configId, fromVersion, toVersion);
     }
 
-    // Get ALL raw config versions without caring about the model
+    // Get one page of a config's version history
+    @GetMapping("/api/configVersions/{configId}/page")
+    public ResponseEntity<PageResponse<VersionConfiguration>> getConfigVersionPage(@PathVariable String configId,
+            @RequestParam(required = false) Integer fromVersion,
+            @RequestParam(required = false) Integer toVersion,
+            @RequestParam(defaultValue = "false") boolean descending,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(versionConfigService.getConfigVersionPage(configId, fromVersion, toVersion,
+                    descending, pageToken, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
+    // Get ALL raw config versions without caring about the model, streamed as a JSON array
+    // (or newline-delimited JSON with format=ndjson) while the table is being scanned
     @GetMapping("/api/allConfigVersions")
-    public List<Map<String, Object>> getALLConfigVersions() {
-        return versionConfigService.getALLConfigVersions();
+    public ResponseEntity<StreamingResponseBody> getALLConfigVersions(@RequestParam(defaultValue = "json") String format) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        StreamingResponseBody body = out -> {
+            try (Stream<Map<String, AttributeValue>> items = versionConfigService.streamALLConfigVersions()) {
+                JsonItemWriter.writeRawItems(items, out, ndjson);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // Get one page of ALL raw config versions
+    @GetMapping("/api/allConfigVersions/page")
+    public ResponseEntity<PageResponse<RawItem>> getALLConfigVersionsPage(
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(versionConfigService.getALLConfigVersionsPage(pageToken, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
     }
 
     // Update a config version
@@ -70,6 +125,9 @@ public class VersionConfigurationController {
         try {
             versionConfigService.updateVersionConfiguration(configId, versionNum, request);
             return ResponseEntity.ok("Config Version updated successfully!");
+        } catch (SchemaValidationException e) {
+            // The fields don't match the category version's schema
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error updating config version: " + e.getMessage());
@@ -2,14 +2,24 @@ package com.project.backend_capstone.controller;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.project.backend_capstone.dto.PageResponse;
+import com.project.backend_capstone.dto.RawItem;
 import com.project.backend_capstone.model.Version;
 import com.project.backend_capstone.service.VersionService;
+import com.project.backend_capstone.utils.JsonItemWriter;
 
 @RestController
 public class VersionController {
@@ -23,15 +33,58 @@ public class VersionController {
         return versionService.getAllVersions();
     }
 
-    // Get all versions of a specific category
+    // Get all versions of a specific category, optionally limited to a version_num range
     @GetMapping("/api/versions/{categoryId}")
-    public List<Version> getAllCategoryVersions(@PathVariable String categoryId) {
-        return versionService.getAllCategoryVersions(categoryId);
+    public List<Version> getAllCategoryVersions(@PathVariable String categoryId,
+            @RequestParam(required = false) Integer fromVersion,
+            @RequestParam(required = false) Integer toVersion) {
+        return versionService.getCategoryVersions(categoryId, fromVersion, toVersion);
     }
 
-    // Get ALL raw versions without caring about the model
+    // Get one page of a category's version history
+    @GetMapping("/api/versions/{categoryId}/page")
+    public ResponseEntity<PageResponse<Version>> getCategoryVersionPage(@PathVariable String categoryId,
+            @RequestParam(required = false) Integer fromVersion,
+            @RequestParam(required = false) Integer toVersion,
+            @RequestParam(defaultValue = "false") boolean descending,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(versionService.getCategoryVersionPage(categoryId, fromVersion, toVersion,
+                    descending, pageToken, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
+    // Get ALL raw versions without caring about the model, streamed as a JSON array
+    // (or newline-delimited JSON with format=ndjson) while the table is being scanned
     @GetMapping("/api/allversions")
-    public List<Map<String, Object>> getALLVersions() {
-        return versionService.getALLVersions();
+    public ResponseEntity<StreamingResponseBody> getALLVersions(@RequestParam(defaultValue = "json") String format) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        StreamingResponseBody body = out -> {
+            try (Stream<Map<String, AttributeValue>> items = versionService.streamALLVersions()) {
+                JsonItemWriter.writeRawItems(items, out, ndjson);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // Get one page of ALL raw versions
+    @GetMapping("/api/allversions/page")
+    public ResponseEntity<PageResponse<RawItem>> getALLVersionsPage(
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(versionService.getALLVersionsPage(pageToken, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
     }
 }
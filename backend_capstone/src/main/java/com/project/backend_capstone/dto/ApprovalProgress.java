@@ -0,0 +1,32 @@
+package com.project.backend_capstone.dto;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Progress of one category approval cascade, readable while it runs
+@Getter
+@Setter
+public class ApprovalProgress {
+    private final String categoryId;
+    private final String startedAt;
+    private volatile String phase = "Planning";
+    private volatile int totalChanges;
+    private final AtomicInteger completedChanges = new AtomicInteger();
+    private volatile String finishedAt;
+    private volatile String error;
+
+    public ApprovalProgress(String categoryId, String startedAt) {
+        this.categoryId = categoryId;
+        this.startedAt = startedAt;
+    }
+
+    public int getCompletedChanges() {
+        return completedChanges.get();
+    }
+
+    public void addCompleted(int changes) {
+        completedChanges.addAndGet(changes);
+    }
+}
@@ -0,0 +1,20 @@
+package com.project.backend_capstone.dto;
+
+import lombok.*;
+
+// One changed item in a /api/changes response
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeRecord {
+    private String cursor;
+    // Category, Version, Configuration or VersionConfiguration
+    private String entityType;
+    // "Upsert" or "Delete"
+    private String operation;
+    private String hashKey;
+    private String rangeKey;
+    // Current state of the item; null when it has been deleted
+    private Object record;
+}
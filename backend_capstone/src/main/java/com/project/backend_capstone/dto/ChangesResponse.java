@@ -0,0 +1,19 @@
+package com.project.backend_capstone.dto;
+
+import java.util.List;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangesResponse {
+    private List<ChangeRecord> changes;
+    // Pass back as "since" to get the changes after these
+    private String cursor;
+    // More changes are ready right away; call again with the new cursor
+    private boolean hasMore;
+    // The given cursor is older than the change log keeps; reload everything, then follow from cursor
+    private boolean resync;
+}
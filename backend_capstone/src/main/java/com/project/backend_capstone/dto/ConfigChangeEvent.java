@@ -0,0 +1,19 @@
+package com.project.backend_capstone.dto;
+
+import lombok.*;
+
+// A change to the approved version of one configuration, as pushed to watchers
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfigChangeEvent {
+    // Node-local, increasing; pass the last one seen back as "since" to resume
+    private long sequence;
+    private String categoryId;
+    private String configurationId;
+    private String name;
+    // Newly approved version_num, or null when nothing is approved any more (e.g. retired)
+    private Integer versionNum;
+    private String changedAt;
+}
@@ -0,0 +1,15 @@
+package com.project.backend_capstone.dto;
+
+import java.util.List;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResponse<T> {
+    private List<T> items;
+    // Pass back as pageToken to get the next page; null on the last page
+    private String nextPageToken;
+}
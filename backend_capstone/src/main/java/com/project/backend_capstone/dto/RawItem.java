@@ -0,0 +1,29 @@
+package com.project.backend_capstone.dto;
+
+import java.io.IOException;
+import java.util.Map;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.project.backend_capstone.utils.AttributeValues;
+
+import lombok.*;
+
+// A raw DynamoDB item in a response body, serialized as plain JSON by AttributeValues
+@Getter
+@AllArgsConstructor
+@JsonSerialize(using = RawItem.Serializer.class)
+public class RawItem {
+    private Map<String, AttributeValue> attributes;
+
+    public static class Serializer extends JsonSerializer<RawItem> {
+        @Override
+        public void serialize(RawItem item, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            AttributeValues.writeItem(item.getAttributes(), generator);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.project.backend_capstone.dto;
+
+import java.util.List;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetireConfigurationsRequest {
+    private List<String> configurationIds;
+}
@@ -0,0 +1,20 @@
+package com.project.backend_capstone.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetireResult {
+    public static final String RETIRED = "Retired";
+    public static final String NOT_FOUND = "Not Found";
+    public static final String FAILED = "Failed";
+
+    private String configurationId;
+    // "Retired", "Not Found" or "Failed"
+    private String result;
+    private int retiredVersions;
+    private int alreadyRetiredVersions;
+    private String error;
+}
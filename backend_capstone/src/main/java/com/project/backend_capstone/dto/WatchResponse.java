@@ -0,0 +1,18 @@
+package com.project.backend_capstone.dto;
+
+import java.util.List;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchResponse {
+    // Latest sequence this response covers; pass it back as "since" on the next watch
+    private long sequence;
+    // True when the changes since the given sequence are no longer known on this node;
+    // re-read the serving API and watch again from the returned sequence
+    private boolean resync;
+    private List<ConfigChangeEvent> events;
+}
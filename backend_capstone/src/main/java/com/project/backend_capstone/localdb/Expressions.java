@@ -0,0 +1,614 @@
+package com.project.backend_capstone.localdb;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+// Parser and evaluator for DynamoDB expressions (condition, filter, key condition, update and
+// projection expressions), covering the grammar from the DynamoDB developer guide: comparators,
+// BETWEEN, IN, AND/OR/NOT, the condition functions, size(), SET/REMOVE/ADD/DELETE with
+// if_not_exists() and list_append(), and nested document paths
+final class Expressions {
+
+    private static final Set<String> CONDITION_FUNCTIONS = Set.of(
+            "attribute_exists", "attribute_not_exists", "attribute_type", "begins_with", "contains");
+
+    private Expressions() {
+    }
+
+    // Document path: attribute names (String) and list indexes (Integer)
+    record Path(List<Object> elements) {
+        String topName() {
+            return (String) elements.get(0);
+        }
+    }
+
+    interface Operand {
+        // Value of the operand for the item, or null when it refers to a missing attribute
+        AttributeValue evaluate(Map<String, AttributeValue> item);
+    }
+
+    record PathOperand(Path path) implements Operand {
+        @Override
+        public AttributeValue evaluate(Map<String, AttributeValue> item) {
+            return resolve(item, path);
+        }
+    }
+
+    record ValueOperand(AttributeValue value) implements Operand {
+        @Override
+        public AttributeValue evaluate(Map<String, AttributeValue> item) {
+            return value;
+        }
+    }
+
+    record Comparison(Operand left, String comparator, Operand right) implements Predicate<Map<String, AttributeValue>> {
+        @Override
+        public boolean test(Map<String, AttributeValue> item) {
+            return compare(left.evaluate(item), comparator, right.evaluate(item));
+        }
+    }
+
+    record And(Predicate<Map<String, AttributeValue>> left, Predicate<Map<String, AttributeValue>> right)
+            implements Predicate<Map<String, AttributeValue>> {
+        @Override
+        public boolean test(Map<String, AttributeValue> item) {
+            return left.test(item) && right.test(item);
+        }
+    }
+
+    private record Action(String kind, Path path, Operand value) {
+    }
+
+    // A parsed update expression; apply returns the updated copy and leaves the input untouched
+    static final class Update {
+        private final List<Action> actions;
+
+        private Update(List<Action> actions) {
+            this.actions = actions;
+        }
+
+        Map<String, AttributeValue> apply(Map<String, AttributeValue> original) {
+            // Every operand is evaluated against the item as it was before the update
+            List<AttributeValue> operands = new ArrayList<>(actions.size());
+            for (Action action : actions) {
+                AttributeValue operand = action.value() != null ? action.value().evaluate(original) : null;
+                if (action.value() != null && operand == null) {
+                    throw LocalDynamoDB.validation(
+                            "The provided expression refers to an attribute that does not exist in the item");
+                }
+                operands.add(operand);
+            }
+
+            Map<String, AttributeValue> item = LocalValues.copy(original);
+            for (int i = 0; i < actions.size(); i++) {
+                Action action = actions.get(i);
+                AttributeValue operand = operands.get(i);
+                AttributeValue existing = resolve(item, action.path());
+                switch (action.kind()) {
+                    case "SET":
+                        set(item, action.path(), LocalValues.copy(operand));
+                        break;
+                    case "REMOVE":
+                        remove(item, action.path());
+                        break;
+                    case "ADD":
+                        if (existing == null) {
+                            set(item, action.path(), LocalValues.copy(operand));
+                        } else if (existing.getN() != null) {
+                            set(item, action.path(), new AttributeValue().withN(
+                                    LocalValues.number(existing).add(LocalValues.number(operand)).toString()));
+                        } else {
+                            set(item, action.path(), LocalValues.combineSets(existing, operand, true));
+                        }
+                        break;
+                    default: // DELETE
+                        if (existing != null) {
+                            AttributeValue remaining = LocalValues.combineSets(existing, operand, false);
+                            if (remaining == null) {
+                                remove(item, action.path());
+                            } else {
+                                set(item, action.path(), remaining);
+                            }
+                        }
+                        break;
+                }
+            }
+            return item;
+        }
+    }
+
+    static Predicate<Map<String, AttributeValue>> parseCondition(String expression, Map<String, String> names,
+            Map<String, AttributeValue> values) {
+        Parser parser = new Parser(expression, names, values);
+        Predicate<Map<String, AttributeValue>> condition = parser.parseOr();
+        parser.expectEnd();
+        return condition;
+    }
+
+    static Update parseUpdate(String expression, Map<String, String> names, Map<String, AttributeValue> values) {
+        Parser parser = new Parser(expression, names, values);
+        List<Action> actions = new ArrayList<>();
+        while (!parser.atEnd()) {
+            if (parser.acceptKeyword("SET")) {
+                do {
+                    Path path = parser.parsePath();
+                    parser.expect("=");
+                    actions.add(new Action("SET", path, parser.parseSetValue()));
+                } while (parser.accept(","));
+            } else if (parser.acceptKeyword("REMOVE")) {
+                do {
+                    actions.add(new Action("REMOVE", parser.parsePath(), null));
+                } while (parser.accept(","));
+            } else if (parser.acceptKeyword("ADD") || parser.acceptKeyword("DELETE")) {
+                String kind = parser.lastKeyword;
+                do {
+                    Path path = parser.parsePath();
+                    actions.add(new Action(kind, path, new ValueOperand(parser.parseValue())));
+                } while (parser.accept(","));
+            } else {
+                throw parser.error("expected SET, REMOVE, ADD or DELETE");
+            }
+        }
+        if (actions.isEmpty()) {
+            throw LocalDynamoDB.validation("Invalid UpdateExpression: The expression can not be empty");
+        }
+        return new Update(actions);
+    }
+
+    static List<Path> parseProjection(String expression, Map<String, String> names) {
+        Parser parser = new Parser(expression, names, Map.of());
+        List<Path> paths = new ArrayList<>();
+        do {
+            paths.add(parser.parsePath());
+        } while (parser.accept(","));
+        parser.expectEnd();
+        return paths;
+    }
+
+    // Keep only the projected attributes; a nested path keeps its whole top-level attribute
+    static Map<String, AttributeValue> project(Map<String, AttributeValue> item, List<Path> paths) {
+        Map<String, AttributeValue> projected = new LinkedHashMap<>();
+        for (Path path : paths) {
+            AttributeValue value = item.get(path.topName());
+            if (value != null) {
+                projected.put(path.topName(), value);
+            }
+        }
+        return projected;
+    }
+
+    // Value a top-level attribute is compared to with one of the given comparators in a key
+    // condition: "=" finds the partition key, "=", ">" and ">=" give where a sort key range starts
+    static AttributeValue keyValue(Predicate<Map<String, AttributeValue>> condition, String attributeName,
+            Set<String> comparators) {
+        if (condition instanceof And and) {
+            AttributeValue left = keyValue(and.left(), attributeName, comparators);
+            return left != null ? left : keyValue(and.right(), attributeName, comparators);
+        }
+        if (condition instanceof Comparison comparison && comparators.contains(comparison.comparator())
+                && isAttribute(comparison.left(), attributeName) && comparison.right() instanceof ValueOperand value) {
+            return value.value();
+        }
+        if (condition instanceof Comparison comparison && comparison.comparator().equals("=")
+                && isAttribute(comparison.right(), attributeName) && comparison.left() instanceof ValueOperand value) {
+            return value.value();
+        }
+        return null;
+    }
+
+    static AttributeValue resolve(Map<String, AttributeValue> item, Path path) {
+        AttributeValue current = item.get(path.topName());
+        for (int i = 1; i < path.elements().size() && current != null; i++) {
+            Object element = path.elements().get(i);
+            if (element instanceof Integer index) {
+                current = current.getL() != null && index < current.getL().size() ? current.getL().get(index) : null;
+            } else {
+                current = current.getM() != null ? current.getM().get((String) element) : null;
+            }
+        }
+        return current;
+    }
+
+    static boolean compare(AttributeValue left, String comparator, AttributeValue right) {
+        if (comparator.equals("<>")) {
+            return left == null || right == null || !LocalValues.equal(left, right);
+        }
+        if (left == null || right == null) {
+            return false;
+        }
+        if (comparator.equals("=")) {
+            return LocalValues.equal(left, right);
+        }
+        if (!LocalValues.comparable(left, right)) {
+            return false;
+        }
+        int order = LocalValues.compare(left, right);
+        switch (comparator) {
+            case "<":
+                return order < 0;
+            case "<=":
+                return order <= 0;
+            case ">":
+                return order > 0;
+            default:
+                return order >= 0;
+        }
+    }
+
+    private static boolean isAttribute(Operand operand, String attributeName) {
+        return operand instanceof PathOperand path && path.path().elements().size() == 1
+                && path.path().topName().equals(attributeName);
+    }
+
+    private static void set(Map<String, AttributeValue> item, Path path, AttributeValue value) {
+        List<Object> elements = path.elements();
+        if (elements.size() == 1) {
+            item.put(path.topName(), value);
+            return;
+        }
+        AttributeValue parent = resolve(item, new Path(elements.subList(0, elements.size() - 1)));
+        Object last = elements.get(elements.size() - 1);
+        if (last instanceof Integer index && parent != null && parent.getL() != null) {
+            List<AttributeValue> list = parent.getL();
+            if (index < list.size()) {
+                list.set(index, value);
+            } else {
+                list.add(value);
+            }
+        } else if (last instanceof String name && parent != null && parent.getM() != null) {
+            parent.getM().put(name, value);
+        } else {
+            throw LocalDynamoDB.validation("The document path provided in the update expression is invalid for update");
+        }
+    }
+
+    private static void remove(Map<String, AttributeValue> item, Path path) {
+        List<Object> elements = path.elements();
+        if (elements.size() == 1) {
+            item.remove(path.topName());
+            return;
+        }
+        AttributeValue parent = resolve(item, new Path(elements.subList(0, elements.size() - 1)));
+        Object last = elements.get(elements.size() - 1);
+        if (last instanceof Integer index && parent != null && parent.getL() != null) {
+            if (index < parent.getL().size()) {
+                parent.getL().remove((int) index);
+            }
+        } else if (last instanceof String name && parent != null && parent.getM() != null) {
+            parent.getM().remove(name);
+        }
+    }
+
+    // Recursive-descent parser over the expression text
+    private static final class Parser {
+        private final String text;
+        private final Map<String, String> names;
+        private final Map<String, AttributeValue> values;
+        private int pos;
+        private String lastKeyword;
+
+        Parser(String text, Map<String, String> names, Map<String, AttributeValue> values) {
+            this.text = text;
+            this.names = names != null ? names : Map.of();
+            this.values = values != null ? values : Map.of();
+        }
+
+        Predicate<Map<String, AttributeValue>> parseOr() {
+            Predicate<Map<String, AttributeValue>> left = parseAnd();
+            while (acceptKeyword("OR")) {
+                Predicate<Map<String, AttributeValue>> first = left;
+                Predicate<Map<String, AttributeValue>> second = parseAnd();
+                left = item -> first.test(item) || second.test(item);
+            }
+            return left;
+        }
+
+        private Predicate<Map<String, AttributeValue>> parseAnd() {
+            Predicate<Map<String, AttributeValue>> left = parseNot();
+            while (acceptKeyword("AND")) {
+                left = new And(left, parseNot());
+            }
+            return left;
+        }
+
+        private Predicate<Map<String, AttributeValue>> parseNot() {
+            if (acceptKeyword("NOT")) {
+                Predicate<Map<String, AttributeValue>> negated = parseNot();
+                return item -> !negated.test(item);
+            }
+            return parsePrimary();
+        }
+
+        private Predicate<Map<String, AttributeValue>> parsePrimary() {
+            if (accept("(")) {
+                Predicate<Map<String, AttributeValue>> inner = parseOr();
+                expect(")");
+                return inner;
+            }
+
+            String function = peekFunction();
+            if (function != null && CONDITION_FUNCTIONS.contains(function)) {
+                return parseConditionFunction(function);
+            }
+
+            Operand left = parseOperand();
+            if (acceptKeyword("BETWEEN")) {
+                Operand low = parseOperand();
+                if (!acceptKeyword("AND")) {
+                    throw error("expected AND in BETWEEN");
+                }
+                Operand high = parseOperand();
+                return item -> {
+                    AttributeValue value = left.evaluate(item);
+                    return compare(value, ">=", low.evaluate(item)) && compare(value, "<=", high.evaluate(item));
+                };
+            }
+            if (acceptKeyword("IN")) {
+                expect("(");
+                List<Operand> candidates = new ArrayList<>();
+                do {
+                    candidates.add(parseOperand());
+                } while (accept(","));
+                expect(")");
+                return item -> {
+                    AttributeValue value = left.evaluate(item);
+                    return candidates.stream().anyMatch(candidate -> compare(value, "=", candidate.evaluate(item)));
+                };
+            }
+            for (String comparator : List.of("<>", "<=", ">=", "=", "<", ">")) {
+                if (accept(comparator)) {
+                    return new Comparison(left, comparator, parseOperand());
+                }
+            }
+            throw error("expected a comparator");
+        }
+
+        private Predicate<Map<String, AttributeValue>> parseConditionFunction(String function) {
+            pos = text.indexOf('(', pos) + 1;
+            Path path = parsePath();
+            Operand argument = null;
+            if (!function.equals("attribute_exists") && !function.equals("attribute_not_exists")) {
+                expect(",");
+                argument = parseOperand();
+            }
+            expect(")");
+
+            Operand operand = argument;
+            switch (function) {
+                case "attribute_exists":
+                    return item -> resolve(item, path) != null;
+                case "attribute_not_exists":
+                    return item -> resolve(item, path) == null;
+                case "attribute_type":
+                    return item -> {
+                        AttributeValue value = resolve(item, path);
+                        AttributeValue type = operand.evaluate(item);
+                        return value != null && type != null && LocalValues.type(value).equals(type.getS());
+                    };
+                case "begins_with":
+                    return item -> {
+                        AttributeValue value = resolve(item, path);
+                        AttributeValue prefix = operand.evaluate(item);
+                        return value != null && prefix != null && LocalValues.beginsWith(value, prefix);
+                    };
+                default:
+                    return item -> {
+                        AttributeValue value = resolve(item, path);
+                        AttributeValue member = operand.evaluate(item);
+                        return value != null && member != null && LocalValues.contains(value, member);
+                    };
+            }
+        }
+
+        // Path, value placeholder or size(path)
+        private Operand parseOperand() {
+            if ("size".equals(peekFunction())) {
+                pos = text.indexOf('(', pos) + 1;
+                Path path = parsePath();
+                expect(")");
+                return item -> {
+                    AttributeValue value = resolve(item, path);
+                    return value != null ? new AttributeValue().withN(Integer.toString(LocalValues.size(value))) : null;
+                };
+            }
+            skipSpaces();
+            if (pos < text.length() && text.charAt(pos) == ':') {
+                return new ValueOperand(parseValue());
+            }
+            return new PathOperand(parsePath());
+        }
+
+        // Right-hand side of a SET action: operand, operand + operand or operand - operand
+        Operand parseSetValue() {
+            Operand left = parseSetOperand();
+            boolean plus = accept("+");
+            if (!plus && !accept("-")) {
+                return left;
+            }
+            Operand right = parseSetOperand();
+            return item -> {
+                AttributeValue a = left.evaluate(item);
+                AttributeValue b = right.evaluate(item);
+                if (a == null || b == null) {
+                    return null;
+                }
+                BigDecimal result = plus
+                        ? LocalValues.number(a).add(LocalValues.number(b))
+                        : LocalValues.number(a).subtract(LocalValues.number(b));
+                return new AttributeValue().withN(result.toString());
+            };
+        }
+
+        private Operand parseSetOperand() {
+            String function = peekFunction();
+            if ("if_not_exists".equals(function)) {
+                pos = text.indexOf('(', pos) + 1;
+                Path path = parsePath();
+                expect(",");
+                Operand fallback = parseSetValue();
+                expect(")");
+                return item -> {
+                    AttributeValue existing = resolve(item, path);
+                    return existing != null ? existing : fallback.evaluate(item);
+                };
+            }
+            if ("list_append".equals(function)) {
+                pos = text.indexOf('(', pos) + 1;
+                Operand first = parseSetValue();
+                expect(",");
+                Operand second = parseSetValue();
+                expect(")");
+                return item -> {
+                    AttributeValue a = first.evaluate(item);
+                    AttributeValue b = second.evaluate(item);
+                    if (a == null || b == null) {
+                        return null;
+                    }
+                    if (a.getL() == null || b.getL() == null) {
+                        throw LocalDynamoDB.validation("Incorrect operand type for list_append: expected a list");
+                    }
+                    List<AttributeValue> joined = new ArrayList<>(a.getL());
+                    joined.addAll(b.getL());
+                    return new AttributeValue().withL(joined);
+                };
+            }
+            return parseOperand();
+        }
+
+        Path parsePath() {
+            List<Object> elements = new ArrayList<>();
+            elements.add(parseName());
+            while (true) {
+                if (accept(".")) {
+                    elements.add(parseName());
+                } else if (accept("[")) {
+                    int start = pos;
+                    while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+                        pos++;
+                    }
+                    if (start == pos) {
+                        throw error("expected a list index");
+                    }
+                    elements.add(Integer.parseInt(text.substring(start, pos)));
+                    expect("]");
+                } else {
+                    return new Path(elements);
+                }
+            }
+        }
+
+        private String parseName() {
+            skipSpaces();
+            if (pos < text.length() && text.charAt(pos) == '#') {
+                String placeholder = readWord(pos + 1, "#");
+                String name = names.get(placeholder);
+                if (name == null) {
+                    throw LocalDynamoDB.validation("An expression attribute name used in the document path is not defined; "
+                            + "attribute name: " + placeholder);
+                }
+                return name;
+            }
+            String name = readWord(pos, "");
+            if (name.isEmpty() || Character.isDigit(name.charAt(0))) {
+                throw error("expected an attribute name");
+            }
+            return name;
+        }
+
+        AttributeValue parseValue() {
+            skipSpaces();
+            if (pos >= text.length() || text.charAt(pos) != ':') {
+                throw error("expected a value placeholder");
+            }
+            String placeholder = readWord(pos + 1, ":");
+            AttributeValue value = values.get(placeholder);
+            if (value == null) {
+                throw LocalDynamoDB.validation("An expression attribute value used in expression is not defined; "
+                        + "attribute value: " + placeholder);
+            }
+            return value;
+        }
+
+        // Reads [A-Za-z0-9_]+ starting at from and returns it with the given prefix
+        private String readWord(int from, String prefix) {
+            int end = from;
+            while (end < text.length() && (Character.isLetterOrDigit(text.charAt(end)) || text.charAt(end) == '_')) {
+                end++;
+            }
+            pos = end;
+            return prefix + text.substring(from, end);
+        }
+
+        // Name of the function call at the current position, without consuming it
+        private String peekFunction() {
+            skipSpaces();
+            int end = pos;
+            while (end < text.length() && (Character.isLetterOrDigit(text.charAt(end)) || text.charAt(end) == '_')) {
+                end++;
+            }
+            int paren = end;
+            while (paren < text.length() && Character.isWhitespace(text.charAt(paren))) {
+                paren++;
+            }
+            if (end == pos || paren >= text.length() || text.charAt(paren) != '(') {
+                return null;
+            }
+            return text.substring(pos, end);
+        }
+
+        boolean acceptKeyword(String keyword) {
+            skipSpaces();
+            int end = pos + keyword.length();
+            if (text.regionMatches(true, pos, keyword, 0, keyword.length())
+                    && (end == text.length() || !(Character.isLetterOrDigit(text.charAt(end)) || text.charAt(end) == '_'))) {
+                pos = end;
+                lastKeyword = keyword;
+                return true;
+            }
+            return false;
+        }
+
+        boolean accept(String symbol) {
+            skipSpaces();
+            if (text.startsWith(symbol, pos)) {
+                pos += symbol.length();
+                return true;
+            }
+            return false;
+        }
+
+        void expect(String symbol) {
+            if (!accept(symbol)) {
+                throw error("expected '" + symbol + "'");
+            }
+        }
+
+        boolean atEnd() {
+            skipSpaces();
+            return pos >= text.length();
+        }
+
+        void expectEnd() {
+            if (!atEnd()) {
+                throw error("unexpected token");
+            }
+        }
+
+        private void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        RuntimeException error(String problem) {
+            return LocalDynamoDB.validation("Invalid expression: " + problem + " at position " + pos + " in \"" + text + "\"");
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.project.backend_capstone.localdb;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Append-only file behind the embedded engine. Every mutation (a put, a delete, or all the writes
+// of one batch or transaction) is appended as one JSON line, so a torn final line after a crash
+// loses at most the last request and never half a transaction. On open the journal is replayed
+// and rewritten as a compact snapshot; it is compacted again once it has grown well past the
+// live data. Items are stored in DynamoDB's typed JSON ({"S": "..."}, {"N": "..."}, ...).
+final class ItemJournal implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(ItemJournal.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+    // Items per line in a snapshot, so one huge table isn't one huge line
+    private static final int SNAPSHOT_ITEMS_PER_LINE = 1000;
+
+    // One put (item set) or delete (key set) in a write line
+    record Change(String table, Map<String, AttributeValue> item, Map<String, AttributeValue> key) {
+        static Change put(String table, Map<String, AttributeValue> item) {
+            return new Change(table, item, null);
+        }
+
+        static Change delete(String table, Map<String, AttributeValue> key) {
+            return new Change(table, null, key);
+        }
+    }
+
+    private final Path file;
+    private final boolean sync;
+    private final long compactAfterWrites;
+    private FileOutputStream out;
+    private long writesSinceCompaction;
+
+    ItemJournal(Path file, boolean sync, long compactAfterWrites) {
+        this.file = file;
+        this.sync = sync;
+        this.compactAfterWrites = compactAfterWrites;
+    }
+
+    // Replay the journal into tables, then rewrite it compacted and open it for appending
+    Map<String, LocalTable> open() {
+        Map<String, LocalTable> tables = new LinkedHashMap<>();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            if (Files.exists(file)) {
+                long lines = replay(tables);
+                logger.info("Loaded {} tables from {} ({} journal entries)", tables.size(), file, lines);
+            }
+            compact(tables.values());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open local store " + file, e);
+        }
+        return tables;
+    }
+
+    void tableCreated(LocalTable table) {
+        append(generator -> writeTable(generator, table));
+    }
+
+    void tableDeleted(String tableName) {
+        append(generator -> {
+            generator.writeStartObject();
+            generator.writeStringField("op", "drop");
+            generator.writeStringField("table", tableName);
+            generator.writeEndObject();
+        });
+    }
+
+    void indexAdded(LocalTable table, LocalTable.IndexDefinition index) {
+        append(generator -> writeIndex(generator, table, index));
+    }
+
+    void ttlChanged(LocalTable table) {
+        append(generator -> writeTtl(generator, table));
+    }
+
+    void write(List<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        append(generator -> writeChanges(generator, changes));
+        writesSinceCompaction += changes.size();
+    }
+
+    // Whether enough has been appended since the last snapshot that rewriting it is worthwhile
+    // (at least compactAfterWrites entries, and more than there are live items)
+    boolean shouldCompact(LongSupplier liveItems) {
+        return writesSinceCompaction > compactAfterWrites && writesSinceCompaction > liveItems.getAsLong();
+    }
+
+    // Rewrite the journal as a snapshot of the given tables (written aside, then moved into place)
+    void compact(Collection<LocalTable> tables) {
+        Path snapshot = file.resolveSibling(file.getFileName() + ".compacting");
+        try {
+            close();
+            try (FileOutputStream snapshotOut = new FileOutputStream(snapshot.toFile())) {
+                for (LocalTable table : tables) {
+                    writeLine(snapshotOut, generator -> writeTable(generator, table));
+                    for (LocalTable.IndexDefinition index : table.indexDefinitions()) {
+                        writeLine(snapshotOut, generator -> writeIndex(generator, table, index));
+                    }
+                    if (table.ttlAttribute != null) {
+                        writeLine(snapshotOut, generator -> writeTtl(generator, table));
+                    }
+                    Iterator<Map<String, AttributeValue>> items = table.all();
+                    while (items.hasNext()) {
+                        List<Change> chunk = new ArrayList<>();
+                        while (items.hasNext() && chunk.size() < SNAPSHOT_ITEMS_PER_LINE) {
+                            chunk.add(Change.put(table.name, items.next()));
+                        }
+                        writeLine(snapshotOut, generator -> writeChanges(generator, chunk));
+                    }
+                }
+                snapshotOut.getFD().sync();
+            }
+            Files.move(snapshot, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            out = new FileOutputStream(file.toFile(), true);
+            writesSinceCompaction = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compact local store " + file, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    private interface LineWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private void append(LineWriter line) {
+        try {
+            writeLine(out, line);
+            if (sync) {
+                out.getFD().sync();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to local store " + file, e);
+        }
+    }
+
+    private static void writeLine(OutputStream target, LineWriter line) throws IOException {
+        // Build the whole line first so a failure can't leave half of it in the file
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(buffer, JsonEncoding.UTF8)) {
+            line.write(generator);
+        }
+        buffer.write('\n');
+        buffer.writeTo(target);
+        target.flush();
+    }
+
+    private long replay(Map<String, LocalTable> tables) throws IOException {
+        long lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode entry;
+                try {
+                    entry = mapper.readTree(line);
+                } catch (IOException e) {
+                    // Only the last line can be torn (the process died mid-append); it was never acknowledged
+                    logger.warn("Ignoring unreadable entry {} at the end of {}", lines + 1, file);
+                    break;
+                }
+                apply(tables, entry);
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    private static void apply(Map<String, LocalTable> tables, JsonNode entry) {
+        String tableName = entry.path("table").asText();
+        switch (entry.path("op").asText()) {
+            case "table":
+                Map<String, String> types = new LinkedHashMap<>();
+                entry.path("types").fields().forEachRemaining(type -> types.put(type.getKey(), type.getValue().asText()));
+                tables.put(tableName, new LocalTable(tableName, entry.path("hash").asText(),
+                        entry.hasNonNull("range") ? entry.get("range").asText() : null, types,
+                        entry.path("billing").asText()));
+                break;
+            case "index":
+                Map<String, String> keyTypes = new LinkedHashMap<>();
+                entry.path("types").fields().forEachRemaining(type -> keyTypes.put(type.getKey(), type.getValue().asText()));
+                tables.get(tableName).addIndex(new LocalTable.IndexDefinition(entry.path("name").asText(),
+                        entry.path("global").asBoolean(true), entry.path("hash").asText(),
+                        entry.hasNonNull("range") ? entry.get("range").asText() : null), keyTypes);
+                break;
+            case "ttl":
+                tables.get(tableName).ttlAttribute = entry.hasNonNull("attribute") ? entry.get("attribute").asText() : null;
+                break;
+            case "drop":
+                tables.remove(tableName);
+                break;
+            default: // write
+                for (JsonNode change : entry.path("changes")) {
+                    LocalTable table = tables.get(change.path("table").asText());
+                    if (table == null) {
+                        continue;
+                    }
+                    if (change.has("item")) {
+                        table.put(readItem(change.get("item")));
+                    } else {
+                        table.delete(readItem(change.get("key")));
+                    }
+                }
+                break;
+        }
+    }
+
+    private static void writeTable(JsonGenerator generator, LocalTable table) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("op", "table");
+        generator.writeStringField("table", table.name);
+        generator.writeStringField("hash", table.hashAttribute);
+        generator.writeStringField("range", table.rangeAttribute);
+        generator.writeStringField("billing", table.billingMode);
+        generator.writeObjectFieldStart("types");
+        for (Map.Entry<String, String> type : table.attributeTypes.entrySet()) {
+            generator.writeStringField(type.getKey(), type.getValue());
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    private static void writeIndex(JsonGenerator generator, LocalTable table, LocalTable.IndexDefinition index)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("op", "index");
+        generator.writeStringField("table", table.name);
+        generator.writeStringField("name", index.name());
+        generator.writeBooleanField("global", index.global());
+        generator.writeStringField("hash", index.hashAttribute());
+        generator.writeStringField("range", index.rangeAttribute());
+        generator.writeObjectFieldStart("types");
+        generator.writeStringField(index.hashAttribute(), table.attributeTypes.get(index.hashAttribute()));
+        if (index.rangeAttribute() != null) {
+            generator.writeStringField(index.rangeAttribute(), table.attributeTypes.get(index.rangeAttribute()));
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    private static void writeTtl(JsonGenerator generator, LocalTable table) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("op", "ttl");
+        generator.writeStringField("table", table.name);
+        generator.writeStringField("attribute", table.ttlAttribute);
+        generator.writeEndObject();
+    }
+
+    private static void writeChanges(JsonGenerator generator, List<Change> changes) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("op", "write");
+        generator.writeArrayFieldStart("changes");
+        for (Change change : changes) {
+            generator.writeStartObject();
+            generator.writeStringField("table", change.table());
+            generator.writeFieldName(change.item() != null ? "item" : "key");
+            writeItem(generator, change.item() != null ? change.item() : change.key());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    static void writeItem(JsonGenerator generator, Map<String, AttributeValue> item) throws IOException {
+        generator.writeStartObject();
+        for (Map.Entry<String, AttributeValue> attribute : item.entrySet()) {
+            generator.writeFieldName(attribute.getKey());
+            writeValue(generator, attribute.getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeValue(JsonGenerator generator, AttributeValue value) throws IOException {
+        String type = LocalValues.type(value);
+        generator.writeStartObject();
+        generator.writeFieldName(type);
+        switch (type) {
+            case "S":
+                generator.writeString(value.getS());
+                break;
+            case "N":
+                generator.writeString(value.getN());
+                break;
+            case "B":
+                generator.writeString(Base64.getEncoder().encodeToString(LocalValues.bytes(value.getB())));
+                break;
+            case "SS":
+            case "NS":
+                generator.writeStartArray();
+                for (String member : value.getSS() != null ? value.getSS() : value.getNS()) {
+                    generator.writeString(member);
+                }
+                generator.writeEndArray();
+                break;
+            case "BS":
+                generator.writeStartArray();
+                for (ByteBuffer member : value.getBS()) {
+                    generator.writeString(Base64.getEncoder().encodeToString(LocalValues.bytes(member)));
+                }
+                generator.writeEndArray();
+                break;
+            case "M":
+                writeItem(generator, value.getM());
+                break;
+            case "L":
+                generator.writeStartArray();
+                for (AttributeValue element : value.getL()) {
+                    writeValue(generator, element);
+                }
+                generator.writeEndArray();
+                break;
+            case "BOOL":
+                generator.writeBoolean(value.getBOOL());
+                break;
+            default: // NULL
+                generator.writeBoolean(true);
+                break;
+        }
+        generator.writeEndObject();
+    }
+
+    static Map<String, AttributeValue> readItem(JsonNode node) {
+        Map<String, AttributeValue> item = new LinkedHashMap<>();
+        node.fields().forEachRemaining(attribute -> item.put(attribute.getKey(), readValue(attribute.getValue())));
+        return item;
+    }
+
+    private static AttributeValue readValue(JsonNode node) {
+        Map.Entry<String, JsonNode> typed = node.fields().next();
+        JsonNode content = typed.getValue();
+        switch (typed.getKey()) {
+            case "S":
+                return new AttributeValue().withS(content.asText());
+            case "N":
+                return new AttributeValue().withN(content.asText());
+            case "B":
+                return new AttributeValue().withB(ByteBuffer.wrap(Base64.getDecoder().decode(content.asText())));
+            case "SS":
+                return new AttributeValue().withSS(texts(content));
+            case "NS":
+                return new AttributeValue().withNS(texts(content));
+            case "BS":
+                return new AttributeValue().withBS(texts(content).stream()
+                        .map(text -> ByteBuffer.wrap(Base64.getDecoder().decode(text)))
+                        .toList());
+            case "M":
+                return new AttributeValue().withM(readItem(content));
+            case "L":
+                List<AttributeValue> elements = new ArrayList<>();
+                content.forEach(element -> elements.add(readValue(element)));
+                return new AttributeValue().withL(elements);
+            case "BOOL":
+                return new AttributeValue().withBOOL(content.asBoolean());
+            default: // NULL
+                return new AttributeValue().withNULL(true);
+        }
+    }
+
+    private static List<String> texts(JsonNode array) {
+        List<String> texts = new ArrayList<>();
+        array.forEach(element -> texts.add(element.asText()));
+        return texts;
+    }
+}
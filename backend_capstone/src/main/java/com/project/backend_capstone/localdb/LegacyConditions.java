@@ -0,0 +1,147 @@
+package com.project.backend_capstone.localdb;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeAction;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.ConditionalOperator;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+
+// The pre-expression request parameters DynamoDBMapper still sends: KeyConditions, QueryFilter,
+// ScanFilter and Expected (ComparisonOperator conditions) and AttributeUpdates
+final class LegacyConditions {
+
+    private LegacyConditions() {
+    }
+
+    // KeyConditions, QueryFilter or ScanFilter; null or empty matches everything
+    static Predicate<Map<String, AttributeValue>> conditions(Map<String, Condition> conditions,
+            String conditionalOperator) {
+        if (conditions == null || conditions.isEmpty()) {
+            return item -> true;
+        }
+        List<Predicate<Map<String, AttributeValue>>> checks = conditions.entrySet().stream()
+                .<Predicate<Map<String, AttributeValue>>>map(entry -> item -> matches(item.get(entry.getKey()),
+                        entry.getValue().getComparisonOperator(), entry.getValue().getAttributeValueList()))
+                .toList();
+        return combine(checks, conditionalOperator);
+    }
+
+    // Expected: Exists true/false with an optional Value, or a ComparisonOperator condition
+    static Predicate<Map<String, AttributeValue>> expected(Map<String, ExpectedAttributeValue> expected,
+            String conditionalOperator) {
+        if (expected == null || expected.isEmpty()) {
+            return item -> true;
+        }
+        List<Predicate<Map<String, AttributeValue>>> checks = expected.entrySet().stream()
+                .<Predicate<Map<String, AttributeValue>>>map(entry -> {
+                    String name = entry.getKey();
+                    ExpectedAttributeValue condition = entry.getValue();
+                    if (condition.getComparisonOperator() != null) {
+                        return item -> matches(item.get(name), condition.getComparisonOperator(),
+                                condition.getAttributeValueList());
+                    }
+                    if (Boolean.FALSE.equals(condition.getExists())) {
+                        return item -> item.get(name) == null;
+                    }
+                    if (condition.getValue() != null) {
+                        return item -> item.get(name) != null && LocalValues.equal(item.get(name), condition.getValue());
+                    }
+                    return item -> item.get(name) != null;
+                })
+                .toList();
+        return combine(checks, conditionalOperator);
+    }
+
+    // The condition on one attribute (null when the item doesn't have it)
+    static boolean matches(AttributeValue actual, String operator, List<AttributeValue> arguments) {
+        AttributeValue first = arguments != null && !arguments.isEmpty() ? arguments.get(0) : null;
+        switch (ComparisonOperator.fromValue(operator)) {
+            case EQ:
+                return Expressions.compare(actual, "=", first);
+            case NE:
+                return Expressions.compare(actual, "<>", first);
+            case LT:
+                return Expressions.compare(actual, "<", first);
+            case LE:
+                return Expressions.compare(actual, "<=", first);
+            case GT:
+                return Expressions.compare(actual, ">", first);
+            case GE:
+                return Expressions.compare(actual, ">=", first);
+            case BETWEEN:
+                return Expressions.compare(actual, ">=", first) && Expressions.compare(actual, "<=", arguments.get(1));
+            case IN:
+                return arguments.stream().anyMatch(candidate -> Expressions.compare(actual, "=", candidate));
+            case NOT_NULL:
+                return actual != null;
+            case NULL:
+                return actual == null;
+            case BEGINS_WITH:
+                return actual != null && LocalValues.beginsWith(actual, first);
+            case CONTAINS:
+                return actual != null && LocalValues.contains(actual, first);
+            case NOT_CONTAINS:
+                return actual != null && !LocalValues.contains(actual, first);
+            default:
+                throw LocalDynamoDB.validation("Unsupported comparison operator: " + operator);
+        }
+    }
+
+    // Apply AttributeUpdates to a copy of the item
+    static Map<String, AttributeValue> apply(Map<String, AttributeValue> original,
+            Map<String, AttributeValueUpdate> updates) {
+        Map<String, AttributeValue> item = LocalValues.copy(original);
+        if (updates == null) {
+            return item;
+        }
+        for (Map.Entry<String, AttributeValueUpdate> entry : updates.entrySet()) {
+            String name = entry.getKey();
+            AttributeValue value = entry.getValue().getValue();
+            String action = entry.getValue().getAction() != null ? entry.getValue().getAction() : AttributeAction.PUT.toString();
+            AttributeValue existing = item.get(name);
+
+            switch (AttributeAction.fromValue(action)) {
+                case PUT:
+                    item.put(name, LocalValues.copy(value));
+                    break;
+                case DELETE:
+                    if (value == null || existing == null) {
+                        item.remove(name);
+                    } else {
+                        AttributeValue remaining = LocalValues.combineSets(existing, value, false);
+                        if (remaining == null) {
+                            item.remove(name);
+                        } else {
+                            item.put(name, remaining);
+                        }
+                    }
+                    break;
+                default: // ADD
+                    if (existing == null) {
+                        item.put(name, LocalValues.copy(value));
+                    } else if (existing.getN() != null) {
+                        item.put(name, new AttributeValue().withN(
+                                LocalValues.number(existing).add(LocalValues.number(value)).toString()));
+                    } else {
+                        item.put(name, LocalValues.combineSets(existing, value, true));
+                    }
+                    break;
+            }
+        }
+        return item;
+    }
+
+    private static Predicate<Map<String, AttributeValue>> combine(List<Predicate<Map<String, AttributeValue>>> checks,
+            String conditionalOperator) {
+        boolean or = ConditionalOperator.OR.toString().equals(conditionalOperator);
+        return item -> or
+                ? checks.stream().anyMatch(check -> check.test(item))
+                : checks.stream().allMatch(check -> check.test(item));
+    }
+}
@@ -0,0 +1,805 @@
+package com.project.backend_capstone.localdb;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AmazonDynamoDBException;
+import com.amazonaws.services.dynamodbv2.model.AttributeDefinition;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.BillingMode;
+import com.amazonaws.services.dynamodbv2.model.CancellationReason;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.ConditionCheck;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.CreateTableResult;
+import com.amazonaws.services.dynamodbv2.model.Delete;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemResult;
+import com.amazonaws.services.dynamodbv2.model.DeleteTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteTableResult;
+import com.amazonaws.services.dynamodbv2.model.DescribeTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DescribeTableResult;
+import com.amazonaws.services.dynamodbv2.model.DescribeTimeToLiveRequest;
+import com.amazonaws.services.dynamodbv2.model.DescribeTimeToLiveResult;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.Get;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndex;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndexUpdate;
+import com.amazonaws.services.dynamodbv2.model.ItemResponse;
+import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
+import com.amazonaws.services.dynamodbv2.model.KeyType;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.ListTablesRequest;
+import com.amazonaws.services.dynamodbv2.model.ListTablesResult;
+import com.amazonaws.services.dynamodbv2.model.LocalSecondaryIndex;
+import com.amazonaws.services.dynamodbv2.model.Put;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ResourceInUseException;
+import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.model.Select;
+import com.amazonaws.services.dynamodbv2.model.TimeToLiveDescription;
+import com.amazonaws.services.dynamodbv2.model.TimeToLiveSpecification;
+import com.amazonaws.services.dynamodbv2.model.TimeToLiveStatus;
+import com.amazonaws.services.dynamodbv2.model.TransactGetItem;
+import com.amazonaws.services.dynamodbv2.model.TransactGetItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactGetItemsResult;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsResult;
+import com.amazonaws.services.dynamodbv2.model.TransactionCanceledException;
+import com.amazonaws.services.dynamodbv2.model.Update;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateTableResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateTimeToLiveRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateTimeToLiveResult;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.project.backend_capstone.localdb.ItemJournal.Change;
+import com.project.backend_capstone.localdb.LocalTable.Partitions;
+
+// Embedded, single-node stand-in for DynamoDB behind the AmazonDynamoDB client interface, so the
+// mapper, the document API and the raw requests in the services all run against it unchanged.
+// Tables live in memory as sorted maps (with secondary indexes kept in step on every write) and,
+// when given a file, are persisted through an append-only journal (see ItemJournal).
+//
+// Reads share a lock and writes take it exclusively, which makes every request, batch and
+// transaction atomic and every read strongly consistent. Capacity, throttling, the 1 MB page
+// limit and table status transitions are not modelled: tables and indexes are ACTIVE at once.
+// Expired items (TTL) are swept at most once a minute, on the write path.
+public class LocalDynamoDB extends AbstractAmazonDynamoDB {
+    private static final Logger logger = LoggerFactory.getLogger(LocalDynamoDB.class);
+    private static final long TTL_SWEEP_INTERVAL_MS = 60_000;
+    private static final Set<String> RANGE_START_COMPARATORS = Set.of("=", ">", ">=");
+
+    private final Map<String, LocalTable> tables;
+    private final ItemJournal journal;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long nextTtlSweepAt;
+
+    // Keeps tables only in memory
+    public LocalDynamoDB() {
+        this.tables = new TreeMap<>();
+        this.journal = null;
+    }
+
+    // Persists tables to the journal file (created if missing); sync forces each write to disk
+    public LocalDynamoDB(Path file, boolean sync, long compactAfterWrites) {
+        this.journal = new ItemJournal(file, sync, compactAfterWrites);
+        this.tables = new TreeMap<>(journal.open());
+    }
+
+    // Error DynamoDB returns for a malformed request
+    static AmazonDynamoDBException validation(String message) {
+        AmazonDynamoDBException e = new AmazonDynamoDBException(message);
+        e.setErrorCode("ValidationException");
+        e.setStatusCode(400);
+        e.setServiceName("AmazonDynamoDBv2");
+        return e;
+    }
+
+    @Override
+    public CreateTableResult createTable(CreateTableRequest request) {
+        lock.writeLock().lock();
+        try {
+            if (tables.containsKey(request.getTableName())) {
+                throw error(new ResourceInUseException("Table already exists: " + request.getTableName()));
+            }
+            Map<String, String> types = new LinkedHashMap<>();
+            for (AttributeDefinition definition : request.getAttributeDefinitions()) {
+                types.put(definition.getAttributeName(), definition.getAttributeType());
+            }
+            String[] key = keyAttributes(request.getKeySchema());
+            LocalTable table = new LocalTable(request.getTableName(), key[0], key[1], keyTypes(types, key),
+                    request.getBillingMode() != null ? request.getBillingMode() : BillingMode.PROVISIONED.toString());
+
+            List<LocalTable.IndexDefinition> indexes = new ArrayList<>();
+            if (request.getGlobalSecondaryIndexes() != null) {
+                for (GlobalSecondaryIndex index : request.getGlobalSecondaryIndexes()) {
+                    String[] indexKey = keyAttributes(index.getKeySchema());
+                    indexes.add(new LocalTable.IndexDefinition(index.getIndexName(), true, indexKey[0], indexKey[1]));
+                }
+            }
+            if (request.getLocalSecondaryIndexes() != null) {
+                for (LocalSecondaryIndex index : request.getLocalSecondaryIndexes()) {
+                    String[] indexKey = keyAttributes(index.getKeySchema());
+                    indexes.add(new LocalTable.IndexDefinition(index.getIndexName(), false, indexKey[0], indexKey[1]));
+                }
+            }
+            for (LocalTable.IndexDefinition index : indexes) {
+                table.addIndex(index, keyTypes(types, new String[] { index.hashAttribute(), index.rangeAttribute() }));
+            }
+
+            tables.put(table.name, table);
+            if (journal != null) {
+                journal.tableCreated(table);
+                indexes.forEach(index -> journal.indexAdded(table, index));
+            }
+            return new CreateTableResult().withTableDescription(table.describe());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public DeleteTableResult deleteTable(DeleteTableRequest request) {
+        lock.writeLock().lock();
+        try {
+            LocalTable table = table(request.getTableName());
+            tables.remove(table.name);
+            if (journal != null) {
+                journal.tableDeleted(table.name);
+            }
+            return new DeleteTableResult().withTableDescription(table.describe());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public DescribeTableResult describeTable(DescribeTableRequest request) {
+        lock.readLock().lock();
+        try {
+            return new DescribeTableResult().withTable(table(request.getTableName()).describe());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public ListTablesResult listTables(ListTablesRequest request) {
+        lock.readLock().lock();
+        try {
+            List<String> names = new ArrayList<>();
+            String after = request.getExclusiveStartTableName();
+            int limit = request.getLimit() != null ? request.getLimit() : 100;
+            for (String name : tables.keySet()) {
+                if (after == null || name.compareTo(after) > 0) {
+                    names.add(name);
+                }
+            }
+            ListTablesResult result = new ListTablesResult().withTableNames(names.subList(0, Math.min(limit, names.size())));
+            if (names.size() > limit) {
+                result.setLastEvaluatedTableName(names.get(limit - 1));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Only creating global secondary indexes is supported; they are built and ACTIVE immediately
+    @Override
+    public UpdateTableResult updateTable(UpdateTableRequest request) {
+        lock.writeLock().lock();
+        try {
+            LocalTable table = table(request.getTableName());
+            Map<String, String> types = new LinkedHashMap<>(table.attributeTypes);
+            if (request.getAttributeDefinitions() != null) {
+                for (AttributeDefinition definition : request.getAttributeDefinitions()) {
+                    types.put(definition.getAttributeName(), definition.getAttributeType());
+                }
+            }
+            if (request.getGlobalSecondaryIndexUpdates() != null) {
+                for (GlobalSecondaryIndexUpdate update : request.getGlobalSecondaryIndexUpdates()) {
+                    if (update.getCreate() == null) {
+                        throw validation("Only creating global secondary indexes is supported locally");
+                    }
+                    String[] indexKey = keyAttributes(update.getCreate().getKeySchema());
+                    LocalTable.IndexDefinition index = new LocalTable.IndexDefinition(
+                            update.getCreate().getIndexName(), true, indexKey[0], indexKey[1]);
+                    table.addIndex(index, keyTypes(types, indexKey));
+                    if (journal != null) {
+                        journal.indexAdded(table, index);
+                    }
+                }
+            }
+            return new UpdateTableResult().withTableDescription(table.describe());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public UpdateTimeToLiveResult updateTimeToLive(UpdateTimeToLiveRequest request) {
+        lock.writeLock().lock();
+        try {
+            LocalTable table = table(request.getTableName());
+            TimeToLiveSpecification specification = request.getTimeToLiveSpecification();
+            table.ttlAttribute = Boolean.TRUE.equals(specification.getEnabled()) ? specification.getAttributeName() : null;
+            if (journal != null) {
+                journal.ttlChanged(table);
+            }
+            return new UpdateTimeToLiveResult().withTimeToLiveSpecification(specification);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public DescribeTimeToLiveResult describeTimeToLive(DescribeTimeToLiveRequest request) {
+        lock.readLock().lock();
+        try {
+            LocalTable table = table(request.getTableName());
+            return new DescribeTimeToLiveResult().withTimeToLiveDescription(new TimeToLiveDescription()
+                    .withAttributeName(table.ttlAttribute)
+                    .withTimeToLiveStatus(table.ttlAttribute != null ? TimeToLiveStatus.ENABLED : TimeToLiveStatus.DISABLED));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public GetItemResult getItem(GetItemRequest request) {
+        lock.readLock().lock();
+        try {
+            Map<String, AttributeValue> item = table(request.getTableName()).get(request.getKey());
+            return new GetItemResult().withItem(item != null ? output(item, projection(request.getProjectionExpression(),
+                    request.getExpressionAttributeNames(), request.getAttributesToGet())) : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public PutItemResult putItem(PutItemRequest request) {
+        lock.writeLock().lock();
+        try {
+            LocalTable table = table(request.getTableName());
+            Map<String, AttributeValue> item = LocalValues.copy(request.getItem());
+            Map<String, AttributeValue> existing = table.get(table.primaryKey(item, false));
+            check(existing, request.getConditionExpression(), request.getExpressionAttributeNames(),
+                    request.getExpressionAttributeValues(), request.getExpected(), request.getConditionalOperator());
+            table.put(item);
+            written(List.of(Change.put(table.name, item)));
+            return new PutItemResult().withAttributes(
+                    ReturnValue.ALL_OLD.toString().equals(request.getReturnValues()) && existing != null
+                            ? LocalValues.copy(existing) : null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public UpdateItemResult updateItem(UpdateItemRequest request) {
+        lock.writeLock().lock();
+        try {
+            LocalTable table = table(request.getTableName());
+            Map<String, AttributeValue> existing = table.get(request.getKey());
+            check(existing, request.getConditionExpression(), request.getExpressionAttributeNames(),
+                    request.getExpressionAttributeValues(), request.getExpected(), request.getConditionalOperator());
+            Map<String, AttributeValue> updated = updated(table, request.getKey(), existing, request.getUpdateExpression(),
+                    request.getExpressionAttributeNames(), request.getExpressionAttributeValues(), request);
+            table.put(updated);
+            written(List.of(Change.put(table.name, updated)));
+            return new UpdateItemResult().withAttributes(returnValues(request.getReturnValues(), existing, updated));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public DeleteItemResult deleteItem(DeleteItemRequest request) {
+        lock.writeLock().lock();
+        try {
+            LocalTable table = table(request.getTableName());
+            Map<String, AttributeValue> existing = table.get(request.getKey());
+            check(existing, request.getConditionExpression(), request.getExpressionAttributeNames(),
+                    request.getExpressionAttributeValues(), request.getExpected(), request.getConditionalOperator());
+            if (existing != null) {
+                table.delete(request.getKey());
+                written(List.of(Change.delete(table.name, table.primaryKey(request.getKey(), true))));
+            }
+            return new DeleteItemResult().withAttributes(
+                    ReturnValue.ALL_OLD.toString().equals(request.getReturnValues()) && existing != null
+                            ? LocalValues.copy(existing) : null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public QueryResult query(QueryRequest request) {
+        lock.readLock().lock();
+        try {
+            LocalTable table = table(request.getTableName());
+            Partitions source = table.source(request.getIndexName());
+
+            Predicate<Map<String, AttributeValue>> keyCondition;
+            AttributeValue hash;
+            AttributeValue rangeFrom = null;
+            if (request.getKeyConditionExpression() != null) {
+                keyCondition = Expressions.parseCondition(request.getKeyConditionExpression(),
+                        request.getExpressionAttributeNames(), request.getExpressionAttributeValues());
+                hash = Expressions.keyValue(keyCondition, source.hashAttribute, Set.of("="));
+                if (source.rangeAttribute != null) {
+                    rangeFrom = Expressions.keyValue(keyCondition, source.rangeAttribute, RANGE_START_COMPARATORS);
+                }
+            } else {
+                Map<String, Condition> keyConditions = request.getKeyConditions() != null ? request.getKeyConditions() : Map.of();
+                keyCondition = LegacyConditions.conditions(keyConditions, null);
+                hash = firstValue(keyConditions.get(source.hashAttribute), Set.of(ComparisonOperator.EQ.toString()));
+                if (source.rangeAttribute != null) {
+                    rangeFrom = firstValue(keyConditions.get(source.rangeAttribute), Set.of(ComparisonOperator.EQ.toString(),
+                            ComparisonOperator.GT.toString(), ComparisonOperator.GE.toString(),
+                            ComparisonOperator.BETWEEN.toString(), ComparisonOperator.BEGINS_WITH.toString()));
+                }
+            }
+            if (hash == null) {
+                throw validation("Query condition missed key schema element: " + source.hashAttribute);
+            }
+
+            Predicate<Map<String, AttributeValue>> filter = request.getFilterExpression() != null
+                    ? Expressions.parseCondition(request.getFilterExpression(), request.getExpressionAttributeNames(),
+                            request.getExpressionAttributeValues())
+                    : LegacyConditions.conditions(request.getQueryFilter(), request.getConditionalOperator());
+            boolean forward = !Boolean.FALSE.equals(request.getScanIndexForward());
+
+            Page page = page(source.query(hash, request.getExclusiveStartKey(), rangeFrom, forward), keyCondition, filter,
+                    request.getLimit(), source);
+            List<Map<String, AttributeValue>> items = Select.COUNT.toString().equals(request.getSelect()) ? null
+                    : outputs(page.items(), projection(request.getProjectionExpression(),
+                            request.getExpressionAttributeNames(), request.getAttributesToGet()));
+            return new QueryResult()
+                    .withItems(items)
+                    .withCount(page.items().size())
+                    .withScannedCount(page.scannedCount())
+                    .withLastEvaluatedKey(page.lastEvaluatedKey());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public ScanResult scan(ScanRequest request) {
+        lock.readLock().lock();
+        try {
+            LocalTable table = table(request.getTableName());
+            Partitions source = table.source(request.getIndexName());
+            int segment = request.getSegment() != null ? request.getSegment() : 0;
+            int totalSegments = request.getTotalSegments() != null ? request.getTotalSegments() : 1;
+            if (segment < 0 || segment >= totalSegments) {
+                throw validation("The Segment parameter must be less than TotalSegments");
+            }
+
+            Predicate<Map<String, AttributeValue>> filter = request.getFilterExpression() != null
+                    ? Expressions.parseCondition(request.getFilterExpression(), request.getExpressionAttributeNames(),
+                            request.getExpressionAttributeValues())
+                    : LegacyConditions.conditions(request.getScanFilter(), request.getConditionalOperator());
+
+            Page page = page(source.scan(request.getExclusiveStartKey(), segment, totalSegments), item -> true, filter,
+                    request.getLimit(), source);
+            List<Map<String, AttributeValue>> items = Select.COUNT.toString().equals(request.getSelect()) ? null
+                    : outputs(page.items(), projection(request.getProjectionExpression(),
+                            request.getExpressionAttributeNames(), request.getAttributesToGet()));
+            return new ScanResult()
+                    .withItems(items)
+                    .withCount(page.items().size())
+                    .withScannedCount(page.scannedCount())
+                    .withLastEvaluatedKey(page.lastEvaluatedKey());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public BatchGetItemResult batchGetItem(BatchGetItemRequest request) {
+        lock.readLock().lock();
+        try {
+            Map<String, List<Map<String, AttributeValue>>> responses = new LinkedHashMap<>();
+            for (Map.Entry<String, KeysAndAttributes> entry : request.getRequestItems().entrySet()) {
+                LocalTable table = table(entry.getKey());
+                KeysAndAttributes keys = entry.getValue();
+                List<Expressions.Path> projection = projection(keys.getProjectionExpression(),
+                        keys.getExpressionAttributeNames(), keys.getAttributesToGet());
+                List<Map<String, AttributeValue>> found = new ArrayList<>();
+                for (Map<String, AttributeValue> key : keys.getKeys()) {
+                    Map<String, AttributeValue> item = table.get(key);
+                    if (item != null) {
+                        found.add(output(item, projection));
+                    }
+                }
+                responses.put(table.name, found);
+            }
+            return new BatchGetItemResult().withResponses(responses).withUnprocessedKeys(Map.of());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public BatchWriteItemResult batchWriteItem(BatchWriteItemRequest request) {
+        lock.writeLock().lock();
+        try {
+            List<Change> changes = new ArrayList<>();
+            for (Map.Entry<String, List<WriteRequest>> entry : request.getRequestItems().entrySet()) {
+                LocalTable table = table(entry.getKey());
+                for (WriteRequest write : entry.getValue()) {
+                    if (write.getPutRequest() != null) {
+                        Map<String, AttributeValue> item = LocalValues.copy(write.getPutRequest().getItem());
+                        table.put(item);
+                        changes.add(Change.put(table.name, item));
+                    } else {
+                        Map<String, AttributeValue> key = table.primaryKey(write.getDeleteRequest().getKey(), true);
+                        table.delete(key);
+                        changes.add(Change.delete(table.name, key));
+                    }
+                }
+            }
+            written(changes);
+            return new BatchWriteItemResult().withUnprocessedItems(Map.of());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // All conditions are checked before anything is written; one failure cancels the transaction
+    @Override
+    public TransactWriteItemsResult transactWriteItems(TransactWriteItemsRequest request) {
+        lock.writeLock().lock();
+        try {
+            List<CancellationReason> reasons = new ArrayList<>();
+            List<Runnable> writes = new ArrayList<>();
+            List<Change> changes = new ArrayList<>();
+            boolean cancelled = false;
+
+            for (TransactWriteItem transactItem : request.getTransactItems()) {
+                try {
+                    if (transactItem.getConditionCheck() != null) {
+                        ConditionCheck conditionCheck = transactItem.getConditionCheck();
+                        LocalTable table = table(conditionCheck.getTableName());
+                        check(table.get(conditionCheck.getKey()), conditionCheck.getConditionExpression(),
+                                conditionCheck.getExpressionAttributeNames(), conditionCheck.getExpressionAttributeValues(),
+                                null, null);
+                    } else if (transactItem.getPut() != null) {
+                        Put put = transactItem.getPut();
+                        LocalTable table = table(put.getTableName());
+                        Map<String, AttributeValue> item = LocalValues.copy(put.getItem());
+                        check(table.get(table.primaryKey(item, false)), put.getConditionExpression(),
+                                put.getExpressionAttributeNames(), put.getExpressionAttributeValues(), null, null);
+                        writes.add(() -> table.put(item));
+                        changes.add(Change.put(table.name, item));
+                    } else if (transactItem.getUpdate() != null) {
+                        Update update = transactItem.getUpdate();
+                        LocalTable table = table(update.getTableName());
+                        Map<String, AttributeValue> existing = table.get(update.getKey());
+                        check(existing, update.getConditionExpression(), update.getExpressionAttributeNames(),
+                                update.getExpressionAttributeValues(), null, null);
+                        Map<String, AttributeValue> updated = updated(table, update.getKey(), existing,
+                                update.getUpdateExpression(), update.getExpressionAttributeNames(),
+                                update.getExpressionAttributeValues(), null);
+                        writes.add(() -> table.put(updated));
+                        changes.add(Change.put(table.name, updated));
+                    } else {
+                        Delete delete = transactItem.getDelete();
+                        LocalTable table = table(delete.getTableName());
+                        check(table.get(delete.getKey()), delete.getConditionExpression(),
+                                delete.getExpressionAttributeNames(), delete.getExpressionAttributeValues(), null, null);
+                        Map<String, AttributeValue> key = table.primaryKey(delete.getKey(), true);
+                        writes.add(() -> table.delete(key));
+                        changes.add(Change.delete(table.name, key));
+                    }
+                    reasons.add(new CancellationReason().withCode("None"));
+                } catch (ConditionalCheckFailedException e) {
+                    reasons.add(new CancellationReason().withCode("ConditionalCheckFailed").withMessage(e.getErrorMessage()));
+                    cancelled = true;
+                }
+            }
+
+            if (cancelled) {
+                TransactionCanceledException e = new TransactionCanceledException("Transaction cancelled, please refer "
+                        + "cancellation reasons for specific reasons " + reasons.stream().map(CancellationReason::getCode).toList());
+                e.setCancellationReasons(reasons);
+                throw error(e);
+            }
+            writes.forEach(Runnable::run);
+            written(changes);
+            return new TransactWriteItemsResult();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public TransactGetItemsResult transactGetItems(TransactGetItemsRequest request) {
+        lock.readLock().lock();
+        try {
+            List<ItemResponse> responses = new ArrayList<>();
+            for (TransactGetItem transactItem : request.getTransactItems()) {
+                Get get = transactItem.getGet();
+                Map<String, AttributeValue> item = table(get.getTableName()).get(get.getKey());
+                responses.add(new ItemResponse().withItem(item != null
+                        ? output(item, projection(get.getProjectionExpression(), get.getExpressionAttributeNames(), null))
+                        : null));
+            }
+            return new TransactGetItemsResult().withResponses(responses);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Compacts the journal so the next start replays a snapshot, then closes it
+    @Override
+    public void shutdown() {
+        if (journal == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            journal.compact(tables.values());
+            journal.close();
+        } catch (IOException e) {
+            logger.warn("Could not close local store: {}", e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Items read for one page, and where the next page starts (null when there is no more)
+    private record Page(List<Map<String, AttributeValue>> items, int scannedCount,
+            Map<String, AttributeValue> lastEvaluatedKey) {
+    }
+
+    // Limit counts items read, including those the filter then drops, as in DynamoDB. A key
+    // condition selects one contiguous run of the partition, so reading stops once it is past it.
+    private static Page page(Iterator<Map<String, AttributeValue>> candidates, Predicate<Map<String, AttributeValue>> key,
+            Predicate<Map<String, AttributeValue>> filter, Integer limit, Partitions source) {
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        int scanned = 0;
+        boolean inRange = false;
+        Map<String, AttributeValue> last = null;
+        while (candidates.hasNext()) {
+            if (limit != null && limit > 0 && scanned >= limit) {
+                return new Page(items, scanned, source.positionOf(last));
+            }
+            Map<String, AttributeValue> item = candidates.next();
+            if (!key.test(item)) {
+                if (inRange) {
+                    break;
+                }
+                continue;
+            }
+            inRange = true;
+            scanned++;
+            last = item;
+            if (filter.test(item)) {
+                items.add(item);
+            }
+        }
+        return new Page(items, scanned, null);
+    }
+
+    // Check a ConditionExpression or Expected against the current item (null when there is none)
+    private static void check(Map<String, AttributeValue> existing, String conditionExpression, Map<String, String> names,
+            Map<String, AttributeValue> values, Map<String, ExpectedAttributeValue> expected, String conditionalOperator) {
+        Map<String, AttributeValue> item = existing != null ? existing : Map.of();
+        boolean passed = conditionExpression != null
+                ? Expressions.parseCondition(conditionExpression, names, values).test(item)
+                : LegacyConditions.expected(expected, conditionalOperator).test(item);
+        if (!passed) {
+            throw error(new ConditionalCheckFailedException("The conditional request failed"));
+        }
+    }
+
+    // The item after an UpdateExpression (or, from the mapper, AttributeUpdates); an update to an
+    // item that doesn't exist creates it from the key
+    private static Map<String, AttributeValue> updated(LocalTable table, Map<String, AttributeValue> key,
+            Map<String, AttributeValue> existing, String updateExpression, Map<String, String> names,
+            Map<String, AttributeValue> values, UpdateItemRequest legacy) {
+        Map<String, AttributeValue> base = existing != null ? existing : table.primaryKey(key, true);
+        Map<String, AttributeValue> updated;
+        if (updateExpression != null) {
+            updated = Expressions.parseUpdate(updateExpression, names, values).apply(base);
+        } else {
+            updated = LegacyConditions.apply(base, legacy != null ? legacy.getAttributeUpdates() : null);
+        }
+        for (Map.Entry<String, AttributeValue> keyAttribute : table.primaryKey(key, true).entrySet()) {
+            AttributeValue value = updated.get(keyAttribute.getKey());
+            if (value == null || !LocalValues.equal(value, keyAttribute.getValue())) {
+                throw validation("Cannot update attribute " + keyAttribute.getKey() + ". This attribute is part of the key");
+            }
+        }
+        return updated;
+    }
+
+    private static Map<String, AttributeValue> returnValues(String returnValues, Map<String, AttributeValue> existing,
+            Map<String, AttributeValue> updated) {
+        if (returnValues == null || ReturnValue.NONE.toString().equals(returnValues)) {
+            return null;
+        }
+        if (ReturnValue.ALL_NEW.toString().equals(returnValues)) {
+            return LocalValues.copy(updated);
+        }
+        if (existing == null) {
+            return ReturnValue.UPDATED_NEW.toString().equals(returnValues) ? LocalValues.copy(updated) : null;
+        }
+        if (ReturnValue.ALL_OLD.toString().equals(returnValues)) {
+            return LocalValues.copy(existing);
+        }
+        // UPDATED_OLD / UPDATED_NEW: only the attributes the update changed
+        boolean newValues = ReturnValue.UPDATED_NEW.toString().equals(returnValues);
+        Map<String, AttributeValue> changed = new LinkedHashMap<>();
+        Set<String> names = new LinkedHashSet<>(existing.keySet());
+        names.addAll(updated.keySet());
+        for (String name : names) {
+            AttributeValue before = existing.get(name);
+            AttributeValue after = updated.get(name);
+            if (before == null || after == null || !LocalValues.equal(before, after)) {
+                AttributeValue value = newValues ? after : before;
+                if (value != null) {
+                    changed.put(name, LocalValues.copy(value));
+                }
+            }
+        }
+        return changed;
+    }
+
+    // Journal the changes, then sweep expired items and compact when due
+    private void written(List<Change> changes) {
+        if (journal != null) {
+            journal.write(changes);
+        }
+        long now = System.currentTimeMillis();
+        if (now >= nextTtlSweepAt) {
+            nextTtlSweepAt = now + TTL_SWEEP_INTERVAL_MS;
+            sweepExpired(now / 1000);
+        }
+        if (journal != null && journal.shouldCompact(this::itemCount)) {
+            journal.compact(tables.values());
+        }
+    }
+
+    private void sweepExpired(long nowEpochSeconds) {
+        List<Change> expired = new ArrayList<>();
+        for (LocalTable table : tables.values()) {
+            if (table.ttlAttribute == null) {
+                continue;
+            }
+            List<Map<String, AttributeValue>> keys = new ArrayList<>();
+            table.all().forEachRemaining(item -> {
+                AttributeValue expiresAt = item.get(table.ttlAttribute);
+                if (expiresAt != null && expiresAt.getN() != null
+                        && new BigDecimal(expiresAt.getN()).longValue() < nowEpochSeconds) {
+                    keys.add(table.primaryKey(item, false));
+                }
+            });
+            for (Map<String, AttributeValue> key : keys) {
+                table.delete(key);
+                expired.add(Change.delete(table.name, key));
+            }
+        }
+        if (journal != null) {
+            journal.write(expired);
+        }
+    }
+
+    private long itemCount() {
+        long count = 0;
+        for (LocalTable table : tables.values()) {
+            count += table.source(null).itemCount();
+        }
+        return count;
+    }
+
+    private LocalTable table(String name) {
+        LocalTable table = tables.get(name);
+        if (table == null) {
+            throw error(new ResourceNotFoundException("Requested resource not found: Table: " + name + " not found"));
+        }
+        return table;
+    }
+
+    private static String[] keyAttributes(List<KeySchemaElement> keySchema) {
+        String[] key = new String[2];
+        for (KeySchemaElement element : keySchema) {
+            key[KeyType.HASH.toString().equals(element.getKeyType()) ? 0 : 1] = element.getAttributeName();
+        }
+        if (key[0] == null) {
+            throw validation("The key schema must contain a HASH key");
+        }
+        return key;
+    }
+
+    private static Map<String, String> keyTypes(Map<String, String> types, String[] key) {
+        Map<String, String> keyTypes = new LinkedHashMap<>();
+        for (String attribute : key) {
+            if (attribute == null) {
+                continue;
+            }
+            String type = types.get(attribute);
+            if (type == null) {
+                throw validation("No attribute definition for key attribute " + attribute);
+            }
+            keyTypes.put(attribute, type);
+        }
+        return keyTypes;
+    }
+
+    private static AttributeValue firstValue(Condition condition, Set<String> operators) {
+        if (condition == null || !operators.contains(condition.getComparisonOperator())
+                || condition.getAttributeValueList() == null || condition.getAttributeValueList().isEmpty()) {
+            return null;
+        }
+        return condition.getAttributeValueList().get(0);
+    }
+
+    private static List<Expressions.Path> projection(String projectionExpression, Map<String, String> names,
+            List<String> attributesToGet) {
+        if (projectionExpression != null) {
+            return Expressions.parseProjection(projectionExpression, names);
+        }
+        if (attributesToGet != null && !attributesToGet.isEmpty()) {
+            return attributesToGet.stream().map(name -> new Expressions.Path(List.<Object>of(name))).toList();
+        }
+        return null;
+    }
+
+    private static Map<String, AttributeValue> output(Map<String, AttributeValue> item, List<Expressions.Path> projection) {
+        return LocalValues.copy(projection != null ? Expressions.project(item, projection) : item);
+    }
+
+    private static List<Map<String, AttributeValue>> outputs(List<Map<String, AttributeValue>> items,
+            List<Expressions.Path> projection) {
+        List<Map<String, AttributeValue>> outputs = new ArrayList<>(items.size());
+        for (Map<String, AttributeValue> item : items) {
+            outputs.add(output(item, projection));
+        }
+        return outputs;
+    }
+
+    private static <E extends AmazonDynamoDBException> E error(E e) {
+        e.setErrorCode(e.getClass().getSimpleName());
+        e.setStatusCode(400);
+        e.setServiceName("AmazonDynamoDBv2");
+        return e;
+    }
+}
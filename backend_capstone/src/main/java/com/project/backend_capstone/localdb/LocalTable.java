@@ -0,0 +1,353 @@
+package com.project.backend_capstone.localdb;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeDefinition;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BillingModeSummary;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndexDescription;
+import com.amazonaws.services.dynamodbv2.model.IndexStatus;
+import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
+import com.amazonaws.services.dynamodbv2.model.KeyType;
+import com.amazonaws.services.dynamodbv2.model.Projection;
+import com.amazonaws.services.dynamodbv2.model.ProjectionType;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughputDescription;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import com.amazonaws.services.dynamodbv2.model.TableStatus;
+
+// One table of the embedded engine: items kept sorted by partition and sort key, plus a sorted copy
+// of the keys for every secondary index (maintained on each write, always ACTIVE, projecting ALL).
+// Not thread-safe; LocalDynamoDB serializes access.
+final class LocalTable {
+
+    private static final Comparator<List<AttributeValue>> SORT_ORDER = (a, b) -> {
+        for (int i = 0; i < Math.min(a.size(), b.size()); i++) {
+            int order = LocalValues.compare(a.get(i), b.get(i));
+            if (order != 0) {
+                return order;
+            }
+        }
+        return Integer.compare(a.size(), b.size());
+    };
+
+    // Items of the table or one index, by partition key and then by sort key
+    static final class Partitions {
+        final String indexName;
+        final String hashAttribute;
+        final String rangeAttribute;
+        // Attributes that order (and, for indexes, uniquely identify) items within a partition
+        private final List<String> sortAttributes;
+        private final TreeMap<AttributeValue, TreeMap<List<AttributeValue>, Map<String, AttributeValue>>> partitions =
+                new TreeMap<>(LocalValues::compare);
+
+        Partitions(String indexName, String hashAttribute, String rangeAttribute, List<String> sortAttributes) {
+            this.indexName = indexName;
+            this.hashAttribute = hashAttribute;
+            this.rangeAttribute = rangeAttribute;
+            this.sortAttributes = sortAttributes;
+        }
+
+        // Whether the item carries this index's key attributes (indexes are sparse)
+        boolean covers(Map<String, AttributeValue> item) {
+            return item.get(hashAttribute) != null && (rangeAttribute == null || item.get(rangeAttribute) != null);
+        }
+
+        void put(Map<String, AttributeValue> item) {
+            partitions.computeIfAbsent(item.get(hashAttribute), hash -> new TreeMap<>(SORT_ORDER))
+                    .put(sortKey(item), item);
+        }
+
+        void remove(Map<String, AttributeValue> item) {
+            TreeMap<List<AttributeValue>, Map<String, AttributeValue>> partition = partitions.get(item.get(hashAttribute));
+            if (partition != null) {
+                partition.remove(sortKey(item));
+                if (partition.isEmpty()) {
+                    partitions.remove(item.get(hashAttribute));
+                }
+            }
+        }
+
+        // Key attributes DynamoDB returns as LastEvaluatedKey for an item read from here
+        Map<String, AttributeValue> positionOf(Map<String, AttributeValue> item) {
+            Map<String, AttributeValue> position = new LinkedHashMap<>();
+            position.put(hashAttribute, item.get(hashAttribute));
+            for (String attribute : sortAttributes) {
+                position.put(attribute, item.get(attribute));
+            }
+            return position;
+        }
+
+        // Items of one partition in sort key order (or reverse), after exclusiveStartKey if given,
+        // otherwise (going forward) from the first item whose range key is at least rangeFrom
+        Iterator<Map<String, AttributeValue>> query(AttributeValue hash, Map<String, AttributeValue> exclusiveStartKey,
+                AttributeValue rangeFrom, boolean forward) {
+            TreeMap<List<AttributeValue>, Map<String, AttributeValue>> partition = partitions.get(hash);
+            if (partition == null) {
+                return Collections.emptyIterator();
+            }
+            NavigableMap<List<AttributeValue>, Map<String, AttributeValue>> ordered = forward ? partition : partition.descendingMap();
+            if (exclusiveStartKey != null) {
+                ordered = ordered.tailMap(sortKey(exclusiveStartKey), false);
+            } else if (forward && rangeFrom != null && rangeAttribute != null
+                    && LocalValues.type(rangeFrom).equals(LocalValues.type(partition.firstKey().get(0)))) {
+                // [rangeFrom] sorts before every longer key that starts with rangeFrom
+                ordered = ordered.tailMap(List.of(rangeFrom), true);
+            }
+            return ordered.values().iterator();
+        }
+
+        // Every item in key order, after exclusiveStartKey if given, limited to one scan segment
+        Iterator<Map<String, AttributeValue>> scan(Map<String, AttributeValue> exclusiveStartKey, int segment,
+                int totalSegments) {
+            NavigableMap<AttributeValue, TreeMap<List<AttributeValue>, Map<String, AttributeValue>>> remaining = partitions;
+            Iterator<Map<String, AttributeValue>> head = Collections.emptyIterator();
+            if (exclusiveStartKey != null) {
+                AttributeValue startHash = exclusiveStartKey.get(hashAttribute);
+                TreeMap<List<AttributeValue>, Map<String, AttributeValue>> first = partitions.get(startHash);
+                if (first != null) {
+                    head = first.tailMap(sortKey(exclusiveStartKey), false).values().iterator();
+                }
+                remaining = partitions.tailMap(startHash, false);
+            }
+            // Walked lazily, so a page only touches the partitions it returns
+            Iterator<TreeMap<List<AttributeValue>, Map<String, AttributeValue>>> rest = remaining.entrySet().stream()
+                    .filter(partition -> totalSegments <= 1 || segmentOf(partition.getKey(), totalSegments) == segment)
+                    .map(Map.Entry::getValue)
+                    .iterator();
+            return concat(head, rest);
+        }
+
+        // The item with the same key attributes, if any
+        Map<String, AttributeValue> find(Map<String, AttributeValue> key) {
+            TreeMap<List<AttributeValue>, Map<String, AttributeValue>> partition = partitions.get(key.get(hashAttribute));
+            return partition != null ? partition.get(sortKey(key)) : null;
+        }
+
+        long itemCount() {
+            return partitions.values().stream().mapToLong(TreeMap::size).sum();
+        }
+
+        private List<AttributeValue> sortKey(Map<String, AttributeValue> item) {
+            List<AttributeValue> key = new ArrayList<>(sortAttributes.size());
+            for (String attribute : sortAttributes) {
+                AttributeValue value = item.get(attribute);
+                if (value == null) {
+                    throw LocalDynamoDB.validation("The provided starting key is invalid: missing " + attribute);
+                }
+                key.add(value);
+            }
+            return key;
+        }
+
+        private static int segmentOf(AttributeValue hash, int totalSegments) {
+            return Math.floorMod(LocalValues.keyText(hash).hashCode(), totalSegments);
+        }
+    }
+
+    // Secondary index definition as created (kept for describeTable and the journal)
+    record IndexDefinition(String name, boolean global, String hashAttribute, String rangeAttribute) {
+    }
+
+    final String name;
+    final String hashAttribute;
+    final String rangeAttribute;
+    final Map<String, String> attributeTypes;
+    final Date createdAt;
+    final String billingMode;
+    String ttlAttribute;
+
+    private final Partitions items;
+    private final Map<String, IndexDefinition> indexDefinitions = new LinkedHashMap<>();
+    private final Map<String, Partitions> indexes = new LinkedHashMap<>();
+
+    LocalTable(String name, String hashAttribute, String rangeAttribute, Map<String, String> attributeTypes,
+            String billingMode) {
+        this.name = name;
+        this.hashAttribute = hashAttribute;
+        this.rangeAttribute = rangeAttribute;
+        this.attributeTypes = new LinkedHashMap<>(attributeTypes);
+        this.createdAt = new Date();
+        this.billingMode = billingMode;
+        this.items = new Partitions(null, hashAttribute, rangeAttribute,
+                rangeAttribute != null ? List.of(rangeAttribute) : List.of());
+    }
+
+    // Add an index and populate it from the current items
+    void addIndex(IndexDefinition definition, Map<String, String> keyTypes) {
+        attributeTypes.putAll(keyTypes);
+        List<String> sortAttributes = new ArrayList<>();
+        if (definition.rangeAttribute() != null) {
+            sortAttributes.add(definition.rangeAttribute());
+        }
+        // Index keys needn't be unique, so the table key breaks ties
+        for (String attribute : rangeAttribute != null ? List.of(hashAttribute, rangeAttribute) : List.of(hashAttribute)) {
+            if (!sortAttributes.contains(attribute) && !attribute.equals(definition.hashAttribute())) {
+                sortAttributes.add(attribute);
+            }
+        }
+        Partitions index = new Partitions(definition.name(), definition.hashAttribute(), definition.rangeAttribute(),
+                sortAttributes);
+        items.scan(null, 0, 1).forEachRemaining(item -> {
+            if (index.covers(item) && hasKeyTypes(item, index)) {
+                index.put(item);
+            }
+        });
+        indexDefinitions.put(definition.name(), definition);
+        indexes.put(definition.name(), index);
+    }
+
+    Iterable<IndexDefinition> indexDefinitions() {
+        return indexDefinitions.values();
+    }
+
+    // The table itself (indexName null) or one of its indexes
+    Partitions source(String indexName) {
+        if (indexName == null) {
+            return items;
+        }
+        Partitions index = indexes.get(indexName);
+        if (index == null) {
+            throw LocalDynamoDB.validation("The table does not have the specified index: " + indexName);
+        }
+        return index;
+    }
+
+    Map<String, AttributeValue> get(Map<String, AttributeValue> key) {
+        return items.find(primaryKey(key, true));
+    }
+
+    // Store the item (replacing any item with the same key) and return the one it replaced
+    Map<String, AttributeValue> put(Map<String, AttributeValue> item) {
+        Map<String, AttributeValue> previous = items.find(primaryKey(item, false));
+        if (previous != null) {
+            unindex(previous);
+        }
+        items.put(item);
+        for (Partitions index : indexes.values()) {
+            if (index.covers(item)) {
+                if (!hasKeyTypes(item, index)) {
+                    throw LocalDynamoDB.validation("One or more parameter values were invalid: Type mismatch for Index Key");
+                }
+                index.put(item);
+            }
+        }
+        return previous;
+    }
+
+    Map<String, AttributeValue> delete(Map<String, AttributeValue> key) {
+        Map<String, AttributeValue> previous = get(key);
+        if (previous != null) {
+            unindex(previous);
+            items.remove(previous);
+        }
+        return previous;
+    }
+
+    // The key attributes of an item or key, validated against the key schema
+    Map<String, AttributeValue> primaryKey(Map<String, AttributeValue> key, boolean keyOnly) {
+        Map<String, AttributeValue> primaryKey = new LinkedHashMap<>();
+        for (String attribute : rangeAttribute != null ? List.of(hashAttribute, rangeAttribute) : List.of(hashAttribute)) {
+            AttributeValue value = key != null ? key.get(attribute) : null;
+            if (value == null || !LocalValues.type(value).equals(attributeTypes.get(attribute))) {
+                throw LocalDynamoDB.validation("The provided key element does not match the schema");
+            }
+            primaryKey.put(attribute, value);
+        }
+        if (keyOnly && key.size() != primaryKey.size()) {
+            throw LocalDynamoDB.validation("The provided key element does not match the schema");
+        }
+        return primaryKey;
+    }
+
+    Iterator<Map<String, AttributeValue>> all() {
+        return items.scan(null, 0, 1);
+    }
+
+    TableDescription describe() {
+        List<KeySchemaElement> keySchema = new ArrayList<>();
+        keySchema.add(new KeySchemaElement(hashAttribute, KeyType.HASH));
+        if (rangeAttribute != null) {
+            keySchema.add(new KeySchemaElement(rangeAttribute, KeyType.RANGE));
+        }
+        List<AttributeDefinition> definitions = new ArrayList<>();
+        attributeTypes.forEach((attribute, type) -> definitions.add(new AttributeDefinition(attribute, type)));
+
+        List<GlobalSecondaryIndexDescription> globalIndexes = new ArrayList<>();
+        for (IndexDefinition definition : indexDefinitions.values()) {
+            List<KeySchemaElement> indexKeySchema = new ArrayList<>();
+            indexKeySchema.add(new KeySchemaElement(definition.hashAttribute(), KeyType.HASH));
+            if (definition.rangeAttribute() != null) {
+                indexKeySchema.add(new KeySchemaElement(definition.rangeAttribute(), KeyType.RANGE));
+            }
+            globalIndexes.add(new GlobalSecondaryIndexDescription()
+                    .withIndexName(definition.name())
+                    .withKeySchema(indexKeySchema)
+                    .withProjection(new Projection().withProjectionType(ProjectionType.ALL))
+                    .withIndexStatus(IndexStatus.ACTIVE)
+                    .withBackfilling(false)
+                    .withItemCount(indexes.get(definition.name()).itemCount())
+                    .withProvisionedThroughput(new ProvisionedThroughputDescription()
+                            .withReadCapacityUnits(0L).withWriteCapacityUnits(0L)));
+        }
+
+        return new TableDescription()
+                .withTableName(name)
+                .withTableArn("arn:aws:dynamodb:local:000000000000:table/" + name)
+                .withTableStatus(TableStatus.ACTIVE)
+                .withCreationDateTime(createdAt)
+                .withKeySchema(keySchema)
+                .withAttributeDefinitions(definitions)
+                .withItemCount(items.itemCount())
+                .withBillingModeSummary(new BillingModeSummary().withBillingMode(billingMode))
+                .withProvisionedThroughput(new ProvisionedThroughputDescription()
+                        .withReadCapacityUnits(0L).withWriteCapacityUnits(0L))
+                .withGlobalSecondaryIndexes(globalIndexes.isEmpty() ? null : globalIndexes);
+    }
+
+    private void unindex(Map<String, AttributeValue> item) {
+        for (Partitions index : indexes.values()) {
+            if (index.covers(item)) {
+                index.remove(item);
+            }
+        }
+    }
+
+    private boolean hasKeyTypes(Map<String, AttributeValue> item, Partitions index) {
+        return LocalValues.type(item.get(index.hashAttribute)).equals(attributeTypes.get(index.hashAttribute))
+                && (index.rangeAttribute == null
+                        || LocalValues.type(item.get(index.rangeAttribute)).equals(attributeTypes.get(index.rangeAttribute)));
+    }
+
+    private static Iterator<Map<String, AttributeValue>> concat(Iterator<Map<String, AttributeValue>> head,
+            Iterator<TreeMap<List<AttributeValue>, Map<String, AttributeValue>>> rest) {
+        return new Iterator<>() {
+            private Iterator<Map<String, AttributeValue>> current = head;
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && rest.hasNext()) {
+                    current = rest.next().values().iterator();
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public Map<String, AttributeValue> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+}
@@ -0,0 +1,291 @@
+package com.project.backend_capstone.localdb;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+// Comparisons and copies of AttributeValues with DynamoDB's semantics: numbers compare by value
+// ("1" equals "1.0"), sets compare regardless of order, binary compares as unsigned bytes
+final class LocalValues {
+
+    private LocalValues() {
+    }
+
+    // DynamoDB type descriptor of a value (S, N, B, SS, NS, BS, M, L, NULL or BOOL)
+    static String type(AttributeValue value) {
+        if (value.getS() != null) {
+            return "S";
+        } else if (value.getN() != null) {
+            return "N";
+        } else if (value.getB() != null) {
+            return "B";
+        } else if (value.getSS() != null) {
+            return "SS";
+        } else if (value.getNS() != null) {
+            return "NS";
+        } else if (value.getBS() != null) {
+            return "BS";
+        } else if (value.getM() != null) {
+            return "M";
+        } else if (value.getL() != null) {
+            return "L";
+        } else if (value.getBOOL() != null) {
+            return "BOOL";
+        } else if (Boolean.TRUE.equals(value.getNULL())) {
+            return "NULL";
+        }
+        throw LocalDynamoDB.validation("Supplied AttributeValue is empty, must contain exactly one of the supported datatypes");
+    }
+
+    // Order of two scalar (S, N or B) values of the same type; used for keys and <, <=, >, >=, BETWEEN
+    static int compare(AttributeValue a, AttributeValue b) {
+        String type = type(a);
+        if (!type.equals(type(b))) {
+            throw new IllegalArgumentException("Cannot compare " + type + " with " + type(b));
+        }
+        switch (type) {
+            case "S":
+                return a.getS().compareTo(b.getS());
+            case "N":
+                return new BigDecimal(a.getN()).compareTo(new BigDecimal(b.getN()));
+            case "B":
+                return Arrays.compareUnsigned(bytes(a.getB()), bytes(b.getB()));
+            default:
+                throw new IllegalArgumentException("Cannot order values of type " + type);
+        }
+    }
+
+    // Whether two values can be ordered against each other
+    static boolean comparable(AttributeValue a, AttributeValue b) {
+        String type = type(a);
+        return type.equals(type(b)) && (type.equals("S") || type.equals("N") || type.equals("B"));
+    }
+
+    static boolean equal(AttributeValue a, AttributeValue b) {
+        String type = type(a);
+        if (!type.equals(type(b))) {
+            return false;
+        }
+        switch (type) {
+            case "S":
+            case "N":
+            case "B":
+                return compare(a, b) == 0;
+            case "BOOL":
+                return a.getBOOL().equals(b.getBOOL());
+            case "NULL":
+                return true;
+            case "SS":
+            case "NS":
+            case "BS":
+                return setValues(a).size() == setValues(b).size() && containsAll(a, b);
+            case "L":
+                if (a.getL().size() != b.getL().size()) {
+                    return false;
+                }
+                for (int i = 0; i < a.getL().size(); i++) {
+                    if (!equal(a.getL().get(i), b.getL().get(i))) {
+                        return false;
+                    }
+                }
+                return true;
+            case "M":
+                if (a.getM().size() != b.getM().size()) {
+                    return false;
+                }
+                for (Map.Entry<String, AttributeValue> entry : a.getM().entrySet()) {
+                    AttributeValue other = b.getM().get(entry.getKey());
+                    if (other == null || !equal(entry.getValue(), other)) {
+                        return false;
+                    }
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // contains(): substring of a string, member of a set, or element of a list
+    static boolean contains(AttributeValue container, AttributeValue operand) {
+        switch (type(container)) {
+            case "S":
+                return operand.getS() != null && container.getS().contains(operand.getS());
+            case "B":
+                return operand.getB() != null && indexOf(bytes(container.getB()), bytes(operand.getB())) >= 0;
+            case "SS":
+            case "NS":
+            case "BS":
+                return type(container).equals(type(operand) + "S") && setValues(container).stream()
+                        .anyMatch(member -> equal(member, operand));
+            case "L":
+                return container.getL().stream().anyMatch(element -> equal(element, operand));
+            default:
+                return false;
+        }
+    }
+
+    static boolean beginsWith(AttributeValue value, AttributeValue prefix) {
+        if (value.getS() != null && prefix.getS() != null) {
+            return value.getS().startsWith(prefix.getS());
+        }
+        if (value.getB() != null && prefix.getB() != null) {
+            byte[] bytes = bytes(value.getB());
+            byte[] start = bytes(prefix.getB());
+            return bytes.length >= start.length && Arrays.equals(bytes, 0, start.length, start, 0, start.length);
+        }
+        return false;
+    }
+
+    static int size(AttributeValue value) {
+        switch (type(value)) {
+            case "S":
+                return value.getS().length();
+            case "B":
+                return value.getB().remaining();
+            case "SS":
+            case "NS":
+            case "BS":
+                return setValues(value).size();
+            case "L":
+                return value.getL().size();
+            case "M":
+                return value.getM().size();
+            default:
+                throw LocalDynamoDB.validation("Invalid operand type for size(): " + type(value));
+        }
+    }
+
+    static BigDecimal number(AttributeValue value) {
+        if (value.getN() == null) {
+            throw LocalDynamoDB.validation("An operand in the update expression has an incorrect data type");
+        }
+        return new BigDecimal(value.getN());
+    }
+
+    // Members of a set as individual scalar values
+    static List<AttributeValue> setValues(AttributeValue set) {
+        List<AttributeValue> values = new ArrayList<>();
+        if (set.getSS() != null) {
+            set.getSS().forEach(s -> values.add(new AttributeValue().withS(s)));
+        } else if (set.getNS() != null) {
+            set.getNS().forEach(n -> values.add(new AttributeValue().withN(n)));
+        } else if (set.getBS() != null) {
+            set.getBS().forEach(b -> values.add(new AttributeValue().withB(b)));
+        }
+        return values;
+    }
+
+    // Union (add = true) or difference (add = false) of two sets of the same type
+    static AttributeValue combineSets(AttributeValue set, AttributeValue other, boolean add) {
+        if (!type(set).equals(type(other))) {
+            throw LocalDynamoDB.validation("An operand in the update expression has an incorrect data type");
+        }
+        List<AttributeValue> result = new ArrayList<>();
+        for (AttributeValue member : setValues(set)) {
+            boolean inOther = setValues(other).stream().anyMatch(o -> equal(o, member));
+            if (add || !inOther) {
+                result.add(member);
+            }
+        }
+        if (add) {
+            for (AttributeValue member : setValues(other)) {
+                if (result.stream().noneMatch(r -> equal(r, member))) {
+                    result.add(member);
+                }
+            }
+        }
+        return toSet(type(set), result);
+    }
+
+    // A set of the given type, or null when there are no members left (DynamoDB drops empty sets)
+    static AttributeValue toSet(String setType, List<AttributeValue> members) {
+        if (members.isEmpty()) {
+            return null;
+        }
+        switch (setType) {
+            case "SS":
+                return new AttributeValue().withSS(members.stream().map(AttributeValue::getS).toList());
+            case "NS":
+                return new AttributeValue().withNS(members.stream().map(AttributeValue::getN).toList());
+            default:
+                return new AttributeValue().withBS(members.stream().map(AttributeValue::getB).toList());
+        }
+    }
+
+    // Deep copy, so callers never share mutable AttributeValues with the stored items
+    static AttributeValue copy(AttributeValue value) {
+        AttributeValue copy = new AttributeValue();
+        if (value.getS() != null) {
+            copy.setS(value.getS());
+        } else if (value.getN() != null) {
+            copy.setN(value.getN());
+        } else if (value.getB() != null) {
+            copy.setB(ByteBuffer.wrap(bytes(value.getB())));
+        } else if (value.getSS() != null) {
+            copy.setSS(new ArrayList<>(value.getSS()));
+        } else if (value.getNS() != null) {
+            copy.setNS(new ArrayList<>(value.getNS()));
+        } else if (value.getBS() != null) {
+            copy.setBS(value.getBS().stream().map(b -> ByteBuffer.wrap(bytes(b))).toList());
+        } else if (value.getM() != null) {
+            copy.setM(copy(value.getM()));
+        } else if (value.getL() != null) {
+            copy.setL(value.getL().stream().map(LocalValues::copy).toList());
+        } else if (value.getBOOL() != null) {
+            copy.setBOOL(value.getBOOL());
+        } else if (value.getNULL() != null) {
+            copy.setNULL(value.getNULL());
+        }
+        return copy;
+    }
+
+    static Map<String, AttributeValue> copy(Map<String, AttributeValue> item) {
+        Map<String, AttributeValue> copy = new LinkedHashMap<>();
+        item.forEach((name, value) -> copy.put(name, copy(value)));
+        return copy;
+    }
+
+    // Stable text form of a scalar key value, used to hash partitions into scan segments
+    static String keyText(AttributeValue value) {
+        switch (type(value)) {
+            case "N":
+                BigDecimal number = new BigDecimal(value.getN());
+                return "N:" + (number.signum() == 0 ? "0" : number.stripTrailingZeros().toPlainString());
+            case "B":
+                return "B:" + Arrays.toString(bytes(value.getB()));
+            default:
+                return "S:" + value.getS();
+        }
+    }
+
+    static byte[] bytes(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate();
+        byte[] bytes = new byte[view.remaining()];
+        view.get(bytes);
+        return bytes;
+    }
+
+    private static boolean containsAll(AttributeValue a, AttributeValue b) {
+        List<AttributeValue> members = setValues(b);
+        return setValues(a).stream().allMatch(member -> members.stream().anyMatch(m -> equal(m, member)));
+    }
+
+    private static int indexOf(byte[] bytes, byte[] part) {
+        outer:
+        for (int i = 0; i + part.length <= bytes.length; i++) {
+            for (int j = 0; j < part.length; j++) {
+                if (bytes[i + j] != part[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
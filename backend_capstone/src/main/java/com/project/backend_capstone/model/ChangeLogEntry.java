@@ -0,0 +1,48 @@
+package com.project.backend_capstone.model;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAttribute;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBRangeKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// App-maintained change log: one item per write to Category, Version, Configuration or
+// VersionConfiguration, partitioned by hour (and a shard within it) so reading "changes since X"
+// only touches the hours after X. Only keys are logged; readers load the current records by key.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@DynamoDBTable(tableName = "ChangeLog")
+public class ChangeLogEntry {
+    // Partition Key: UTC hour of the change and a shard, e.g. "2024-11-05T13#3"
+    @DynamoDBHashKey(attributeName = "bucket")
+    private String bucket;
+
+    // Sort Key: "<epoch millis, 13 digits>-<node sequence>-<node id>", increasing on each node
+    @DynamoDBRangeKey(attributeName = "change_id")
+    private String cursor;
+
+    // Table the change was made to
+    @DynamoDBAttribute(attributeName = "entity_type")
+    private String entityType;
+
+    @DynamoDBAttribute(attributeName = "hash_key")
+    private String hashKey;
+
+    // Sort key of the changed item as a string (null for Category)
+    @DynamoDBAttribute(attributeName = "range_key")
+    private String rangeKey;
+
+    // "Upsert" or "Delete"
+    @DynamoDBAttribute(attributeName = "operation")
+    private String operation;
+
+    // Epoch seconds after which DynamoDB TTL may remove the entry
+    @DynamoDBAttribute(attributeName = "expires_at")
+    private Long expiresAt;
+}
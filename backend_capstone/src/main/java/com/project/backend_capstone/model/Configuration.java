@@ -2,6 +2,7 @@ package com.project.backend_capstone.model;
 
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAttribute;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexHashKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBRangeKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
 
@@ -12,10 +13,15 @@ import lombok.Setter;
 @Setter
 @DynamoDBTable(tableName = "Configuration")
 public class Configuration {
+    public static final String CONFIGURATION_ID_INDEX = "configuration-id-index";
+
     @DynamoDBHashKey(attributeName = "category_id")
     private String categoryId;
 
+    // Also the partition key of the configuration-id-index GSI, for lookups by ID alone
     @DynamoDBRangeKey(attributeName = "configuration_id")
+    @DynamoDBIndexHashKey(globalSecondaryIndexName = Configuration.CONFIGURATION_ID_INDEX,
+            attributeName = "configuration_id")
     private String configurationId;
 
     @DynamoDBAttribute(attributeName = "name")
@@ -0,0 +1,32 @@
+package com.project.backend_capstone.model;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAttribute;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Uniqueness index for names: one item per claimed name, keyed by the name's scope and its
+// normalized (trimmed, lower-cased) form, e.g. "category#payments" or "configuration#<category_id>#limits".
+// Written in the same transaction as the entity that owns the name.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@DynamoDBTable(tableName = "UniqueNames")
+public class UniqueName {
+    // Partition Key
+    @DynamoDBHashKey(attributeName = "name_key")
+    private String nameKey;
+
+    // ID of the category, configuration or user group holding the name
+    @DynamoDBAttribute(attributeName = "owner_id")
+    private String ownerId;
+
+    // The name as it was entered
+    @DynamoDBAttribute(attributeName = "name")
+    private String name;
+}
@@ -5,6 +5,7 @@ import java.util.Set;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAttribute;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAutoGeneratedKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexHashKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
 
 import lombok.AllArgsConstructor;
@@ -18,11 +19,14 @@ import lombok.Setter;
 @AllArgsConstructor
 @DynamoDBTable(tableName = "Users")
 public class User {
+    public static final String USERNAME_INDEX = "username-index";
+
     @DynamoDBAutoGeneratedKey
     @DynamoDBHashKey(attributeName = "user_id")
     private String userId;
 
-    @DynamoDBAttribute(attributeName = "username")
+    // Also the partition key of the username-index GSI, used for login lookups
+    @DynamoDBIndexHashKey(globalSecondaryIndexName = User.USERNAME_INDEX, attributeName = "username")
     private String username;
 
     @DynamoDBAttribute(attributeName = "password")
@@ -0,0 +1,37 @@
+package com.project.backend_capstone.model;
+
+import java.util.Set;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAttribute;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBRangeKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Materialized index of UserGroups by member: one item per (username, user group), carrying a copy
+// of the group's category_access so a user's accessible categories come from a single query
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@DynamoDBTable(tableName = "UserGroupMembership")
+public class UserGroupMembership {
+    // Partition Key
+    @DynamoDBHashKey(attributeName = "username")
+    private String username;
+
+    // Sort Key
+    @DynamoDBRangeKey(attributeName = "user_group_id")
+    private String user_group_id;
+
+    @DynamoDBAttribute(attributeName = "user_group_name")
+    private String user_group_name;
+
+    // Copy of UserGroup.category_access (null when the group has no categories)
+    @DynamoDBAttribute(attributeName = "category_access")
+    private Set<String> category_access;
+}
@@ -0,0 +1,178 @@
+package com.project.backend_capstone.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.BatchLoadContext;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+
+// Loads many items by key with BatchGetItem: 100-key chunks issued in parallel, unprocessed keys
+// retried with jittered exponential backoff, results returned in the order the IDs were given.
+// With the async client the chunks are all in flight at once without holding a thread each;
+// otherwise each chunk is a blocking mapper call on the fan-out pool.
+@Repository
+public class BatchLoader {
+    // BatchGetItem accepts at most 100 keys per request
+    static final int MAX_KEYS_PER_BATCH = 100;
+    private static final int MAX_RETRIES = 8;
+    private static final long BASE_DELAY_MS = 25;
+    private static final long MAX_DELAY_MS = 2000;
+
+    private final DynamoDBMapper dynamoDBMapper;
+    private final ExecutorService executor;
+    private final DynamoDbAsyncClient asyncClient;
+    private final DynamoDBMapperConfig batchConfig = DynamoDBMapperConfig.builder()
+            .withBatchLoadRetryStrategy(new BackoffRetryStrategy())
+            .build();
+
+    @Autowired
+    public BatchLoader(DynamoDBMapper dynamoDBMapper, @Qualifier("dynamoFanOutExecutor") ExecutorService executor,
+            Optional<DynamoDbAsyncClient> asyncClient) {
+        this.dynamoDBMapper = dynamoDBMapper;
+        this.executor = executor;
+        this.asyncClient = asyncClient.orElse(null);
+    }
+
+    // Load the items for the given IDs. keyFactory builds a key object for an ID, idOf reads the ID
+    // back from a loaded item. Missing items are skipped; duplicate IDs are loaded once.
+    public <T, K> List<T> loadAll(Class<T> clazz, Collection<K> ids, Function<K, T> keyFactory,
+            Function<T, K> idOf) {
+        List<K> uniqueIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (uniqueIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<CompletableFuture<List<T>>> chunks = new ArrayList<>();
+        for (int start = 0; start < uniqueIds.size(); start += MAX_KEYS_PER_BATCH) {
+            List<T> keys = uniqueIds.subList(start, Math.min(start + MAX_KEYS_PER_BATCH, uniqueIds.size()))
+                    .stream()
+                    .map(keyFactory)
+                    .toList();
+            chunks.add(asyncClient != null
+                    ? loadChunkAsync(clazz, keys)
+                    : CompletableFuture.supplyAsync(() -> loadChunk(clazz, keys), executor));
+        }
+
+        Map<K, T> loadedById = new HashMap<>();
+        try {
+            for (CompletableFuture<List<T>> chunk : chunks) {
+                for (T item : chunk.join()) {
+                    loadedById.put(idOf.apply(item), item);
+                }
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        List<T> results = new ArrayList<>(loadedById.size());
+        for (K id : uniqueIds) {
+            T item = loadedById.get(id);
+            if (item != null) {
+                results.add(item);
+            }
+        }
+        return results;
+    }
+
+    private <T> List<T> loadChunk(Class<T> clazz, List<T> keys) {
+        List<T> items = new ArrayList<>();
+        for (List<Object> tableItems : dynamoDBMapper.batchLoad(keys, batchConfig).values()) {
+            for (Object item : tableItems) {
+                items.add(clazz.cast(item));
+            }
+        }
+        return items;
+    }
+
+    private <T> CompletableFuture<List<T>> loadChunkAsync(Class<T> clazz, List<T> keys) {
+        DynamoDBMapperTableModel<T> model = dynamoDBMapper.getTableModel(clazz);
+        String tableName = clazz.getAnnotation(DynamoDBTable.class).tableName();
+        List<Map<String, software.amazon.awssdk.services.dynamodb.model.AttributeValue>> requestKeys = keys.stream()
+                .map(key -> SdkAttributeValues.toV2(model.convertKey(key)))
+                .toList();
+        return batchGetAsync(tableName, requestKeys, 0)
+                .thenApply(items -> items.stream().map(item -> model.unconvert(SdkAttributeValues.toV1(item))).toList());
+    }
+
+    // One BatchGetItem, then the same for its unprocessed keys after a backoff delay that doesn't block a thread
+    private CompletableFuture<List<Map<String, software.amazon.awssdk.services.dynamodb.model.AttributeValue>>> batchGetAsync(
+            String tableName, List<Map<String, software.amazon.awssdk.services.dynamodb.model.AttributeValue>> keys,
+            int retriesAttempted) {
+        BatchGetItemRequest request = BatchGetItemRequest.builder()
+                .requestItems(Map.of(tableName, software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes.builder()
+                        .keys(keys)
+                        .build()))
+                .build();
+
+        return asyncClient.batchGetItem(request).thenCompose(response -> {
+            List<Map<String, software.amazon.awssdk.services.dynamodb.model.AttributeValue>> items =
+                    new ArrayList<>(response.responses().getOrDefault(tableName, List.of()));
+            software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes unprocessed =
+                    response.unprocessedKeys().get(tableName);
+            if (unprocessed == null || unprocessed.keys().isEmpty()) {
+                return CompletableFuture.completedFuture(items);
+            }
+            if (retriesAttempted >= MAX_RETRIES) {
+                return CompletableFuture.failedFuture(new RuntimeException("Could not load " + unprocessed.keys().size()
+                        + " items from " + tableName + " after " + MAX_RETRIES + " retries"));
+            }
+            Executor afterBackoff = CompletableFuture.delayedExecutor(backoffMs(retriesAttempted), TimeUnit.MILLISECONDS);
+            return CompletableFuture.supplyAsync(() -> unprocessed.keys(), afterBackoff)
+                    .thenCompose(retryKeys -> batchGetAsync(tableName, retryKeys, retriesAttempted + 1))
+                    .thenApply(retried -> {
+                        items.addAll(retried);
+                        return items;
+                    });
+        });
+    }
+
+    // "Equal jitter": half fixed, half random, so parallel chunks don't retry in lockstep. Shared by
+    // the other write paths that retry throttled or conflicting requests.
+    public static long backoffMs(int retriesAttempted) {
+        int attempt = Math.min(retriesAttempted, 10);
+        long ceiling = Math.min(MAX_DELAY_MS, BASE_DELAY_MS << attempt);
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    // Retry while DynamoDB hands back unprocessed keys (throttling or the 16 MB response cap)
+    private static class BackoffRetryStrategy implements DynamoDBMapperConfig.BatchLoadRetryStrategy {
+        @Override
+        public boolean shouldRetry(BatchLoadContext batchLoadContext) {
+            Map<String, KeysAndAttributes> unprocessedKeys =
+                    batchLoadContext.getBatchGetItemResult().getUnprocessedKeys();
+            return unprocessedKeys != null && !unprocessedKeys.isEmpty()
+                    && batchLoadContext.getRetriesAttempted() < MAX_RETRIES;
+        }
+
+        @Override
+        public long getDelayBeforeNextRetry(BatchLoadContext batchLoadContext) {
+            return backoffMs(batchLoadContext.getRetriesAttempted());
+        }
+    }
+}
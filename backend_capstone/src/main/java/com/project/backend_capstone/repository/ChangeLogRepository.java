@@ -0,0 +1,64 @@
+package com.project.backend_capstone.repository;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.Put;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.project.backend_capstone.model.ChangeLogEntry;
+
+// Reads and writes the hour-bucketed, sharded ChangeLog table
+@Repository
+public class ChangeLogRepository {
+
+    private final DynamoDBMapper dynamoDBMapper;
+
+    @Autowired
+    public ChangeLogRepository(DynamoDBMapper dynamoDBMapper) {
+        this.dynamoDBMapper = dynamoDBMapper;
+    }
+
+    public void saveAll(List<ChangeLogEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<DynamoDBMapper.FailedBatch> failedBatches = dynamoDBMapper.batchSave(entries);
+        if (!failedBatches.isEmpty()) {
+            throw new RuntimeException("Failed to write change log", failedBatches.get(0).getException());
+        }
+    }
+
+    // The entry as a put, to commit in the same TransactWriteItems as the change it records
+    public TransactWriteItem toTransactItem(ChangeLogEntry entry) {
+        return new TransactWriteItem().withPut(new Put()
+                .withTableName("ChangeLog")
+                .withItem(dynamoDBMapper.getTableModel(ChangeLogEntry.class).convert(entry)));
+    }
+
+    // One page of a bucket's entries after the given cursor, oldest first
+    public QueryResultPage<ChangeLogEntry> findPageAfter(String bucket, String afterCursor,
+            Map<String, AttributeValue> exclusiveStartKey, int limit) {
+        ChangeLogEntry hashKey = new ChangeLogEntry();
+        hashKey.setBucket(bucket);
+
+        DynamoDBQueryExpression<ChangeLogEntry> queryExpression = new DynamoDBQueryExpression<ChangeLogEntry>()
+                .withHashKeyValues(hashKey)
+                .withRangeKeyCondition("change_id", new Condition()
+                        .withComparisonOperator(ComparisonOperator.GT)
+                        .withAttributeValueList(new AttributeValue().withS(afterCursor)))
+                .withScanIndexForward(true)
+                .withExclusiveStartKey(exclusiveStartKey)
+                .withLimit(limit);
+
+        return dynamoDBMapper.queryPage(ChangeLogEntry.class, queryExpression);
+    }
+}
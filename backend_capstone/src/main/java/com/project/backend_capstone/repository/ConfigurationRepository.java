@@ -0,0 +1,91 @@
+package com.project.backend_capstone.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.project.backend_capstone.model.Configuration;
+
+// Key-condition reads for the Configuration table (category_id is the partition key,
+// configuration_id has its own GSI)
+@Repository
+public class ConfigurationRepository {
+    // Items requested per query page
+    static final int PAGE_SIZE = 100;
+
+    private final DynamoDBMapper dynamoDBMapper;
+
+    // Flipped on by ConfigurationIdIndexMigration once the GSI is ACTIVE and backfilled
+    private volatile boolean configurationIdIndexReady = false;
+
+    @Autowired
+    public ConfigurationRepository(DynamoDBMapper dynamoDBMapper) {
+        this.dynamoDBMapper = dynamoDBMapper;
+    }
+
+    // Get one page of configurations for a category, starting after exclusiveStartKey (null for the first page)
+    public QueryResultPage<Configuration> findPageByCategoryId(String categoryId,
+            Map<String, AttributeValue> exclusiveStartKey, int limit) {
+        Configuration hashKey = new Configuration();
+        hashKey.setCategoryId(categoryId);
+
+        // Only the category's partition is read, so cost does not grow with other categories
+        DynamoDBQueryExpression<Configuration> queryExpression = new DynamoDBQueryExpression<Configuration>()
+                .withHashKeyValues(hashKey)
+                .withExclusiveStartKey(exclusiveStartKey)
+                .withLimit(limit);
+
+        return dynamoDBMapper.queryPage(Configuration.class, queryExpression);
+    }
+
+    // Stream every configuration of a category, fetching pages as they are consumed
+    public Stream<Configuration> streamByCategoryId(String categoryId) {
+        return QueryPages.stream(startKey -> findPageByCategoryId(categoryId, startKey, PAGE_SIZE));
+    }
+
+    // Get every configuration of a category
+    public List<Configuration> findByCategoryId(String categoryId) {
+        try (Stream<Configuration> configurations = streamByCategoryId(categoryId)) {
+            return configurations.collect(Collectors.toList());
+        }
+    }
+
+    // Find a configuration by its ID alone (null if there is none) with a single GSI query. Until the
+    // index is ready this falls back to a filtered scan of the whole table.
+    public Configuration findByConfigurationId(String configurationId) {
+        if (configurationIdIndexReady) {
+            Configuration hashKey = new Configuration();
+            hashKey.setConfigurationId(configurationId);
+
+            // GSIs only support eventually consistent reads
+            DynamoDBQueryExpression<Configuration> queryExpression = new DynamoDBQueryExpression<Configuration>()
+                    .withIndexName(Configuration.CONFIGURATION_ID_INDEX)
+                    .withHashKeyValues(hashKey)
+                    .withConsistentRead(false)
+                    .withLimit(1);
+
+            List<Configuration> matches = dynamoDBMapper.queryPage(Configuration.class, queryExpression).getResults();
+            return matches.isEmpty() ? null : matches.get(0);
+        }
+
+        DynamoDBScanExpression scanExpression = new DynamoDBScanExpression()
+                .withFilterExpression("configuration_id = :id")
+                .withExpressionAttributeValues(Map.of(":id", new AttributeValue().withS(configurationId)));
+
+        List<Configuration> matches = dynamoDBMapper.scan(Configuration.class, scanExpression);
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+
+    public void setConfigurationIdIndexReady(boolean configurationIdIndexReady) {
+        this.configurationIdIndexReady = configurationIdIndexReady;
+    }
+}
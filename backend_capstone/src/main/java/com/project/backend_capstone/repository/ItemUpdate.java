@@ -0,0 +1,22 @@
+package com.project.backend_capstone.repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+// A "SET these attributes on this existing item" write, used for batched status changes
+public record ItemUpdate(String tableName, Map<String, AttributeValue> key, Map<String, AttributeValue> values) {
+
+    // Update for a VersionConfiguration or Version item, both keyed by (<hashKey>, version_num)
+    public static ItemUpdate forVersion(String tableName, String hashKeyName, String hashKeyValue,
+            Integer versionNum, Map<String, String> stringValues) {
+        Map<String, AttributeValue> key = Map.of(
+                hashKeyName, new AttributeValue().withS(hashKeyValue),
+                "version_num", new AttributeValue().withN(versionNum.toString()));
+
+        Map<String, AttributeValue> values = new LinkedHashMap<>();
+        stringValues.forEach((name, value) -> values.put(name, new AttributeValue().withS(value)));
+        return new ItemUpdate(tableName, key, values);
+    }
+}
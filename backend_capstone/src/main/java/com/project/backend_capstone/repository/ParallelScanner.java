@@ -0,0 +1,192 @@
+package com.project.backend_capstone.repository;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+
+// Full-table reads split into Segment/TotalSegments parallel scans. One worker per segment walks
+// its segment page by page and hands pages to the caller through a bounded queue, so a slow
+// consumer pauses the workers instead of piling up the table in memory. Every request is paid for
+// from the shared ReadCapacityBudget. Items come out in no particular order.
+@Repository
+public class ParallelScanner {
+    // How many pages per segment may wait in the queue for the consumer
+    private static final int QUEUED_PAGES_PER_SEGMENT = 2;
+
+    private final AmazonDynamoDB amazonDynamoDB;
+    private final DynamoDBMapper dynamoDBMapper;
+    private final ExecutorService executor;
+    private final ReadCapacityBudget budget;
+
+    @Value("${app.dynamodb.scan.segments:8}")
+    private int defaultSegments;
+
+    @Autowired
+    public ParallelScanner(AmazonDynamoDB amazonDynamoDB, DynamoDBMapper dynamoDBMapper,
+            @Qualifier("parallelScanExecutor") ExecutorService executor, ReadCapacityBudget budget) {
+        this.amazonDynamoDB = amazonDynamoDB;
+        this.dynamoDBMapper = dynamoDBMapper;
+        this.executor = executor;
+        this.budget = budget;
+    }
+
+    // Every item of a mapped table, scanned with the default number of segments
+    public <T> List<T> scanAll(Class<T> clazz) {
+        try (Stream<T> items = scan(clazz, defaultSegments)) {
+            return items.collect(Collectors.toList());
+        }
+    }
+
+    public <T> Stream<T> scan(Class<T> clazz, int totalSegments) {
+        String tableName = clazz.getAnnotation(DynamoDBTable.class).tableName();
+        return scan(tableName, totalSegments).map(item -> dynamoDBMapper.marshallIntoObject(clazz, item));
+    }
+
+    public Stream<Map<String, AttributeValue>> scan(String tableName) {
+        return scan(tableName, defaultSegments);
+    }
+
+    // Lazily stream every raw item of a table. Close the stream to stop the workers early.
+    public Stream<Map<String, AttributeValue>> scan(String tableName, int totalSegments) {
+        if (totalSegments < 1) {
+            throw new IllegalArgumentException("totalSegments must be at least 1");
+        }
+
+        MergingIterator iterator = new MergingIterator(totalSegments);
+        for (int segment = 0; segment < totalSegments; segment++) {
+            int current = segment;
+            executor.execute(() -> iterator.scanSegment(tableName, current));
+        }
+
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false)
+                .onClose(iterator::cancel);
+    }
+
+    // What a segment worker hands over: a page of items, its end, or its failure
+    private record Page(List<Map<String, AttributeValue>> items, boolean last, RuntimeException error) {
+    }
+
+    private class MergingIterator implements Iterator<Map<String, AttributeValue>> {
+        private final int totalSegments;
+        private final BlockingQueue<Page> pages;
+        private volatile boolean cancelled;
+        private int finishedSegments;
+        private Iterator<Map<String, AttributeValue>> current;
+
+        MergingIterator(int totalSegments) {
+            this.totalSegments = totalSegments;
+            this.pages = new ArrayBlockingQueue<>(totalSegments * QUEUED_PAGES_PER_SEGMENT + totalSegments);
+        }
+
+        void scanSegment(String tableName, int segment) {
+            try {
+                Map<String, AttributeValue> startKey = null;
+                do {
+                    budget.acquire();
+                    ScanResult result = amazonDynamoDB.scan(new ScanRequest()
+                            .withTableName(tableName)
+                            .withSegment(segment)
+                            .withTotalSegments(totalSegments)
+                            .withExclusiveStartKey(startKey)
+                            .withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+                    if (result.getConsumedCapacity() != null) {
+                        budget.consume(result.getConsumedCapacity().getCapacityUnits());
+                    }
+
+                    startKey = result.getLastEvaluatedKey();
+                    if (startKey != null && startKey.isEmpty()) {
+                        startKey = null;
+                    }
+                    if (!result.getItems().isEmpty() && !hand(new Page(result.getItems(), false, null))) {
+                        return;
+                    }
+                } while (startKey != null && !cancelled);
+                hand(new Page(List.of(), true, null));
+            } catch (InterruptedException e) {
+                // Pool shutting down: still tell the consumer, or it would wait for this segment forever
+                hand(new Page(List.of(), true, new RuntimeException("Scan of segment " + segment
+                        + " was interrupted", e)));
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                hand(new Page(List.of(), true, e));
+            }
+        }
+
+        // Wait for room in the queue; gives up (returning false) once the consumer has gone away
+        private boolean hand(Page page) {
+            try {
+                while (!cancelled) {
+                    if (pages.offer(page, 100, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (current == null || !current.hasNext()) {
+                if (finishedSegments == totalSegments) {
+                    return false;
+                }
+                Page page;
+                try {
+                    page = pages.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                    throw new RuntimeException("Interrupted while scanning", e);
+                }
+                if (page.error() != null) {
+                    cancel();
+                    throw page.error();
+                }
+                if (page.last()) {
+                    finishedSegments++;
+                }
+                current = page.items().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public Map<String, AttributeValue> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        void cancel() {
+            cancelled = true;
+            pages.clear();
+        }
+    }
+}
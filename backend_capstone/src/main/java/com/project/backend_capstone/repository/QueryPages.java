@@ -0,0 +1,78 @@
+package com.project.backend_capstone.repository;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+
+// Helper for walking DynamoDB query pages one at a time instead of loading everything up front
+public final class QueryPages {
+
+    private QueryPages() {
+    }
+
+    // Lazily stream every item, fetching the next page only when the current one is used up.
+    // The page fetcher gets the previous page's LastEvaluatedKey (null for the first page).
+    public static <T> Stream<T> stream(Function<Map<String, AttributeValue>, QueryResultPage<T>> pageFetcher) {
+        Iterator<T> iterator = new Iterator<T>() {
+            private Iterator<T> current = null;
+            private Map<String, AttributeValue> lastEvaluatedKey = null;
+            private boolean lastPage = false;
+
+            @Override
+            public boolean hasNext() {
+                while (current == null || !current.hasNext()) {
+                    if (lastPage) {
+                        return false;
+                    }
+                    QueryResultPage<T> page = pageFetcher.apply(lastEvaluatedKey);
+                    List<T> results = page.getResults();
+                    current = results.iterator();
+                    lastEvaluatedKey = page.getLastEvaluatedKey();
+                    lastPage = lastEvaluatedKey == null || lastEvaluatedKey.isEmpty();
+                }
+                return true;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    // Build a sort-key condition for an optional numeric range (inclusive); null when unbounded
+    public static Condition numericRange(Integer from, Integer to) {
+        if (from != null && to != null) {
+            return new Condition()
+                    .withComparisonOperator(ComparisonOperator.BETWEEN)
+                    .withAttributeValueList(new AttributeValue().withN(from.toString()),
+                            new AttributeValue().withN(to.toString()));
+        } else if (from != null) {
+            return new Condition()
+                    .withComparisonOperator(ComparisonOperator.GE)
+                    .withAttributeValueList(new AttributeValue().withN(from.toString()));
+        } else if (to != null) {
+            return new Condition()
+                    .withComparisonOperator(ComparisonOperator.LE)
+                    .withAttributeValueList(new AttributeValue().withN(to.toString()));
+        }
+        return null;
+    }
+}
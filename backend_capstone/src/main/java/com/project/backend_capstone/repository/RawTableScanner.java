@@ -0,0 +1,113 @@
+package com.project.backend_capstone.repository;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+
+// Whole-table scans of raw items that follow LastEvaluatedKey to the end instead of stopping at
+// the first 1 MB page
+@Repository
+public class RawTableScanner {
+
+    private final AmazonDynamoDB amazonDynamoDB;
+    private final ExecutorService executor;
+
+    @Autowired
+    public RawTableScanner(AmazonDynamoDB amazonDynamoDB,
+            @Qualifier("dynamoFanOutExecutor") ExecutorService executor) {
+        this.amazonDynamoDB = amazonDynamoDB;
+        this.executor = executor;
+    }
+
+    // One page of a table; limit may be null for a full (up to 1 MB) page
+    public ScanResult scanPage(String tableName, Map<String, AttributeValue> exclusiveStartKey, Integer limit) {
+        return amazonDynamoDB.scan(new ScanRequest()
+                .withTableName(tableName)
+                .withExclusiveStartKey(exclusiveStartKey)
+                .withLimit(limit));
+    }
+
+    // Lazily stream every item of a table. While one page is being consumed the next one is
+    // already being fetched, but never more than that, so memory stays at about two pages
+    // whatever the table size. Close the stream to stop early.
+    public Stream<Map<String, AttributeValue>> streamAll(String tableName) {
+        PrefetchingIterator iterator = new PrefetchingIterator(tableName);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::cancel);
+    }
+
+    private class PrefetchingIterator implements Iterator<Map<String, AttributeValue>> {
+        private final String tableName;
+        private Iterator<Map<String, AttributeValue>> current;
+        private CompletableFuture<ScanResult> next;
+
+        PrefetchingIterator(String tableName) {
+            this.tableName = tableName;
+            this.next = fetch(null);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (current == null || !current.hasNext()) {
+                if (next == null) {
+                    return false;
+                }
+                ScanResult page = join(next);
+                List<Map<String, AttributeValue>> items = page.getItems();
+                current = items.iterator();
+
+                Map<String, AttributeValue> lastEvaluatedKey = page.getLastEvaluatedKey();
+                next = lastEvaluatedKey == null || lastEvaluatedKey.isEmpty() ? null : fetch(lastEvaluatedKey);
+            }
+            return true;
+        }
+
+        @Override
+        public Map<String, AttributeValue> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        void cancel() {
+            if (next != null) {
+                next.cancel(false);
+                next = null;
+            }
+        }
+
+        private CompletableFuture<ScanResult> fetch(Map<String, AttributeValue> startKey) {
+            return CompletableFuture.supplyAsync(() -> scanPage(tableName, startKey, null), executor);
+        }
+
+        private ScanResult join(CompletableFuture<ScanResult> page) {
+            try {
+                return page.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
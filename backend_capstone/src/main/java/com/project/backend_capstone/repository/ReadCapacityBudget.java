@@ -0,0 +1,60 @@
+package com.project.backend_capstone.repository;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Node-wide token bucket of read capacity units per second for bulk scans, so exports don't eat
+// the provisioned throughput the interactive endpoints need. A non-positive rate means unlimited.
+//
+// A scan page's cost is only known after it returns, so callers wait for a non-negative balance
+// before each request and pay the actual ConsumedCapacity afterwards (the balance may dip below zero).
+@Component
+public class ReadCapacityBudget {
+
+    private final double unitsPerSecond;
+    // At most one second's worth of unused capacity can be saved up
+    private final double burst;
+    private double available;
+    private long lastRefillNanos = System.nanoTime();
+
+    public ReadCapacityBudget(@Value("${app.dynamodb.scan.max-rcu-per-second:0}") double unitsPerSecond) {
+        this.unitsPerSecond = unitsPerSecond;
+        this.burst = Math.max(unitsPerSecond, 1);
+        this.available = burst;
+    }
+
+    // Block until there is capacity left to spend
+    public void acquire() throws InterruptedException {
+        if (unitsPerSecond <= 0) {
+            return;
+        }
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (available > 0) {
+                    return;
+                }
+                waitNanos = (long) (-available / unitsPerSecond * TimeUnit.SECONDS.toNanos(1)) + 1;
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    // Record the capacity a request actually consumed
+    public synchronized void consume(double units) {
+        if (unitsPerSecond <= 0) {
+            return;
+        }
+        refill();
+        available -= units;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        available = Math.min(burst, available + (now - lastRefillNanos) / 1e9 * unitsPerSecond);
+        lastRefillNanos = now;
+    }
+}
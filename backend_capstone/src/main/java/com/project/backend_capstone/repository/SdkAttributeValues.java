@@ -0,0 +1,80 @@
+package com.project.backend_capstone.repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+import software.amazon.awssdk.core.SdkBytes;
+
+// Converts items between the v1 AttributeValue the mapper works with and the v2 one the async
+// client sends, so mapped classes can be read over the async client
+final class SdkAttributeValues {
+
+    private SdkAttributeValues() {
+    }
+
+    static Map<String, software.amazon.awssdk.services.dynamodb.model.AttributeValue> toV2(Map<String, AttributeValue> item) {
+        Map<String, software.amazon.awssdk.services.dynamodb.model.AttributeValue> converted = new LinkedHashMap<>();
+        item.forEach((name, value) -> converted.put(name, toV2(value)));
+        return converted;
+    }
+
+    static Map<String, AttributeValue> toV1(Map<String, software.amazon.awssdk.services.dynamodb.model.AttributeValue> item) {
+        Map<String, AttributeValue> converted = new LinkedHashMap<>();
+        item.forEach((name, value) -> converted.put(name, toV1(value)));
+        return converted;
+    }
+
+    static software.amazon.awssdk.services.dynamodb.model.AttributeValue toV2(AttributeValue value) {
+        software.amazon.awssdk.services.dynamodb.model.AttributeValue.Builder builder =
+                software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder();
+        if (value.getS() != null) {
+            builder.s(value.getS());
+        } else if (value.getN() != null) {
+            builder.n(value.getN());
+        } else if (value.getB() != null) {
+            builder.b(SdkBytes.fromByteBuffer(value.getB().duplicate()));
+        } else if (value.getSS() != null) {
+            builder.ss(value.getSS());
+        } else if (value.getNS() != null) {
+            builder.ns(value.getNS());
+        } else if (value.getBS() != null) {
+            builder.bs(value.getBS().stream().map(b -> SdkBytes.fromByteBuffer(b.duplicate())).toList());
+        } else if (value.getM() != null) {
+            builder.m(toV2(value.getM()));
+        } else if (value.getL() != null) {
+            builder.l(value.getL().stream().map(SdkAttributeValues::toV2).toList());
+        } else if (value.getBOOL() != null) {
+            builder.bool(value.getBOOL());
+        } else {
+            builder.nul(true);
+        }
+        return builder.build();
+    }
+
+    static AttributeValue toV1(software.amazon.awssdk.services.dynamodb.model.AttributeValue value) {
+        switch (value.type()) {
+            case S:
+                return new AttributeValue().withS(value.s());
+            case N:
+                return new AttributeValue().withN(value.n());
+            case B:
+                return new AttributeValue().withB(value.b().asByteBuffer());
+            case SS:
+                return new AttributeValue().withSS(value.ss());
+            case NS:
+                return new AttributeValue().withNS(value.ns());
+            case BS:
+                return new AttributeValue().withBS(value.bs().stream().map(SdkBytes::asByteBuffer).toList());
+            case M:
+                return new AttributeValue().withM(toV1(value.m()));
+            case L:
+                return new AttributeValue().withL(value.l().stream().map(SdkAttributeValues::toV1).toList());
+            case BOOL:
+                return new AttributeValue().withBOOL(value.bool());
+            default:
+                return new AttributeValue().withNULL(true);
+        }
+    }
+}
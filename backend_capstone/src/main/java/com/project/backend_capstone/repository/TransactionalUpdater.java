@@ -0,0 +1,160 @@
+package com.project.backend_capstone.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.CancellationReason;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactionCanceledException;
+import com.amazonaws.services.dynamodbv2.model.Update;
+
+// Applies many ItemUpdates as TransactWriteItems chunks issued in parallel. Each chunk is atomic,
+// together with any writes the caller attaches to it (its change log entries); the updates only SET
+// attributes on items that already exist, so re-running them is harmless. An update whose item was
+// deleted in the meantime is dropped rather than failing its chunk.
+@Repository
+public class TransactionalUpdater {
+    // Updates per transaction: with one attached write per update this stays well under the
+    // 100-item TransactWriteItems limit
+    static final int MAX_ITEMS_PER_TRANSACTION = 25;
+    private static final int MAX_ATTEMPTS = 5;
+    // Cancellation reasons that can clear up on their own
+    private static final Set<String> RETRYABLE_REASONS = Set.of("TransactionConflict", "ThrottlingError",
+            "ProvisionedThroughputExceeded");
+    private static final String CONDITIONAL_CHECK_FAILED = "ConditionalCheckFailed";
+
+    private final AmazonDynamoDB amazonDynamoDB;
+    private final ExecutorService executor;
+
+    @Autowired
+    public TransactionalUpdater(AmazonDynamoDB amazonDynamoDB,
+            @Qualifier("dynamoFanOutExecutor") ExecutorService executor) {
+        this.amazonDynamoDB = amazonDynamoDB;
+        this.executor = executor;
+    }
+
+    // Apply every update. alsoWrite gives the writes to commit in the same transaction as a chunk
+    // (asked again for every attempt, for just the updates still in it); onApplied receives each chunk
+    // once it has been committed.
+    public void applyAll(List<ItemUpdate> updates, Function<List<ItemUpdate>, List<TransactWriteItem>> alsoWrite,
+            Consumer<List<ItemUpdate>> onApplied) {
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int start = 0; start < updates.size(); start += MAX_ITEMS_PER_TRANSACTION) {
+            List<ItemUpdate> chunk = updates.subList(start, Math.min(start + MAX_ITEMS_PER_TRANSACTION,
+                    updates.size()));
+            chunks.add(CompletableFuture.runAsync(() -> {
+                applyChunk(chunk, alsoWrite);
+                onApplied.accept(chunk);
+            }, executor));
+        }
+
+        try {
+            CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void applyChunk(List<ItemUpdate> chunk, Function<List<ItemUpdate>, List<TransactWriteItem>> alsoWrite) {
+        List<ItemUpdate> remaining = chunk;
+        int retries = 0;
+        while (!remaining.isEmpty()) {
+            List<TransactWriteItem> items = new ArrayList<>();
+            remaining.forEach(update -> items.add(toTransactItem(update)));
+            items.addAll(alsoWrite.apply(remaining));
+            try {
+                amazonDynamoDB.transactWriteItems(new TransactWriteItemsRequest().withTransactItems(items));
+                return;
+            } catch (TransactionCanceledException e) {
+                // Reasons line up with the items, and the updates come first
+                List<CancellationReason> reasons = e.getCancellationReasons();
+                if (reasons == null || reasons.size() != items.size()) {
+                    throw e;
+                }
+
+                List<ItemUpdate> stillThere = new ArrayList<>();
+                boolean retryable = false;
+                for (int i = 0; i < items.size(); i++) {
+                    String code = reasons.get(i).getCode();
+                    if (i < remaining.size() && CONDITIONAL_CHECK_FAILED.equals(code)) {
+                        // Only attribute_exists can fail: the item is gone, so there is nothing to update
+                        continue;
+                    }
+                    if (RETRYABLE_REASONS.contains(code)) {
+                        retryable = true;
+                    } else if (code != null && !"None".equals(code)) {
+                        throw e;
+                    }
+                    if (i < remaining.size()) {
+                        stillThere.add(remaining.get(i));
+                    }
+                }
+
+                if (retryable) {
+                    // A conflicting write or throttling: back off, so parallel chunks don't retry in lockstep
+                    if (++retries >= MAX_ATTEMPTS) {
+                        throw e;
+                    }
+                    sleep(BatchLoader.backoffMs(retries));
+                } else if (stillThere.size() == remaining.size()) {
+                    throw e;
+                }
+                remaining = stillThere;
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying a transaction", e);
+        }
+    }
+
+    private static TransactWriteItem toTransactItem(ItemUpdate update) {
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        List<String> assignments = new ArrayList<>();
+
+        int i = 0;
+        for (Map.Entry<String, AttributeValue> entry : update.values().entrySet()) {
+            // Placeholders for every name, since attributes like "status" are reserved words
+            names.put("#a" + i, entry.getKey());
+            values.put(":v" + i, entry.getValue());
+            assignments.add("#a" + i + " = :v" + i);
+            i++;
+        }
+
+        String keyName = update.key().keySet().iterator().next();
+        names.put("#k", keyName);
+
+        return new TransactWriteItem().withUpdate(new Update()
+                .withTableName(update.tableName())
+                .withKey(update.key())
+                .withUpdateExpression("SET " + String.join(", ", assignments))
+                // Never create an item that was deleted in the meantime
+                .withConditionExpression("attribute_exists(#k)")
+                .withExpressionAttributeNames(names)
+                .withExpressionAttributeValues(values));
+    }
+}
@@ -0,0 +1,135 @@
+package com.project.backend_capstone.repository;
+
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBDeleteExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBSaveExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTransactionWriteExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.TransactionWriteRequest;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.CancellationReason;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ConditionalOperator;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.TransactionCanceledException;
+import com.project.backend_capstone.model.UniqueName;
+
+// Case-insensitive name uniqueness in O(1): an entity is saved in one transaction with a conditional
+// put of its UniqueName claim, so two concurrent creates with the same name can't both succeed
+@Repository
+public class UniqueNameRepository {
+    public static final String CATEGORY = "category";
+    public static final String USER_GROUP = "user-group";
+
+    // TransactWriteItems takes at most 100 items: the claim and the entity, plus what rides along
+    public static final int MAX_ALSO_SAVED = 98;
+
+    // Only succeeds if nobody holds the name yet
+    private static final String UNCLAIMED = "attribute_not_exists(name_key)";
+
+    // Written once the names of entities created before the index existed have all been claimed.
+    // No scope starts with '#', so it can't clash with a real claim.
+    private static final String BACKFILLED_KEY = "#backfilled";
+
+    private final DynamoDBMapper dynamoDBMapper;
+
+    // Once seen, the marker is never removed, so it only has to be read until it shows up
+    private volatile boolean backfilled;
+
+    @Autowired
+    public UniqueNameRepository(DynamoDBMapper dynamoDBMapper) {
+        this.dynamoDBMapper = dynamoDBMapper;
+    }
+
+    // Configuration names only have to be unique within their category
+    public static String configurationScope(String categoryId) {
+        return "configuration#" + categoryId;
+    }
+
+    static String key(String scope, String name) {
+        return scope + "#" + Normalizer.normalize(name.trim(), Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    // Save a new entity together with the claim on its name. Returns false, saving nothing, if the
+    // name is already taken in the scope. Refused until the backfill has finished, since an older
+    // entity may still hold the name without a claim.
+    public boolean saveClaimingName(Object entity, String scope, String name, String ownerId) {
+        return saveClaimingName(entity, scope, name, ownerId, List.of());
+    }
+
+    // Same, also saving alsoSave (up to MAX_ALSO_SAVED mapped entities) in the same transaction
+    public boolean saveClaimingName(Object entity, String scope, String name, String ownerId,
+            Collection<?> alsoSave) {
+        if (!isBackfilled()) {
+            throw new RuntimeException("Names are still being indexed, try again shortly");
+        }
+        if (alsoSave.size() > MAX_ALSO_SAVED) {
+            throw new IllegalArgumentException("At most " + MAX_ALSO_SAVED + " items can be saved with a name claim");
+        }
+        TransactionWriteRequest request = new TransactionWriteRequest()
+                .addPut(new UniqueName(key(scope, name), ownerId, name),
+                        new DynamoDBTransactionWriteExpression().withConditionExpression(UNCLAIMED))
+                .addPut(entity);
+        alsoSave.forEach(request::addPut);
+        try {
+            dynamoDBMapper.transactionWrite(request);
+            return true;
+        } catch (TransactionCanceledException e) {
+            List<CancellationReason> reasons = e.getCancellationReasons();
+            if (reasons != null && !reasons.isEmpty() && "ConditionalCheckFailed".equals(reasons.get(0).getCode())) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    // Claim the name of an entity saved before the index existed. Returns false if another owner
+    // already holds it (an old duplicate); claiming a name twice for the same owner is fine.
+    public boolean claimExisting(String scope, String name, String ownerId) {
+        try {
+            // Unclaimed, or already held by this owner
+            dynamoDBMapper.save(new UniqueName(key(scope, name), ownerId, name), new DynamoDBSaveExpression()
+                    .withExpected(Map.of(
+                            "name_key", new ExpectedAttributeValue(false),
+                            "owner_id", new ExpectedAttributeValue(new AttributeValue().withS(ownerId))))
+                    .withConditionalOperator(ConditionalOperator.OR));
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    // Free the name once its owner is deleted (left alone if someone else holds it)
+    public void release(String scope, String name, String ownerId) {
+        if (name == null) {
+            return;
+        }
+        try {
+            dynamoDBMapper.delete(new UniqueName(key(scope, name), ownerId, name), new DynamoDBDeleteExpression()
+                    .withConditionExpression("owner_id = :owner")
+                    .withExpressionAttributeValues(Map.of(":owner", new AttributeValue().withS(ownerId))));
+        } catch (ConditionalCheckFailedException e) {
+            // Not claimed by this owner
+        }
+    }
+
+    public boolean isBackfilled() {
+        if (!backfilled) {
+            backfilled = dynamoDBMapper.load(UniqueName.class, BACKFILLED_KEY) != null;
+        }
+        return backfilled;
+    }
+
+    public void markBackfilled() {
+        dynamoDBMapper.save(new UniqueName(BACKFILLED_KEY, null, null));
+        backfilled = true;
+    }
+}
@@ -0,0 +1,233 @@
+package com.project.backend_capstone.repository;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+
+// One request's view of DynamoDB: identical reads (GetItem, Query, Scan, BatchGetItem with an equal
+// request) are answered from memory after the first, and every storage call is counted by operation.
+//
+// The unit of work is bound to the current thread and follows tasks handed to a propagating()
+// executor. Any call that may write (puts, updates, deletes, transactions, table changes) clears the
+// memo, so a read after a write in the same request always goes to the table. Writes themselves
+// are sent straight away: callers rely on conditional writes failing at the call site, and the
+// bulk paths already batch through TransactWriteItems. Memoized results are shared, so callers
+// must treat them as read-only, as the mapper does.
+public final class UnitOfWork {
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private final int maxCachedItems;
+    private final Map<AmazonWebServiceRequest, Object> results = new ConcurrentHashMap<>();
+    private final AtomicInteger cachedItems = new AtomicInteger();
+    // Bumped by every write so a read that overlapped one isn't memoized
+    private final AtomicLong writeGeneration = new AtomicLong();
+    private final Map<String, AtomicInteger> callsByOperation = new ConcurrentHashMap<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger memoHits = new AtomicInteger();
+    // Set by end(); tasks still running or queued from the request then bypass it
+    private volatile boolean ended;
+
+    private UnitOfWork(int maxCachedItems) {
+        this.maxCachedItems = maxCachedItems;
+    }
+
+    // Start a unit of work on this thread; reads keep at most maxCachedItems items in memory
+    public static UnitOfWork begin(int maxCachedItems) {
+        UnitOfWork unitOfWork = new UnitOfWork(maxCachedItems);
+        CURRENT.set(unitOfWork);
+        return unitOfWork;
+    }
+
+    public static UnitOfWork current() {
+        return CURRENT.get();
+    }
+
+    // Detach from this thread and drop the memo; the counts stay readable
+    public void end() {
+        ended = true;
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+        results.clear();
+    }
+
+    public int getCalls() {
+        return calls.get();
+    }
+
+    public int getMemoHits() {
+        return memoHits.get();
+    }
+
+    public Map<String, Integer> getCallsByOperation() {
+        Map<String, Integer> counts = new TreeMap<>();
+        callsByOperation.forEach((operation, count) -> counts.put(operation, count.get()));
+        return counts;
+    }
+
+    // Wraps a client so calls made inside a unit of work are counted and reads are memoized.
+    // Outside a unit of work (startup jobs, background threads) calls go straight through.
+    public static AmazonDynamoDB tracking(AmazonDynamoDB client) {
+        return (AmazonDynamoDB) Proxy.newProxyInstance(AmazonDynamoDB.class.getClassLoader(),
+                new Class<?>[] { AmazonDynamoDB.class }, (proxy, method, args) -> {
+                    UnitOfWork unitOfWork = CURRENT.get();
+                    if (unitOfWork == null || unitOfWork.ended || !isStorageCall(method, args)) {
+                        return invoke(client, method, args);
+                    }
+                    return unitOfWork.call(client, method, args);
+                });
+    }
+
+    // Runs tasks with the unit of work of the thread that submitted them
+    public static ExecutorService propagating(ExecutorService executor) {
+        return new AbstractExecutorService() {
+            @Override
+            public void execute(Runnable task) {
+                executor.execute(propagate(task));
+            }
+
+            @Override
+            public void shutdown() {
+                executor.shutdown();
+            }
+
+            @Override
+            public List<Runnable> shutdownNow() {
+                return executor.shutdownNow();
+            }
+
+            @Override
+            public boolean isShutdown() {
+                return executor.isShutdown();
+            }
+
+            @Override
+            public boolean isTerminated() {
+                return executor.isTerminated();
+            }
+
+            @Override
+            public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+                return executor.awaitTermination(timeout, unit);
+            }
+        };
+    }
+
+    private static Runnable propagate(Runnable task) {
+        UnitOfWork captured = CURRENT.get();
+        if (captured == null || captured.ended) {
+            return task;
+        }
+        return () -> {
+            if (captured.ended) {
+                // A background task that outlived its request; its calls belong to no endpoint
+                task.run();
+                return;
+            }
+            UnitOfWork previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    private Object call(AmazonDynamoDB client, Method method, Object[] args) throws Throwable {
+        String operation = method.getName();
+        // The mapper builds a fresh request per call; copy it anyway so later changes to the
+        // caller's object can't alter the key
+        AmazonWebServiceRequest key = isMemoizable(operation, args) ? ((AmazonWebServiceRequest) args[0]).clone() : null;
+        if (key != null) {
+            Object memoized = results.get(key);
+            if (memoized != null) {
+                memoHits.incrementAndGet();
+                return memoized;
+            }
+        }
+
+        calls.incrementAndGet();
+        callsByOperation.computeIfAbsent(operation, name -> new AtomicInteger()).incrementAndGet();
+        if (!isRead(operation)) {
+            try {
+                return invoke(client, method, args);
+            } finally {
+                // Forget reads memoized before or during the write
+                writeGeneration.incrementAndGet();
+                results.clear();
+                cachedItems.set(0);
+            }
+        }
+        if (key == null) {
+            return invoke(client, method, args);
+        }
+
+        long generation = writeGeneration.get();
+        Object result = invoke(client, method, args);
+        if (!ended && writeGeneration.get() == generation
+                && cachedItems.addAndGet(itemCount(result)) <= maxCachedItems) {
+            results.put(key, result);
+        }
+        return result;
+    }
+
+    private static boolean isStorageCall(Method method, Object[] args) {
+        // Leaves out Object methods, shutdown(), waiters, endpoint setters and response metadata
+        return method.getDeclaringClass() == AmazonDynamoDB.class && args != null && args.length > 0
+                && !method.getName().startsWith("set") && !method.getName().equals("getCachedResponseMetadata");
+    }
+
+    private static boolean isRead(String operation) {
+        return operation.startsWith("get") || operation.startsWith("batchGet") || operation.startsWith("transactGet")
+                || operation.startsWith("query") || operation.startsWith("scan")
+                || operation.startsWith("describe") || operation.startsWith("list");
+    }
+
+    private static boolean isMemoizable(String operation, Object[] args) {
+        return (operation.equals("getItem") || operation.equals("query") || operation.equals("scan")
+                || operation.equals("batchGetItem"))
+                && args.length == 1 && args[0] instanceof AmazonWebServiceRequest;
+    }
+
+    private static int itemCount(Object result) {
+        if (result instanceof GetItemResult) {
+            return 1;
+        } else if (result instanceof QueryResult queryResult && queryResult.getItems() != null) {
+            return queryResult.getItems().size();
+        } else if (result instanceof ScanResult scanResult && scanResult.getItems() != null) {
+            return scanResult.getItems().size();
+        } else if (result instanceof BatchGetItemResult batchResult && batchResult.getResponses() != null) {
+            return batchResult.getResponses().values().stream().mapToInt(List::size).sum();
+        }
+        return 1;
+    }
+
+    private static Object invoke(AmazonDynamoDB client, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(client, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.project.backend_capstone.repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.Delete;
+import com.amazonaws.services.dynamodbv2.model.Put;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.project.backend_capstone.model.UserGroupMembership;
+
+// Reads and incremental updates for the UserGroupMembership index (username -> groups -> categories)
+@Repository
+public class UserGroupMembershipRepository {
+    static final int PAGE_SIZE = 100;
+    private static final String TABLE_NAME = "UserGroupMembership";
+
+    // Item recording that the index has been built from UserGroups at least once. Group IDs are
+    // UUIDs, so its key can't collide with a real membership.
+    private static final String MARKER_USERNAME = "#index";
+    private static final String MARKER_GROUP_ID = "backfilled";
+
+    private final DynamoDBMapper dynamoDBMapper;
+    private final AmazonDynamoDB amazonDynamoDB;
+
+    @Autowired
+    public UserGroupMembershipRepository(DynamoDBMapper dynamoDBMapper, AmazonDynamoDB amazonDynamoDB) {
+        this.dynamoDBMapper = dynamoDBMapper;
+        this.amazonDynamoDB = amazonDynamoDB;
+    }
+
+    // Get every group membership of a user with one partition query
+    public List<UserGroupMembership> findByUsername(String username) {
+        UserGroupMembership hashKey = new UserGroupMembership();
+        hashKey.setUsername(username);
+
+        try (Stream<UserGroupMembership> memberships = QueryPages.stream(startKey -> dynamoDBMapper.queryPage(
+                UserGroupMembership.class,
+                new DynamoDBQueryExpression<UserGroupMembership>()
+                        .withHashKeyValues(hashKey)
+                        .withExclusiveStartKey(startKey)
+                        .withLimit(PAGE_SIZE)))) {
+            return memberships.collect(Collectors.toList());
+        }
+    }
+
+    // Union of the categories a user can access through all of their groups
+    public Set<String> findCategoryIdsByUsername(String username) {
+        Set<String> categoryIds = new HashSet<>();
+        for (UserGroupMembership membership : findByUsername(username)) {
+            if (membership.getCategory_access() != null) {
+                categoryIds.addAll(membership.getCategory_access());
+            }
+        }
+        return categoryIds;
+    }
+
+    // Write one membership item per user for a group
+    public void saveAll(String user_group_id, String user_group_name, Collection<String> usernames,
+            Set<String> category_access) {
+        List<UserGroupMembership> memberships = entriesFor(user_group_id, user_group_name, usernames,
+                category_access);
+        if (!memberships.isEmpty()) {
+            throwIfFailed(dynamoDBMapper.batchSave(memberships));
+        }
+    }
+
+    // One membership item per user for a group, to save in bulk or in a transaction
+    public List<UserGroupMembership> entriesFor(String user_group_id, String user_group_name,
+            Collection<String> usernames, Set<String> category_access) {
+        if (usernames == null || usernames.isEmpty()) {
+            return List.of();
+        }
+        // DynamoDB rejects empty sets, so store "no categories" as a missing attribute
+        Set<String> categories = category_access == null || category_access.isEmpty() ? null
+                : new HashSet<>(category_access);
+
+        return usernames.stream()
+                .map(username -> new UserGroupMembership(username, user_group_id, user_group_name, categories))
+                .toList();
+    }
+
+    public void deleteAll(String user_group_id, Collection<String> usernames) {
+        if (usernames == null || usernames.isEmpty()) {
+            return;
+        }
+        List<UserGroupMembership> keys = usernames.stream()
+                .map(username -> new UserGroupMembership(username, user_group_id, null, null))
+                .toList();
+        throwIfFailed(dynamoDBMapper.batchDelete(keys));
+    }
+
+    // Remove a category from each member's copy of the group's category_access
+    public void removeCategory(String user_group_id, Collection<String> usernames, String category_id) {
+        if (usernames == null) {
+            return;
+        }
+        for (String username : usernames) {
+            UpdateItemRequest updateRequest = new UpdateItemRequest()
+                    .withTableName(TABLE_NAME)
+                    .withKey(Map.of(
+                            "username", new AttributeValue().withS(username),
+                            "user_group_id", new AttributeValue().withS(user_group_id)))
+                    .withUpdateExpression("DELETE category_access :c")
+                    // Don't create a stub item for a membership that isn't indexed yet
+                    .withConditionExpression("attribute_exists(username)")
+                    .withExpressionAttributeValues(Map.of(":c", new AttributeValue().withSS(category_id)));
+            try {
+                amazonDynamoDB.updateItem(updateRequest);
+            } catch (ConditionalCheckFailedException e) {
+                // Nothing indexed for this member; nothing to remove
+            }
+        }
+    }
+
+    // One member's index entry, to write in the same transaction as the group's row
+    public TransactWriteItem putItem(String username, String user_group_id, String user_group_name,
+            Set<String> category_access) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("username", new AttributeValue().withS(username));
+        item.put("user_group_id", new AttributeValue().withS(user_group_id));
+        item.put("user_group_name", new AttributeValue().withS(user_group_name));
+        // DynamoDB rejects empty sets, so "no categories" is a missing attribute
+        if (category_access != null && !category_access.isEmpty()) {
+            item.put("category_access", new AttributeValue().withSS(category_access));
+        }
+        return new TransactWriteItem().withPut(new Put().withTableName(TABLE_NAME).withItem(item));
+    }
+
+    public TransactWriteItem deleteItem(String username, String user_group_id) {
+        return new TransactWriteItem().withDelete(new Delete().withTableName(TABLE_NAME).withKey(Map.of(
+                "username", new AttributeValue().withS(username),
+                "user_group_id", new AttributeValue().withS(user_group_id))));
+    }
+
+    // Every index entry (for rebuilds), without the backfill marker
+    public List<UserGroupMembership> findAll() {
+        return dynamoDBMapper.scan(UserGroupMembership.class, new DynamoDBScanExpression()).stream()
+                .filter(membership -> !MARKER_USERNAME.equals(membership.getUsername()))
+                .toList();
+    }
+
+    public boolean isBackfilled() {
+        return dynamoDBMapper.load(UserGroupMembership.class, MARKER_USERNAME, MARKER_GROUP_ID) != null;
+    }
+
+    public void markBackfilled() {
+        dynamoDBMapper.save(new UserGroupMembership(MARKER_USERNAME, MARKER_GROUP_ID, null, null));
+    }
+
+    private static void throwIfFailed(List<DynamoDBMapper.FailedBatch> failedBatches) {
+        if (!failedBatches.isEmpty()) {
+            throw new RuntimeException("Failed to update user group membership index",
+                    failedBatches.get(0).getException());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.project.backend_capstone.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.project.backend_capstone.model.User;
+
+// Username lookups for the Users table (user_id is the partition key, username has its own GSI)
+@Repository
+public class UserRepository {
+    private static final Logger logger = LoggerFactory.getLogger(UserRepository.class);
+
+    private final DynamoDBMapper dynamoDBMapper;
+
+    // Flipped on by UsernameIndexMigration once the GSI is ACTIVE and backfilled
+    private volatile boolean usernameIndexReady = false;
+
+    @Autowired
+    public UserRepository(DynamoDBMapper dynamoDBMapper) {
+        this.dynamoDBMapper = dynamoDBMapper;
+    }
+
+    // Find a user by username with a single GSI query (falls back to a scan until the index is ready)
+    public Optional<User> findByUsername(String username) {
+        if (!usernameIndexReady) {
+            return scanByUsername(username);
+        }
+
+        User hashKey = new User();
+        hashKey.setUsername(username);
+
+        // GSIs only support eventually consistent reads
+        DynamoDBQueryExpression<User> queryExpression = new DynamoDBQueryExpression<User>()
+                .withIndexName(User.USERNAME_INDEX)
+                .withHashKeyValues(hashKey)
+                .withConsistentRead(false)
+                .withLimit(1);
+
+        List<User> users = dynamoDBMapper.queryPage(User.class, queryExpression).getResults();
+        return users.stream().findFirst();
+    }
+
+    public boolean existsByUsername(String username) {
+        return findByUsername(username).isPresent();
+    }
+
+    public boolean isUsernameIndexReady() {
+        return usernameIndexReady;
+    }
+
+    public void setUsernameIndexReady(boolean usernameIndexReady) {
+        this.usernameIndexReady = usernameIndexReady;
+        logger.info("Username index {}", usernameIndexReady ? "in use for user lookups" : "not in use");
+    }
+
+    // Full-table fallback used only while the index is missing or still backfilling
+    private Optional<User> scanByUsername(String username) {
+        DynamoDBScanExpression scanExpression = new DynamoDBScanExpression()
+                .withFilterExpression("username = :username")
+                .withExpressionAttributeValues(Map.of(":username", new AttributeValue().withS(username)));
+
+        return dynamoDBMapper.scan(User.class, scanExpression).stream().findFirst();
+    }
+}
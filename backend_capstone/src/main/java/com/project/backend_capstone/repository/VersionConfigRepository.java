@@ -0,0 +1,97 @@
+package com.project.backend_capstone.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.project.backend_capstone.model.VersionConfiguration;
+
+// Version history reads for the VersionConfiguration table
+// (configuration_id partition, version_num sort key)
+@Repository
+public class VersionConfigRepository {
+    static final int PAGE_SIZE = 100;
+    private static final String TABLE_NAME = "VersionConfiguration";
+
+    private final DynamoDBMapper dynamoDBMapper;
+    private final AmazonDynamoDB amazonDynamoDB;
+
+    @Autowired
+    public VersionConfigRepository(DynamoDBMapper dynamoDBMapper, AmazonDynamoDB amazonDynamoDB) {
+        this.dynamoDBMapper = dynamoDBMapper;
+        this.amazonDynamoDB = amazonDynamoDB;
+    }
+
+    // Get one page of a configuration's versions within an optional version_num range
+    public QueryResultPage<VersionConfiguration> findPage(String configurationId, Integer fromVersion,
+            Integer toVersion, boolean descending, Map<String, AttributeValue> exclusiveStartKey, int limit) {
+        VersionConfiguration hashKey = new VersionConfiguration();
+        hashKey.setConfigurationId(configurationId);
+
+        DynamoDBQueryExpression<VersionConfiguration> queryExpression =
+                new DynamoDBQueryExpression<VersionConfiguration>()
+                        .withHashKeyValues(hashKey)
+                        .withScanIndexForward(!descending)
+                        .withExclusiveStartKey(exclusiveStartKey)
+                        .withLimit(limit);
+
+        Condition range = QueryPages.numericRange(fromVersion, toVersion);
+        if (range != null) {
+            queryExpression.withRangeKeyCondition("version_num", range);
+        }
+
+        return dynamoDBMapper.queryPage(VersionConfiguration.class, queryExpression);
+    }
+
+    // Stream a configuration's versions in ascending version order, one page at a time
+    public Stream<VersionConfiguration> streamByConfigurationId(String configurationId, Integer fromVersion,
+            Integer toVersion) {
+        return QueryPages.stream(
+                startKey -> findPage(configurationId, fromVersion, toVersion, false, startKey, PAGE_SIZE));
+    }
+
+    // Get every version of a configuration in ascending version order
+    public List<VersionConfiguration> findByConfigurationId(String configurationId) {
+        try (Stream<VersionConfiguration> versions = streamByConfigurationId(configurationId, null, null)) {
+            return versions.collect(Collectors.toList());
+        }
+    }
+
+    // Get the newest version of a configuration that has the given status (null if none does)
+    public VersionConfiguration findLatestWithStatus(String configurationId, String status) {
+        try (Stream<VersionConfiguration> newestFirst = QueryPages.stream(
+                startKey -> findPage(configurationId, null, null, true, startKey, PAGE_SIZE))) {
+            return newestFirst
+                    .filter(version -> status.equalsIgnoreCase(version.getStatus()))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    // Set the status of one existing version with a single UpdateItem (no read-modify-write)
+    public void updateStatus(String configurationId, Integer versionNum, String status) {
+        UpdateItemRequest updateRequest = new UpdateItemRequest()
+                .withTableName(TABLE_NAME)
+                .withKey(Map.of(
+                        "configuration_id", new AttributeValue().withS(configurationId),
+                        "version_num", new AttributeValue().withN(versionNum.toString())))
+                .withUpdateExpression("SET #status = :status")
+                // Don't resurrect a version that was deleted in the meantime
+                .withConditionExpression("attribute_exists(configuration_id)")
+                .withExpressionAttributeNames(Map.of("#status", "status"))
+                .withExpressionAttributeValues(Map.of(":status", new AttributeValue().withS(status)));
+
+        amazonDynamoDB.updateItem(updateRequest);
+    }
+}
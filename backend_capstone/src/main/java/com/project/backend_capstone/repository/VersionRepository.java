@@ -0,0 +1,62 @@
+package com.project.backend_capstone.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.project.backend_capstone.model.Version;
+
+// Version history reads for the Version table (category_id partition, version_num sort key)
+@Repository
+public class VersionRepository {
+    static final int PAGE_SIZE = 100;
+
+    private final DynamoDBMapper dynamoDBMapper;
+
+    @Autowired
+    public VersionRepository(DynamoDBMapper dynamoDBMapper) {
+        this.dynamoDBMapper = dynamoDBMapper;
+    }
+
+    // Get one page of a category's versions within an optional version_num range
+    public QueryResultPage<Version> findPage(String categoryId, Integer fromVersion, Integer toVersion,
+            boolean descending, Map<String, AttributeValue> exclusiveStartKey, int limit) {
+        Version hashKey = new Version();
+        hashKey.setCategoryId(categoryId);
+
+        DynamoDBQueryExpression<Version> queryExpression = new DynamoDBQueryExpression<Version>()
+                .withHashKeyValues(hashKey)
+                .withScanIndexForward(!descending)
+                .withExclusiveStartKey(exclusiveStartKey)
+                .withLimit(limit);
+
+        Condition range = QueryPages.numericRange(fromVersion, toVersion);
+        if (range != null) {
+            queryExpression.withRangeKeyCondition("version_num", range);
+        }
+
+        return dynamoDBMapper.queryPage(Version.class, queryExpression);
+    }
+
+    // Stream a category's versions in ascending version order, one page at a time
+    public Stream<Version> streamByCategoryId(String categoryId, Integer fromVersion, Integer toVersion) {
+        return QueryPages.stream(
+                startKey -> findPage(categoryId, fromVersion, toVersion, false, startKey, PAGE_SIZE));
+    }
+
+    // Get every version of a category in ascending version order
+    public List<Version> findByCategoryId(String categoryId) {
+        try (Stream<Version> versions = streamByCategoryId(categoryId, null, null)) {
+            return versions.collect(Collectors.toList());
+        }
+    }
+}
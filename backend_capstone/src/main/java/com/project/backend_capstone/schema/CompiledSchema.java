@@ -0,0 +1,95 @@
+package com.project.backend_capstone.schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// An immutable validator compiled from a JSON schema by SchemaCompiler. Safe to share between
+// threads; validating only walks the value and the precompiled checks, and builds paths and
+// messages only for values that fail.
+public final class CompiledSchema {
+    // Used where there is no schema to check against
+    public static final CompiledSchema ACCEPT_ALL = new CompiledSchema(SchemaNode.ANY);
+
+    private final SchemaNode root;
+
+    CompiledSchema(SchemaNode root) {
+        this.root = root;
+    }
+
+    // Every violation in the value (empty when it is valid)
+    public List<SchemaViolation> validate(Object value) {
+        List<SchemaViolation> violations = new ArrayList<>(0);
+        root.validate(value, Path.ROOT, violations);
+        return violations;
+    }
+
+    // Throw a SchemaValidationException listing every violation, if there are any
+    public void check(Object value) {
+        List<SchemaViolation> violations = validate(value);
+        if (!violations.isEmpty()) {
+            throw new SchemaValidationException(violations);
+        }
+    }
+
+    // Location in the validated value, turned into a JSON Pointer only when a violation is reported
+    static final class Path {
+        static final Path ROOT = new Path(null, null, -1);
+
+        private final Path parent;
+        private final String name;
+        private final int index;
+
+        private Path(Path parent, String name, int index) {
+            this.parent = parent;
+            this.name = name;
+            this.index = index;
+        }
+
+        Path child(String name) {
+            return new Path(this, name, -1);
+        }
+
+        Path child(int index) {
+            return new Path(this, null, index);
+        }
+
+        @Override
+        public String toString() {
+            if (parent == null) {
+                return "";
+            }
+            String segment = name != null ? name.replace("~", "~0").replace("/", "~1") : Integer.toString(index);
+            return parent + "/" + segment;
+        }
+    }
+
+    // One keyword (or group of keywords) of a compiled schema
+    interface Check {
+        void validate(Object value, Path path, List<SchemaViolation> violations);
+    }
+
+    // A compiled (sub)schema: the checks for its keywords, run in order
+    static final class SchemaNode {
+        static final SchemaNode ANY = new SchemaNode(new Check[0]);
+        static final SchemaNode NOTHING = new SchemaNode(new Check[] {
+                (value, path, violations) -> violations.add(new SchemaViolation(path.toString(), "is not allowed")) });
+
+        private final Check[] checks;
+
+        SchemaNode(Check[] checks) {
+            this.checks = checks;
+        }
+
+        void validate(Object value, Path path, List<SchemaViolation> violations) {
+            for (Check check : checks) {
+                check.validate(value, path, violations);
+            }
+        }
+
+        boolean isValid(Object value) {
+            List<SchemaViolation> violations = new ArrayList<>(0);
+            validate(value, Path.ROOT, violations);
+            return violations.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,517 @@
+package com.project.backend_capstone.schema;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import com.project.backend_capstone.schema.CompiledSchema.Check;
+import com.project.backend_capstone.schema.CompiledSchema.Path;
+import com.project.backend_capstone.schema.CompiledSchema.SchemaNode;
+import com.project.backend_capstone.utils.JSONUtils;
+
+// Compiles a category version's JSON schema (the same schemas the frontend checks with ajv) into
+// a CompiledSchema. Everything that can be worked out ahead of time is: types become a bit mask,
+// patterns are compiled, enum values are normalized, and all object keywords share one pass
+// over the properties.
+//
+// Supported keywords: type, enum, const, properties, required, additionalProperties,
+// patternProperties, minProperties, maxProperties, items (single schema or tuple), additionalItems,
+// minItems, maxItems, uniqueItems, minLength, maxLength, pattern, minimum, maximum,
+// exclusiveMinimum, exclusiveMaximum (number or draft-4 boolean), multipleOf, allOf, anyOf, oneOf
+// and not. Other keywords (format, $ref, title, ...) are ignored.
+public final class SchemaCompiler {
+
+    private static final int NULL = 1;
+    private static final int BOOLEAN = 1 << 1;
+    private static final int INTEGER = 1 << 2;
+    private static final int NUMBER = 1 << 3;
+    private static final int STRING = 1 << 4;
+    private static final int ARRAY = 1 << 5;
+    private static final int OBJECT = 1 << 6;
+
+    private static final Map<String, Integer> TYPES = Map.of(
+            "null", NULL, "boolean", BOOLEAN, "integer", INTEGER, "number", NUMBER | INTEGER,
+            "string", STRING, "array", ARRAY, "object", OBJECT);
+
+    private SchemaCompiler() {
+    }
+
+    // Compile a schema stored as JSON text (as in Version.schema); blank or "null" accepts anything
+    public static CompiledSchema compile(String schemaJson) {
+        if (schemaJson == null || schemaJson.isBlank() || schemaJson.trim().equals("null")) {
+            return CompiledSchema.ACCEPT_ALL;
+        }
+        try {
+            return compile(JSONUtils.deserializeToMap(schemaJson));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid schema: not a JSON object", e);
+        }
+    }
+
+    // Compile a parsed schema; throws IllegalArgumentException naming the bad keyword's location
+    public static CompiledSchema compile(Map<String, Object> schema) {
+        if (schema == null) {
+            return CompiledSchema.ACCEPT_ALL;
+        }
+        return new CompiledSchema(node(schema, ""));
+    }
+
+    private static SchemaNode node(Object schema, String at) {
+        if (Boolean.TRUE.equals(schema)) {
+            return SchemaNode.ANY;
+        }
+        if (Boolean.FALSE.equals(schema)) {
+            return SchemaNode.NOTHING;
+        }
+        Map<String, Object> keywords = asMap(schema, at);
+        List<Check> checks = new ArrayList<>();
+
+        if (keywords.containsKey("type")) {
+            checks.add(typeCheck(keywords.get("type"), at + "/type"));
+        }
+        if (keywords.containsKey("enum")) {
+            checks.add(enumCheck(asList(keywords.get("enum"), at + "/enum")));
+        }
+        if (keywords.containsKey("const")) {
+            Object expected = normalize(keywords.get("const"));
+            checks.add((value, path, violations) -> {
+                if (!expected.equals(normalize(value))) {
+                    violations.add(new SchemaViolation(path.toString(), "must be equal to constant"));
+                }
+            });
+        }
+
+        Check objectCheck = objectCheck(keywords, at);
+        if (objectCheck != null) {
+            checks.add(objectCheck);
+        }
+        Check arrayCheck = arrayCheck(keywords, at);
+        if (arrayCheck != null) {
+            checks.add(arrayCheck);
+        }
+        Check stringCheck = stringCheck(keywords, at);
+        if (stringCheck != null) {
+            checks.add(stringCheck);
+        }
+        checks.addAll(numberChecks(keywords, at));
+        checks.addAll(combinatorChecks(keywords, at));
+
+        return checks.isEmpty() ? SchemaNode.ANY : new SchemaNode(checks.toArray(new Check[0]));
+    }
+
+    private static Check typeCheck(Object type, String at) {
+        int mask = 0;
+        List<Object> names = type instanceof List<?> ? asList(type, at) : List.of(type);
+        for (Object name : names) {
+            Integer bits = TYPES.get(name);
+            if (bits == null) {
+                throw invalid(at, "unknown type " + name);
+            }
+            mask |= bits;
+        }
+        String message = "must be " + (names.size() == 1 ? names.get(0) : String.join(",",
+                names.stream().map(String::valueOf).toList()));
+
+        int allowed = mask;
+        return (value, path, violations) -> {
+            if ((typeOf(value) & allowed) == 0) {
+                violations.add(new SchemaViolation(path.toString(), message));
+            }
+        };
+    }
+
+    private static Check enumCheck(List<Object> values) {
+        Set<Object> allowed = new HashSet<>();
+        for (Object value : values) {
+            allowed.add(normalize(value));
+        }
+        return (value, path, violations) -> {
+            if (!allowed.contains(normalize(value))) {
+                violations.add(new SchemaViolation(path.toString(), "must be equal to one of the allowed values"));
+            }
+        };
+    }
+
+    // properties, patternProperties, additionalProperties, required, min/maxProperties in one pass
+    private static Check objectCheck(Map<String, Object> keywords, String at) {
+        Map<String, SchemaNode> properties = new HashMap<>();
+        if (keywords.containsKey("properties")) {
+            asMap(keywords.get("properties"), at + "/properties").forEach((name, schema) -> properties.put(name,
+                    node(schema, at + "/properties/" + name)));
+        }
+
+        List<Pattern> patterns = new ArrayList<>();
+        List<SchemaNode> patternNodes = new ArrayList<>();
+        if (keywords.containsKey("patternProperties")) {
+            asMap(keywords.get("patternProperties"), at + "/patternProperties").forEach((regex, schema) -> {
+                patterns.add(pattern(regex, at + "/patternProperties"));
+                patternNodes.add(node(schema, at + "/patternProperties/" + regex));
+            });
+        }
+
+        SchemaNode additional = keywords.containsKey("additionalProperties")
+                ? node(keywords.get("additionalProperties"), at + "/additionalProperties")
+                : null;
+        String[] required = keywords.containsKey("required")
+                ? asList(keywords.get("required"), at + "/required").stream().map(String::valueOf)
+                        .toArray(String[]::new)
+                : new String[0];
+        int minProperties = intKeyword(keywords, "minProperties", at, 0);
+        int maxProperties = intKeyword(keywords, "maxProperties", at, Integer.MAX_VALUE);
+
+        if (properties.isEmpty() && patterns.isEmpty() && additional == null && required.length == 0
+                && minProperties == 0 && maxProperties == Integer.MAX_VALUE) {
+            return null;
+        }
+
+        Map<String, SchemaNode> byName = Map.copyOf(properties);
+        Pattern[] patternArray = patterns.toArray(new Pattern[0]);
+        SchemaNode[] patternNodeArray = patternNodes.toArray(new SchemaNode[0]);
+        return (value, path, violations) -> {
+            if (!(value instanceof Map<?, ?> object)) {
+                return;
+            }
+            for (String name : required) {
+                if (!object.containsKey(name)) {
+                    violations.add(new SchemaViolation(path.child(name).toString(), "is required"));
+                }
+            }
+            if (object.size() < minProperties) {
+                violations.add(new SchemaViolation(path.toString(),
+                        "must NOT have fewer than " + minProperties + " properties"));
+            }
+            if (object.size() > maxProperties) {
+                violations.add(new SchemaViolation(path.toString(),
+                        "must NOT have more than " + maxProperties + " properties"));
+            }
+
+            for (Map.Entry<?, ?> entry : object.entrySet()) {
+                String name = String.valueOf(entry.getKey());
+                SchemaNode property = byName.get(name);
+                boolean matched = property != null;
+                if (property != null && property != SchemaNode.ANY) {
+                    property.validate(entry.getValue(), path.child(name), violations);
+                }
+                for (int i = 0; i < patternArray.length; i++) {
+                    if (patternArray[i].matcher(name).find()) {
+                        matched = true;
+                        patternNodeArray[i].validate(entry.getValue(), path.child(name), violations);
+                    }
+                }
+                if (!matched && additional != null) {
+                    additional.validate(entry.getValue(), path.child(name), violations);
+                }
+            }
+        };
+    }
+
+    private static Check arrayCheck(Map<String, Object> keywords, String at) {
+        SchemaNode items = null;
+        SchemaNode[] tuple = null;
+        if (keywords.containsKey("items")) {
+            Object itemsSchema = keywords.get("items");
+            if (itemsSchema instanceof List<?>) {
+                List<Object> schemas = asList(itemsSchema, at + "/items");
+                tuple = new SchemaNode[schemas.size()];
+                for (int i = 0; i < tuple.length; i++) {
+                    tuple[i] = node(schemas.get(i), at + "/items/" + i);
+                }
+            } else {
+                items = node(itemsSchema, at + "/items");
+            }
+        }
+        SchemaNode additionalItems = tuple != null && keywords.containsKey("additionalItems")
+                ? node(keywords.get("additionalItems"), at + "/additionalItems")
+                : null;
+        int minItems = intKeyword(keywords, "minItems", at, 0);
+        int maxItems = intKeyword(keywords, "maxItems", at, Integer.MAX_VALUE);
+        boolean unique = Boolean.TRUE.equals(keywords.get("uniqueItems"));
+
+        if (items == null && tuple == null && minItems == 0 && maxItems == Integer.MAX_VALUE && !unique) {
+            return null;
+        }
+
+        SchemaNode allItems = items;
+        SchemaNode[] tupleItems = tuple;
+        return (value, path, violations) -> {
+            if (!(value instanceof List<?> array)) {
+                return;
+            }
+            if (array.size() < minItems) {
+                violations.add(new SchemaViolation(path.toString(), "must NOT have fewer than " + minItems + " items"));
+            }
+            if (array.size() > maxItems) {
+                violations.add(new SchemaViolation(path.toString(), "must NOT have more than " + maxItems + " items"));
+            }
+            if (unique && new HashSet<>(array.stream().map(SchemaCompiler::normalize).toList()).size() < array.size()) {
+                violations.add(new SchemaViolation(path.toString(), "must NOT have duplicate items"));
+            }
+            for (int i = 0; i < array.size(); i++) {
+                SchemaNode node = tupleItems == null ? allItems
+                        : i < tupleItems.length ? tupleItems[i] : additionalItems;
+                if (node != null && node != SchemaNode.ANY) {
+                    node.validate(array.get(i), path.child(i), violations);
+                }
+            }
+        };
+    }
+
+    private static Check stringCheck(Map<String, Object> keywords, String at) {
+        int minLength = intKeyword(keywords, "minLength", at, 0);
+        int maxLength = intKeyword(keywords, "maxLength", at, Integer.MAX_VALUE);
+        Pattern pattern = keywords.containsKey("pattern")
+                ? pattern(String.valueOf(keywords.get("pattern")), at + "/pattern")
+                : null;
+
+        if (minLength == 0 && maxLength == Integer.MAX_VALUE && pattern == null) {
+            return null;
+        }
+        return (value, path, violations) -> {
+            if (!(value instanceof String string)) {
+                return;
+            }
+            if (minLength > 0 || maxLength < Integer.MAX_VALUE) {
+                // Lengths count characters, not UTF-16 units, as JSON schema does
+                int length = string.codePointCount(0, string.length());
+                if (length < minLength) {
+                    violations.add(new SchemaViolation(path.toString(),
+                            "must NOT have fewer than " + minLength + " characters"));
+                }
+                if (length > maxLength) {
+                    violations.add(new SchemaViolation(path.toString(),
+                            "must NOT have more than " + maxLength + " characters"));
+                }
+            }
+            if (pattern != null && !pattern.matcher(string).find()) {
+                violations.add(new SchemaViolation(path.toString(), "must match pattern \"" + pattern + "\""));
+            }
+        };
+    }
+
+    private static List<Check> numberChecks(Map<String, Object> keywords, String at) {
+        List<Check> checks = new ArrayList<>();
+        // Draft 4 spelled exclusive bounds as booleans next to minimum/maximum
+        boolean draft4ExclusiveMin = Boolean.TRUE.equals(keywords.get("exclusiveMinimum"));
+        boolean draft4ExclusiveMax = Boolean.TRUE.equals(keywords.get("exclusiveMaximum"));
+
+        if (keywords.containsKey("minimum")) {
+            checks.add(bound(number(keywords.get("minimum"), at + "/minimum"), true, draft4ExclusiveMin));
+        }
+        if (keywords.get("exclusiveMinimum") instanceof Number) {
+            checks.add(bound(number(keywords.get("exclusiveMinimum"), at + "/exclusiveMinimum"), true, true));
+        }
+        if (keywords.containsKey("maximum")) {
+            checks.add(bound(number(keywords.get("maximum"), at + "/maximum"), false, draft4ExclusiveMax));
+        }
+        if (keywords.get("exclusiveMaximum") instanceof Number) {
+            checks.add(bound(number(keywords.get("exclusiveMaximum"), at + "/exclusiveMaximum"), false, true));
+        }
+        if (keywords.containsKey("multipleOf")) {
+            BigDecimal divisor = number(keywords.get("multipleOf"), at + "/multipleOf");
+            if (divisor.signum() <= 0) {
+                throw invalid(at + "/multipleOf", "must be greater than 0");
+            }
+            checks.add((value, path, violations) -> {
+                if (value instanceof Number number && isFinite(number)
+                        && decimal(number).remainder(divisor).signum() != 0) {
+                    violations.add(new SchemaViolation(path.toString(), "must be multiple of " + divisor));
+                }
+            });
+        }
+        return checks;
+    }
+
+    private static Check bound(BigDecimal limit, boolean lower, boolean exclusive) {
+        // Compare as doubles on the hot path, falling back to BigDecimal only for big values
+        double limitDouble = limit.doubleValue();
+        String message = "must be " + (lower ? ">" : "<") + (exclusive ? " " : "= ") + limit.toPlainString();
+        return (value, path, violations) -> {
+            if (!(value instanceof Number number)) {
+                return;
+            }
+            int comparison = number instanceof BigDecimal || number instanceof BigInteger
+                    ? decimal(number).compareTo(limit)
+                    : Double.compare(number.doubleValue(), limitDouble);
+            boolean ok = lower ? (exclusive ? comparison > 0 : comparison >= 0)
+                    : (exclusive ? comparison < 0 : comparison <= 0);
+            if (!ok) {
+                violations.add(new SchemaViolation(path.toString(), message));
+            }
+        };
+    }
+
+    private static List<Check> combinatorChecks(Map<String, Object> keywords, String at) {
+        List<Check> checks = new ArrayList<>();
+        if (keywords.containsKey("allOf")) {
+            SchemaNode[] all = nodes(keywords.get("allOf"), at + "/allOf");
+            checks.add((value, path, violations) -> {
+                for (SchemaNode node : all) {
+                    node.validate(value, path, violations);
+                }
+            });
+        }
+        if (keywords.containsKey("anyOf")) {
+            SchemaNode[] any = nodes(keywords.get("anyOf"), at + "/anyOf");
+            checks.add((value, path, violations) -> {
+                for (SchemaNode node : any) {
+                    if (node.isValid(value)) {
+                        return;
+                    }
+                }
+                violations.add(new SchemaViolation(path.toString(), "must match a schema in anyOf"));
+            });
+        }
+        if (keywords.containsKey("oneOf")) {
+            SchemaNode[] one = nodes(keywords.get("oneOf"), at + "/oneOf");
+            checks.add((value, path, violations) -> {
+                int matches = 0;
+                for (SchemaNode node : one) {
+                    if (node.isValid(value)) {
+                        matches++;
+                    }
+                }
+                if (matches != 1) {
+                    violations.add(new SchemaViolation(path.toString(), "must match exactly one schema in oneOf"));
+                }
+            });
+        }
+        if (keywords.containsKey("not")) {
+            SchemaNode not = node(keywords.get("not"), at + "/not");
+            checks.add((value, path, violations) -> {
+                if (not.isValid(value)) {
+                    violations.add(new SchemaViolation(path.toString(), "must NOT be valid"));
+                }
+            });
+        }
+        return checks;
+    }
+
+    private static SchemaNode[] nodes(Object schemas, String at) {
+        List<Object> list = asList(schemas, at);
+        SchemaNode[] nodes = new SchemaNode[list.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = node(list.get(i), at + "/" + i);
+        }
+        return nodes;
+    }
+
+    private static int typeOf(Object value) {
+        if (value == null) {
+            return NULL;
+        } else if (value instanceof String) {
+            return STRING;
+        } else if (value instanceof Boolean) {
+            return BOOLEAN;
+        } else if (value instanceof Number number) {
+            return isInteger(number) ? INTEGER : NUMBER;
+        } else if (value instanceof Map<?, ?>) {
+            return OBJECT;
+        } else if (value instanceof List<?>) {
+            return ARRAY;
+        }
+        return 0;
+    }
+
+    // JSON schema counts 1.0 as an integer too
+    private static boolean isInteger(Number number) {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short
+                || number instanceof Byte || number instanceof BigInteger) {
+            return true;
+        }
+        if (number instanceof BigDecimal decimal) {
+            return decimal.signum() == 0 || decimal.stripTrailingZeros().scale() <= 0;
+        }
+        double d = number.doubleValue();
+        return Double.isFinite(d) && d == Math.rint(d);
+    }
+
+    private static boolean isFinite(Number number) {
+        return !(number instanceof Double || number instanceof Float) || Double.isFinite(number.doubleValue());
+    }
+
+    private static BigDecimal decimal(Number number) {
+        if (number instanceof BigDecimal decimal) {
+            return decimal;
+        } else if (number instanceof BigInteger integer) {
+            return new BigDecimal(integer);
+        } else if (number instanceof Double || number instanceof Float) {
+            return BigDecimal.valueOf(number.doubleValue());
+        }
+        return BigDecimal.valueOf(number.longValue());
+    }
+
+    // Make equal JSON values compare equal, whatever Java types they were parsed into (1 == 1.0)
+    private static Object normalize(Object value) {
+        if (value instanceof Number number && isFinite(number)) {
+            BigDecimal decimal = decimal(number);
+            return decimal.signum() == 0 ? BigDecimal.ZERO : decimal.stripTrailingZeros();
+        } else if (value instanceof List<?> list) {
+            return list.stream().map(SchemaCompiler::normalize).toList();
+        } else if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> normalized = new LinkedHashMap<>();
+            map.forEach((key, element) -> normalized.put(key, normalize(element)));
+            return normalized;
+        }
+        return value == null ? NullValue.INSTANCE : value;
+    }
+
+    // Stand-in for JSON null in sets and equality checks
+    private enum NullValue {
+        INSTANCE
+    }
+
+    private static int intKeyword(Map<String, Object> keywords, String keyword, String at, int absent) {
+        if (!keywords.containsKey(keyword)) {
+            return absent;
+        }
+        Object value = keywords.get(keyword);
+        if (!(value instanceof Number number) || !isInteger(number) || number.longValue() < 0) {
+            throw invalid(at + "/" + keyword, "must be a non-negative integer");
+        }
+        return (int) Math.min(number.longValue(), Integer.MAX_VALUE);
+    }
+
+    private static BigDecimal number(Object value, String at) {
+        if (!(value instanceof Number number) || !isFinite(number)) {
+            throw invalid(at, "must be a number");
+        }
+        return decimal(number);
+    }
+
+    private static Pattern pattern(String regex, String at) {
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            throw invalid(at, "invalid regular expression " + regex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value, String at) {
+        if (!(value instanceof Map<?, ?>)) {
+            throw invalid(at, "must be an object");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> asList(Object value, String at) {
+        if (!(value instanceof List<?>)) {
+            throw invalid(at, "must be an array");
+        }
+        return (List<Object>) value;
+    }
+
+    private static IllegalArgumentException invalid(String at, String message) {
+        return new IllegalArgumentException("Invalid schema at " + (at.isEmpty() ? "(root)" : at) + ": " + message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.project.backend_capstone.schema;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Thrown when configuration fields don't match their category version's schema
+public class SchemaValidationException extends RuntimeException {
+    private final List<SchemaViolation> violations;
+
+    public SchemaValidationException(List<SchemaViolation> violations) {
+        super("Fields do not match the schema: "
+                + violations.stream().map(SchemaViolation::toString).collect(Collectors.joining("; ")));
+        this.violations = List.copyOf(violations);
+    }
+
+    public List<SchemaViolation> getViolations() {
+        return violations;
+    }
+}
@@ -0,0 +1,11 @@
+package com.project.backend_capstone.schema;
+
+// One place where a value doesn't match its schema. The path is a JSON Pointer into the
+// validated value ("" for the value itself, "/port", "/servers/0/host", ...).
+public record SchemaViolation(String path, String message) {
+
+    @Override
+    public String toString() {
+        return (path.isEmpty() ? "(root)" : path) + ": " + message;
+    }
+}
@@ -0,0 +1,200 @@
+package com.project.backend_capstone.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import com.project.backend_capstone.dto.ApprovalProgress;
+import com.project.backend_capstone.enums.CategoryStatus;
+import com.project.backend_capstone.model.Configuration;
+import com.project.backend_capstone.model.Version;
+import com.project.backend_capstone.model.VersionConfiguration;
+import com.project.backend_capstone.repository.ConfigurationRepository;
+import com.project.backend_capstone.repository.ItemUpdate;
+import com.project.backend_capstone.repository.TransactionalUpdater;
+import com.project.backend_capstone.repository.VersionConfigRepository;
+import com.project.backend_capstone.repository.VersionRepository;
+import com.project.backend_capstone.utils.TaskScope;
+
+// Approves the latest version of a category and retires everything it replaces.
+//
+// The full set of status changes is computed up front from the current state and written in
+// transactional chunks, in this order:
+// 1. retire the config versions that belong to older category versions
+// 2. retire the older category versions
+// 3. approve the latest category version
+// Items already in their target status are left out of the plan, and the approval itself is
+// written last, so an approval that dies midway can simply be run again to finish the job. Each
+// chunk commits together with its change log entries, so replicas see exactly what was written.
+@Service
+public class ApprovalEngine {
+    private static final Logger logger = LoggerFactory.getLogger(ApprovalEngine.class);
+
+    private final VersionRepository versionRepository;
+    private final VersionConfigRepository versionConfigRepository;
+    private final ConfigurationRepository configurationRepository;
+    private final TransactionalUpdater transactionalUpdater;
+    private final ExecutorService executor;
+    private final ChangeLogService changeLogService;
+
+    // Finished runs kept for progress queries beyond this many categories are dropped, oldest first
+    private static final int MAX_TRACKED_APPROVALS = 1000;
+
+    // Latest approval run per category
+    private final Map<String, ApprovalProgress> progressByCategory = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ApprovalEngine(VersionRepository versionRepository, VersionConfigRepository versionConfigRepository,
+            ConfigurationRepository configurationRepository, TransactionalUpdater transactionalUpdater,
+            @Qualifier("approvalExecutor") ExecutorService executor, ChangeLogService changeLogService) {
+        this.versionRepository = versionRepository;
+        this.versionConfigRepository = versionConfigRepository;
+        this.configurationRepository = configurationRepository;
+        this.transactionalUpdater = transactionalUpdater;
+        this.executor = executor;
+        this.changeLogService = changeLogService;
+    }
+
+    public ApprovalProgress getProgress(String categoryId) {
+        return progressByCategory.get(categoryId);
+    }
+
+    public void approve(String categoryId, String approvedBy) {
+        ApprovalProgress progress = new ApprovalProgress(categoryId, Instant.now().toString());
+        progressByCategory.put(categoryId, progress);
+
+        try {
+            // The category's versions and configurations don't depend on each other; read both at once
+            List<Version> versions;
+            List<Configuration> configs;
+            try (TaskScope scope = new TaskScope(executor)) {
+                TaskScope.Subtask<List<Version>> versionLookup = scope
+                        .fork(() -> versionRepository.findByCategoryId(categoryId));
+                TaskScope.Subtask<List<Configuration>> configLookup = scope
+                        .fork(() -> configurationRepository.findByCategoryId(categoryId));
+                scope.join();
+                versions = versionLookup.get();
+                configs = configLookup.get();
+            }
+            if (versions.isEmpty()) {
+                throw new RuntimeException("No versions found for category ID: " + categoryId);
+            }
+            Version latestVersion = versions.stream().max(Comparator.comparingInt(Version::getVersionNum)).get();
+
+            List<ItemUpdate> configRetirements = planConfigRetirements(configs, versions, latestVersion);
+            List<ItemUpdate> versionRetirements = planVersionRetirements(versions, latestVersion);
+            ItemUpdate approval = planApproval(latestVersion, approvedBy);
+
+            progress.setTotalChanges(configRetirements.size() + versionRetirements.size() + 1);
+            logger.info("Approving category {} version {}: {} config versions and {} category versions to retire",
+                    categoryId, latestVersion.getVersionNum(), configRetirements.size(), versionRetirements.size());
+
+            progress.setPhase("Retiring configurations");
+            transactionalUpdater.applyAll(configRetirements, changeLogService::logItemsFor,
+                    chunk -> progress.addCompleted(chunk.size()));
+
+            progress.setPhase("Retiring category versions");
+            transactionalUpdater.applyAll(versionRetirements, changeLogService::logItemsFor,
+                    chunk -> progress.addCompleted(chunk.size()));
+
+            progress.setPhase("Approving");
+            transactionalUpdater.applyAll(List.of(approval), changeLogService::logItemsFor,
+                    chunk -> progress.addCompleted(chunk.size()));
+
+            progress.setPhase("Done");
+        } catch (RuntimeException e) {
+            progress.setPhase("Failed");
+            progress.setError(e.getMessage());
+            throw e;
+        } finally {
+            progress.setFinishedAt(Instant.now().toString());
+            pruneFinished();
+        }
+    }
+
+    private void pruneFinished() {
+        int excess = progressByCategory.size() - MAX_TRACKED_APPROVALS;
+        if (excess <= 0) {
+            return;
+        }
+        progressByCategory.entrySet().stream()
+                .filter(entry -> entry.getValue().getFinishedAt() != null)
+                .sorted(Comparator.comparing(entry -> entry.getValue().getFinishedAt()))
+                .limit(excess)
+                .toList()
+                // Leaves a newer run of the same category alone
+                .forEach(entry -> progressByCategory.remove(entry.getKey(), entry.getValue()));
+    }
+
+    // Every not-yet-retired version of every configuration tied to an older category version
+    private List<ItemUpdate> planConfigRetirements(List<Configuration> configs, List<Version> versions,
+            Version latestVersion) {
+        Set<Integer> retiredVersionNums = versions.stream()
+                .map(Version::getVersionNum)
+                .filter(versionNum -> !versionNum.equals(latestVersion.getVersionNum()))
+                .collect(Collectors.toSet());
+
+        List<Configuration> configsToRetire = configs.stream()
+                .filter(config -> config.getCategoryVersion() != null
+                        && retiredVersionNums.contains(config.getCategoryVersion()))
+                .toList();
+
+        // Read each configuration's history in parallel on the approval pool (not the fan-out pool,
+        // which this may be running on), combining the results into one future to wait for
+        List<CompletableFuture<List<ItemUpdate>>> lookups = configsToRetire.stream()
+                .map(config -> CompletableFuture.supplyAsync(() -> versionConfigRepository
+                        .findByConfigurationId(config.getConfigurationId()).stream()
+                        .filter(version -> !CategoryStatus.RETIRED.getStatus().equals(version.getStatus()))
+                        .map(ApprovalEngine::retireConfigVersion)
+                        .toList(), executor))
+                .toList();
+
+        return CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0]))
+                .thenApply(done -> {
+                    List<ItemUpdate> updates = new ArrayList<>();
+                    lookups.forEach(lookup -> updates.addAll(lookup.join()));
+                    return updates;
+                })
+                .join();
+    }
+
+    private List<ItemUpdate> planVersionRetirements(List<Version> versions, Version latestVersion) {
+        String now = Instant.now().toString();
+        return versions.stream()
+                .filter(version -> !version.getVersionNum().equals(latestVersion.getVersionNum()))
+                .filter(version -> !CategoryStatus.RETIRED.getStatus().equals(version.getStatus()))
+                .map(version -> ItemUpdate.forVersion("Version", "category_id", version.getCategoryId(),
+                        version.getVersionNum(), Map.of(
+                                "status", CategoryStatus.RETIRED.getStatus(),
+                                "created_date", now)))
+                .toList();
+    }
+
+    private ItemUpdate planApproval(Version latestVersion, String approvedBy) {
+        String now = Instant.now().toString();
+        return ItemUpdate.forVersion("Version", "category_id", latestVersion.getCategoryId(),
+                latestVersion.getVersionNum(), Map.of(
+                        "status", CategoryStatus.APPROVED.getStatus(),
+                        "approved_by", approvedBy,
+                        "approved_date", now,
+                        "created_date", now));
+    }
+
+    static ItemUpdate retireConfigVersion(VersionConfiguration version) {
+        return ItemUpdate.forVersion("VersionConfiguration", "configuration_id", version.getConfigurationId(),
+                version.getVersionNum(), Map.of("status", CategoryStatus.RETIRED.getStatus()));
+    }
+}
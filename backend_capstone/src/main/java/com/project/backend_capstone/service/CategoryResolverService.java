@@ -0,0 +1,32 @@
+package com.project.backend_capstone.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.project.backend_capstone.model.Category;
+import com.project.backend_capstone.repository.BatchLoader;
+
+// Resolves sets of category IDs to Category items with parallel BatchGetItem chunks
+@Service
+public class CategoryResolverService {
+
+    private final BatchLoader batchLoader;
+
+    @Autowired
+    public CategoryResolverService(BatchLoader batchLoader) {
+        this.batchLoader = batchLoader;
+    }
+
+    // Load the categories for the given IDs, sorted by category ID so the order is stable between calls
+    public List<Category> resolve(Collection<String> categoryIds) {
+        return batchLoader.loadAll(Category.class, new TreeSet<>(categoryIds), categoryId -> {
+            Category key = new Category();
+            key.setCategoryId(categoryId);
+            return key;
+        }, Category::getCategoryId);
+    }
+}
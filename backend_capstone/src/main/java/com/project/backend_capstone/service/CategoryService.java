@@ -1,42 +1,55 @@
 package com.project.backend_capstone.service;
 
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
-import com.amazonaws.services.dynamodbv2.model.ScanRequest;
 import com.amazonaws.services.dynamodbv2.model.ScanResult;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.project.backend_capstone.dto.AddCategoryRequest;
+import com.project.backend_capstone.dto.ApprovalProgress;
+import com.project.backend_capstone.dto.PageResponse;
+import com.project.backend_capstone.dto.RawItem;
+import com.project.backend_capstone.dto.RetireResult;
 import com.project.backend_capstone.dto.UpdateCategoryRequest;
 import com.project.backend_capstone.enums.CategoryStatus;
 import com.project.backend_capstone.model.Category;
-import com.project.backend_capstone.model.UserGroup;
 import com.project.backend_capstone.model.Configuration;
 import com.project.backend_capstone.model.Version;
+import com.project.backend_capstone.repository.RawTableScanner;
+import com.project.backend_capstone.repository.UniqueNameRepository;
+import com.project.backend_capstone.schema.SchemaCompiler;
 import com.project.backend_capstone.utils.JSONUtils;
+import com.project.backend_capstone.utils.PageTokens;
+import com.project.backend_capstone.utils.TaskScope;
 
 @Service
 public class CategoryService {
+
+    // Largest page a caller can ask for in one raw listing request
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final DynamoDBMapper dynamoDBMapper;
     private final AmazonDynamoDB amazonDynamoDB;
 
+    @Autowired
+    private RawTableScanner rawTableScanner;
+
     @Autowired
     private VersionService versionService;
 
@@ -46,6 +59,28 @@ public class CategoryService {
     @Autowired
     private ConfigurationService configurationService;
 
+    @Autowired
+    private CategoryResolverService categoryResolverService;
+
+    @Autowired
+    private ApprovalEngine approvalEngine;
+
+    @Autowired
+    private ConfigServingService configServingService;
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @Autowired
+    private SchemaService schemaService;
+
+    @Autowired
+    @Qualifier("dynamoFanOutExecutor")
+    private ExecutorService executor;
+
+    @Autowired
+    private UniqueNameRepository uniqueNameRepository;
+
     @Autowired
     public CategoryService(DynamoDBMapper dynamoDBMapper, AmazonDynamoDB amazonDynamoDB) {
         this.dynamoDBMapper = dynamoDBMapper;
@@ -54,23 +89,23 @@ public class CategoryService {
 
     // Add a category
     public void addCategory(AddCategoryRequest request) {
-        // 1. Check if the category already exists
-        List<Category> categories = dynamoDBMapper.scan(Category.class, new DynamoDBScanExpression());
-        for (Category category : categories) {
-            if (category.getName() != null && category.getName().equalsIgnoreCase(request.getName())) {
-                throw new RuntimeException("Category already exists with name: " + request.getName());
-            }
-        }
+        // Reject a schema that can't be compiled before anything is saved
+        SchemaCompiler.compile(request.getSchema());
 
-        // 2. Create a new category
+        // 1. Create a new category
         Category category = new Category();
         category.setCategoryId(UUID.randomUUID().toString());
         category.setName(request.getName());
 
-        // 3. Save the new category
-        dynamoDBMapper.save(category);
+        // 2. Save it together with its name claim, which fails if the name is taken (ignoring case)
+        if (!uniqueNameRepository.saveClaimingName(category, UniqueNameRepository.CATEGORY, request.getName(),
+                category.getCategoryId())) {
+            throw new RuntimeException("Category already exists with name: " + request.getName());
+        }
+        changeLogService.recordUpsert(ChangeLogService.CATEGORY, category.getCategoryId(), null);
+        configServingService.trackCategory(category.getCategoryId());
 
-        // 4. Serialize schema and create first version
+        // 3. Serialize schema and create first version
         String serializedSchema;
         try {
             serializedSchema = JSONUtils.serialize(request.getSchema());
@@ -89,36 +124,11 @@ public class CategoryService {
         if (isAdmin()) {
             return dynamoDBMapper.scan(Category.class, new DynamoDBScanExpression());
         } else {
-            // return dynamoDBMapper.scan(Category.class, new DynamoDBScanExpression());
-            List<String> userGroupIds = userGroupService.getUserGroupIds(username);
-            Set<String> accessibleCategoryIds = new HashSet<>();
-
-            // Loop through the user group IDs and gather categories the user has access to
-            for (String groupId : userGroupIds) {
-                DynamoDBQueryExpression<UserGroup> queryExpression = new DynamoDBQueryExpression<UserGroup>()
-                        .withHashKeyValues(new UserGroup() {
-                            {
-                                setUser_group_id(groupId);
-                            }
-                        });
-
-                List<UserGroup> matchingGroups = dynamoDBMapper.query(UserGroup.class, queryExpression);
-
-                for (UserGroup userGroup : matchingGroups) {
-                    if (userGroup.getCategory_access() != null) {
-                        accessibleCategoryIds.addAll(userGroup.getCategory_access());
-                    }
-                }
-            }
+            // One query on the membership index gives every category the user's groups can access
+            Set<String> accessibleCategoryIds = userGroupService.getAccessibleCategoryIds(username);
 
-            List<Category> accessibleCategories = new ArrayList<>();
-            for (String categoryId : accessibleCategoryIds) {
-                Category category = dynamoDBMapper.load(Category.class, categoryId);
-                if (category != null) {
-                    accessibleCategories.add(category);
-                }
-            }
-            return accessibleCategories;
+            // Resolve them with parallel batch gets instead of one load per category
+            return categoryResolverService.resolve(accessibleCategoryIds);
         }
     }
 
@@ -133,44 +143,20 @@ public class CategoryService {
         return dynamoDBMapper.load(Category.class, categoryId);
     }
 
-    // Get ALL raw categories without caring about the model
-    public List<Map<String, Object>> getALLCategories() {
-        ScanRequest scanRequest = new ScanRequest().withTableName("Category");
-        ScanResult result = amazonDynamoDB.scan(scanRequest);
-
-        List<Map<String, Object>> cleanedItems = new ArrayList<>();
-
-        // Filter out unnecessary AWS metadata for attributes
-        for (Map<String, AttributeValue> item : result.getItems()) {
-            Map<String, Object> cleanedItem = new HashMap<>();
-
-            // Iterate over each attribute in the category item
-            for (Map.Entry<String, AttributeValue> entry : item.entrySet()) {
-                String attributeName = entry.getKey();
-                AttributeValue attributeValue = entry.getValue();
-
-                // Extract the value based on the type of AttributeValue (e.g., string, list)
-                if (attributeValue.getS() != null) {
-                    cleanedItem.put(attributeName, attributeValue.getS()); // If it's a string
-                } else if (attributeValue.getN() != null) {
-                    cleanedItem.put(attributeName, Integer.parseInt(attributeValue.getN())); // If it's a number
-                } else if (attributeValue.getB() != null) {
-                    cleanedItem.put(attributeName, attributeValue.getB()); // If it's binary
-                } else if (attributeValue.getSS() != null) {
-                    cleanedItem.put(attributeName, attributeValue.getSS()); // If it's a string set
-                } else if (attributeValue.getNS() != null) {
-                    cleanedItem.put(attributeName, attributeValue.getNS()); // If it's a number set
-                } else if (attributeValue.getL() != null) {
-                    // If it's a list of strings
-                    List<String> listValues = attributeValue.getL().stream()
-                            .map(AttributeValue::getS)
-                            .toList();
-                    cleanedItem.put(attributeName, listValues);
-                }
-            }
-            cleanedItems.add(cleanedItem);
+    // Stream ALL raw categories without caring about the model, a page at a time (close when done)
+    public Stream<Map<String, AttributeValue>> streamALLCategories() {
+        return rawTableScanner.streamAll("Category");
+    }
+
+    // Get one page of ALL raw categories; pass the returned token back to continue
+    public PageResponse<RawItem> getALLCategoriesPage(String pageToken, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
         }
-        return cleanedItems;
+
+        ScanResult page = rawTableScanner.scanPage("Category", PageTokens.decode(pageToken), limit);
+        List<RawItem> items = page.getItems().stream().map(RawItem::new).toList();
+        return new PageResponse<>(items, PageTokens.encode(page.getLastEvaluatedKey()));
     }
 
     // Approve a category
@@ -185,35 +171,19 @@ public class CategoryService {
 
         dynamoDBMapper.save(category);
 
-        // Get the latest category version
-        Version latestVersion = versionService.getLatestCategoryVersion(categoryId);
-        if (latestVersion == null) {
-            throw new RuntimeException("No versions found for category ID: " + categoryId);
-        }
+        // Approve the latest version and retire older versions and their configurations
+        // in transactional batches (safe to re-run if it fails midway)
+        approvalEngine.approve(categoryId, approvedBy);
 
-        // Get all configurations for this category
-        List<Configuration> allCategoryConfigs = configurationService.getConfigurationsByCategory(categoryId);
-
-        // Update the status of all versions
-        versionService.getAllCategoryVersions(categoryId).forEach(version -> {
-            if (version.getVersionId().equals(latestVersion.getVersionId())) {
-                version.setStatus(CategoryStatus.APPROVED.getStatus()); // Set latest version to
-                                                                        // CategoryStatus.APPROVED.getStatus()
-                version.setApprovedBy(approvedBy);
-                version.setApprovedDate(Instant.now().toString());
-            } else {
-                version.setStatus(CategoryStatus.RETIRED.getStatus()); // Retire all previous versions
-
-                // Find and retire all configurations (all their versions) of these previous
-                // (now retired) category versions
-                Integer versionNumToRetire = version.getVersionNum();
-                allCategoryConfigs.stream()
-                        .filter(config -> config.getCategoryVersion() != null &&
-                                config.getCategoryVersion().equals(versionNumToRetire))
-                        .forEach(config -> configurationService.retireConfiguration(config.getConfigurationId()));
-            }
-            versionService.updateVersion(version);
-        });
+        // The approval retired config versions across the category
+        configServingService.refreshCategory(categoryId);
+        // The approved version's cached schema is now final; drop the in-editing entries
+        schemaService.invalidateCategory(categoryId);
+    }
+
+    // Progress of the latest approval of a category (null if none has run on this node)
+    public ApprovalProgress getApprovalProgress(String categoryId) {
+        return approvalEngine.getProgress(categoryId);
     }
 
     // Update a category
@@ -239,35 +209,57 @@ public class CategoryService {
 
         if (request.getStatus().equals(CategoryStatus.RETIRED.getStatus())) {
             // Retire this version and the previous one if needed
-            List<Version> allVersions = versionService.getAllCategoryVersions(request.getCategoryId());
-            List<Configuration> allCategoryConfigs = configurationService
-                    .getConfigurationsByCategory(request.getCategoryId());
+            List<Version> allVersions;
+            List<Configuration> allCategoryConfigs;
+            try (TaskScope scope = new TaskScope(executor)) {
+                TaskScope.Subtask<List<Version>> versions = scope
+                        .fork(() -> versionService.getAllCategoryVersions(request.getCategoryId()));
+                TaskScope.Subtask<List<Configuration>> configs = scope
+                        .fork(() -> configurationService.getConfigurationsByCategory(request.getCategoryId()));
+                scope.join();
+                allVersions = versions.get();
+                allCategoryConfigs = configs.get();
+            }
 
+            List<String> configsToRetire = new ArrayList<>();
             for (Version version : allVersions) {
                 version.setStatus(CategoryStatus.RETIRED.getStatus());
                 versionService.updateVersion(version);
 
-                // Retire all configurations linked to the category version
+                // Collect all configurations linked to the category version
                 for (Configuration config : allCategoryConfigs) {
                     if (config.getCategoryVersion() != null
                             && config.getCategoryVersion().equals(version.getVersionNum())) {
-                        configurationService.retireConfiguration(config.getConfigurationId());
+                        configsToRetire.add(config.getConfigurationId());
                     }
                 }
             }
+
+            // Retire them all in one parallel bulk operation
+            for (RetireResult result : configurationService.retireConfigurations(configsToRetire)) {
+                if (RetireResult.FAILED.equals(result.getResult())) {
+                    throw new RuntimeException(result.getError());
+                }
+            }
         }
         // Check if the latest version is CategoryStatus.APPROVED.getStatus()
         else if (latestVersion.getStatus().equals(CategoryStatus.APPROVED.getStatus())) {
+            // The schema is only compiled where it is saved, so a category can always be retired
+            SchemaCompiler.compile(request.getSchema());
             // Create a new version with the same description and status
             versionService.addVersion(request.getCategoryId(), request.getDescription(), request.getCreatedBy(),
                     serializedSchema);
         } else {
+            SchemaCompiler.compile(request.getSchema());
             if (latestVersion.getStatus().equals(CategoryStatus.PENDING_APPROVAL.getStatus())) {
                 latestVersion.setStatus(CategoryStatus.IN_EDITING.getStatus()); // Set to "In Editing"
             }
             // update the category
             versionService.updateVersion(latestVersion);
         }
+
+        // The latest version's schema or status may have changed
+        schemaService.invalidateCategory(request.getCategoryId());
     }
 
     // Restart a category cycle status starting from "In Editing"
@@ -290,6 +282,7 @@ public class CategoryService {
         Version latestVersion = Collections.max(versions, Comparator.comparingInt(Version::getVersionNum));
         // Check if the latest version is CategoryStatus.APPROVED.getStatus()
         if (latestVersion.getStatus().equals(CategoryStatus.APPROVED.getStatus())) {
+            SchemaCompiler.compile(request.getSchema());
 
             String serializedSchema;
             try {
@@ -346,7 +339,9 @@ public class CategoryService {
             configurationService.deleteConfiguration(config.getCategoryId(), config.getConfigurationId());
         }
 
-        // Delete the category itself
+        // Delete the category itself and free its name
         dynamoDBMapper.delete(category);
+        uniqueNameRepository.release(UniqueNameRepository.CATEGORY, category.getName(), categoryId);
+        changeLogService.recordDelete(ChangeLogService.CATEGORY, categoryId, null);
     }
 }
\ No newline at end of file
@@ -0,0 +1,344 @@
+package com.project.backend_capstone.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.project.backend_capstone.dto.ChangeRecord;
+import com.project.backend_capstone.dto.ChangesResponse;
+import com.project.backend_capstone.model.Category;
+import com.project.backend_capstone.model.ChangeLogEntry;
+import com.project.backend_capstone.model.Configuration;
+import com.project.backend_capstone.model.Version;
+import com.project.backend_capstone.model.VersionConfiguration;
+import com.project.backend_capstone.repository.BatchLoader;
+import com.project.backend_capstone.repository.ChangeLogRepository;
+import com.project.backend_capstone.repository.ItemUpdate;
+
+// Records every write to the config tables in the ChangeLog table and answers "what changed since
+// cursor X", so replicas can follow changes instead of re-reading whole tables.
+//
+// Entries are partitioned by UTC hour, spread over a fixed number of shards per hour so a burst of
+// writes doesn't all land on one partition, and sorted by a cursor that starts with the write time.
+// A read only queries the hours after X, every shard of each, and merges them by cursor. Entries
+// younger than settle-ms are held back, which leaves room for clock skew between nodes and for log
+// writes still in flight: a cursor handed out never has an older entry appear behind it afterwards.
+//
+// Approval chunks commit their entries in the same transaction as the data. Other writes log right
+// after the data write, retrying with backoff, and fail the caller if the entry still can't be
+// written: a replica's cursor would otherwise move past the change for good.
+@Service
+public class ChangeLogService {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeLogService.class);
+
+    public static final String CATEGORY = "Category";
+    public static final String VERSION = "Version";
+    public static final String CONFIGURATION = "Configuration";
+    public static final String VERSION_CONFIGURATION = "VersionConfiguration";
+
+    public static final String UPSERT = "Upsert";
+    public static final String DELETE = "Delete";
+
+    // Largest number of changes returned by one call
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+
+    private static final DateTimeFormatter BUCKET_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH")
+            .withZone(ZoneOffset.UTC);
+
+    // Key of a changed item: hash key plus (possibly null) range key, as strings
+    private record ItemKey(String hashKey, String rangeKey) {
+    }
+
+    private final ChangeLogRepository changeLogRepository;
+    private final BatchLoader batchLoader;
+    private final ExecutorService executor;
+
+    @Value("${app.changes.retention-hours:168}")
+    private long retentionHours;
+
+    @Value("${app.changes.settle-ms:2000}")
+    private long settleMs;
+
+    // Shards per hour bucket. Readers only query shards below this, so it may be raised but not
+    // lowered while entries written with the larger value are still within retention.
+    @Value("${app.changes.shards:8}")
+    private int shards;
+
+    // Makes cursors from different nodes written in the same millisecond distinct
+    private final String nodeId = String.format("%08x", ThreadLocalRandom.current().nextInt());
+    private long lastMillis;
+    private int sequence;
+
+    @Autowired
+    public ChangeLogService(ChangeLogRepository changeLogRepository, BatchLoader batchLoader,
+            @Qualifier("dynamoFanOutExecutor") ExecutorService executor) {
+        this.changeLogRepository = changeLogRepository;
+        this.batchLoader = batchLoader;
+        this.executor = executor;
+    }
+
+    public void recordUpsert(String entityType, String hashKey, Object rangeKey) {
+        record(List.of(newEntry(entityType, UPSERT, hashKey, rangeKey)));
+    }
+
+    public void recordDelete(String entityType, String hashKey, Object rangeKey) {
+        record(List.of(newEntry(entityType, DELETE, hashKey, rangeKey)));
+    }
+
+    // Log entries for a chunk of ItemUpdates (Version / VersionConfiguration status changes), as puts
+    // to commit in the same transaction as the updates themselves
+    public List<TransactWriteItem> logItemsFor(Collection<ItemUpdate> updates) {
+        List<TransactWriteItem> items = new ArrayList<>();
+        for (ItemUpdate update : updates) {
+            Map<String, AttributeValue> key = update.key();
+            if (VERSION.equals(update.tableName())) {
+                items.add(changeLogRepository.toTransactItem(
+                        newEntry(VERSION, UPSERT, key.get("category_id").getS(), key.get("version_num").getN())));
+            } else if (VERSION_CONFIGURATION.equals(update.tableName())) {
+                items.add(changeLogRepository.toTransactItem(newEntry(VERSION_CONFIGURATION, UPSERT,
+                        key.get("configuration_id").getS(), key.get("version_num").getN())));
+            }
+        }
+        return items;
+    }
+
+    // Each attempt gets a fresh cursor, so an entry that only lands after a few backoffs still sorts
+    // after every cursor handed out before it. An earlier attempt that did land leaves a duplicate,
+    // which readers fold into one record per item anyway.
+    private void record(List<ChangeLogEntry> entries) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                changeLogRepository.saveAll(entries);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_WRITE_ATTEMPTS) {
+                    logger.error("Failed to record {} change log entries", entries.size(), e);
+                    throw e;
+                }
+            }
+            sleep(BatchLoader.backoffMs(attempt));
+            entries = entries.stream()
+                    .map(entry -> newEntry(entry.getEntityType(), entry.getOperation(), entry.getHashKey(),
+                            entry.getRangeKey()))
+                    .toList();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while recording change log entries", e);
+        }
+    }
+
+    // Changes after the given cursor, oldest first, with the current state of each changed item.
+    // Without a cursor, returns no changes and the cursor to start following from.
+    public ChangesResponse getChangesSince(String since, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Instant horizon = Instant.now().minusMillis(settleMs);
+        String horizonCursor = String.format("%013d", horizon.toEpochMilli());
+        if (since == null) {
+            return new ChangesResponse(List.of(), horizonCursor, false, false);
+        }
+
+        Instant sinceTime = parseCursor(since);
+        if (sinceTime.isBefore(Instant.now().minus(Duration.ofHours(retentionHours)))) {
+            return new ChangesResponse(List.of(), horizonCursor, false, true);
+        }
+
+        // Walk the hour buckets from the cursor's hour up to the horizon's
+        List<ChangeLogEntry> entries = new ArrayList<>();
+        boolean hasMore = false;
+        Instant lastHour = horizon.truncatedTo(ChronoUnit.HOURS);
+        hours: for (Instant hour = sinceTime.truncatedTo(ChronoUnit.HOURS); !hour.isAfter(lastHour);
+                hour = hour.plus(1, ChronoUnit.HOURS)) {
+            for (ChangeLogEntry entry : readHour(hour, since, limit - entries.size())) {
+                if (entry.getCursor().compareTo(horizonCursor) >= 0) {
+                    break hours;
+                }
+                entries.add(entry);
+                if (entries.size() == limit) {
+                    hasMore = true;
+                    break hours;
+                }
+            }
+        }
+
+        String cursor;
+        if (hasMore) {
+            cursor = entries.get(entries.size() - 1).getCursor();
+        } else {
+            // Caught up: continue from the horizon (or from where the caller already is)
+            cursor = since.compareTo(horizonCursor) > 0 ? since : horizonCursor;
+        }
+        return new ChangesResponse(toChangeRecords(entries), cursor, hasMore, false);
+    }
+
+    // The first limit entries of one hour after the cursor, oldest first. Each shard is read (in
+    // parallel) up to limit entries, so the merged head is the hour's true head.
+    private List<ChangeLogEntry> readHour(Instant hour, String since, int limit) {
+        String hourBucket = BUCKET_FORMAT.format(hour);
+        List<String> buckets = new ArrayList<>();
+        // Entries written before the log was sharded
+        buckets.add(hourBucket);
+        for (int shard = 0; shard < shards; shard++) {
+            buckets.add(hourBucket + "#" + shard);
+        }
+
+        List<CompletableFuture<List<ChangeLogEntry>>> reads = buckets.stream()
+                .map(bucket -> CompletableFuture.supplyAsync(() -> readBucket(bucket, since, limit), executor))
+                .toList();
+        List<ChangeLogEntry> merged = new ArrayList<>();
+        reads.forEach(read -> merged.addAll(read.join()));
+        merged.sort(Comparator.comparing(ChangeLogEntry::getCursor));
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    private List<ChangeLogEntry> readBucket(String bucket, String since, int limit) {
+        List<ChangeLogEntry> entries = new ArrayList<>();
+        Map<String, AttributeValue> startKey = null;
+        do {
+            QueryResultPage<ChangeLogEntry> page = changeLogRepository.findPageAfter(bucket, since, startKey,
+                    limit - entries.size());
+            entries.addAll(page.getResults());
+            startKey = page.getLastEvaluatedKey();
+        } while (startKey != null && entries.size() < limit);
+        return entries;
+    }
+
+    // One record per changed item (its latest entry), with the item's current state
+    private List<ChangeRecord> toChangeRecords(List<ChangeLogEntry> entries) {
+        Map<ItemKey, ChangeLogEntry> latestByKey = new LinkedHashMap<>();
+        Map<String, List<ItemKey>> keysByType = new HashMap<>();
+        for (ChangeLogEntry entry : entries) {
+            ItemKey key = new ItemKey(entry.getHashKey(), entry.getRangeKey());
+            // Re-insert so the item sits at the position of its latest change
+            if (latestByKey.remove(key) == null) {
+                keysByType.computeIfAbsent(entry.getEntityType(), type -> new ArrayList<>()).add(key);
+            }
+            latestByKey.put(key, entry);
+        }
+
+        Map<String, Map<ItemKey, Object>> recordsByType = new HashMap<>();
+        keysByType.forEach((type, keys) -> recordsByType.put(type, loadRecords(type, keys)));
+
+        List<ChangeRecord> changes = new ArrayList<>();
+        for (Map.Entry<ItemKey, ChangeLogEntry> latest : latestByKey.entrySet()) {
+            ChangeLogEntry entry = latest.getValue();
+            Object record = recordsByType.getOrDefault(entry.getEntityType(), Map.of()).get(latest.getKey());
+            // An item that's gone by now is reported as deleted, whatever its last logged change was
+            String operation = record != null ? entry.getOperation() : DELETE;
+            changes.add(new ChangeRecord(entry.getCursor(), entry.getEntityType(), operation, entry.getHashKey(),
+                    entry.getRangeKey(), record));
+        }
+        return changes;
+    }
+
+    private Map<ItemKey, Object> loadRecords(String entityType, List<ItemKey> keys) {
+        return switch (entityType) {
+            case CATEGORY -> byKey(batchLoader.loadAll(Category.class, keys, key -> {
+                Category category = new Category();
+                category.setCategoryId(key.hashKey());
+                return category;
+            }, ChangeLogService::keyOfCategory), ChangeLogService::keyOfCategory);
+            case VERSION -> byKey(batchLoader.loadAll(Version.class, keys, key -> {
+                Version version = new Version();
+                version.setCategoryId(key.hashKey());
+                version.setVersionNum(Integer.valueOf(key.rangeKey()));
+                return version;
+            }, ChangeLogService::keyOfVersion), ChangeLogService::keyOfVersion);
+            case CONFIGURATION -> byKey(batchLoader.loadAll(Configuration.class, keys, key -> {
+                Configuration configuration = new Configuration();
+                configuration.setCategoryId(key.hashKey());
+                configuration.setConfigurationId(key.rangeKey());
+                return configuration;
+            }, ChangeLogService::keyOfConfiguration), ChangeLogService::keyOfConfiguration);
+            case VERSION_CONFIGURATION -> byKey(batchLoader.loadAll(VersionConfiguration.class, keys, key -> {
+                VersionConfiguration version = new VersionConfiguration();
+                version.setConfigurationId(key.hashKey());
+                version.setVersionNum(Integer.valueOf(key.rangeKey()));
+                return version;
+            }, ChangeLogService::keyOfVersionConfiguration), ChangeLogService::keyOfVersionConfiguration);
+            default -> Map.of();
+        };
+    }
+
+    private static ItemKey keyOfCategory(Category category) {
+        return new ItemKey(category.getCategoryId(), null);
+    }
+
+    private static ItemKey keyOfVersion(Version version) {
+        return new ItemKey(version.getCategoryId(), version.getVersionNum().toString());
+    }
+
+    private static ItemKey keyOfConfiguration(Configuration configuration) {
+        return new ItemKey(configuration.getCategoryId(), configuration.getConfigurationId());
+    }
+
+    private static ItemKey keyOfVersionConfiguration(VersionConfiguration version) {
+        return new ItemKey(version.getConfigurationId(), version.getVersionNum().toString());
+    }
+
+    private static <T> Map<ItemKey, Object> byKey(List<T> items, Function<T, ItemKey> keyOf) {
+        Map<ItemKey, Object> byKey = new HashMap<>();
+        items.forEach(item -> byKey.put(keyOf.apply(item), item));
+        return byKey;
+    }
+
+    private ChangeLogEntry newEntry(String entityType, String operation, String hashKey, Object rangeKey) {
+        String cursor = nextCursor();
+        Instant time = parseCursor(cursor);
+        String bucket = BUCKET_FORMAT.format(time) + "#" + ThreadLocalRandom.current().nextInt(shards);
+        return new ChangeLogEntry(bucket, cursor, entityType, hashKey,
+                rangeKey != null ? rangeKey.toString() : null, operation,
+                time.plus(Duration.ofHours(retentionHours)).getEpochSecond());
+    }
+
+    // Increasing on this node even if the clock steps back
+    private synchronized String nextCursor() {
+        long now = Math.max(System.currentTimeMillis(), lastMillis);
+        sequence = now == lastMillis ? sequence + 1 : 0;
+        lastMillis = now;
+        return String.format("%013d-%06d-%s", now, sequence, nodeId);
+    }
+
+    private static Instant parseCursor(String cursor) {
+        if (cursor.length() < 13) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        try {
+            return Instant.ofEpochMilli(Long.parseLong(cursor.substring(0, 13)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,530 @@
+package com.project.backend_capstone.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.project.backend_capstone.dto.ChangeRecord;
+import com.project.backend_capstone.dto.ChangesResponse;
+import com.project.backend_capstone.enums.CategoryStatus;
+import com.project.backend_capstone.model.Category;
+import com.project.backend_capstone.model.Configuration;
+import com.project.backend_capstone.model.VersionConfiguration;
+import com.project.backend_capstone.repository.ConfigurationRepository;
+import com.project.backend_capstone.repository.ParallelScanner;
+import com.project.backend_capstone.repository.VersionConfigRepository;
+
+// In-memory snapshot of the approved fields of every configuration, for client applications.
+//
+// Every category is loaded at startup (warmLoad, with the categories read in parallel) and then
+// kept current by the write paths that change which config version is approved (approve, retire,
+// category approval): approvals and retirements are applied straight from what was written, other
+// edits re-read just that configuration. A category created on this node starts out empty. Until
+// the warm load is done, a category missing from the snapshot is loaded on first request; afterwards
+// only a category created on another node since is (once its row is found to exist). Changes made on
+// other nodes arrive by following the change log: each changed configuration is re-read on its own
+// (this node's writes come back through it too, costing one extra query each). A snapshot older than
+// max-staleness is still served while a background reload replaces it; that is only a safety net
+// for anything the log missed, so the default is long. Every change to a configuration's approved
+// version is published to ConfigWatchService.
+@Service
+public class ConfigServingService implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(ConfigServingService.class);
+
+    // One approved configuration as served to clients
+    public record ServedConfiguration(String configurationId, String name, Integer versionNum,
+            Map<String, Object> fields) {
+    }
+
+    // Immutable view of one category, swapped as a whole on every change
+    private record CategorySnapshot(Map<String, ServedConfiguration> byName,
+            Map<String, Map<String, Object>> fieldsByName, long generation, long loadedAtNanos) {
+    }
+
+    // Category and name of a configuration in a loaded category, so a refresh by ID knows where it goes
+    private record ConfigRef(String categoryId, String name) {
+    }
+
+    // Served for a category ID that doesn't exist, and the baseline a category created after the
+    // warm load is compared against; never stored in the snapshot
+    private static final CategorySnapshot EMPTY = newSnapshot(Map.of(), 0, 0);
+
+    // Change log records read per request while catching up
+    private static final int FOLLOW_PAGE_SIZE = 500;
+
+    private final ConfigurationRepository configurationRepository;
+    private final VersionConfigRepository versionConfigRepository;
+    private final ExecutorService executor;
+    private final ConfigWatchService configWatchService;
+
+    @Autowired
+    private ParallelScanner parallelScanner;
+
+    @Autowired
+    private DynamoDBMapper dynamoDBMapper;
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @Value("${app.serving.max-staleness-ms:900000}")
+    private long maxStalenessMs;
+
+    @Value("${app.serving.follow-interval-ms:2000}")
+    private long followIntervalMs;
+
+    @Value("${app.serving.warm-load-retry-ms:30000}")
+    private long warmLoadRetryMs;
+
+    // Set once a warm load has finished successfully
+    private volatile boolean ready;
+    private volatile long warmLoadMs = -1;
+    private volatile boolean warmLoadFailed;
+    // Where following the change log continues from; null until followChanges is called
+    private volatile String followCursor;
+
+    private final ScheduledExecutorService follower = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "serving-change-follower");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, CategorySnapshot> categories = new ConcurrentHashMap<>();
+    private final Map<String, ConfigRef> configRefs = new ConcurrentHashMap<>();
+    // Categories with a background reload in flight, so a burst of stale reads triggers only one
+    private final Set<String> reloading = ConcurrentHashMap.newKeySet();
+    // Orders snapshots so a slow full reload can't overwrite a newer single-config refresh
+    private final AtomicLong generations = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong writeThroughs = new AtomicLong();
+    private final AtomicLong followedChanges = new AtomicLong();
+    // Time spent reading and building category snapshots (warm, first-request and background loads)
+    private final AtomicLong builds = new AtomicLong();
+    private final AtomicLong buildNanos = new AtomicLong();
+    private volatile long lastBuildMs;
+
+    @Autowired
+    public ConfigServingService(ConfigurationRepository configurationRepository,
+            VersionConfigRepository versionConfigRepository,
+            @Qualifier("dynamoFanOutExecutor") ExecutorService executor, ConfigWatchService configWatchService) {
+        this.configurationRepository = configurationRepository;
+        this.versionConfigRepository = versionConfigRepository;
+        this.executor = executor;
+        this.configWatchService = configWatchService;
+    }
+
+    // Approved fields of every configuration in a category, by configuration name
+    public Map<String, Map<String, Object>> getCategoryFields(String categoryId) {
+        return snapshot(categoryId).fieldsByName();
+    }
+
+    // Approved fields of one configuration (null if it has no approved version)
+    public Map<String, Object> getConfigurationFields(String categoryId, String name) {
+        return snapshot(categoryId).fieldsByName().get(name);
+    }
+
+    // Approved fields of several configurations in a category; names without an approved version are left out
+    public Map<String, Map<String, Object>> getConfigurationFields(String categoryId, Collection<String> names) {
+        Map<String, Map<String, Object>> fieldsByName = snapshot(categoryId).fieldsByName();
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (String name : names) {
+            Map<String, Object> fields = fieldsByName.get(name);
+            if (fields != null) {
+                result.put(name, fields);
+            }
+        }
+        return result;
+    }
+
+    // Approved configuration (with its version number) by name, or null
+    public ServedConfiguration getServedConfiguration(String categoryId, String name) {
+        return snapshot(categoryId).byName().get(name);
+    }
+
+    // Approved configuration by configuration ID, or null (only configurations of loaded categories are known)
+    public ServedConfiguration getServedConfigurationById(String configurationId) {
+        ConfigRef ref = configRefs.get(configurationId);
+        if (ref == null) {
+            return null;
+        }
+        return snapshot(ref.categoryId()).byName().get(ref.name());
+    }
+
+    // Load every category up front, reading the categories in parallel. Readiness turns true once it
+    // succeeds; a failed warm load is retried after warm-load-retry-ms, and until then categories are
+    // loaded on first request.
+    public CompletableFuture<Void> warmLoad() {
+        long start = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> parallelScanner.scanAll(Category.class), executor)
+                .thenCompose(allCategories -> {
+                    long startGeneration = generations.get();
+                    List<CompletableFuture<Void>> loadsInFlight = allCategories.stream()
+                            .map(Category::getCategoryId)
+                            .map(categoryId -> timedLoad(categoryId)
+                                    .thenAccept(byName -> install(categoryId, startGeneration, byName)))
+                            .toList();
+                    return CompletableFuture.allOf(loadsInFlight.toArray(CompletableFuture[]::new));
+                })
+                .whenComplete((done, e) -> {
+                    warmLoadMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    if (e != null) {
+                        warmLoadFailed = true;
+                        logger.error("Serving snapshot warm load failed after {} ms, retrying in {} ms", warmLoadMs,
+                                warmLoadRetryMs, e);
+                        CompletableFuture.runAsync(this::warmLoad,
+                                CompletableFuture.delayedExecutor(warmLoadRetryMs, TimeUnit.MILLISECONDS));
+                    } else {
+                        warmLoadFailed = false;
+                        logger.info("Serving snapshot warm-loaded {} categories in {} ms", categories.size(),
+                                warmLoadMs);
+                        ready = true;
+                    }
+                });
+    }
+
+    // Start applying changes made on other nodes, from now on. Called before the warm load so nothing
+    // written while it runs is missed.
+    public synchronized void followChanges() {
+        if (followCursor != null) {
+            return;
+        }
+        followCursor = changeLogService.getChangesSince(null, 1).getCursor();
+        follower.scheduleWithFixedDelay(this::followLoggedChanges, followIntervalMs, followIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    // Apply everything logged since the cursor; on failure the same changes are read again next time
+    void followLoggedChanges() {
+        try {
+            ChangesResponse response;
+            do {
+                response = changeLogService.getChangesSince(followCursor, FOLLOW_PAGE_SIZE);
+                if (response.isResync()) {
+                    // Fell further behind than the log keeps, so anything loaded may be stale
+                    logger.warn("Serving snapshot fell behind the change log; reloading every category");
+                    categories.keySet().forEach(this::reloadInBackground);
+                }
+                applyLoggedChanges(response.getChanges());
+                followCursor = response.getCursor();
+            } while (response.isHasMore());
+        } catch (Exception e) {
+            logger.warn("Failed to follow the change log, retrying in {} ms", followIntervalMs, e);
+        }
+    }
+
+    private void applyLoggedChanges(List<ChangeRecord> changes) {
+        Set<String> refreshed = new HashSet<>();
+        for (ChangeRecord change : changes) {
+            followedChanges.incrementAndGet();
+            switch (change.getEntityType()) {
+                case ChangeLogService.VERSION_CONFIGURATION -> {
+                    // Any status change may move the approved version; re-read it once per batch
+                    if (refreshed.add(change.getHashKey())) {
+                        refreshConfiguration(change.getHashKey());
+                    }
+                }
+                case ChangeLogService.CONFIGURATION -> {
+                    if (change.getRecord() instanceof Configuration configuration) {
+                        trackConfiguration(configuration);
+                    } else {
+                        refreshCategory(change.getHashKey());
+                    }
+                }
+                default -> {
+                    // Categories and category versions don't change what is served
+                }
+            }
+        }
+    }
+
+    // Whether a warm load has succeeded, so reads of existing categories no longer go to DynamoDB
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Write-through after an approval or retirement committed: the configuration's approved version is
+    // now exactly this one (null when none is approved), so apply it without reading it back
+    public void applyApproved(String configurationId, VersionConfiguration approved) {
+        ConfigRef ref = refOf(configurationId);
+        if (ref == null) {
+            // Its category isn't loaded here; the first read will load it fresh
+            return;
+        }
+
+        writeThroughs.incrementAndGet();
+        replace(ref, approved != null ? toServed(configurationId, ref.name(), approved) : null);
+    }
+
+    // Start serving a category created on this node, as empty, so its configurations can be tracked
+    // and their approvals applied (and published to watchers) right away
+    public void trackCategory(String categoryId) {
+        categories.putIfAbsent(categoryId, newSnapshot(Map.of(), generations.incrementAndGet(), System.nanoTime()));
+    }
+
+    // Make a new configuration known to its (loaded) category so a later approval can be applied by ID
+    public void trackConfiguration(Configuration configuration) {
+        if (categories.containsKey(configuration.getCategoryId())) {
+            configRefs.put(configuration.getConfigurationId(),
+                    new ConfigRef(configuration.getCategoryId(), configuration.getName()));
+        }
+    }
+
+    // Re-read the approved version of one configuration after its statuses changed
+    public void refreshConfiguration(String configurationId) {
+        ConfigRef ref = refOf(configurationId);
+        if (ref == null) {
+            // Its category isn't loaded here; the first read will load it fresh
+            return;
+        }
+
+        refreshes.incrementAndGet();
+        replace(ref, loadApproved(configurationId, ref.name()));
+    }
+
+    // Reload a whole category in the background after a change that touched many of its configurations
+    public void refreshCategory(String categoryId) {
+        if (categories.containsKey(categoryId)) {
+            reloadInBackground(categoryId);
+        }
+    }
+
+    // Where a configuration sits in a loaded category. One created on another node since its category
+    // was loaded isn't known yet, so it is looked up rather than left stale until the next reload.
+    private ConfigRef refOf(String configurationId) {
+        ConfigRef ref = configRefs.get(configurationId);
+        if (ref != null) {
+            return ref;
+        }
+        Configuration configuration = configurationRepository.findByConfigurationId(configurationId);
+        if (configuration == null || !categories.containsKey(configuration.getCategoryId())) {
+            return null;
+        }
+        ref = new ConfigRef(configuration.getCategoryId(), configuration.getName());
+        configRefs.put(configurationId, ref);
+        return ref;
+    }
+
+    // Forget everything (used when the underlying tables are wiped)
+    public void clear() {
+        categories.clear();
+        configRefs.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        int served = 0;
+        int fields = 0;
+        for (CategorySnapshot snapshot : categories.values()) {
+            served += snapshot.byName().size();
+            for (Map<String, Object> configFields : snapshot.fieldsByName().values()) {
+                fields += configFields.size();
+            }
+        }
+        long buildCount = builds.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("warmLoadMs", warmLoadMs);
+        stats.put("warmLoadFailed", warmLoadFailed);
+        stats.put("categories", categories.size());
+        stats.put("configurations", configRefs.size());
+        stats.put("servedConfigurations", served);
+        stats.put("servedFields", fields);
+        stats.put("hits", hits.get());
+        stats.put("loads", loads.get());
+        stats.put("reloads", reloads.get());
+        stats.put("refreshes", refreshes.get());
+        stats.put("writeThroughs", writeThroughs.get());
+        stats.put("followedChanges", followedChanges.get());
+        stats.put("followCursor", followCursor);
+        stats.put("builds", buildCount);
+        stats.put("lastBuildMs", lastBuildMs);
+        stats.put("avgBuildMs", buildCount > 0 ? TimeUnit.NANOSECONDS.toMillis(buildNanos.get() / buildCount) : 0);
+        stats.put("maxStalenessMs", maxStalenessMs);
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        follower.shutdownNow();
+    }
+
+    // Copy-on-write swap of one configuration in its category's snapshot
+    private void replace(ConfigRef ref, ServedConfiguration served) {
+        CategorySnapshot[] previous = new CategorySnapshot[1];
+        CategorySnapshot next = categories.computeIfPresent(ref.categoryId(), (categoryId, current) -> {
+            previous[0] = current;
+            Map<String, ServedConfiguration> byName = new HashMap<>(current.byName());
+            if (served != null) {
+                byName.put(ref.name(), served);
+            } else {
+                byName.remove(ref.name());
+            }
+            return newSnapshot(byName, generations.incrementAndGet(), current.loadedAtNanos());
+        });
+        publishChanges(ref.categoryId(), previous[0], next);
+    }
+
+    // Current snapshot of a category, loading it on first use and reloading it in the background when stale
+    private CategorySnapshot snapshot(String categoryId) {
+        CategorySnapshot snapshot = categories.get(categoryId);
+        if (snapshot == null) {
+            // After the warm load a miss is a category created on another node since, or an ID that
+            // doesn't exist; only the first is loaded (and kept)
+            if (ready && dynamoDBMapper.load(Category.class, categoryId) == null) {
+                return EMPTY;
+            }
+            loads.incrementAndGet();
+            long startGeneration = generations.get();
+            return install(categoryId, startGeneration, timedLoad(categoryId).join());
+        }
+
+        hits.incrementAndGet();
+        if (System.nanoTime() - snapshot.loadedAtNanos() > TimeUnit.MILLISECONDS.toNanos(maxStalenessMs)) {
+            reloadInBackground(categoryId);
+        }
+        return snapshot;
+    }
+
+    private void reloadInBackground(String categoryId) {
+        if (!reloading.add(categoryId)) {
+            return;
+        }
+
+        reloads.incrementAndGet();
+        long startGeneration = generations.get();
+        timedLoad(categoryId).whenComplete((byName, e) -> {
+            reloading.remove(categoryId);
+            if (e != null) {
+                logger.warn("Failed to reload serving snapshot for category {}", categoryId, e);
+            } else {
+                install(categoryId, startGeneration, byName);
+            }
+        });
+    }
+
+    // Swap in a freshly loaded category unless a newer change landed while it was being read
+    private CategorySnapshot install(String categoryId, long startGeneration,
+            Map<String, ServedConfiguration> byName) {
+        CategorySnapshot[] previous = new CategorySnapshot[1];
+        CategorySnapshot next = categories.compute(categoryId, (id, current) -> {
+            previous[0] = current;
+            if (current != null && current.generation() > startGeneration) {
+                return current;
+            }
+            return newSnapshot(byName, generations.incrementAndGet(), System.nanoTime());
+        });
+        // Every category that existed at startup was loaded before readiness, so one first loaded
+        // after it is new since: everything approved in it is a change watchers haven't seen
+        publishChanges(categoryId, previous[0] != null || !ready ? previous[0] : EMPTY, next);
+        return next;
+    }
+
+    // Tell watchers about every configuration whose approved version differs between two snapshots
+    private void publishChanges(String categoryId, CategorySnapshot before, CategorySnapshot after) {
+        if (before == null || after == null || before == after) {
+            // First load of a category from startup: nobody can be watching changes they haven't seen a
+            // baseline for
+            return;
+        }
+
+        Set<String> names = new HashSet<>(before.byName().keySet());
+        names.addAll(after.byName().keySet());
+        for (String name : names) {
+            ServedConfiguration previous = before.byName().get(name);
+            ServedConfiguration current = after.byName().get(name);
+            Integer previousVersion = previous != null ? previous.versionNum() : null;
+            Integer currentVersion = current != null ? current.versionNum() : null;
+            if (!Objects.equals(previousVersion, currentVersion)) {
+                String configurationId = current != null ? current.configurationId() : previous.configurationId();
+                configWatchService.publish(categoryId, configurationId, name, currentVersion);
+            }
+        }
+    }
+
+    // loadCategory, counted in the build metrics
+    private CompletableFuture<Map<String, ServedConfiguration>> timedLoad(String categoryId) {
+        long start = System.nanoTime();
+        return loadCategory(categoryId).whenComplete((byName, e) -> {
+            long elapsed = System.nanoTime() - start;
+            builds.incrementAndGet();
+            buildNanos.addAndGet(elapsed);
+            lastBuildMs = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        });
+    }
+
+    // Query the category's configurations, then look up each one's approved version in parallel.
+    // Composed rather than joined so it can also run from a pool thread without tying one up.
+    private CompletableFuture<Map<String, ServedConfiguration>> loadCategory(String categoryId) {
+        return CompletableFuture.supplyAsync(() -> configurationRepository.findByCategoryId(categoryId), executor)
+                .thenCompose(configurations -> {
+                    configurations.forEach(configuration -> configRefs.put(configuration.getConfigurationId(),
+                            new ConfigRef(categoryId, configuration.getName())));
+
+                    List<CompletableFuture<ServedConfiguration>> lookups = configurations.stream()
+                            .map(configuration -> CompletableFuture.supplyAsync(
+                                    () -> loadApproved(configuration.getConfigurationId(), configuration.getName()),
+                                    executor))
+                            .toList();
+
+                    return CompletableFuture.allOf(lookups.toArray(CompletableFuture[]::new))
+                            .thenApply(done -> {
+                                Map<String, ServedConfiguration> byName = new HashMap<>();
+                                for (CompletableFuture<ServedConfiguration> lookup : lookups) {
+                                    ServedConfiguration served = lookup.join();
+                                    if (served != null) {
+                                        byName.put(served.name(), served);
+                                    }
+                                }
+                                return byName;
+                            });
+                });
+    }
+
+    private ServedConfiguration loadApproved(String configurationId, String name) {
+        VersionConfiguration approved = versionConfigRepository.findLatestWithStatus(configurationId,
+                CategoryStatus.APPROVED.getStatus());
+        if (approved == null) {
+            return null;
+        }
+        return toServed(configurationId, name, approved);
+    }
+
+    private static ServedConfiguration toServed(String configurationId, String name, VersionConfiguration approved) {
+        Map<String, Object> fields = approved.getFields() != null
+                ? Collections.unmodifiableMap(new HashMap<>(approved.getFields()))
+                : Map.of();
+        return new ServedConfiguration(configurationId, name, approved.getVersionNum(), fields);
+    }
+
+    private static CategorySnapshot newSnapshot(Map<String, ServedConfiguration> byName, long generation,
+            long loadedAtNanos) {
+        Map<String, Map<String, Object>> fieldsByName = new HashMap<>();
+        byName.forEach((name, served) -> fieldsByName.put(name, served.fields()));
+        return new CategorySnapshot(Map.copyOf(byName), Map.copyOf(fieldsByName), generation, loadedAtNanos);
+    }
+}
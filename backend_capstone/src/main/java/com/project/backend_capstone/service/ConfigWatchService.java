@@ -0,0 +1,439 @@
+package com.project.backend_capstone.service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.project.backend_capstone.dto.ConfigChangeEvent;
+import com.project.backend_capstone.dto.WatchResponse;
+
+// Pushes approved-version changes to clients watching categories or configurations.
+//
+// Watchers are parked as async servlet requests (DeferredResult for long-poll, SseEmitter for
+// Server-Sent Events), so an idle watcher holds no thread, just an entry in the index below.
+// Recent events are kept in a bounded ring buffer so a client that reconnects with the last
+// sequence it saw gets what it missed; if that is no longer buffered it is told to resync.
+//
+// Publishing only queues an event on each matching watcher; a small delivery pool drains each
+// watcher's queue in order, so writers never wait on a client's socket. A watcher that falls too far
+// behind is closed, and reconnects with the last sequence it got.
+@Service
+public class ConfigWatchService implements DisposableBean {
+
+    // Which changes a watcher wants: any configuration in the given categories, optionally
+    // narrowed to specific configuration IDs
+    public record WatchFilter(Set<String> categoryIds, Set<String> configurationIds) {
+        boolean matches(ConfigChangeEvent event) {
+            return categoryIds.contains(event.getCategoryId())
+                    && (configurationIds.isEmpty() || configurationIds.contains(event.getConfigurationId()));
+        }
+    }
+
+    private abstract static class Watcher {
+        final WatchFilter filter;
+        // Events published but not yet delivered, in sequence order
+        final ConcurrentLinkedQueue<ConfigChangeEvent> pending = new ConcurrentLinkedQueue<>();
+        final AtomicInteger pendingCount = new AtomicInteger();
+        // Whether a delivery task owns the queue, so its events go out one batch at a time
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Watcher(WatchFilter filter) {
+            this.filter = filter;
+        }
+
+        // Hand over matching events; returns false once the watcher is done and should be dropped
+        abstract boolean deliver(List<ConfigChangeEvent> events, long sequence);
+
+        // End a watcher that fell too far behind; it has to resync from the given sequence
+        abstract void close(long sequence);
+    }
+
+    // Long-poll: answered by the first batch of matching events (or the timeout), then gone
+    private static class PollWatcher extends Watcher {
+        final DeferredResult<WatchResponse> result;
+
+        PollWatcher(WatchFilter filter, DeferredResult<WatchResponse> result) {
+            super(filter);
+            this.result = result;
+        }
+
+        @Override
+        boolean deliver(List<ConfigChangeEvent> events, long sequence) {
+            result.setResult(new WatchResponse(sequence, false, events));
+            return false;
+        }
+
+        @Override
+        void close(long sequence) {
+            result.setResult(new WatchResponse(sequence, true, List.of()));
+        }
+    }
+
+    // SSE: stays subscribed, each event sent once and in sequence order
+    private static class StreamWatcher extends Watcher {
+        final SseEmitter emitter;
+        long lastSent;
+
+        StreamWatcher(WatchFilter filter, SseEmitter emitter, long lastSent) {
+            super(filter);
+            this.emitter = emitter;
+            this.lastSent = lastSent;
+        }
+
+        @Override
+        synchronized boolean deliver(List<ConfigChangeEvent> events, long sequence) {
+            try {
+                for (ConfigChangeEvent event : events) {
+                    if (event.getSequence() > lastSent) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(event.getSequence()))
+                                .name("change")
+                                .data(event));
+                        lastSent = event.getSequence();
+                    }
+                }
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // Client went away
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+
+        @Override
+        void close(long sequence) {
+            // The client reconnects with the last event ID it got and is replayed or told to resync
+            emitter.complete();
+        }
+
+        synchronized boolean heartbeat() {
+            try {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+
+    @Value("${app.watch.buffer-size:4096}")
+    private int bufferSize;
+
+    @Value("${app.watch.max-watchers:20000}")
+    private int maxWatchers;
+
+    @Value("${app.watch.long-poll-timeout-ms:30000}")
+    private long longPollTimeoutMs;
+
+    @Value("${app.watch.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs;
+
+    @Value("${app.watch.delivery-threads:8}")
+    private int deliveryThreads;
+
+    @Value("${app.watch.max-pending-events:1000}")
+    private int maxPendingEvents;
+
+    // Guards the buffer, the sequence and the watcher index together, so a new watcher can't
+    // fall between replaying the buffer and being registered for new events
+    private final Object lock = new Object();
+    private final ArrayDeque<ConfigChangeEvent> buffer = new ArrayDeque<>();
+    // Starts from the clock so sequences from before a restart read as unknown, not as the future
+    private long sequence = System.currentTimeMillis() * 1000;
+    private final Map<String, Set<Watcher>> watchersByCategory = new ConcurrentHashMap<>();
+    private int watcherCount;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "config-watch-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Sends events to clients, off the threads that publish them
+    private ExecutorService deliveries;
+
+    public ConfigWatchService() {
+        // Keep idle SSE connections from being cut by proxies, and notice clients that left
+        heartbeats.scheduleWithFixedDelay(this::sendHeartbeats, 25, 25, TimeUnit.SECONDS);
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger count = new AtomicInteger();
+        deliveries = Executors.newFixedThreadPool(deliveryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "config-watch-delivery-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Record a change and queue it for every matching watcher
+    public void publish(String categoryId, String configurationId, String name, Integer versionNum) {
+        ConfigChangeEvent event;
+        List<Watcher> targets = new ArrayList<>();
+        List<Watcher> behind = new ArrayList<>();
+        synchronized (lock) {
+            event = new ConfigChangeEvent(++sequence, categoryId, configurationId, name, versionNum,
+                    Instant.now().toString());
+            buffer.addLast(event);
+            while (buffer.size() > bufferSize) {
+                buffer.removeFirst();
+            }
+
+            Set<Watcher> watchers = watchersByCategory.get(categoryId);
+            if (watchers != null) {
+                for (Watcher watcher : watchers) {
+                    if (!watcher.filter.matches(event)) {
+                        continue;
+                    }
+                    // Queued under the lock so every watcher sees events in sequence order
+                    if (watcher.pendingCount.incrementAndGet() > maxPendingEvents) {
+                        behind.add(watcher);
+                    } else {
+                        watcher.pending.add(event);
+                        targets.add(watcher);
+                    }
+                }
+            }
+        }
+        published.incrementAndGet();
+
+        for (Watcher watcher : targets) {
+            scheduleDelivery(watcher);
+        }
+        for (Watcher watcher : behind) {
+            overflowed.incrementAndGet();
+            unregister(watcher);
+            long current = event.getSequence();
+            deliveries.execute(() -> watcher.close(current));
+        }
+    }
+
+    private void scheduleDelivery(Watcher watcher) {
+        if (watcher.draining.compareAndSet(false, true)) {
+            deliveries.execute(() -> drain(watcher));
+        }
+    }
+
+    // Send everything queued for one watcher. Only one drain per watcher runs at a time, so a slow
+    // client ties up at most one delivery thread.
+    private void drain(Watcher watcher) {
+        List<ConfigChangeEvent> events = new ArrayList<>();
+        ConfigChangeEvent event;
+        while ((event = watcher.pending.poll()) != null) {
+            events.add(event);
+        }
+        watcher.pendingCount.addAndGet(-events.size());
+
+        if (!events.isEmpty()) {
+            delivered.addAndGet(events.size());
+            if (!watcher.deliver(events, events.get(events.size() - 1).getSequence())) {
+                unregister(watcher);
+                return;
+            }
+        }
+
+        watcher.draining.set(false);
+        // Events queued after the queue was emptied but before the flag was cleared
+        if (!watcher.pending.isEmpty()) {
+            scheduleDelivery(watcher);
+        }
+    }
+
+    // Long-poll: answers right away if there are matching changes after "since" (or a resync is
+    // needed), otherwise parks until one arrives or the timeout passes
+    public DeferredResult<WatchResponse> poll(WatchFilter filter, Long since) {
+        DeferredResult<WatchResponse> result = new DeferredResult<>(longPollTimeoutMs);
+        PollWatcher watcher = new PollWatcher(filter, result);
+
+        synchronized (lock) {
+            if (since == null || !isBuffered(since)) {
+                result.setResult(new WatchResponse(sequence, true, List.of()));
+                return result;
+            }
+
+            List<ConfigChangeEvent> missed = eventsAfter(since, filter);
+            if (!missed.isEmpty()) {
+                result.setResult(new WatchResponse(sequence, false, missed));
+                return result;
+            }
+
+            // Nothing matched in the meantime, so the client can skip ahead to the latest sequence
+            result.onTimeout(() -> result.setResult(new WatchResponse(currentSequence(), false, List.of())));
+            register(watcher);
+        }
+
+        result.onCompletion(() -> unregister(watcher));
+        return result;
+    }
+
+    // SSE: replays matching changes after "since", then streams new ones. Without a usable "since"
+    // the first event is a "resync" carrying the current sequence.
+    public SseEmitter stream(WatchFilter filter, Long since) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        StreamWatcher watcher = new StreamWatcher(filter, emitter, since != null ? since : 0);
+        boolean open;
+
+        // Hold the watcher while it is registered and caught up, so new events queue behind the replay
+        // (always watcher before lock, the same order publish and unregister use)
+        synchronized (watcher) {
+            List<ConfigChangeEvent> missed;
+            long current;
+            boolean resync;
+            synchronized (lock) {
+                current = sequence;
+                resync = since == null || !isBuffered(since);
+                missed = resync ? List.of() : eventsAfter(since, filter);
+                register(watcher);
+            }
+
+            if (resync) {
+                watcher.lastSent = current;
+                open = sendResync(emitter, current);
+            } else {
+                open = watcher.deliver(missed, current);
+            }
+        }
+
+        emitter.onCompletion(() -> unregister(watcher));
+        emitter.onTimeout(() -> unregister(watcher));
+        emitter.onError(e -> unregister(watcher));
+        if (!open) {
+            unregister(watcher);
+        }
+        return emitter;
+    }
+
+    public long currentSequence() {
+        synchronized (lock) {
+            return sequence;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        synchronized (lock) {
+            return Map.of(
+                    "watchers", watcherCount,
+                    "maxWatchers", maxWatchers,
+                    "sequence", sequence,
+                    "bufferedEvents", buffer.size(),
+                    "published", published.get(),
+                    "delivered", delivered.get(),
+                    "overflowed", overflowed.get());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+        if (deliveries != null) {
+            deliveries.shutdownNow();
+        }
+    }
+
+    private void register(Watcher watcher) {
+        if (watcherCount >= maxWatchers) {
+            throw new IllegalStateException("Too many watchers on this node");
+        }
+        for (String categoryId : watcher.filter.categoryIds()) {
+            watchersByCategory.computeIfAbsent(categoryId, id -> ConcurrentHashMap.newKeySet()).add(watcher);
+        }
+        watcherCount++;
+    }
+
+    private void unregister(Watcher watcher) {
+        synchronized (lock) {
+            boolean removed = false;
+            for (String categoryId : watcher.filter.categoryIds()) {
+                Set<Watcher> watchers = watchersByCategory.get(categoryId);
+                if (watchers != null && watchers.remove(watcher)) {
+                    removed = true;
+                    if (watchers.isEmpty()) {
+                        watchersByCategory.remove(categoryId);
+                    }
+                }
+            }
+            if (removed) {
+                watcherCount--;
+            }
+        }
+    }
+
+    // Whether every event after "since" is still in the buffer
+    private boolean isBuffered(long since) {
+        if (since > sequence) {
+            return false;
+        }
+        long oldest = buffer.isEmpty() ? sequence + 1 : buffer.peekFirst().getSequence();
+        return since >= oldest - 1;
+    }
+
+    private List<ConfigChangeEvent> eventsAfter(long since, WatchFilter filter) {
+        List<ConfigChangeEvent> events = new ArrayList<>();
+        for (ConfigChangeEvent event : buffer) {
+            if (event.getSequence() > since && filter.matches(event)) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private void sendHeartbeats() {
+        Set<StreamWatcher> streams = new HashSet<>();
+        synchronized (lock) {
+            for (Collection<Watcher> watchers : watchersByCategory.values()) {
+                for (Watcher watcher : watchers) {
+                    if (watcher instanceof StreamWatcher stream) {
+                        streams.add(stream);
+                    }
+                }
+            }
+        }
+        for (StreamWatcher stream : streams) {
+            if (!stream.heartbeat()) {
+                unregister(stream);
+            }
+        }
+    }
+
+    private static boolean sendResync(SseEmitter emitter, long current) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(current))
+                    .name("resync")
+                    .data(new WatchResponse(current, true, List.of())));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
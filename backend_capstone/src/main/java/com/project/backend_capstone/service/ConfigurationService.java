@@ -1,55 +1,72 @@
 package com.project.backend_capstone.service;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
-import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedScanList;
-import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.project.backend_capstone.dto.AddConfigurationRequest;
+import com.project.backend_capstone.dto.RetireResult;
 import com.project.backend_capstone.dto.UpdateConfigurationRequest;
 import com.project.backend_capstone.enums.CategoryStatus;
 import com.project.backend_capstone.model.Configuration;
 import com.project.backend_capstone.model.VersionConfiguration;
+import com.project.backend_capstone.repository.ConfigurationRepository;
+import com.project.backend_capstone.repository.ParallelScanner;
+import com.project.backend_capstone.repository.UniqueNameRepository;
+import com.project.backend_capstone.repository.VersionConfigRepository;
 
 @Service
 public class ConfigurationService {
 
     private final DynamoDBMapper dynamoDBMapper;
+    private final ConfigurationRepository configurationRepository;
 
     @Autowired
     private VersionConfigService versionConfigService;
 
     @Autowired
-    public ConfigurationService(AmazonDynamoDB amazonDynamoDB, DynamoDBMapper dynamoDBMapper) {
+    private VersionConfigRepository versionConfigRepository;
+
+    @Autowired
+    private ConfigServingService configServingService;
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @Autowired
+    private SchemaService schemaService;
+
+    @Autowired
+    @Qualifier("dynamoFanOutExecutor")
+    private ExecutorService executor;
+
+    @Autowired
+    private ParallelScanner parallelScanner;
+
+    @Autowired
+    private UniqueNameRepository uniqueNameRepository;
+
+    @Autowired
+    public ConfigurationService(AmazonDynamoDB amazonDynamoDB, DynamoDBMapper dynamoDBMapper,
+            ConfigurationRepository configurationRepository) {
         this.dynamoDBMapper = dynamoDBMapper;
+        this.configurationRepository = configurationRepository;
         System.out.println("UserService initialized: " + amazonDynamoDB);
     }
 
     // Add a configuration
     public void addConfiguration(AddConfigurationRequest configRequest) {
-        // Retrieve all configuration records from DB that match the category_id using
-        // query
-        Map<String, AttributeValue> eav = new HashMap<>();
-        eav.put(":category_id", new AttributeValue().withS(configRequest.getCategoryId()));
-        // create a query expression to get all configuration records that matches the
-        // category_id
-        DynamoDBScanExpression scanExpression = new DynamoDBScanExpression()
-                .withFilterExpression("category_id = :category_id").withExpressionAttributeValues(eav);
-        List<Configuration> configurations = dynamoDBMapper.scan(Configuration.class, scanExpression);
-        // Check if the configuration of the same name already exists
-        for (Configuration configuration : configurations) {
-            if (configuration.getName().equalsIgnoreCase(configRequest.getName())) {
-                throw new RuntimeException("Configuration already exists with name: " + configRequest.getName());
-            }
-        }
+        // Reject fields that don't match the category version's schema before anything is saved
+        schemaService.validateFields(configRequest.getCategoryId(), configRequest.getCategoryVersion(),
+                configRequest.getFields());
 
         // Create a new configuration
         Configuration configuration = new Configuration();
@@ -58,7 +75,17 @@ public class ConfigurationService {
         configuration.setName(configRequest.getName());
         configuration.setConfigurationId(UUID.randomUUID().toString()); // Generate a unique configuration_id
 
-        dynamoDBMapper.save(configuration);
+        // Save it together with its name claim, which fails if the category already has a
+        // configuration of that name (ignoring case)
+        if (!uniqueNameRepository.saveClaimingName(configuration,
+                UniqueNameRepository.configurationScope(configuration.getCategoryId()), configRequest.getName(),
+                configuration.getConfigurationId())) {
+            throw new RuntimeException("Configuration already exists with name: " + configRequest.getName());
+        }
+        changeLogService.recordUpsert(ChangeLogService.CONFIGURATION, configuration.getCategoryId(),
+                configuration.getConfigurationId());
+        configServingService.trackConfiguration(configuration);
+        schemaService.track(configuration);
 
         // Create the 1st version for the new configuration (w/ approved By + Date null)
         versionConfigService.addVersionConfiguration(configuration.getConfigurationId(), configRequest.getStatus(),
@@ -86,21 +113,15 @@ public class ConfigurationService {
 
     // Get all configurations for a specific category
     public List<Configuration> getConfigurationsByCategory(String category_id) {
-        Map<String, AttributeValue> eav = new HashMap<>();
-        eav.put(":category_id", new AttributeValue().withS(category_id));
-        // create a query expression to get all configuration records that matches the
-        // category_id
-        DynamoDBScanExpression scanExpression = new DynamoDBScanExpression()
-                .withFilterExpression("category_id = :category_id").withExpressionAttributeValues(eav);
-        List<Configuration> configurations = dynamoDBMapper.scan(Configuration.class, scanExpression);
-        return configurations;
+        // category_id is the partition key, so query it directly (paged) instead of
+        // filtering a full-table scan
+        return configurationRepository.findByCategoryId(category_id);
     }
 
     // Get all configurations
     public List<Configuration> getAllConfigurations() {
-        PaginatedScanList<Configuration> paginatedScanList = dynamoDBMapper.scan(Configuration.class,
-                new DynamoDBScanExpression());
-        return paginatedScanList;
+        // Segmented parallel scan instead of walking the table one page at a time
+        return parallelScanner.scanAll(Configuration.class);
     }
 
     // Approve a configuration
@@ -126,6 +147,9 @@ public class ConfigurationService {
             throw new RuntimeException("No versions found for Configuration ID: " + updateRequest.getConfigurationId());
         }
 
+        // The new version's fields are checked against this configuration's category version
+        schemaService.track(configuration);
+
         // Add a new config version
         versionConfigService.addVersionConfiguration(
                 updateRequest.getConfigurationId(),
@@ -140,18 +164,69 @@ public class ConfigurationService {
 
     // Retire a configuration (all versions of it)
     public void retireConfiguration(String configurationId) {
-        // Get all versions of the config
-        List<VersionConfiguration> versions = versionConfigService.getConfigVersions(configurationId);
+        RetireResult result = retireVersions(configurationId);
 
-        if (versions == null || versions.isEmpty()) {
+        if (RetireResult.NOT_FOUND.equals(result.getResult())) {
             throw new RuntimeException("No versions found for configuration ID: " + configurationId);
+        } else if (RetireResult.FAILED.equals(result.getResult())) {
+            throw new RuntimeException(result.getError());
         }
+    }
+
+    // Retire many configurations (all versions of each) in parallel; one result per configuration
+    public List<RetireResult> retireConfigurations(List<String> configurationIds) {
+        List<CompletableFuture<RetireResult>> retirements = configurationIds.stream()
+                .distinct()
+                .map(configurationId -> CompletableFuture.supplyAsync(() -> retireVersions(configurationId),
+                        executor))
+                .toList();
+
+        return retirements.stream().map(CompletableFuture::join).toList();
+    }
+
+    // Retire every configuration created against one version of a category
+    public List<RetireResult> retireCategoryVersion(String categoryId, Integer categoryVersion) {
+        List<String> configurationIds = configurationRepository.findByCategoryId(categoryId).stream()
+                .filter(config -> categoryVersion.equals(config.getCategoryVersion()))
+                .map(Configuration::getConfigurationId)
+                .toList();
 
-        // Set each version to Retired status
-        for (VersionConfiguration version : versions) {
-            version.setStatus(CategoryStatus.RETIRED.getStatus());
-            dynamoDBMapper.save(version);
+        return retireConfigurations(configurationIds);
+    }
+
+    // Query one configuration's versions by key and retire the ones that aren't retired yet
+    private RetireResult retireVersions(String configurationId) {
+        RetireResult result = new RetireResult();
+        result.setConfigurationId(configurationId);
+        try {
+            List<VersionConfiguration> versions = versionConfigRepository.findByConfigurationId(configurationId);
+            if (versions.isEmpty()) {
+                result.setResult(RetireResult.NOT_FOUND);
+                return result;
+            }
+
+            for (VersionConfiguration version : versions) {
+                if (CategoryStatus.RETIRED.getStatus().equals(version.getStatus())) {
+                    result.setAlreadyRetiredVersions(result.getAlreadyRetiredVersions() + 1);
+                    continue;
+                }
+                versionConfigRepository.updateStatus(configurationId, version.getVersionNum(),
+                        CategoryStatus.RETIRED.getStatus());
+                changeLogService.recordUpsert(ChangeLogService.VERSION_CONFIGURATION, configurationId,
+                        version.getVersionNum());
+                result.setRetiredVersions(result.getRetiredVersions() + 1);
+            }
+            result.setResult(RetireResult.RETIRED);
+
+            // A retired configuration is no longer served
+            if (result.getRetiredVersions() > 0) {
+                configServingService.applyApproved(configurationId, null);
+            }
+        } catch (Exception e) {
+            result.setResult(RetireResult.FAILED);
+            result.setError("Failed to retire configuration " + configurationId + ": " + e.getMessage());
         }
+        return result;
     }
 
     // Delete a configuration: For testing purposes
@@ -163,6 +238,10 @@ public class ConfigurationService {
         }
 
         dynamoDBMapper.delete(config);
+        uniqueNameRepository.release(UniqueNameRepository.configurationScope(categoryId), config.getName(),
+                configurationId);
+        changeLogService.recordDelete(ChangeLogService.CONFIGURATION, categoryId, configurationId);
+        configServingService.refreshCategory(categoryId);
     }
 
     // Delete all configurations: For testing purposes
@@ -175,5 +254,13 @@ public class ConfigurationService {
         }
 
         dynamoDBMapper.batchDelete(allConfigs);
+        for (Configuration config : allConfigs) {
+            uniqueNameRepository.release(UniqueNameRepository.configurationScope(config.getCategoryId()),
+                    config.getName(), config.getConfigurationId());
+            changeLogService.recordDelete(ChangeLogService.CONFIGURATION, config.getCategoryId(),
+                    config.getConfigurationId());
+        }
+        configServingService.clear();
+        schemaService.clear();
     }
 }
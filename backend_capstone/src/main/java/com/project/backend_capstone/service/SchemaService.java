@@ -0,0 +1,194 @@
+package com.project.backend_capstone.service;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.project.backend_capstone.enums.CategoryStatus;
+import com.project.backend_capstone.model.Configuration;
+import com.project.backend_capstone.model.Version;
+import com.project.backend_capstone.repository.ConfigurationRepository;
+import com.project.backend_capstone.schema.CompiledSchema;
+import com.project.backend_capstone.schema.SchemaCompiler;
+
+// Checks configuration fields against the schema of the category version they were created for.
+//
+// Each (category_id, version_num) schema is compiled once and the compiled validator is kept in a
+// size-bounded LRU, so the write path only pays for walking the fields. Approved versions never
+// change, so their entries stay until evicted for space. A version that isn't approved yet can
+// still be edited or approved, so updateCategory and approveCategory invalidate those entries
+// (and VersionService drops any version it saves).
+@Service
+public class SchemaService {
+
+    record SchemaKey(String categoryId, Integer versionNum) {
+    }
+
+    // A compiled schema and whether it came from an approved (immutable) version
+    private record CachedSchema(CompiledSchema schema, boolean approved) {
+    }
+
+    // Category and category version a configuration was created against (never changes)
+    record ConfigurationSchemaRef(String categoryId, Integer categoryVersion) {
+    }
+
+    private final DynamoDBMapper dynamoDBMapper;
+    private final ConfigurationRepository configurationRepository;
+
+    @Value("${app.schema.cache.max-size:1000}")
+    private int maxSize;
+
+    @Value("${app.schema.configuration-refs.max-size:10000}")
+    private int maxConfigurationRefs;
+
+    // Access-ordered so the least recently used schema is evicted first
+    private final LinkedHashMap<SchemaKey, CachedSchema> compiled = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<SchemaKey, CachedSchema> eldest) {
+            if (size() > maxSize) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+    // Bumped by every invalidation, so a load that raced with one isn't cached
+    private long invalidationGeneration;
+    // Also least recently used first; a miss costs one configuration-id-index query
+    private final Map<String, ConfigurationSchemaRef> configurationRefs = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ConfigurationSchemaRef> eldest) {
+                    return size() > maxConfigurationRefs;
+                }
+            });
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public SchemaService(DynamoDBMapper dynamoDBMapper, ConfigurationRepository configurationRepository) {
+        this.dynamoDBMapper = dynamoDBMapper;
+        this.configurationRepository = configurationRepository;
+    }
+
+    // Compiled schema of a category version; throws if the version doesn't exist
+    public CompiledSchema getSchema(String categoryId, Integer versionNum) {
+        SchemaKey key = new SchemaKey(categoryId, versionNum);
+        long generation;
+        synchronized (compiled) {
+            CachedSchema cached = compiled.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached.schema();
+            }
+            generation = invalidationGeneration;
+        }
+
+        // Read and compile outside the lock; two concurrent misses may both compile, which is harmless
+        misses.incrementAndGet();
+        Version version = dynamoDBMapper.load(Version.class, categoryId, versionNum);
+        if (version == null) {
+            throw new RuntimeException("Category version not found: " + categoryId + " version " + versionNum);
+        }
+        CachedSchema loaded = new CachedSchema(SchemaCompiler.compile(version.getSchema()),
+                CategoryStatus.APPROVED.getStatus().equals(version.getStatus()));
+
+        synchronized (compiled) {
+            if (generation == invalidationGeneration) {
+                compiled.put(key, loaded);
+            }
+        }
+        return loaded.schema();
+    }
+
+    // Validate fields for a configuration of the given category version. Configurations created
+    // without a category version have no schema to check against.
+    public void validateFields(String categoryId, Integer categoryVersion, Map<String, Object> fields) {
+        if (categoryVersion == null) {
+            return;
+        }
+        getSchema(categoryId, categoryVersion).check(fields != null ? fields : Map.of());
+    }
+
+    // Validate fields for an existing configuration known only by ID
+    public void validateConfigurationFields(String configurationId, Map<String, Object> fields) {
+        ConfigurationSchemaRef ref = configurationRefs.get(configurationId);
+        if (ref == null) {
+            Configuration configuration = configurationRepository.findByConfigurationId(configurationId);
+            if (configuration == null) {
+                throw new RuntimeException("Configuration does not exist with ID: " + configurationId);
+            }
+            ref = new ConfigurationSchemaRef(configuration.getCategoryId(), configuration.getCategoryVersion());
+            configurationRefs.put(configurationId, ref);
+        }
+        validateFields(ref.categoryId(), ref.categoryVersion(), fields);
+    }
+
+    // Remember which category version a configuration belongs to, saving a lookup on its next write
+    public void track(Configuration configuration) {
+        configurationRefs.put(configuration.getConfigurationId(),
+                new ConfigurationSchemaRef(configuration.getCategoryId(), configuration.getCategoryVersion()));
+    }
+
+    // Drop a compiled schema after its version was saved (its schema may have changed)
+    public void evict(String categoryId, Integer versionNum) {
+        synchronized (compiled) {
+            invalidationGeneration++;
+            if (compiled.remove(new SchemaKey(categoryId, versionNum)) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    // Drop every not-yet-approved schema of a category after it was edited or approved
+    public void invalidateCategory(String categoryId) {
+        synchronized (compiled) {
+            invalidationGeneration++;
+            Iterator<Map.Entry<SchemaKey, CachedSchema>> entries = compiled.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<SchemaKey, CachedSchema> entry = entries.next();
+                if (entry.getKey().categoryId().equals(categoryId) && !entry.getValue().approved()) {
+                    entries.remove();
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    // Forget everything (used when the underlying tables are wiped)
+    public void clear() {
+        synchronized (compiled) {
+            invalidationGeneration++;
+            compiled.clear();
+        }
+        configurationRefs.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        int size;
+        long approved;
+        synchronized (compiled) {
+            size = compiled.size();
+            approved = compiled.values().stream().filter(CachedSchema::approved).count();
+        }
+        return Map.of(
+                "size", size,
+                "approved", approved,
+                "maxSize", maxSize,
+                "hits", hits.get(),
+                "misses", misses.get(),
+                "evictions", evictions.get(),
+                "invalidations", invalidations.get(),
+                "configurations", configurationRefs.size());
+    }
+}
@@ -5,11 +5,16 @@ import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
 import com.amazonaws.services.dynamodbv2.document.DynamoDB;
 import com.amazonaws.services.dynamodbv2.document.Table;
-import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
-import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.Update;
 import com.project.backend_capstone.dto.UserGroupRequest;
 import com.project.backend_capstone.model.UserGroup;
+import com.project.backend_capstone.model.UserGroupMembership;
+import com.project.backend_capstone.repository.ParallelScanner;
+import com.project.backend_capstone.repository.UniqueNameRepository;
+import com.project.backend_capstone.repository.UserGroupMembershipRepository;
 import com.amazonaws.services.dynamodbv2.document.Item;
 import com.amazonaws.services.dynamodbv2.document.ItemCollection;
 import com.amazonaws.services.dynamodbv2.document.ScanFilter;
@@ -23,40 +28,49 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
 
 import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
 import com.amazonaws.services.dynamodbv2.document.spec.ScanSpec;
+import com.amazonaws.services.dynamodbv2.document.ItemUtils;
 
 @Service
 public class UserGroupService {
 
+    private final AmazonDynamoDB amazonDynamoDB;
     private final DynamoDB dynamoDB;
     private final DynamoDBMapper dynamoDBMapper;
+    private final UserGroupMembershipRepository membershipRepository;
+    private final ParallelScanner parallelScanner;
+    private final UniqueNameRepository uniqueNameRepository;
     private final String tableName = "UserGroups";
 
-    public UserGroupService(AmazonDynamoDB amazonDynamoDB, DynamoDBMapper dynamoDBMapper) {
+    public UserGroupService(AmazonDynamoDB amazonDynamoDB, DynamoDBMapper dynamoDBMapper,
+            UserGroupMembershipRepository membershipRepository, ParallelScanner parallelScanner,
+            UniqueNameRepository uniqueNameRepository) {
+        this.amazonDynamoDB = amazonDynamoDB;
         this.dynamoDB = new DynamoDB(amazonDynamoDB);
         this.dynamoDBMapper = dynamoDBMapper;
+        this.membershipRepository = membershipRepository;
+        this.parallelScanner = parallelScanner;
+        this.uniqueNameRepository = uniqueNameRepository;
     }
 
     public List<Map<String, Object>> getAllUsers() throws Exception {
-        try {
-            Table table = dynamoDB.getTable(tableName);
-
-            ItemCollection<ScanOutcome> items = table.scan();
-
+        // Segmented parallel scan, each raw item read through the document API as before
+        try (Stream<Map<String, AttributeValue>> items = parallelScanner.scan(tableName)) {
             List<Map<String, Object>> userGroups = new ArrayList<>();
 
-            for (Item item : items) {
+            items.map(ItemUtils::toItem).forEach(item -> {
                 Map<String, Object> group = new HashMap<>();
                 group.put("user_group_id", item.getString("user_group_id"));
                 group.put("user_group_name", item.getString("user_group_name"));
                 group.put("user_list", item.getStringSet("user_list"));
                 group.put("category_access", item.getStringSet("category_access"));
                 userGroups.add(group);
-            }
+            });
 
             return userGroups;
 
@@ -110,18 +124,6 @@ public class UserGroupService {
 
     public void createUserGroup(UserGroupRequest request) {
         try {
-            // Check if a group with the same name already exists
-            DynamoDBScanExpression scanExpression = new DynamoDBScanExpression()
-                    .withFilterExpression("user_group_name = :val1")
-                    .withExpressionAttributeValues(
-                            Map.of(":val1", new AttributeValue().withS(request.getUser_group_name())));
-
-            List<UserGroup> existingGroups = dynamoDBMapper.scan(UserGroup.class, scanExpression);
-
-            if (!existingGroups.isEmpty()) {
-                throw new RuntimeException("A user group with this name already exists.");
-            }
-
             UserGroup newGroup = new UserGroup();
 
             newGroup.setUser_group_id(UUID.randomUUID().toString()); // Auto-generate ID
@@ -129,7 +131,18 @@ public class UserGroupService {
             newGroup.setUser_list(new HashSet<>(request.getUser_list()));
             newGroup.setCategory_access(new HashSet<>(request.getCategory_access()));
 
-            dynamoDBMapper.save(newGroup);
+            // Save it together with its name claim, which fails if a group of that name exists (ignoring
+            // case), and its index entry under each member, so a failure leaves nothing behind
+            List<UserGroupMembership> memberships = membershipRepository.entriesFor(newGroup.getUser_group_id(),
+                    newGroup.getUser_group_name(), newGroup.getUser_list(), newGroup.getCategory_access());
+            if (memberships.size() > UniqueNameRepository.MAX_ALSO_SAVED) {
+                throw new RuntimeException("A user group can be created with at most "
+                        + UniqueNameRepository.MAX_ALSO_SAVED + " users; add the rest afterwards.");
+            }
+            if (!uniqueNameRepository.saveClaimingName(newGroup, UniqueNameRepository.USER_GROUP,
+                    newGroup.getUser_group_name(), newGroup.getUser_group_id(), memberships)) {
+                throw new RuntimeException("A user group with this name already exists.");
+            }
         } catch (Exception e) {
             e.printStackTrace();
 
@@ -140,119 +153,123 @@ public class UserGroupService {
         }
     }
 
-    // This method adds a user to the group.
+    // This method adds a user to the group. The group's row and the user's index entry are written
+    // in one transaction; failures propagate to the caller.
     public boolean addUserToGroup(String user_group_id, String user_group_name, String username) {
-        try {
-            Table table = dynamoDB.getTable(tableName);
-
-            // fetch the existing user group from DynamoDB using both keys
-            GetItemSpec spec = new GetItemSpec()
-                    .withPrimaryKey("user_group_id", user_group_id, "user_group_name", user_group_name);
-            Item item = table.getItem(spec);
+        Table table = dynamoDB.getTable(tableName);
 
-            if (item == null) {
-                return false;
-            }
+        // fetch the existing user group from DynamoDB using both keys
+        GetItemSpec spec = new GetItemSpec()
+                .withPrimaryKey("user_group_id", user_group_id, "user_group_name", user_group_name);
+        Item item = table.getItem(spec);
 
-            // get the current user_list, or initialize it if it's null
-            Set<String> userList = item.getStringSet("user_list");
-            if (userList == null) {
-                userList = new HashSet<>(); // Initialize an empty set if user_list is null
-            }
+        if (item == null) {
+            return false;
+        }
 
-            // don't add the user if they are already in the group
-            if (!userList.contains(username)) {
-                userList.add(username);
-            } else {
-                return true; // User already exists, no need to update
-            }
+        // get the current user_list, or initialize it if it's null
+        Set<String> userList = item.getStringSet("user_list");
+        if (userList == null) {
+            userList = new HashSet<>(); // Initialize an empty set if user_list is null
+        }
 
-            // update the user group in DynamoDB using both keys
-            UpdateItemSpec updateSpec = new UpdateItemSpec()
-                    .withPrimaryKey("user_group_id", user_group_id, "user_group_name", user_group_name)
-                    .withUpdateExpression("set user_list = :u")
-                    .withValueMap(new ValueMap().withStringSet(":u", userList));
+        // don't add the user if they are already in the group
+        if (!userList.contains(username)) {
+            userList.add(username);
+        } else {
+            return true; // User already exists, no need to update
+        }
 
-            table.updateItem(updateSpec);
+        amazonDynamoDB.transactWriteItems(new TransactWriteItemsRequest().withTransactItems(
+                setGroupAttribute(user_group_id, user_group_name, "user_list", userList),
+                membershipRepository.putItem(username, user_group_id, user_group_name,
+                        item.getStringSet("category_access"))));
 
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return true;
     }
 
+    // Remove a user from the group and its index entry in one transaction; failures propagate
     public boolean removeUserFromGroup(String user_group_id, String user_group_name, String username) {
-        try {
-            Table table = dynamoDB.getTable(tableName);
-
-            GetItemSpec spec = new GetItemSpec()
-                    .withPrimaryKey("user_group_id", user_group_id, "user_group_name", user_group_name);
-            Item item = table.getItem(spec);
+        Table table = dynamoDB.getTable(tableName);
 
-            if (item == null) {
-                return false;
-            }
+        GetItemSpec spec = new GetItemSpec()
+                .withPrimaryKey("user_group_id", user_group_id, "user_group_name", user_group_name);
+        Item item = table.getItem(spec);
 
-            Set<String> userList = item.getStringSet("user_list");
-            if (userList == null) {
-                userList = new HashSet<>();
-            }
+        if (item == null) {
+            return false;
+        }
 
-            // Check if the user exists in the list
-            if (!userList.contains(username)) {
-                return false;
-            }
+        Set<String> userList = item.getStringSet("user_list");
+        if (userList == null) {
+            userList = new HashSet<>();
+        }
 
-            userList.remove(username);
+        // Check if the user exists in the list
+        if (!userList.contains(username)) {
+            return false;
+        }
 
-            UpdateItemSpec updateSpec = new UpdateItemSpec()
-                    .withPrimaryKey("user_group_id", user_group_id, "user_group_name", user_group_name)
-                    .withUpdateExpression("set user_list = :u")
-                    .withValueMap(new ValueMap().withStringSet(":u", userList));
+        userList.remove(username);
 
-            table.updateItem(updateSpec);
+        amazonDynamoDB.transactWriteItems(new TransactWriteItemsRequest().withTransactItems(
+                setGroupAttribute(user_group_id, user_group_name, "user_list", userList),
+                membershipRepository.deleteItem(username, user_group_id)));
 
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return true;
     }
 
+    // A group can have more members than fit in one transaction, so the index entries are updated
+    // first: if the group's row then fails to update, members have lost access too early rather
+    // than kept it (a rebuild puts it back). Failures propagate.
     public boolean removeCategoryFromGroup(String user_group_id, String user_group_name, String category_id) {
-        try {
-            Table table = dynamoDB.getTable(tableName);
+        Table table = dynamoDB.getTable(tableName);
 
-            GetItemSpec spec = new GetItemSpec()
-                    .withPrimaryKey("user_group_id", user_group_id, "user_group_name", user_group_name);
-            Item item = table.getItem(spec);
+        GetItemSpec spec = new GetItemSpec()
+                .withPrimaryKey("user_group_id", user_group_id, "user_group_name", user_group_name);
+        Item item = table.getItem(spec);
 
-            if (item == null) {
-                return false;
-            }
+        if (item == null) {
+            return false;
+        }
 
-            Set<String> categoryList = item.getStringSet("category_access");
-            if (categoryList == null) {
-                categoryList = new HashSet<>();
-            }
+        Set<String> categoryList = item.getStringSet("category_access");
+        if (categoryList == null) {
+            categoryList = new HashSet<>();
+        }
 
-            // Check if the category exists in the list
-            if (!categoryList.contains(category_id)) {
-                return false;
-            }
+        // Check if the category exists in the list
+        if (!categoryList.contains(category_id)) {
+            return false;
+        }
 
-            categoryList.remove(category_id);
+        categoryList.remove(category_id);
 
-            UpdateItemSpec updateSpec = new UpdateItemSpec()
-                    .withPrimaryKey("user_group_id", user_group_id, "user_group_name", user_group_name)
-                    .withUpdateExpression("set category_access = :c")
-                    .withValueMap(new ValueMap().withStringSet(":c", categoryList));
+        membershipRepository.removeCategory(user_group_id, item.getStringSet("user_list"), category_id);
 
-            table.updateItem(updateSpec);
+        amazonDynamoDB.transactWriteItems(new TransactWriteItemsRequest().withTransactItems(
+                setGroupAttribute(user_group_id, user_group_name, "category_access", categoryList)));
 
-            return true;
-        } catch (Exception e) {
-            return false;
+        return true;
+    }
+
+    // Set one string-set attribute of an existing group's row; an empty set is removed, as DynamoDB
+    // can't store one
+    private TransactWriteItem setGroupAttribute(String user_group_id, String user_group_name, String attribute,
+            Set<String> values) {
+        Update update = new Update()
+                .withTableName(tableName)
+                .withKey(Map.of(
+                        "user_group_id", new AttributeValue().withS(user_group_id),
+                        "user_group_name", new AttributeValue().withS(user_group_name)))
+                .withConditionExpression("attribute_exists(user_group_id)");
+        if (values.isEmpty()) {
+            update.withUpdateExpression("REMOVE " + attribute);
+        } else {
+            update.withUpdateExpression("SET " + attribute + " = :v")
+                    .withExpressionAttributeValues(Map.of(":v", new AttributeValue().withSS(values)));
         }
+        return new TransactWriteItem().withUpdate(update);
     }
 
     // To delete a user group -- for testing
@@ -260,7 +277,17 @@ public class UserGroupService {
         try {
             Table table = dynamoDB.getTable(tableName);
 
+            // Read the members first so their index entries can be removed too
+            Item item = table.getItem(new GetItemSpec()
+                    .withPrimaryKey("user_group_id", user_group_id, "user_group_name", user_group_name));
+
+            // Index entries go first, so a failure can't leave members with access to a deleted group
+            if (item != null) {
+                membershipRepository.deleteAll(user_group_id, item.getStringSet("user_list"));
+            }
+
             table.deleteItem("user_group_id", user_group_id, "user_group_name", user_group_name);
+            uniqueNameRepository.release(UniqueNameRepository.USER_GROUP, user_group_name, user_group_id);
             return true;
         } catch (Exception e) {
             e.printStackTrace();
@@ -270,15 +297,39 @@ public class UserGroupService {
 
     // This method retrieves all user group IDs that a given user is apart of
     public List<String> getUserGroupIds(String username) {
-        // List<String> userGroupIds = new ArrayList<>();
+        // One query on the membership index instead of scanning every group's user_list
+        return membershipRepository.findByUsername(username).stream()
+                .map(UserGroupMembership::getUser_group_id)
+                .collect(Collectors.toList());
+    }
 
-        DynamoDBScanExpression scanExpression = new DynamoDBScanExpression()
-                .withFilterExpression("contains(user_list, :username)")
-                .withExpressionAttributeValues(Map.of(":username", new AttributeValue().withS(username)));
+    // IDs of every category the user can access through their groups
+    public Set<String> getAccessibleCategoryIds(String username) {
+        return membershipRepository.findCategoryIdsByUsername(username);
+    }
 
-        return dynamoDBMapper.scan(UserGroup.class, scanExpression).stream()
-                .filter(userGroup -> userGroup.getUser_list() != null && userGroup.getUser_list().contains(username))
-                .map(UserGroup::getUser_group_id)
-                .collect(Collectors.toList());
+    // Rebuild the membership index from the UserGroups table (initial backfill or repair): writes an
+    // entry for every current member and deletes entries for memberships that no longer exist
+    public int rebuildMembershipIndex() {
+        Map<String, Set<String>> membersByGroup = new HashMap<>();
+        int indexed = 0;
+        for (UserGroup userGroup : dynamoDBMapper.scan(UserGroup.class, new DynamoDBScanExpression())) {
+            if (userGroup.getUser_list() == null) {
+                continue;
+            }
+            membershipRepository.saveAll(userGroup.getUser_group_id(), userGroup.getUser_group_name(),
+                    userGroup.getUser_list(), userGroup.getCategory_access());
+            membersByGroup.computeIfAbsent(userGroup.getUser_group_id(), id -> new HashSet<>())
+                    .addAll(userGroup.getUser_list());
+            indexed += userGroup.getUser_list().size();
+        }
+
+        Map<String, List<String>> staleByGroup = membershipRepository.findAll().stream()
+                .filter(membership -> !membersByGroup.getOrDefault(membership.getUser_group_id(), Set.of())
+                        .contains(membership.getUsername()))
+                .collect(Collectors.groupingBy(UserGroupMembership::getUser_group_id,
+                        Collectors.mapping(UserGroupMembership::getUsername, Collectors.toList())));
+        staleByGroup.forEach(membershipRepository::deleteAll);
+        return indexed;
     }
 }
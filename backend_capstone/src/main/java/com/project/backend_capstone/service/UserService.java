@@ -6,6 +6,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -15,39 +16,38 @@ import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
-import com.amazonaws.services.dynamodbv2.model.ScanRequest;
-import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.project.backend_capstone.configs.PrincipalCache;
 import com.project.backend_capstone.model.User;
+import com.project.backend_capstone.repository.ParallelScanner;
+import com.project.backend_capstone.repository.UserRepository;
 
 @Service
 public class UserService {
     private final AmazonDynamoDB amazonDynamoDB;
     private final DynamoDBMapper dynamoDBMapper;
+    private final UserRepository userRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
     @Autowired
-    public UserService(AmazonDynamoDB amazonDynamoDB, DynamoDBMapper dynamoDBMapper) {
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private ParallelScanner parallelScanner;
+
+    @Autowired
+    public UserService(AmazonDynamoDB amazonDynamoDB, DynamoDBMapper dynamoDBMapper, UserRepository userRepository) {
         this.amazonDynamoDB = amazonDynamoDB;
         this.dynamoDBMapper = dynamoDBMapper;
+        this.userRepository = userRepository;
         System.out.println("UserService initialized: " + amazonDynamoDB);
     }
 
     // Add a user
     public void register(String username, String password, List<String> role) {
 
-        Map<String, AttributeValue> expressionAttributeValues = new HashMap<>();
-        expressionAttributeValues.put(":username", new AttributeValue().withS(username));
-
-        ScanRequest scanRequest = new ScanRequest()
-                .withTableName("Users")
-                .withFilterExpression("username = :username")
-                .withExpressionAttributeValues(expressionAttributeValues);
-
-        ScanResult result = amazonDynamoDB.scan(scanRequest);
-
-        if (!result.getItems().isEmpty()) {
+        if (userRepository.existsByUsername(username)) {
             throw new RuntimeException("User already exists with username: " + username);
         }
 
@@ -64,15 +64,15 @@ public class UserService {
 
     // Get all users
     public List<Map<String, Object>> getAllUsers() {
-        ScanRequest scanRequest = new ScanRequest().withTableName("Users");
-        ScanResult result = amazonDynamoDB.scan(scanRequest);
-
+        // Every page of every segment, not just the first page of a single scan
         List<Map<String, Object>> users = new ArrayList<>();
-        for (Map<String, AttributeValue> item : result.getItems()) {
-            Map<String, Object> user = new HashMap<>();
-            user.put("username", item.get("username").getS());
-            user.put("role", item.get("role").getSS());
-            users.add(user);
+        try (Stream<Map<String, AttributeValue>> items = parallelScanner.scan("Users")) {
+            items.forEach(item -> {
+                Map<String, Object> user = new HashMap<>();
+                user.put("username", item.get("username").getS());
+                user.put("role", item.get("role").getSS());
+                users.add(user);
+            });
         }
 
         return users;
@@ -80,47 +80,20 @@ public class UserService {
 
     // Get a user by username
     public Map<String, Object> getUserByUsername(String username) {
-        Map<String, AttributeValue> expressionAttributeValues = new HashMap<>();
-        expressionAttributeValues.put(":username", new AttributeValue().withS(username));
-
-        ScanRequest scanRequest = new ScanRequest()
-                .withTableName("Users")
-                .withFilterExpression("username = :username")
-                .withExpressionAttributeValues(expressionAttributeValues);
-
-        ScanResult result = amazonDynamoDB.scan(scanRequest);
-
-        if (result.equals(null)) {
-            return null;
-        }
-
         Map<String, Object> user = new HashMap<>();
-        if (!result.getItems().isEmpty()) {
-            Map<String, AttributeValue> item = result.getItems().get(0);
-            user.put("username", item.get("username").getS());
-            user.put("role", item.get("role").getSS());
-        }
+        userRepository.findByUsername(username).ifPresent(found -> {
+            user.put("username", found.getUsername());
+            user.put("role", new ArrayList<>(found.getRole()));
+        });
 
         return user;
     }
 
     // Update a user's role
     public void updateUserRole(String username, String role) {
-        Map<String, AttributeValue> expressionAttributeValues = new HashMap<>();
-        expressionAttributeValues.put(":username", new AttributeValue().withS(username));
-
-        ScanRequest scanRequest = new ScanRequest()
-                .withTableName("Users")
-                .withFilterExpression("username = :username")
-                .withExpressionAttributeValues(expressionAttributeValues);
-
-        ScanResult result = amazonDynamoDB.scan(scanRequest);
-
-        if (result.getItems().isEmpty()) {
-            throw new RuntimeException("User does not exist with username: " + username);
-        }
-
-        String user_id = result.getItems().get(0).get("user_id").getS();
+        String user_id = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User does not exist with username: " + username))
+                .getUserId();
 
         Set<String> roles = new HashSet<>();
         roles.add(role);
@@ -133,31 +106,23 @@ public class UserService {
 
         amazonDynamoDB.updateItem("Users", key, attributeUpdates);
 
+        // Make the new role take effect on the next request
+        principalCache.invalidate(username);
     }
 
     // Delete a user
     public void deleteUser(String username) {
 
-        Map<String, AttributeValue> expressionAttributeValues = new HashMap<>();
-        expressionAttributeValues.put(":username", new AttributeValue().withS(username));
-
-        ScanRequest scanRequest = new ScanRequest()
-                .withTableName("Users")
-                .withFilterExpression("username = :username")
-                .withExpressionAttributeValues(expressionAttributeValues);
-
-        ScanResult scanResult = amazonDynamoDB.scan(scanRequest);
-
-        if (scanResult.getItems().isEmpty()) {
-            throw new RuntimeException("User does not exist with username: " + username);
-        }
-
-        String user_id = scanResult.getItems().get(0).get("user_id").getS();
+        String user_id = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User does not exist with username: " + username))
+                .getUserId();
 
         Map<String, AttributeValue> key = new HashMap<>();
         // If username does not exist, do not delete by throwing an exception
         key.put("user_id", new AttributeValue().withS(user_id));
 
         amazonDynamoDB.deleteItem("Users", key);
+
+        principalCache.invalidate(username);
     }
 }
@@ -1,10 +1,11 @@
 package com.project.backend_capstone.service;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -12,40 +13,62 @@ import org.springframework.stereotype.Service;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.QueryResult;
-import com.amazonaws.services.dynamodbv2.model.ScanRequest;
 import com.amazonaws.services.dynamodbv2.model.ScanResult;
 import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.project.backend_capstone.dto.PageResponse;
+import com.project.backend_capstone.dto.RawItem;
 import com.project.backend_capstone.dto.UpdateVersionConfigRequest;
 import com.project.backend_capstone.enums.CategoryStatus;
 import com.project.backend_capstone.model.VersionConfiguration;
+import com.project.backend_capstone.repository.RawTableScanner;
+import com.project.backend_capstone.repository.VersionConfigRepository;
+import com.project.backend_capstone.utils.PageTokens;
 
 @Service
 public class VersionConfigService {
 
+    // Largest page a caller can ask for in one history request
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final DynamoDBMapper dynamoDBMapper;
     private final AmazonDynamoDB amazonDynamoDB;
+    private final VersionConfigRepository versionConfigRepository;
+
+    @Autowired
+    private RawTableScanner rawTableScanner;
+
+    @Autowired
+    private VersionNumberAllocator versionNumberAllocator;
+
+    @Autowired
+    private ConfigServingService configServingService;
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @Autowired
+    private SchemaService schemaService;
 
     @Autowired
-    public VersionConfigService(DynamoDBMapper dynamoDBMapper, AmazonDynamoDB amazonDynamoDB) {
+    public VersionConfigService(DynamoDBMapper dynamoDBMapper, AmazonDynamoDB amazonDynamoDB,
+            VersionConfigRepository versionConfigRepository) {
         this.dynamoDBMapper = dynamoDBMapper;
         this.amazonDynamoDB = amazonDynamoDB;
+        this.versionConfigRepository = versionConfigRepository;
     }
 
     // Add a version configuration
     public void addVersionConfiguration(String configurationId, String status,
             String approvedBy, String createdBy, String description, Map<String, Object> fields) {
-
-        // Get the latest version of the configuration to determine the next version
-        // number
-        Integer latestVersionNum = getLatestVersionNum(configurationId);
-        Integer nextVersionNum = (latestVersionNum != null) ? latestVersionNum + 1 : 1;
+        // Fields must match the schema of the configuration's category version
+        schemaService.validateConfigurationFields(configurationId, fields);
 
         // Create a new version configuration object
         VersionConfiguration versionConfiguration = new VersionConfiguration();
         versionConfiguration.setConfigurationId(configurationId);
-        versionConfiguration.setVersionNum(nextVersionNum);
         versionConfiguration.setStatus(status);
         versionConfiguration.setApprovedBy(approvedBy);
         if (approvedBy != null) {
@@ -58,8 +81,14 @@ public class VersionConfigService {
         versionConfiguration.setDescription(description);
         versionConfiguration.setFields(fields != null ? new HashMap<>(fields) : new HashMap<>());
 
-        // Save the version configuration to the database
-        dynamoDBMapper.save(versionConfiguration);
+        // Save it under the next version number (latest + 1), retrying if a concurrent
+        // update takes that number first
+        versionNumberAllocator.allocate(() -> getLatestVersionNum(configurationId), versionNum -> {
+            versionConfiguration.setVersionNum(versionNum);
+            dynamoDBMapper.save(versionConfiguration, VersionNumberAllocator.newItemOnly("version_num"));
+        });
+        changeLogService.recordUpsert(ChangeLogService.VERSION_CONFIGURATION, configurationId,
+                versionConfiguration.getVersionNum());
     }
 
     // Approve a configuration version
@@ -75,6 +104,7 @@ public class VersionConfigService {
         }
 
         // Update latest version to "Approved" and all previous versions to "Retired"
+        VersionConfiguration approved = null;
         for (VersionConfiguration version : allVersions) {
             if (version.getVersionNum().equals(latestVersionNum)) {
                 if (CategoryStatus.APPROVED.getStatus().equalsIgnoreCase(version.getStatus())) {
@@ -84,12 +114,18 @@ public class VersionConfigService {
                 version.setStatus(CategoryStatus.APPROVED.getStatus());
                 version.setApprovedBy(approvedBy);
                 version.setApprovedDate(Instant.now().toString());
+                approved = version;
             } else {
                 version.setStatus(CategoryStatus.RETIRED.getStatus());
             }
 
             dynamoDBMapper.save(version);
+            changeLogService.recordUpsert(ChangeLogService.VERSION_CONFIGURATION, configurationId,
+                    version.getVersionNum());
         }
+
+        // Serve the newly approved fields straight from what was just written
+        configServingService.applyApproved(configurationId, approved);
     }
 
     // Helper Method: Get the latest version of a config
@@ -103,6 +139,7 @@ public class VersionConfigService {
                 .withKeyConditionExpression("configuration_id = :configurationId")
                 .withExpressionAttributeValues(expressionValues)
                 .withScanIndexForward(false)
+                .withConsistentRead(true)
                 .withLimit(1);
 
         QueryResult result = amazonDynamoDB.query(queryRequest);
@@ -116,52 +153,46 @@ public class VersionConfigService {
         return Integer.parseInt(latestVersionItem.get("version_num").getN());
     }
 
-    // Get all versions of a specific config
+    // Get all versions of a specific config (ascending version order)
     public List<VersionConfiguration> getConfigVersions(String configId) {
-        VersionConfiguration versionKey = new VersionConfiguration();
-        versionKey.setConfigurationId(configId);
-
-        // Scan the table for all versions under this category
-        return dynamoDBMapper.scan(VersionConfiguration.class,
-                new DynamoDBScanExpression().withFilterExpression("configuration_id = :configurationId")
-                        .withExpressionAttributeValues(
-                                Map.of(":configurationId", new AttributeValue().withS(configId))));
+        // Query the config's partition instead of scanning every config's history
+        return versionConfigRepository.findByConfigurationId(configId);
     }
 
-    // Get ALL raw config versions without caring about the model
-    public List<Map<String, Object>> getALLConfigVersions() {
-        ScanRequest scanRequest = new ScanRequest().withTableName("VersionConfiguration");
-        ScanResult result = amazonDynamoDB.scan(scanRequest);
-
-        List<Map<String, Object>> cleanedItems = new ArrayList<>();
-
-        for (Map<String, AttributeValue> item : result.getItems()) {
-            Map<String, Object> cleanedItem = new HashMap<>();
-
-            for (Map.Entry<String, AttributeValue> entry : item.entrySet()) {
-                String attributeName = entry.getKey();
-                AttributeValue attributeValue = entry.getValue();
-
-                if (attributeValue.getS() != null) {
-                    cleanedItem.put(attributeName, attributeValue.getS());
-                } else if (attributeValue.getN() != null) {
-                    cleanedItem.put(attributeName, Integer.parseInt(attributeValue.getN()));
-                } else if (attributeValue.getB() != null) {
-                    cleanedItem.put(attributeName, attributeValue.getB());
-                } else if (attributeValue.getSS() != null) {
-                    cleanedItem.put(attributeName, attributeValue.getSS());
-                } else if (attributeValue.getNS() != null) {
-                    cleanedItem.put(attributeName, attributeValue.getNS());
-                } else if (attributeValue.getL() != null) {
-                    List<String> listValues = attributeValue.getL().stream()
-                            .map(AttributeValue::getS)
-                            .toList();
-                    cleanedItem.put(attributeName, listValues);
-                }
-            }
-            cleanedItems.add(cleanedItem);
+    // Get the versions of a config within an optional version_num range (ascending version order)
+    public List<VersionConfiguration> getConfigVersions(String configId, Integer fromVersion, Integer toVersion) {
+        try (Stream<VersionConfiguration> versions = versionConfigRepository.streamByConfigurationId(configId,
+                fromVersion, toVersion)) {
+            return versions.collect(Collectors.toList());
+        }
+    }
+
+    // Get one page of a config's version history; pass the returned token back to continue
+    public PageResponse<VersionConfiguration> getConfigVersionPage(String configId, Integer fromVersion,
+            Integer toVersion, boolean descending, String pageToken, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
         }
-        return cleanedItems;
+
+        QueryResultPage<VersionConfiguration> page = versionConfigRepository.findPage(configId, fromVersion,
+                toVersion, descending, PageTokens.decode(pageToken), limit);
+        return new PageResponse<>(page.getResults(), PageTokens.encode(page.getLastEvaluatedKey()));
+    }
+
+    // Stream ALL raw config versions without caring about the model, a page at a time (close when done)
+    public Stream<Map<String, AttributeValue>> streamALLConfigVersions() {
+        return rawTableScanner.streamAll("VersionConfiguration");
+    }
+
+    // Get one page of ALL raw config versions; pass the returned token back to continue
+    public PageResponse<RawItem> getALLConfigVersionsPage(String pageToken, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        ScanResult page = rawTableScanner.scanPage("VersionConfiguration", PageTokens.decode(pageToken), limit);
+        List<RawItem> items = page.getItems().stream().map(RawItem::new).toList();
+        return new PageResponse<>(items, PageTokens.encode(page.getLastEvaluatedKey()));
     }
 
     // Update a config version
@@ -186,11 +217,18 @@ public class VersionConfigService {
             versionConfiguration.setApprovedDate(Instant.now().toString());
         }
 
+        // Fields must match the schema of the configuration's category version
+        schemaService.validateConfigurationFields(configId, request.getFields());
+
         versionConfiguration.setDescription(request.getDescription());
         versionConfiguration.setFields(request.getFields());
 
         // Save the updated version
         dynamoDBMapper.save(versionConfiguration);
+        changeLogService.recordUpsert(ChangeLogService.VERSION_CONFIGURATION, configId, versionNum);
+
+        // The edit may have changed the approved version's status or fields
+        configServingService.refreshConfiguration(configId);
     }
 
     // Delete all version configurations: For testing purposes
@@ -203,5 +241,10 @@ public class VersionConfigService {
         }
 
         dynamoDBMapper.batchDelete(allVersions);
+        for (VersionConfiguration version : allVersions) {
+            changeLogService.recordDelete(ChangeLogService.VERSION_CONFIGURATION, version.getConfigurationId(),
+                    version.getVersionNum());
+        }
+        configServingService.clear();
     }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.project.backend_capstone.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBSaveExpression;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+
+// Hands out the next version_num for a category or configuration. The new version is written with
+// a "version_num must not exist yet" condition; if another writer got there first we re-read the
+// latest number and try again, so concurrent edits never overwrite each other or leave gaps.
+@Component
+public class VersionNumberAllocator {
+    private static final long BASE_BACKOFF_MS = 5;
+    private static final long MAX_BACKOFF_MS = 200;
+
+    private final int maxAttempts;
+
+    public VersionNumberAllocator(@Value("${app.versions.max-allocation-attempts:50}") int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    // Save expression that only succeeds when no item with this key exists yet
+    public static DynamoDBSaveExpression newItemOnly(String rangeKeyAttribute) {
+        return new DynamoDBSaveExpression()
+                .withExpectedEntry(rangeKeyAttribute, new ExpectedAttributeValue(false));
+    }
+
+    // latestVersionNum reads the current highest version (null if none); conditionalSave must write
+    // the given version number and throw ConditionalCheckFailedException if it is already taken.
+    // Returns the version number that was written.
+    public int allocate(Supplier<Integer> latestVersionNum, IntConsumer conditionalSave) {
+        for (int attempt = 1; ; attempt++) {
+            Integer latest = latestVersionNum.get();
+            int next = latest != null ? latest + 1 : 1;
+            try {
+                conditionalSave.accept(next);
+                return next;
+            } catch (ConditionalCheckFailedException e) {
+                if (attempt >= maxAttempts) {
+                    throw new RuntimeException("Could not allocate a version number after " + attempt
+                            + " attempts; too many concurrent updates", e);
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    private static void backOff(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attempt, 6));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while allocating a version number", e);
+        }
+    }
+}
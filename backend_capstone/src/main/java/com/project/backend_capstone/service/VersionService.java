@@ -1,59 +1,86 @@
 package com.project.backend_capstone.service;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.QueryRequest;
 import com.amazonaws.services.dynamodbv2.model.QueryResult;
-import com.amazonaws.services.dynamodbv2.model.ScanRequest;
 import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.project.backend_capstone.dto.PageResponse;
+import com.project.backend_capstone.dto.RawItem;
 import com.project.backend_capstone.enums.CategoryStatus;
 import com.project.backend_capstone.model.Version;
+import com.project.backend_capstone.repository.ParallelScanner;
+import com.project.backend_capstone.repository.RawTableScanner;
+import com.project.backend_capstone.repository.VersionRepository;
+import com.project.backend_capstone.utils.PageTokens;
 
 @Service
 public class VersionService {
+    // Largest page a caller can ask for in one history request
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final DynamoDBMapper dynamoDBMapper;
     private final AmazonDynamoDB amazonDynamoDB;
+    private final VersionRepository versionRepository;
+
+    @Autowired
+    private RawTableScanner rawTableScanner;
+
+    @Autowired
+    private ParallelScanner parallelScanner;
+
+    @Autowired
+    private VersionNumberAllocator versionNumberAllocator;
+
+    @Autowired
+    private ChangeLogService changeLogService;
 
     @Autowired
-    public VersionService(DynamoDBMapper dynamoDBMapper, AmazonDynamoDB amazonDynamoDB) {
+    private SchemaService schemaService;
+
+    @Autowired
+    public VersionService(DynamoDBMapper dynamoDBMapper, AmazonDynamoDB amazonDynamoDB,
+            VersionRepository versionRepository) {
         this.dynamoDBMapper = dynamoDBMapper;
         this.amazonDynamoDB = amazonDynamoDB;
+        this.versionRepository = versionRepository;
     }
 
     // Add a version
     public void addVersion(String categoryId, String description, String createdBy, String schema) {
-
-        // Get the latest version of the category to determine the next version number
-        Version latestVersion = getLatestCategoryVersion(categoryId);
-        if (latestVersion == null) {
-            // If no versions exist, start with version number 1
-            latestVersion = new Version();
-            latestVersion.setVersionNum(1); // Set to 0 to increment to 1
-            latestVersion.setCategoryId(categoryId);
-        } else {
-            latestVersion.setVersionNum(latestVersion.getVersionNum() + 1); // Increment version number
-        }
-        latestVersion.setDescription(description);
-        latestVersion.setSchema(schema);
-        latestVersion.setVersionId(UUID.randomUUID().toString()); // Use a UUID as versionId
-        latestVersion.setStatus(CategoryStatus.IN_EDITING.getStatus()); // Set status
-        latestVersion.setApprovedBy(null);
-        latestVersion.setApprovedDate(null);
-        latestVersion.setCreatedBy(createdBy);
-        latestVersion.setCreatedDate(Instant.now().toString());
-        dynamoDBMapper.save(latestVersion);
+        Version newVersion = new Version();
+        newVersion.setCategoryId(categoryId);
+        newVersion.setDescription(description);
+        newVersion.setSchema(schema);
+        newVersion.setVersionId(UUID.randomUUID().toString()); // Use a UUID as versionId
+        newVersion.setStatus(CategoryStatus.IN_EDITING.getStatus()); // Set status
+        newVersion.setApprovedBy(null);
+        newVersion.setApprovedDate(null);
+        newVersion.setCreatedBy(createdBy);
+        newVersion.setCreatedDate(Instant.now().toString());
+
+        // Next version number = latest + 1 (or 1 for a new category), written only if still free
+        versionNumberAllocator.allocate(() -> {
+            Version latestVersion = getLatestCategoryVersion(categoryId);
+            return latestVersion != null ? latestVersion.getVersionNum() : null;
+        }, versionNum -> {
+            newVersion.setVersionNum(versionNum);
+            dynamoDBMapper.save(newVersion, VersionNumberAllocator.newItemOnly("version_num"));
+        });
+        changeLogService.recordUpsert(ChangeLogService.VERSION, categoryId, newVersion.getVersionNum());
     }
 
     // Helper Method: Get the latest version of a category
@@ -66,6 +93,7 @@ public class VersionService {
                 .withKeyConditionExpression("category_id = :categoryId")
                 .withExpressionAttributeValues(expressionValues)
                 .withScanIndexForward(false) // Descending order
+                .withConsistentRead(true) // See versions other writers just added
                 .withLimit(1); // Get the most recent version
 
         // Use AmazonDynamoDB to query the table for more efficiency
@@ -100,55 +128,49 @@ public class VersionService {
 
     // Get all versions
     public List<Version> getAllVersions() {
-        // Scan the entire Version table to get all versions (no category filter)
-        return dynamoDBMapper.scan(Version.class, new DynamoDBScanExpression());
+        // Scan the entire Version table to get all versions (no category filter), segments in parallel
+        return parallelScanner.scanAll(Version.class);
     }
 
-    // Get all versions of a specific category
+    // Get all versions of a specific category (ascending version order)
     public List<Version> getAllCategoryVersions(String categoryId) {
-        Version versionKey = new Version();
-        versionKey.setCategoryId(categoryId);
+        // Query the category's partition instead of scanning every category's history
+        return versionRepository.findByCategoryId(categoryId);
+    }
 
-        // Scan the table for all versions under this category
-        return dynamoDBMapper.scan(Version.class,
-                new DynamoDBScanExpression().withFilterExpression("category_id = :categoryId")
-                        .withExpressionAttributeValues(Map.of(":categoryId", new AttributeValue().withS(categoryId))));
+    // Get the versions of a category within an optional version_num range (ascending version order)
+    public List<Version> getCategoryVersions(String categoryId, Integer fromVersion, Integer toVersion) {
+        try (Stream<Version> versions = versionRepository.streamByCategoryId(categoryId, fromVersion, toVersion)) {
+            return versions.collect(Collectors.toList());
+        }
     }
 
-    // Get ALL raw versions without caring about the model
-    public List<Map<String, Object>> getALLVersions() {
-        ScanRequest scanRequest = new ScanRequest().withTableName("Version");
-        ScanResult result = amazonDynamoDB.scan(scanRequest);
-
-        List<Map<String, Object>> cleanedItems = new ArrayList<>();
-
-        for (Map<String, AttributeValue> item : result.getItems()) {
-            Map<String, Object> cleanedItem = new HashMap<>();
-
-            for (Map.Entry<String, AttributeValue> entry : item.entrySet()) {
-                String attributeName = entry.getKey();
-                AttributeValue attributeValue = entry.getValue();
-
-                if (attributeValue.getS() != null) {
-                    cleanedItem.put(attributeName, attributeValue.getS());
-                } else if (attributeValue.getN() != null) {
-                    cleanedItem.put(attributeName, Integer.parseInt(attributeValue.getN()));
-                } else if (attributeValue.getB() != null) {
-                    cleanedItem.put(attributeName, attributeValue.getB());
-                } else if (attributeValue.getSS() != null) {
-                    cleanedItem.put(attributeName, attributeValue.getSS());
-                } else if (attributeValue.getNS() != null) {
-                    cleanedItem.put(attributeName, attributeValue.getNS());
-                } else if (attributeValue.getL() != null) {
-                    List<String> listValues = attributeValue.getL().stream()
-                            .map(AttributeValue::getS)
-                            .toList();
-                    cleanedItem.put(attributeName, listValues);
-                }
-            }
-            cleanedItems.add(cleanedItem);
+    // Get one page of a category's version history; pass the returned token back to continue
+    public PageResponse<Version> getCategoryVersionPage(String categoryId, Integer fromVersion, Integer toVersion,
+            boolean descending, String pageToken, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
         }
-        return cleanedItems;
+
+        QueryResultPage<Version> page = versionRepository.findPage(categoryId, fromVersion, toVersion, descending,
+                PageTokens.decode(pageToken), limit);
+        return new PageResponse<>(page.getResults(), PageTokens.encode(page.getLastEvaluatedKey()));
+    }
+
+    // Stream ALL raw versions without caring about the model, a page at a time (close when done)
+    public Stream<Map<String, AttributeValue>> streamALLVersions() {
+        return rawTableScanner.streamAll("Version");
+    }
+
+    // Get one page of ALL raw versions; pass the returned token back to continue
+    public PageResponse<RawItem> getALLVersionsPage(String pageToken, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        ScanResult page = rawTableScanner.scanPage("Version", PageTokens.decode(pageToken), limit);
+        List<RawItem> items = page.getItems().stream().map(RawItem::new).toList();
+        return new PageResponse<>(items, PageTokens.encode(page.getLastEvaluatedKey()));
     }
 
     // Update a version
@@ -156,5 +178,9 @@ public class VersionService {
         // Update the version fields
         version.setCreatedDate(Instant.now().toString());
         dynamoDBMapper.save(version);
+        changeLogService.recordUpsert(ChangeLogService.VERSION, version.getCategoryId(), version.getVersionNum());
+
+        // Its schema may have been edited; recompile on next use
+        schemaService.evict(version.getCategoryId(), version.getVersionNum());
     }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.project.backend_capstone.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+// Writes raw DynamoDB items as plain JSON (without the AWS type wrappers) for the
+// "get ALL raw ..." endpoints, straight to the generator with no intermediate maps
+public class AttributeValues {
+
+    private AttributeValues() {
+    }
+
+    // Write one item as a JSON object
+    public static void writeItem(Map<String, AttributeValue> item, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        for (Map.Entry<String, AttributeValue> entry : item.entrySet()) {
+            generator.writeFieldName(entry.getKey());
+            writeValue(entry.getValue(), generator);
+        }
+        generator.writeEndObject();
+    }
+
+    // Write one attribute value, recursing into maps and lists
+    public static void writeValue(AttributeValue value, JsonGenerator generator) throws IOException {
+        if (value.getS() != null) {
+            generator.writeString(value.getS()); // String
+        } else if (value.getN() != null) {
+            // Number: DynamoDB's canonical text is already a valid JSON number, so pass it through
+            // as is and keep up to 38 digits of precision instead of parsing it
+            generator.writeNumber(value.getN());
+        } else if (value.getBOOL() != null) {
+            generator.writeBoolean(value.getBOOL()); // Boolean
+        } else if (value.getM() != null) {
+            writeItem(value.getM(), generator); // Nested map
+        } else if (value.getL() != null) {
+            // List of any mix of types
+            generator.writeStartArray();
+            for (AttributeValue element : value.getL()) {
+                writeValue(element, generator);
+            }
+            generator.writeEndArray();
+        } else if (value.getSS() != null) {
+            generator.writeStartArray(); // String set
+            for (String element : value.getSS()) {
+                generator.writeString(element);
+            }
+            generator.writeEndArray();
+        } else if (value.getNS() != null) {
+            generator.writeStartArray(); // Number set
+            for (String element : value.getNS()) {
+                generator.writeNumber(element);
+            }
+            generator.writeEndArray();
+        } else if (value.getB() != null) {
+            writeBinary(value.getB(), generator); // Binary, as base64
+        } else if (value.getBS() != null) {
+            generator.writeStartArray(); // Binary set
+            for (ByteBuffer element : value.getBS()) {
+                writeBinary(element, generator);
+            }
+            generator.writeEndArray();
+        } else {
+            // NULL (or an empty value)
+            generator.writeNull();
+        }
+    }
+
+    private static void writeBinary(ByteBuffer buffer, JsonGenerator generator) throws IOException {
+        if (buffer.hasArray()) {
+            generator.writeBinary(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        } else {
+            // Read a copy so the value's own position is left alone
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            generator.writeBinary(bytes);
+        }
+    }
+}
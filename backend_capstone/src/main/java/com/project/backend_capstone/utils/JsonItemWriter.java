@@ -0,0 +1,65 @@
+package com.project.backend_capstone.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// Writes a stream of items to an output stream one at a time, either as a single JSON array or
+// as newline-delimited JSON (one object per line), without collecting them first
+public class JsonItemWriter {
+    // Don't flush after every item; let the output buffer fill up first
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    // How a single item is written to the generator
+    private interface ItemWriter<T> {
+        void write(T item, JsonGenerator generator) throws IOException;
+    }
+
+    private JsonItemWriter() {
+    }
+
+    // Any objects, serialized by Jackson
+    public static void write(Stream<?> items, OutputStream out, boolean ndjson) throws IOException {
+        write(items, out, ndjson, (item, generator) -> mapper.writeValue(generator, item));
+    }
+
+    // Raw DynamoDB items, written straight from their AttributeValues
+    public static void writeRawItems(Stream<Map<String, AttributeValue>> items, OutputStream out, boolean ndjson)
+            throws IOException {
+        write(items, out, ndjson, AttributeValues::writeItem);
+    }
+
+    private static <T> void write(Stream<T> items, OutputStream out, boolean ndjson, ItemWriter<? super T> writer)
+            throws IOException {
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            // The caller owns the output stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // NDJSON lines need the separator written between root values
+            generator.setRootValueSeparator(null);
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+
+            Iterator<T> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next(), generator);
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                }
+            }
+
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.project.backend_capstone.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+// Turns a DynamoDB LastEvaluatedKey into an opaque continuation token and back
+public class PageTokens {
+
+    // Encode the key attributes (strings and numbers only) as URL-safe base64 JSON
+    public static String encode(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Map<String, String>> key = new LinkedHashMap<>();
+        for (Map.Entry<String, AttributeValue> entry : lastEvaluatedKey.entrySet()) {
+            AttributeValue value = entry.getValue();
+            if (value.getS() != null) {
+                key.put(entry.getKey(), Map.of("S", value.getS()));
+            } else if (value.getN() != null) {
+                key.put(entry.getKey(), Map.of("N", value.getN()));
+            } else {
+                throw new IllegalArgumentException("Unsupported key attribute type for: " + entry.getKey());
+            }
+        }
+
+        try {
+            byte[] json = JSONUtils.serialize(key).getBytes(StandardCharsets.UTF_8);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to encode page token", e);
+        }
+    }
+
+    // Decode a token produced by encode; null or blank means "start from the beginning"
+    public static Map<String, AttributeValue> decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        Map<String, Object> key;
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            key = JSONUtils.deserializeToMap(json);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new IllegalArgumentException("Invalid page token", e);
+        }
+
+        Map<String, AttributeValue> exclusiveStartKey = new HashMap<>();
+        for (Map.Entry<String, Object> entry : key.entrySet()) {
+            if (!(entry.getValue() instanceof Map<?, ?> typed)) {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+            if (typed.get("S") instanceof String s) {
+                exclusiveStartKey.put(entry.getKey(), new AttributeValue().withS(s));
+            } else if (typed.get("N") instanceof String n) {
+                exclusiveStartKey.put(entry.getKey(), new AttributeValue().withN(n));
+            } else {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+        }
+        return exclusiveStartKey;
+    }
+}
@@ -0,0 +1,117 @@
+package com.project.backend_capstone.utils;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+// Runs independent lookups side by side and waits for all of them, in the spirit of the JDK's
+// StructuredTaskScope.ShutdownOnFailure (not available on Java 17):
+//
+//     try (TaskScope scope = new TaskScope(executor)) {
+//         TaskScope.Subtask<List<Version>> versions = scope.fork(() -> ...);
+//         TaskScope.Subtask<List<Configuration>> configs = scope.fork(() -> ...);
+//         scope.join();
+//         ... versions.get(), configs.get()
+//     }
+//
+// The first failing subtask cancels (interrupts) the others and join() rethrows its exception.
+// Closing the scope cancels whatever is still running, so no subtask outlives the block.
+// Subtasks run with the caller's security context.
+public final class TaskScope implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final List<Future<?>> futures = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+    private boolean joined;
+
+    public TaskScope(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public <T> Subtask<T> fork(Callable<T> task) {
+        if (joined) {
+            throw new IllegalStateException("Cannot fork after join");
+        }
+        Callable<T> withContext = DelegatingSecurityContextCallable.create(task, SecurityContextHolder.getContext());
+        Future<T> future = executor.submit(() -> {
+            try {
+                return withContext.call();
+            } catch (Exception e) {
+                if (failure.compareAndSet(null, e)) {
+                    cancelAll();
+                }
+                throw e;
+            }
+        });
+        futures.add(future);
+        // The subtask may have failed before its future was registered
+        if (failure.get() != null) {
+            future.cancel(true);
+        }
+        return new Subtask<>(future);
+    }
+
+    // Wait for every subtask; throws the first failure, if any
+    public void join() {
+        joined = true;
+        try {
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException | CancellationException e) {
+                    // Reported below as the first failure
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for parallel lookups", e);
+        }
+
+        Exception e = failure.get();
+        if (e instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (e != null) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+    }
+
+    private void cancelAll() {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    public static final class Subtask<T> {
+        private final Future<T> future;
+
+        private Subtask(Future<T> future) {
+            this.future = future;
+        }
+
+        // Result of a subtask that completed successfully; only valid after join()
+        public T get() {
+            if (!future.isDone()) {
+                throw new IllegalStateException("Subtask read before join");
+            }
+            try {
+                return future.get();
+            } catch (ExecutionException | CancellationException | InterruptedException e) {
+                throw new IllegalStateException("Subtask did not complete successfully", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.project.backend_capstone.utils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+// Virtual threads (Java 21+) looked up reflectively, so the build can keep targeting Java 17 while a
+// newer runtime gets a thread per task. Empty on runtimes that don't have them.
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return factory("probe-").isPresent();
+    }
+
+    // Executor starting one new virtual thread per task, named prefix0, prefix1, ...
+    public static Optional<ExecutorService> newPerTaskExecutor(String namePrefix) {
+        return factory(namePrefix).map(factory -> {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                        .invoke(null, factory);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to create a virtual thread executor", e);
+            }
+        });
+    }
+
+    // Like newPerTaskExecutor, but at most maxRunning tasks run at once; the rest wait (parked, on
+    // their own virtual threads) for a permit. Keeps the limit a fixed pool would have had on
+    // requests in flight, without tying up platform threads while they wait.
+    public static Optional<ExecutorService> newBoundedPerTaskExecutor(String namePrefix, int maxRunning) {
+        return newPerTaskExecutor(namePrefix).map(executor -> bounded(executor, maxRunning));
+    }
+
+    static ExecutorService bounded(ExecutorService executor, int maxRunning) {
+        Semaphore running = new Semaphore(maxRunning, true);
+        return new AbstractExecutorService() {
+            @Override
+            public void execute(Runnable task) {
+                executor.execute(() -> {
+                    try {
+                        running.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    try {
+                        task.run();
+                    } finally {
+                        running.release();
+                    }
+                });
+            }
+
+            @Override
+            public void shutdown() {
+                executor.shutdown();
+            }
+
+            @Override
+            public List<Runnable> shutdownNow() {
+                return executor.shutdownNow();
+            }
+
+            @Override
+            public boolean isShutdown() {
+                return executor.isShutdown();
+            }
+
+            @Override
+            public boolean isTerminated() {
+                return executor.isTerminated();
+            }
+
+            @Override
+            public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+                return executor.awaitTermination(timeout, unit);
+            }
+        };
+    }
+
+    private static Optional<ThreadFactory> factory(String namePrefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return Optional.of((ThreadFactory) builderType.getMethod("factory").invoke(builder));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+}
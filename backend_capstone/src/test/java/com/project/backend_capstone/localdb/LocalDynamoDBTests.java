@@ -0,0 +1,195 @@
+package com.project.backend_capstone.localdb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.CancellationReason;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactionCanceledException;
+import com.amazonaws.services.dynamodbv2.model.Update;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.project.backend_capstone.model.User;
+import com.project.backend_capstone.model.Version;
+import com.project.backend_capstone.service.VersionNumberAllocator;
+
+class LocalDynamoDBTests {
+
+    @TempDir
+    Path directory;
+
+    private static DynamoDBMapper mapperWithTables(LocalDynamoDB localDynamoDB) {
+        DynamoDBMapper mapper = new DynamoDBMapper(localDynamoDB);
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(Version.class));
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(User.class));
+        return mapper;
+    }
+
+    private static Version version(String categoryId, int versionNum) {
+        Version version = new Version();
+        version.setCategoryId(categoryId);
+        version.setVersionNum(versionNum);
+        version.setStatus("DRAFT");
+        return version;
+    }
+
+    private static Condition range(ComparisonOperator operator, int... bounds) {
+        Condition condition = new Condition().withComparisonOperator(operator);
+        for (int bound : bounds) {
+            condition.withAttributeValueList(new AttributeValue().withN(Integer.toString(bound)));
+        }
+        return condition;
+    }
+
+    @Test
+    void mapperQueriesPagesAndConditionalSaves() {
+        DynamoDBMapper mapper = mapperWithTables(new LocalDynamoDB());
+        for (int i = 1; i <= 20; i++) {
+            mapper.save(version("a", i));
+        }
+        mapper.save(version("b", 1));
+
+        QueryResultPage<Version> between = mapper.queryPage(Version.class, new DynamoDBQueryExpression<Version>()
+                .withHashKeyValues(version("a", 0))
+                .withRangeKeyCondition("version_num", range(ComparisonOperator.BETWEEN, 5, 9)));
+        assertEquals(List.of(5, 6, 7, 8, 9), between.getResults().stream().map(Version::getVersionNum).toList());
+        assertNull(between.getLastEvaluatedKey());
+
+        QueryResultPage<Version> newest = mapper.queryPage(Version.class, new DynamoDBQueryExpression<Version>()
+                .withHashKeyValues(version("a", 0))
+                .withScanIndexForward(false)
+                .withLimit(3));
+        assertEquals(List.of(20, 19, 18), newest.getResults().stream().map(Version::getVersionNum).toList());
+        assertEquals("18", newest.getLastEvaluatedKey().get("version_num").getN());
+
+        QueryResultPage<Version> next = mapper.queryPage(Version.class, new DynamoDBQueryExpression<Version>()
+                .withHashKeyValues(version("a", 0))
+                .withScanIndexForward(false)
+                .withLimit(3)
+                .withExclusiveStartKey(newest.getLastEvaluatedKey()));
+        assertEquals(List.of(17, 16, 15), next.getResults().stream().map(Version::getVersionNum).toList());
+
+        assertEquals(21, mapper.scan(Version.class, new DynamoDBScanExpression()).size());
+        assertThrows(ConditionalCheckFailedException.class,
+                () -> mapper.save(version("a", 20), VersionNumberAllocator.newItemOnly("version_num")));
+        mapper.save(version("a", 21), VersionNumberAllocator.newItemOnly("version_num"));
+        assertNotNull(mapper.load(Version.class, "a", 21));
+    }
+
+    @Test
+    void secondaryIndexesAndUpdateExpressions() {
+        LocalDynamoDB localDynamoDB = new LocalDynamoDB();
+        DynamoDBMapper mapper = mapperWithTables(localDynamoDB);
+        User user = new User(null, "alice", "secret", Set.of("ROLE_USER"));
+        mapper.save(user);
+
+        List<User> found = mapper.queryPage(User.class, new DynamoDBQueryExpression<User>()
+                .withIndexName(User.USERNAME_INDEX)
+                .withConsistentRead(false)
+                .withHashKeyValues(new User(null, "alice", null, null))).getResults();
+        assertEquals(user.getUserId(), found.get(0).getUserId());
+
+        Map<String, AttributeValue> updated = localDynamoDB.updateItem(new UpdateItemRequest()
+                .withTableName("Users")
+                .withKey(Map.of("user_id", new AttributeValue().withS(user.getUserId())))
+                .withUpdateExpression("SET #u = :name, logins = if_not_exists(logins, :zero) + :one "
+                        + "ADD #r :admin")
+                .withConditionExpression("attribute_exists(user_id) AND begins_with(#u, :prefix)")
+                .withExpressionAttributeNames(Map.of("#u", "username", "#r", "role"))
+                .withExpressionAttributeValues(Map.of(
+                        ":name", new AttributeValue().withS("alice2"),
+                        ":zero", new AttributeValue().withN("0"),
+                        ":one", new AttributeValue().withN("1"),
+                        ":admin", new AttributeValue().withSS("ROLE_ADMIN"),
+                        ":prefix", new AttributeValue().withS("ali")))
+                .withReturnValues(ReturnValue.ALL_NEW))
+                .getAttributes();
+        assertEquals("1", updated.get("logins").getN());
+        assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), Set.copyOf(updated.get("role").getSS()));
+
+        // The index followed the username change
+        assertEquals(0, mapper.queryPage(User.class, new DynamoDBQueryExpression<User>()
+                .withIndexName(User.USERNAME_INDEX).withConsistentRead(false)
+                .withHashKeyValues(new User(null, "alice", null, null))).getResults().size());
+        assertEquals(1, mapper.queryPage(User.class, new DynamoDBQueryExpression<User>()
+                .withIndexName(User.USERNAME_INDEX).withConsistentRead(false)
+                .withHashKeyValues(new User(null, "alice2", null, null))).getResults().size());
+    }
+
+    @Test
+    void transactionsApplyAllOrNothing() {
+        LocalDynamoDB localDynamoDB = new LocalDynamoDB();
+        DynamoDBMapper mapper = mapperWithTables(localDynamoDB);
+        mapper.save(version("a", 1));
+
+        TransactionCanceledException e = assertThrows(TransactionCanceledException.class,
+                () -> localDynamoDB.transactWriteItems(new TransactWriteItemsRequest().withTransactItems(
+                        approve("a", 1), approve("a", 2))));
+        assertEquals(List.of("None", "ConditionalCheckFailed"),
+                e.getCancellationReasons().stream().map(CancellationReason::getCode).toList());
+        assertEquals("DRAFT", mapper.load(Version.class, "a", 1).getStatus());
+
+        localDynamoDB.transactWriteItems(new TransactWriteItemsRequest().withTransactItems(approve("a", 1)));
+        assertEquals("APPROVED", mapper.load(Version.class, "a", 1).getStatus());
+    }
+
+    private static TransactWriteItem approve(String categoryId, int versionNum) {
+        return new TransactWriteItem().withUpdate(new Update()
+                .withTableName("Version")
+                .withKey(Map.of("category_id", new AttributeValue().withS(categoryId),
+                        "version_num", new AttributeValue().withN(Integer.toString(versionNum))))
+                .withUpdateExpression("SET #s = :s")
+                .withConditionExpression("attribute_exists(#k)")
+                .withExpressionAttributeNames(Map.of("#s", "status", "#k", "category_id"))
+                .withExpressionAttributeValues(Map.of(":s", new AttributeValue().withS("APPROVED"))));
+    }
+
+    @Test
+    void journalReplaysAfterRestartAndIgnoresATornLastLine() throws IOException {
+        Path file = directory.resolve("store.jsonl");
+        LocalDynamoDB first = new LocalDynamoDB(file, false, 100_000);
+        DynamoDBMapper mapper = mapperWithTables(first);
+        for (int i = 1; i <= 5; i++) {
+            mapper.save(version("a", i));
+        }
+        mapper.delete(version("a", 3));
+
+        // Simulate a crash mid-append
+        Files.writeString(file, "{\"op\":\"write\",\"changes\":[{\"ta", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        LocalDynamoDB restarted = new LocalDynamoDB(file, false, 100_000);
+        DynamoDBMapper restartedMapper = new DynamoDBMapper(restarted);
+        assertEquals(4, restartedMapper.scan(Version.class,
+                new DynamoDBScanExpression()).size());
+        assertNull(restartedMapper.load(Version.class, "a", 3));
+        assertEquals(User.USERNAME_INDEX,
+                restarted.describeTable("Users").getTable().getGlobalSecondaryIndexes().get(0).getIndexName());
+
+        restartedMapper.save(version("b", 1));
+        restarted.shutdown();
+        assertNotNull(new DynamoDBMapper(new LocalDynamoDB(file, false, 100_000)).load(Version.class, "b", 1));
+    }
+}
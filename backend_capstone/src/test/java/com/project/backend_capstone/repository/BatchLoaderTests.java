@@ -0,0 +1,174 @@
+package com.project.backend_capstone.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.project.backend_capstone.localdb.LocalDynamoDB;
+import com.project.backend_capstone.model.Version;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+
+class BatchLoaderTests {
+    private static final long LATENCY_MS = 20;
+
+    private final SlowLocalDynamoDB localDynamoDB = new SlowLocalDynamoDB();
+    private final DynamoDBMapper mapper = new DynamoDBMapper(localDynamoDB);
+    // Small on purpose: the blocking path can only have this many requests in flight
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @BeforeEach
+    void setUp() {
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(Version.class));
+        for (int i = 1; i <= 2000; i++) {
+            mapper.save(version(i));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static Version version(int versionNum) {
+        Version version = new Version();
+        version.setCategoryId("category");
+        version.setVersionNum(versionNum);
+        return version;
+    }
+
+    private static List<Integer> load(BatchLoader loader, List<Integer> ids) {
+        return loader.loadAll(Version.class, ids, BatchLoaderTests::version, Version::getVersionNum).stream()
+                .map(Version::getVersionNum)
+                .toList();
+    }
+
+    @Test
+    void asyncPathMatchesBlockingPathAndRetriesUnprocessedKeys() {
+        List<Integer> ids = new ArrayList<>(List.of(250, 7, 7, 9999));
+        IntStream.rangeClosed(1, 240).forEach(ids::add);
+
+        LocalAsyncClient asyncClient = new LocalAsyncClient(localDynamoDB, true);
+        List<Integer> blocking = load(new BatchLoader(mapper, executor, Optional.empty()), ids);
+        List<Integer> async = load(new BatchLoader(mapper, executor, Optional.of(asyncClient)), ids);
+
+        assertEquals(241, blocking.size());
+        assertEquals(List.of(250, 7, 1, 2), blocking.subList(0, 4));
+        assertEquals(blocking, async);
+        assertTrue(asyncClient.calls.get() > 3, "unprocessed keys should have been retried");
+    }
+
+    // 2,000 items are 20 BatchGetItem chunks. The blocking path can only have as many in flight as
+    // the pool has threads (4); the async path sends every chunk before the first one answers.
+    @Test
+    void asyncPathKeepsEveryChunkInFlightAtOnce() {
+        List<Integer> ids = IntStream.rangeClosed(1, 2000).boxed().toList();
+        LocalAsyncClient asyncClient = new LocalAsyncClient(localDynamoDB, false);
+
+        List<Integer> blocking = load(new BatchLoader(mapper, executor, Optional.empty()), ids);
+        List<Integer> async = load(new BatchLoader(mapper, executor, Optional.of(asyncClient)), ids);
+
+        assertEquals(ids, blocking);
+        assertEquals(blocking, async);
+        assertEquals(20, asyncClient.maxInFlight.get());
+    }
+
+    // The embedded engine with network-like latency on BatchGetItem
+    private static class SlowLocalDynamoDB extends LocalDynamoDB {
+        @Override
+        public BatchGetItemResult batchGetItem(com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest request) {
+            try {
+                Thread.sleep(LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.batchGetItem(request);
+        }
+
+        // The same read without the delay, for callers that model the latency themselves
+        BatchGetItemResult batchGetItemNow(com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest request) {
+            return super.batchGetItem(request);
+        }
+    }
+
+    // Async client answering from the embedded engine, with the latency added only by the delayed
+    // executor so no thread is held while it waits. Long enough that every chunk of a load is sent
+    // before the first answer arrives. Optionally hands back half the keys of each request unprocessed.
+    private static class LocalAsyncClient implements DynamoDbAsyncClient {
+        private static final long ASYNC_LATENCY_MS = 200;
+
+        private final SlowLocalDynamoDB localDynamoDB;
+        private final boolean unprocessHalf;
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        LocalAsyncClient(SlowLocalDynamoDB localDynamoDB, boolean unprocessHalf) {
+            this.localDynamoDB = localDynamoDB;
+            this.unprocessHalf = unprocessHalf;
+        }
+
+        @Override
+        public CompletableFuture<BatchGetItemResponse> batchGetItem(BatchGetItemRequest request) {
+            calls.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+            Map<String, List<Map<String, software.amazon.awssdk.services.dynamodb.model.AttributeValue>>> responses =
+                    new LinkedHashMap<>();
+            Map<String, KeysAndAttributes> unprocessed = new LinkedHashMap<>();
+            request.requestItems().forEach((tableName, keysAndAttributes) -> {
+                List<Map<String, software.amazon.awssdk.services.dynamodb.model.AttributeValue>> keys = keysAndAttributes.keys();
+                int served = unprocessHalf && keys.size() > 1 ? keys.size() / 2 : keys.size();
+                List<Map<String, AttributeValue>> v1Keys = keys.subList(0, served).stream().map(SdkAttributeValues::toV1).toList();
+                responses.put(tableName, localDynamoDB.batchGetItemNow(new com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest()
+                                .withRequestItems(Map.of(tableName,
+                                        new com.amazonaws.services.dynamodbv2.model.KeysAndAttributes().withKeys(v1Keys))))
+                        .getResponses().get(tableName).stream()
+                        .map(SdkAttributeValues::toV2)
+                        .toList());
+                if (served < keys.size()) {
+                    unprocessed.put(tableName, KeysAndAttributes.builder().keys(keys.subList(served, keys.size())).build());
+                }
+            });
+
+            BatchGetItemResponse response = BatchGetItemResponse.builder()
+                    .responses(responses)
+                    .unprocessedKeys(unprocessed)
+                    .build();
+            return CompletableFuture.supplyAsync(() -> {
+                inFlight.decrementAndGet();
+                return response;
+            }, CompletableFuture.delayedExecutor(ASYNC_LATENCY_MS, TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        public String serviceName() {
+            return "dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
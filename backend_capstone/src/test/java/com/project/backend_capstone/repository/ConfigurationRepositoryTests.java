@@ -0,0 +1,156 @@
+package com.project.backend_capstone.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedScanList;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.project.backend_capstone.localdb.LocalDynamoDB;
+import com.project.backend_capstone.model.Configuration;
+
+class ConfigurationRepositoryTests {
+
+    private LocalConfigurationTable table;
+    private ConfigurationRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        table = new LocalConfigurationTable();
+        repository = new ConfigurationRepository(table);
+    }
+
+    @Test
+    void itemsReadStayConstantAsOtherCategoriesGrow() {
+        seed("target", 5);
+        seed("other-0", 10);
+
+        table.itemsRead = 0;
+        assertEquals(5, repository.findByCategoryId("target").size());
+        long readsBefore = table.itemsRead;
+
+        for (int i = 1; i <= 50; i++) {
+            seed("other-" + i, 100);
+        }
+
+        table.itemsRead = 0;
+        assertEquals(5, repository.findByCategoryId("target").size());
+        assertEquals(readsBefore, table.itemsRead);
+    }
+
+    @Test
+    void followsPagesUntilTheLastEvaluatedKeyRunsOut() {
+        seed("target", ConfigurationRepository.PAGE_SIZE * 2 + 17);
+
+        List<Configuration> configurations = repository.findByCategoryId("target");
+
+        assertEquals(ConfigurationRepository.PAGE_SIZE * 2 + 17, configurations.size());
+        assertEquals(3, table.pagesServed);
+    }
+
+    @Test
+    void findsAConfigurationByIdThroughTheIndexWithoutScanning() {
+        LocalDynamoDB localDynamoDB = new LocalDynamoDB() {
+            @Override
+            public ScanResult scan(ScanRequest request) {
+                throw new AssertionError("Lookups by configuration ID must not scan once the index is ready");
+            }
+        };
+        DynamoDBMapper mapper = new DynamoDBMapper(localDynamoDB);
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(Configuration.class));
+        for (int i = 0; i < 20; i++) {
+            Configuration configuration = new Configuration();
+            configuration.setCategoryId("category-" + (i % 4));
+            configuration.setConfigurationId("config-" + i);
+            configuration.setCategoryVersion(i);
+            mapper.save(configuration);
+        }
+
+        ConfigurationRepository indexed = new ConfigurationRepository(mapper);
+        indexed.setConfigurationIdIndexReady(true);
+
+        Configuration found = indexed.findByConfigurationId("config-13");
+        assertEquals("category-1", found.getCategoryId());
+        assertEquals(13, found.getCategoryVersion());
+        assertNull(indexed.findByConfigurationId("missing"));
+    }
+
+    private void seed(String categoryId, int count) {
+        for (int i = 0; i < count; i++) {
+            Configuration configuration = new Configuration();
+            configuration.setCategoryId(categoryId);
+            configuration.setConfigurationId(String.format("%s-%05d", categoryId, i));
+            configuration.setName("config-" + i);
+            table.put(configuration);
+        }
+    }
+
+    // Local stand-in for the Configuration table: serves key-condition queries per partition
+    // and counts how many items each read touches
+    private static class LocalConfigurationTable extends DynamoDBMapper {
+        private final Map<String, TreeMap<String, Configuration>> partitions = new ConcurrentHashMap<>();
+        long itemsRead = 0;
+        int pagesServed = 0;
+
+        LocalConfigurationTable() {
+            super(mock(AmazonDynamoDB.class));
+        }
+
+        void put(Configuration configuration) {
+            partitions.computeIfAbsent(configuration.getCategoryId(), key -> new TreeMap<>())
+                    .put(configuration.getConfigurationId(), configuration);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> QueryResultPage<T> queryPage(Class<T> clazz, DynamoDBQueryExpression<T> queryExpression) {
+            String categoryId = ((Configuration) queryExpression.getHashKeyValues()).getCategoryId();
+            TreeMap<String, Configuration> partition = partitions.getOrDefault(categoryId, new TreeMap<>());
+
+            Map<String, AttributeValue> startKey = queryExpression.getExclusiveStartKey();
+            Map<String, Configuration> remaining = startKey == null ? partition
+                    : partition.tailMap(startKey.get("configuration_id").getS(), false);
+
+            List<T> results = new ArrayList<>();
+            for (Configuration configuration : remaining.values()) {
+                if (results.size() == queryExpression.getLimit()) {
+                    break;
+                }
+                results.add((T) configuration);
+            }
+            itemsRead += results.size();
+            pagesServed++;
+
+            QueryResultPage<T> page = new QueryResultPage<>();
+            page.setResults(results);
+            if (!results.isEmpty() && remaining.size() > results.size()) {
+                Configuration last = (Configuration) results.get(results.size() - 1);
+                page.setLastEvaluatedKey(Map.of(
+                        "category_id", new AttributeValue().withS(categoryId),
+                        "configuration_id", new AttributeValue().withS(last.getConfigurationId())));
+            }
+            return page;
+        }
+
+        @Override
+        public <T> PaginatedScanList<T> scan(Class<T> clazz, DynamoDBScanExpression scanExpression) {
+            throw new AssertionError("Configuration reads by category must not scan the table");
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.project.backend_capstone.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughputExceededException;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+
+class ParallelScannerTests {
+
+    private static final int ITEMS = 4000;
+    private static final int PAGE_SIZE = 100;
+    private static final long PAGE_LATENCY_MS = 10;
+
+    // Stand-in table: items are spread over segments by id, each page takes a fixed time to come back
+    private static class StandInTable extends AbstractAmazonDynamoDB {
+        final AtomicInteger requests = new AtomicInteger();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        volatile int failOnSegment = -1;
+        // When set, every request waits (up to a second) until this many have arrived together
+        volatile CountDownLatch gathering;
+
+        @Override
+        public ScanResult scan(ScanRequest request) {
+            requests.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                return page(request);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        private ScanResult page(ScanRequest request) {
+            int segment = request.getSegment() != null ? request.getSegment() : 0;
+            int totalSegments = request.getTotalSegments() != null ? request.getTotalSegments() : 1;
+            if (segment == failOnSegment) {
+                throw new ProvisionedThroughputExceededException("segment " + segment);
+            }
+
+            int start = request.getExclusiveStartKey() != null
+                    ? Integer.parseInt(request.getExclusiveStartKey().get("id").getN()) + 1
+                    : 0;
+            List<Map<String, AttributeValue>> page = new ArrayList<>();
+            int last = -1;
+            for (int id = start; id < ITEMS && page.size() < PAGE_SIZE; id++) {
+                if (id % totalSegments == segment) {
+                    page.add(Map.of("id", new AttributeValue().withN(Integer.toString(id))));
+                    last = id;
+                }
+            }
+
+            try {
+                CountDownLatch gather = gathering;
+                if (gather != null) {
+                    gather.countDown();
+                    gather.await(1, TimeUnit.SECONDS);
+                }
+                Thread.sleep(PAGE_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            ScanResult result = new ScanResult().withItems(page)
+                    .withConsumedCapacity(new ConsumedCapacity().withCapacityUnits(page.size() / 10.0));
+            if (page.size() == PAGE_SIZE) {
+                Map<String, AttributeValue> lastKey = new HashMap<>();
+                lastKey.put("id", new AttributeValue().withN(Integer.toString(last)));
+                result.setLastEvaluatedKey(lastKey);
+            }
+            return result;
+        }
+    }
+
+    private final StandInTable table = new StandInTable();
+    private final ExecutorService pool = Executors.newFixedThreadPool(16);
+    private final ParallelScanner scanner = new ParallelScanner(table, null, pool, new ReadCapacityBudget(0));
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private Set<Integer> scanIds(int totalSegments) {
+        try (Stream<Map<String, AttributeValue>> items = scanner.scan("Table", totalSegments)) {
+            List<Integer> ids = items.map(item -> Integer.parseInt(item.get("id").getN())).toList();
+            Set<Integer> unique = Set.copyOf(ids);
+            assertEquals(ids.size(), unique.size(), "no item may be returned twice");
+            return unique;
+        }
+    }
+
+    @Test
+    void everyItemIsReturnedExactlyOnceForAnySegmentCount() {
+        Set<Integer> expected = IntStream.range(0, ITEMS).boxed().collect(Collectors.toSet());
+        for (int totalSegments : new int[] { 1, 3, 8, 16 }) {
+            assertEquals(expected, scanIds(totalSegments), "segments=" + totalSegments);
+        }
+    }
+
+    @Test
+    void everySegmentIsReadAtTheSameTime() {
+        table.gathering = new CountDownLatch(8);
+        scanIds(8);
+        assertEquals(8, table.maxInFlight.get());
+
+        table.gathering = null;
+        table.maxInFlight.set(0);
+        scanIds(1);
+        assertEquals(1, table.maxInFlight.get());
+    }
+
+    @Test
+    void closingEarlyStopsTheWorkers() throws Exception {
+        try (Stream<Map<String, AttributeValue>> items = scanner.scan("Table", 4)) {
+            assertEquals(10, items.limit(10).count());
+        }
+        Thread.sleep(PAGE_LATENCY_MS * 5);
+        int afterClose = table.requests.get();
+        Thread.sleep(PAGE_LATENCY_MS * 5);
+
+        assertEquals(afterClose, table.requests.get());
+        assertTrue(afterClose < ITEMS / PAGE_SIZE, "workers should not have read the whole table");
+    }
+
+    @Test
+    void aFailingSegmentFailsTheScan() {
+        table.failOnSegment = 2;
+        assertThrows(ProvisionedThroughputExceededException.class, () -> scanIds(4));
+    }
+
+    @Test
+    void everyPageWaitsForAndIsChargedToTheBudget() {
+        AtomicInteger acquires = new AtomicInteger();
+        double[] consumed = new double[1];
+        ReadCapacityBudget budget = new ReadCapacityBudget(0) {
+            @Override
+            public void acquire() {
+                acquires.incrementAndGet();
+            }
+
+            @Override
+            public synchronized void consume(double units) {
+                consumed[0] += units;
+            }
+        };
+        ParallelScanner throttled = new ParallelScanner(table, null, pool, budget);
+        try (Stream<Map<String, AttributeValue>> items = throttled.scan("Table", 8)) {
+            assertEquals(ITEMS, items.count());
+        }
+
+        assertEquals(table.requests.get(), acquires.get());
+        // Each item costs a tenth of a unit in the stand-in table
+        assertEquals(ITEMS / 10.0, consumed[0], 1e-9);
+    }
+}
@@ -0,0 +1,110 @@
+package com.project.backend_capstone.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.project.backend_capstone.localdb.LocalDynamoDB;
+import com.project.backend_capstone.model.Category;
+import com.project.backend_capstone.model.UniqueName;
+
+class UniqueNameRepositoryTests {
+
+    private final LocalDynamoDB localDynamoDB = new LocalDynamoDB();
+    private final DynamoDBMapper mapper = new DynamoDBMapper(localDynamoDB);
+    private final UniqueNameRepository repository = new UniqueNameRepository(mapper);
+
+    UniqueNameRepositoryTests() {
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(UniqueName.class));
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(Category.class));
+        repository.markBackfilled();
+    }
+
+    private boolean create(String name) {
+        Category category = new Category();
+        category.setCategoryId(UUID.randomUUID().toString());
+        category.setName(name);
+        return repository.saveClaimingName(category, UniqueNameRepository.CATEGORY, name, category.getCategoryId());
+    }
+
+    private int categories() {
+        return mapper.scan(Category.class, new DynamoDBScanExpression()).size();
+    }
+
+    @Test
+    void namesAreUniqueIgnoringCaseAndSurroundingSpace() {
+        assertTrue(create("Payments"));
+        assertFalse(create("  PAYMENTS "));
+        assertEquals(1, categories());
+
+        // Scopes are independent
+        assertTrue(repository.claimExisting(UniqueNameRepository.configurationScope("c1"), "payments", "x"));
+        assertTrue(repository.claimExisting(UniqueNameRepository.configurationScope("c2"), "payments", "y"));
+        assertTrue(repository.claimExisting(UniqueNameRepository.configurationScope("c2"), "Payments", "y"));
+        assertFalse(repository.claimExisting(UniqueNameRepository.configurationScope("c2"), "payments", "z"));
+    }
+
+    @Test
+    void releasingANameOnlyFreesItForItsOwner() {
+        assertTrue(repository.claimExisting(UniqueNameRepository.USER_GROUP, "Admins", "g1"));
+
+        repository.release(UniqueNameRepository.USER_GROUP, "admins", "someone-else");
+        assertFalse(repository.claimExisting(UniqueNameRepository.USER_GROUP, "admins", "g2"));
+
+        repository.release(UniqueNameRepository.USER_GROUP, "admins", "g1");
+        assertNull(mapper.load(UniqueName.class, UniqueNameRepository.key(UniqueNameRepository.USER_GROUP, "Admins")));
+        assertTrue(repository.claimExisting(UniqueNameRepository.USER_GROUP, "admins", "g2"));
+    }
+
+    @Test
+    void concurrentCreatesWithTheSameNameLetExactlyOneThrough() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> attempts = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                String name = i % 2 == 0 ? "Billing" : "billing";
+                Callable<Boolean> attempt = () -> create(name);
+                attempts.add(executor.submit(attempt));
+            }
+            int created = 0;
+            for (Future<Boolean> attempt : attempts) {
+                created += attempt.get() ? 1 : 0;
+            }
+            assertEquals(1, created);
+            assertEquals(1, categories());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void createsWaitForTheBackfillMarker() {
+        LocalDynamoDB freshDynamoDB = new LocalDynamoDB();
+        DynamoDBMapper freshMapper = new DynamoDBMapper(freshDynamoDB);
+        freshDynamoDB.createTable(freshMapper.generateCreateTableRequest(UniqueName.class));
+        freshDynamoDB.createTable(freshMapper.generateCreateTableRequest(Category.class));
+
+        UniqueNameRepository fresh = new UniqueNameRepository(freshMapper);
+        assertFalse(fresh.isBackfilled());
+        assertThrows(RuntimeException.class,
+                () -> fresh.saveClaimingName(new Category(), UniqueNameRepository.CATEGORY, "Payments", "c1"));
+
+        // Another node finishing the backfill is picked up from the table
+        new UniqueNameRepository(freshMapper).markBackfilled();
+        assertTrue(fresh.isBackfilled());
+    }
+}
@@ -0,0 +1,113 @@
+package com.project.backend_capstone.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.project.backend_capstone.localdb.LocalDynamoDB;
+import com.project.backend_capstone.model.Version;
+
+class UnitOfWorkTests {
+
+    private final AmazonDynamoDB client = UnitOfWork.tracking(new LocalDynamoDB());
+    private final DynamoDBMapper mapper = new DynamoDBMapper(client);
+
+    UnitOfWorkTests() {
+        client.createTable(mapper.generateCreateTableRequest(Version.class));
+        mapper.save(version(1, "DRAFT"));
+        mapper.save(version(2, "DRAFT"));
+    }
+
+    private static Version version(int versionNum, String status) {
+        Version version = new Version();
+        version.setCategoryId("category");
+        version.setVersionNum(versionNum);
+        version.setStatus(status);
+        return version;
+    }
+
+    private int queryCategory() {
+        return mapper.queryPage(Version.class, new DynamoDBQueryExpression<Version>()
+                .withHashKeyValues(version(0, null))).getResults().size();
+    }
+
+    @Test
+    void repeatedReadsAreServedOnceAndWritesInvalidate() {
+        UnitOfWork unitOfWork = UnitOfWork.begin(100);
+        try {
+            assertEquals("DRAFT", mapper.load(Version.class, "category", 1).getStatus());
+            assertEquals("DRAFT", mapper.load(Version.class, "category", 1).getStatus());
+            assertEquals(2, queryCategory());
+            assertEquals(2, queryCategory());
+
+            mapper.save(version(1, "APPROVED"));
+            assertEquals("APPROVED", mapper.load(Version.class, "category", 1).getStatus());
+            assertEquals(2, queryCategory());
+        } finally {
+            unitOfWork.end();
+        }
+
+        assertEquals(Map.of("getItem", 2, "query", 2, "updateItem", 1), unitOfWork.getCallsByOperation());
+        assertEquals(5, unitOfWork.getCalls());
+        assertEquals(2, unitOfWork.getMemoHits());
+        assertNull(UnitOfWork.current());
+    }
+
+    @Test
+    void propagatesToFanOutTasksAndRespectsTheItemLimit() throws Exception {
+        ExecutorService executor = UnitOfWork.propagating(Executors.newFixedThreadPool(2));
+        UnitOfWork unitOfWork = UnitOfWork.begin(1);
+        try {
+            executor.submit(() -> mapper.load(Version.class, "category", 1)).get();
+            mapper.load(Version.class, "category", 1);
+            // Two items would exceed the limit, so the query is never memoized
+            queryCategory();
+            queryCategory();
+        } finally {
+            unitOfWork.end();
+            executor.shutdownNow();
+        }
+
+        assertEquals(Map.of("getItem", 1, "query", 2), unitOfWork.getCallsByOperation());
+        assertEquals(1, unitOfWork.getMemoHits());
+    }
+
+    @Test
+    void tasksThatOutliveTheRequestAreNotCountedAgainstIt() throws Exception {
+        ExecutorService executor = UnitOfWork.propagating(Executors.newFixedThreadPool(1));
+        CountDownLatch ended = new CountDownLatch(1);
+        UnitOfWork unitOfWork = UnitOfWork.begin(100);
+        Future<?> background;
+        try {
+            // Submitted during the request, reads after it
+            background = executor.submit(() -> {
+                ended.await();
+                return mapper.load(Version.class, "category", 1);
+            });
+            mapper.load(Version.class, "category", 2);
+        } finally {
+            unitOfWork.end();
+            ended.countDown();
+        }
+
+        background.get();
+        executor.shutdownNow();
+        assertEquals(Map.of("getItem", 1), unitOfWork.getCallsByOperation());
+    }
+
+    @Test
+    void callsOutsideAUnitOfWorkGoStraightThrough() {
+        mapper.load(Version.class, "category", 1);
+        assertNull(UnitOfWork.current());
+    }
+}
@@ -0,0 +1,143 @@
+package com.project.backend_capstone.schema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class SchemaCompilerTests {
+
+    private static final String SERVER_SCHEMA = """
+            {
+              "type": "object",
+              "required": ["host", "port"],
+              "additionalProperties": false,
+              "properties": {
+                "host": { "type": "string", "minLength": 1, "pattern": "^[a-z0-9.-]+$" },
+                "port": { "type": "integer", "minimum": 1, "maximum": 65535 },
+                "mode": { "enum": ["active", "standby"] },
+                "weight": { "type": "number", "exclusiveMinimum": 0, "multipleOf": 0.5 },
+                "tags": { "type": "array", "items": { "type": "string" }, "uniqueItems": true, "maxItems": 3 },
+                "tls": {
+                  "type": "object",
+                  "required": ["enabled"],
+                  "properties": { "enabled": { "type": "boolean" }, "cert": { "type": ["string", "null"] } }
+                }
+              }
+            }
+            """;
+
+    private final CompiledSchema schema = SchemaCompiler.compile(SERVER_SCHEMA);
+
+    private static Map<String, Object> validServer() {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("host", "db-1.internal");
+        fields.put("port", 5432);
+        fields.put("mode", "active");
+        fields.put("weight", 1.5);
+        fields.put("tags", List.of("primary", "eu"));
+        fields.put("tls", Map.of("enabled", true));
+        return fields;
+    }
+
+    @Test
+    void acceptsMatchingFields() {
+        assertEquals(List.of(), schema.validate(validServer()));
+    }
+
+    @Test
+    void reportsEveryViolationWithItsPath() {
+        Map<String, Object> fields = validServer();
+        fields.remove("host");
+        fields.put("port", 70000);
+        fields.put("mode", "broken");
+        fields.put("weight", 1.25);
+        fields.put("tags", List.of("a", 7, "a"));
+        fields.put("tls", Map.of("cert", 42));
+        fields.put("extra", "x");
+
+        List<SchemaViolation> violations = schema.validate(fields);
+
+        assertEquals(List.of(
+                new SchemaViolation("/host", "is required"),
+                new SchemaViolation("/port", "must be <= 65535"),
+                new SchemaViolation("/mode", "must be equal to one of the allowed values"),
+                new SchemaViolation("/weight", "must be multiple of 0.5"),
+                new SchemaViolation("/tags", "must NOT have duplicate items"),
+                new SchemaViolation("/tags/1", "must be string"),
+                new SchemaViolation("/tls/enabled", "is required"),
+                new SchemaViolation("/tls/cert", "must be string,null"),
+                new SchemaViolation("/extra", "is not allowed")), violations);
+
+        SchemaValidationException e = assertThrows(SchemaValidationException.class, () -> schema.check(fields));
+        assertEquals(violations, e.getViolations());
+        assertTrue(e.getMessage().contains("/port: must be <= 65535"));
+    }
+
+    @Test
+    void comparesNumbersByValueNotJavaType() {
+        CompiledSchema integers = SchemaCompiler.compile(Map.of(
+                "properties", Map.of("n", Map.of("type", "integer", "enum", List.of(1, 2)))));
+
+        assertEquals(List.of(), integers.validate(Map.of("n", 2.0)));
+        assertEquals(List.of(), integers.validate(Map.of("n", new BigDecimal("1.000"))));
+        assertEquals(List.of(new SchemaViolation("/n", "must be integer"),
+                new SchemaViolation("/n", "must be equal to one of the allowed values")),
+                integers.validate(Map.of("n", 1.5)));
+    }
+
+    @Test
+    void combinatorsAndBooleanSchemas() {
+        CompiledSchema combined = SchemaCompiler.compile(Map.of("properties", Map.of(
+                "id", Map.of("oneOf", List.of(Map.of("type", "string"), Map.of("type", "integer"))),
+                "legacy", false)));
+
+        assertEquals(List.of(), combined.validate(Map.of("id", "abc")));
+        assertEquals(Set.of(new SchemaViolation("/id", "must match exactly one schema in oneOf"),
+                new SchemaViolation("/legacy", "is not allowed")),
+                Set.copyOf(combined.validate(Map.of("id", true, "legacy", 1))));
+    }
+
+    @Test
+    void rejectsMalformedSchemasWithTheirLocation() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> SchemaCompiler.compile(Map.of("properties", Map.of("port", Map.of("minimum", "low")))));
+        assertEquals("Invalid schema at /properties/port/minimum: must be a number", e.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> SchemaCompiler.compile(Map.of("type", "decimal")));
+        assertThrows(IllegalArgumentException.class, () -> SchemaCompiler.compile(Map.of("pattern", "(")));
+    }
+
+    @Test
+    void blankSchemaAcceptsAnything() {
+        assertEquals(List.of(), SchemaCompiler.compile("").validate(validServer()));
+        assertEquals(List.of(), SchemaCompiler.compile("{}").validate(validServer()));
+    }
+
+    @Test
+    void validatesLargeFieldMaps() {
+        Map<String, Object> properties = new HashMap<>();
+        Map<String, Object> fields = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            properties.put("field" + i, i % 2 == 0
+                    ? Map.of("type", "integer", "minimum", 0)
+                    : Map.of("type", "string", "maxLength", 64));
+            fields.put("field" + i, i % 2 == 0 ? i : "value-" + i);
+        }
+        CompiledSchema large = SchemaCompiler.compile(Map.of("type", "object", "properties", properties,
+                "additionalProperties", false));
+
+        assertEquals(List.of(), large.validate(fields));
+        fields.put("field500", -1);
+        fields.put("field501", 7);
+        assertEquals(2, large.validate(fields).size());
+    }
+}
@@ -0,0 +1,132 @@
+package com.project.backend_capstone.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.project.backend_capstone.dto.ChangeRecord;
+import com.project.backend_capstone.dto.ChangesResponse;
+import com.project.backend_capstone.localdb.LocalDynamoDB;
+import com.project.backend_capstone.model.ChangeLogEntry;
+import com.project.backend_capstone.model.Version;
+import com.project.backend_capstone.repository.BatchLoader;
+import com.project.backend_capstone.repository.ChangeLogRepository;
+import com.project.backend_capstone.repository.ItemUpdate;
+import com.project.backend_capstone.repository.TransactionalUpdater;
+
+class ChangeLogServiceTests {
+
+    private final LocalDynamoDB localDynamoDB = new LocalDynamoDB();
+    private final DynamoDBMapper mapper = new DynamoDBMapper(localDynamoDB);
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final ChangeLogService changeLogService = new ChangeLogService(new ChangeLogRepository(mapper),
+            new BatchLoader(mapper, executor, Optional.empty()), executor);
+
+    ChangeLogServiceTests() {
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(ChangeLogEntry.class));
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(Version.class));
+        ReflectionTestUtils.setField(changeLogService, "retentionHours", 168L);
+        ReflectionTestUtils.setField(changeLogService, "settleMs", 0L);
+        ReflectionTestUtils.setField(changeLogService, "shards", 4);
+
+        for (int versionNum = 1; versionNum <= 30; versionNum++) {
+            Version version = new Version();
+            version.setCategoryId("c1");
+            version.setVersionNum(versionNum);
+            mapper.save(version);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // Follow the log from the cursor until caught up, returning the version numbers seen
+    private List<Integer> follow(String cursor, int limit) throws InterruptedException {
+        // Let the horizon pass the last entry
+        Thread.sleep(5);
+        List<Integer> versionNums = new ArrayList<>();
+        ChangesResponse response;
+        do {
+            response = changeLogService.getChangesSince(cursor, limit);
+            for (ChangeRecord change : response.getChanges()) {
+                versionNums.add(Integer.valueOf(change.getRangeKey()));
+            }
+            cursor = response.getCursor();
+        } while (response.isHasMore());
+        return versionNums;
+    }
+
+    @Test
+    void entriesSpreadOverShardsAreReadBackInOrder() throws InterruptedException {
+        String cursor = changeLogService.getChangesSince(null, 10).getCursor();
+        for (int versionNum = 1; versionNum <= 30; versionNum++) {
+            changeLogService.recordUpsert(ChangeLogService.VERSION, "c1", versionNum);
+        }
+
+        assertEquals(IntStream.rangeClosed(1, 30).boxed().toList(), follow(cursor, 7));
+        long buckets = mapper.scan(ChangeLogEntry.class, new DynamoDBScanExpression()).stream()
+                .map(ChangeLogEntry::getBucket)
+                .distinct()
+                .count();
+        assertTrue(buckets > 1, "entries should be spread over several shards");
+    }
+
+    @Test
+    void updatesCommitTogetherWithTheirEntries() throws InterruptedException {
+        String cursor = changeLogService.getChangesSince(null, 10).getCursor();
+        List<ItemUpdate> updates = IntStream.rangeClosed(1, 30)
+                .mapToObj(versionNum -> ItemUpdate.forVersion("Version", "category_id", "c1", versionNum,
+                        Map.of("status", "Retired")))
+                .toList();
+
+        new TransactionalUpdater(localDynamoDB, executor).applyAll(updates, changeLogService::logItemsFor,
+                chunk -> {
+                });
+
+        assertEquals(30, follow(cursor, 1000).size());
+        assertFalse(mapper.scan(Version.class, new DynamoDBScanExpression()).stream()
+                .anyMatch(version -> !"Retired".equals(version.getStatus())));
+    }
+
+    @Test
+    void updatesToDeletedItemsAreDroppedWithoutFailingTheRest() throws InterruptedException {
+        String cursor = changeLogService.getChangesSince(null, 10).getCursor();
+        for (int versionNum = 2; versionNum <= 30; versionNum += 2) {
+            Version version = new Version();
+            version.setCategoryId("c1");
+            version.setVersionNum(versionNum);
+            mapper.delete(version);
+        }
+        List<ItemUpdate> updates = IntStream.rangeClosed(1, 30)
+                .mapToObj(versionNum -> ItemUpdate.forVersion("Version", "category_id", "c1", versionNum,
+                        Map.of("status", "Retired")))
+                .toList();
+
+        new TransactionalUpdater(localDynamoDB, executor).applyAll(updates, changeLogService::logItemsFor,
+                chunk -> {
+                });
+
+        // Only the surviving items were updated (not recreated) and logged
+        List<Version> versions = mapper.scan(Version.class, new DynamoDBScanExpression());
+        assertEquals(15, versions.size());
+        assertTrue(versions.stream().allMatch(version -> "Retired".equals(version.getStatus())));
+        assertEquals(IntStream.rangeClosed(1, 30).filter(versionNum -> versionNum % 2 == 1).boxed().toList(),
+                follow(cursor, 1000).stream().sorted().toList());
+    }
+}
@@ -0,0 +1,151 @@
+package com.project.backend_capstone.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.project.backend_capstone.enums.CategoryStatus;
+import com.project.backend_capstone.localdb.LocalDynamoDB;
+import com.project.backend_capstone.model.Category;
+import com.project.backend_capstone.model.ChangeLogEntry;
+import com.project.backend_capstone.model.Configuration;
+import com.project.backend_capstone.model.VersionConfiguration;
+import com.project.backend_capstone.repository.BatchLoader;
+import com.project.backend_capstone.repository.ChangeLogRepository;
+import com.project.backend_capstone.repository.ConfigurationRepository;
+import com.project.backend_capstone.repository.VersionConfigRepository;
+
+class ConfigServingServiceTests {
+
+    private final LocalDynamoDB localDynamoDB = new LocalDynamoDB();
+    private final DynamoDBMapper mapper = new DynamoDBMapper(localDynamoDB);
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    // Names of the configurations whose approved version was published to watchers
+    private final List<String> published = new ArrayList<>();
+    private final ConfigServingService servingService = new ConfigServingService(new ConfigurationRepository(mapper),
+            new VersionConfigRepository(mapper, localDynamoDB), executor, new ConfigWatchService() {
+                @Override
+                public void publish(String categoryId, String configurationId, String name, Integer versionNum) {
+                    published.add(name);
+                }
+            });
+    private final ChangeLogService changeLogService = new ChangeLogService(new ChangeLogRepository(mapper),
+            new BatchLoader(mapper, executor, Optional.empty()), executor);
+
+    ConfigServingServiceTests() {
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(Category.class));
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(Configuration.class));
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(VersionConfiguration.class));
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(ChangeLogEntry.class));
+        ReflectionTestUtils.setField(changeLogService, "retentionHours", 168L);
+        ReflectionTestUtils.setField(changeLogService, "settleMs", 0L);
+        ReflectionTestUtils.setField(changeLogService, "shards", 4);
+        ReflectionTestUtils.setField(servingService, "changeLogService", changeLogService);
+        // Followed by hand in the tests
+        ReflectionTestUtils.setField(servingService, "followIntervalMs", 3_600_000L);
+        ReflectionTestUtils.setField(servingService, "dynamoDBMapper", mapper);
+        ReflectionTestUtils.setField(servingService, "maxStalenessMs", 60_000L);
+        // As after a successful warm load of an empty store
+        ReflectionTestUtils.setField(servingService, "ready", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private void saveCategory(String categoryId) {
+        Category category = new Category();
+        category.setCategoryId(categoryId);
+        category.setName(categoryId);
+        mapper.save(category);
+    }
+
+    private Configuration saveConfiguration(String categoryId, String configurationId, String name) {
+        Configuration configuration = new Configuration();
+        configuration.setCategoryId(categoryId);
+        configuration.setConfigurationId(configurationId);
+        configuration.setName(name);
+        mapper.save(configuration);
+        return configuration;
+    }
+
+    private VersionConfiguration saveApproved(String configurationId, Map<String, Object> fields) {
+        return saveApproved(configurationId, 1, fields);
+    }
+
+    private VersionConfiguration saveApproved(String configurationId, int versionNum, Map<String, Object> fields) {
+        VersionConfiguration version = new VersionConfiguration();
+        version.setConfigurationId(configurationId);
+        version.setVersionNum(versionNum);
+        version.setStatus(CategoryStatus.APPROVED.getStatus());
+        version.setFields(fields);
+        mapper.save(version);
+        return version;
+    }
+
+    @Test
+    void unknownCategoriesAreNotKeptButOnesCreatedElsewhereLoadRightAway() {
+        assertEquals(Map.of(), servingService.getCategoryFields("no-such-category"));
+        assertEquals(0, servingService.getStats().get("categories"));
+
+        // Created on another node after the warm load
+        saveCategory("c1");
+        saveConfiguration("c1", "cfg-1", "limits");
+        saveApproved("cfg-1", Map.of("max", 5));
+
+        assertEquals(Map.of("limits", Map.of("max", 5)), servingService.getCategoryFields("c1"));
+        assertEquals(1, servingService.getStats().get("categories"));
+        assertEquals(List.of("limits"), published);
+    }
+
+    @Test
+    void approvalsInACategoryCreatedHereAreServedAndPublishedRightAway() {
+        saveCategory("c2");
+        servingService.trackCategory("c2");
+        assertEquals(Map.of(), servingService.getCategoryFields("c2"));
+
+        // The configuration was created on another node, so this one never tracked it
+        saveConfiguration("c2", "cfg-2", "flags");
+        servingService.applyApproved("cfg-2", saveApproved("cfg-2", Map.of("beta", true)));
+
+        assertEquals(Map.of("beta", true), servingService.getConfigurationFields("c2", "flags"));
+        assertTrue(published.contains("flags"));
+    }
+
+    @Test
+    void changesMadeOnOtherNodesAreAppliedFromTheChangeLogWithoutReloading() throws InterruptedException {
+        saveCategory("c3");
+        saveConfiguration("c3", "cfg-3", "limits");
+        saveApproved("cfg-3", Map.of("max", 1));
+        assertEquals(Map.of("max", 1), servingService.getConfigurationFields("c3", "limits"));
+        servingService.followChanges();
+
+        // Written and logged by another node
+        saveApproved("cfg-3", 2, Map.of("max", 2));
+        changeLogService.recordUpsert(ChangeLogService.VERSION_CONFIGURATION, "cfg-3", 2);
+        saveConfiguration("c3", "cfg-4", "flags");
+        changeLogService.recordUpsert(ChangeLogService.CONFIGURATION, "c3", "cfg-4");
+        saveApproved("cfg-4", Map.of("beta", true));
+        changeLogService.recordUpsert(ChangeLogService.VERSION_CONFIGURATION, "cfg-4", 1);
+        // Let the horizon pass the last entry
+        Thread.sleep(5);
+        servingService.followLoggedChanges();
+
+        assertEquals(Map.of("limits", Map.of("max", 2), "flags", Map.of("beta", true)),
+                servingService.getCategoryFields("c3"));
+        assertEquals(0L, servingService.getStats().get("reloads"));
+        assertTrue(published.containsAll(List.of("limits", "flags")));
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.backend_capstone.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.project.backend_capstone.dto.WatchResponse;
+
+class ConfigWatchServiceTests {
+
+    private final ConfigWatchService watchService = new ConfigWatchService();
+
+    ConfigWatchServiceTests() {
+        ReflectionTestUtils.setField(watchService, "bufferSize", 16);
+        ReflectionTestUtils.setField(watchService, "maxWatchers", 100);
+        ReflectionTestUtils.setField(watchService, "longPollTimeoutMs", 60_000L);
+        ReflectionTestUtils.setField(watchService, "deliveryThreads", 2);
+        ReflectionTestUtils.setField(watchService, "maxPendingEvents", 10);
+        watchService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        watchService.destroy();
+    }
+
+    @Test
+    void parkedWatchersGetEventsFromTheDeliveryPool() throws InterruptedException {
+        long since = watchService.currentSequence();
+        DeferredResult<WatchResponse> result = watchService.poll(
+                new ConfigWatchService.WatchFilter(Set.of("c1"), Set.of()), since);
+        assertFalse(result.hasResult());
+
+        CountDownLatch answered = new CountDownLatch(1);
+        result.setResultHandler(response -> answered.countDown());
+        watchService.publish("c2", "cfg-2", "other", 1);
+        watchService.publish("c1", "cfg-1", "limits", 3);
+
+        assertTrue(answered.await(5, TimeUnit.SECONDS));
+        WatchResponse response = (WatchResponse) result.getResult();
+        assertFalse(response.isResync());
+        assertEquals(1, response.getEvents().size());
+        assertEquals("cfg-1", response.getEvents().get(0).getConfigurationId());
+        assertEquals(since + 2, response.getSequence());
+    }
+}
@@ -0,0 +1,127 @@
+package com.project.backend_capstone.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.model.DeleteTableRequest;
+import com.project.backend_capstone.dto.UserGroupRequest;
+import com.project.backend_capstone.localdb.LocalDynamoDB;
+import com.project.backend_capstone.model.UniqueName;
+import com.project.backend_capstone.model.UserGroup;
+import com.project.backend_capstone.model.UserGroupMembership;
+import com.project.backend_capstone.repository.UniqueNameRepository;
+import com.project.backend_capstone.repository.UserGroupMembershipRepository;
+
+class UserGroupServiceTests {
+
+    private final LocalDynamoDB localDynamoDB = new LocalDynamoDB();
+    private final DynamoDBMapper mapper = new DynamoDBMapper(localDynamoDB);
+    private final UserGroupMembershipRepository membershipRepository =
+            new UserGroupMembershipRepository(mapper, localDynamoDB);
+    private final UniqueNameRepository uniqueNameRepository = new UniqueNameRepository(mapper);
+    private final UserGroupService userGroupService = new UserGroupService(localDynamoDB, mapper,
+            membershipRepository, null, uniqueNameRepository);
+
+    UserGroupServiceTests() {
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(UserGroup.class));
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(UserGroupMembership.class));
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(UniqueName.class));
+        uniqueNameRepository.markBackfilled();
+
+        UserGroup group = new UserGroup();
+        group.setUser_group_id("g1");
+        group.setUser_group_name("Editors");
+        group.setUser_list(Set.of("alice", "bob"));
+        group.setCategory_access(Set.of("c1", "c2"));
+        mapper.save(group);
+        userGroupService.rebuildMembershipIndex();
+    }
+
+    private Set<String> members() {
+        return mapper.load(UserGroup.class, "g1", "Editors").getUser_list();
+    }
+
+    @Test
+    void groupRowAndIndexChangeTogether() {
+        assertTrue(userGroupService.addUserToGroup("g1", "Editors", "carol"));
+        assertEquals(Set.of("c1", "c2"), userGroupService.getAccessibleCategoryIds("carol"));
+
+        assertTrue(userGroupService.removeUserFromGroup("g1", "Editors", "alice"));
+        assertEquals(Set.of(), userGroupService.getAccessibleCategoryIds("alice"));
+        assertEquals(Set.of("bob", "carol"), members());
+
+        assertTrue(userGroupService.removeCategoryFromGroup("g1", "Editors", "c1"));
+        assertEquals(Set.of("c2"), userGroupService.getAccessibleCategoryIds("bob"));
+
+        // Removing the last member leaves no empty set behind
+        userGroupService.removeUserFromGroup("g1", "Editors", "bob");
+        userGroupService.removeUserFromGroup("g1", "Editors", "carol");
+        assertNull(members());
+    }
+
+    @Test
+    void failedIndexWriteLeavesTheGroupUnchangedAndPropagates() {
+        localDynamoDB.deleteTable(new DeleteTableRequest("UserGroupMembership"));
+
+        assertThrows(RuntimeException.class, () -> userGroupService.removeUserFromGroup("g1", "Editors", "alice"));
+        assertEquals(Set.of("alice", "bob"), members());
+    }
+
+    private static UserGroupRequest newGroup(String name, Set<String> users, Set<String> categories) {
+        UserGroupRequest request = new UserGroupRequest();
+        request.setUser_group_name(name);
+        request.setUser_list(users);
+        request.setCategory_access(categories);
+        return request;
+    }
+
+    @Test
+    void createdGroupsAreIndexedInTheSameTransaction() {
+        userGroupService.createUserGroup(newGroup("Reviewers", Set.of("carol", "dave"), Set.of("c3")));
+        assertEquals(Set.of("c3"), userGroupService.getAccessibleCategoryIds("carol"));
+        assertEquals(Set.of("c3"), userGroupService.getAccessibleCategoryIds("dave"));
+
+        // Nothing is written when the index can't be: the name stays free for a retry
+        localDynamoDB.deleteTable(new DeleteTableRequest("UserGroupMembership"));
+        assertThrows(RuntimeException.class, () -> userGroupService.createUserGroup(
+                newGroup("Auditors", Set.of("erin"), Set.of("c4"))));
+        // Editors and Reviewers only
+        assertEquals(2, mapper.scan(UserGroup.class, new DynamoDBScanExpression()).size());
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(UserGroupMembership.class));
+        userGroupService.createUserGroup(newGroup("Auditors", Set.of("erin"), Set.of("c4")));
+        assertEquals(Set.of("c4"), userGroupService.getAccessibleCategoryIds("erin"));
+    }
+
+    @Test
+    void rebuildDeletesEntriesForMembershipsThatNoLongerExist() {
+        mapper.save(new UserGroupMembership("dave", "g1", "Editors", Set.of("c1")));
+        mapper.save(new UserGroupMembership("erin", "deleted-group", "Old", Set.of("c9")));
+
+        assertEquals(2, userGroupService.rebuildMembershipIndex());
+
+        assertEquals(Set.of(), userGroupService.getAccessibleCategoryIds("dave"));
+        assertEquals(Set.of(), userGroupService.getAccessibleCategoryIds("erin"));
+        assertEquals(List.of("g1"), userGroupService.getUserGroupIds("alice"));
+    }
+
+    @Test
+    void backfillMarkerIsPersisted() {
+        assertFalse(membershipRepository.isBackfilled());
+        membershipRepository.markBackfilled();
+        assertTrue(membershipRepository.isBackfilled());
+        // The marker is not an index entry
+        assertEquals(2, membershipRepository.findAll().size());
+        assertEquals(2, userGroupService.rebuildMembershipIndex());
+        assertTrue(membershipRepository.isBackfilled());
+    }
+}
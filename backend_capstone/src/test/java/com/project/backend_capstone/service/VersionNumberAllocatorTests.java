@@ -0,0 +1,112 @@
+package com.project.backend_capstone.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.project.backend_capstone.localdb.LocalDynamoDB;
+import com.project.backend_capstone.model.ChangeLogEntry;
+import com.project.backend_capstone.model.Configuration;
+import com.project.backend_capstone.model.VersionConfiguration;
+import com.project.backend_capstone.repository.BatchLoader;
+import com.project.backend_capstone.repository.ChangeLogRepository;
+import com.project.backend_capstone.repository.ConfigurationRepository;
+import com.project.backend_capstone.repository.VersionConfigRepository;
+
+class VersionNumberAllocatorTests {
+
+    // The shipped app.versions.max-allocation-attempts
+    private static final int DEFAULT_MAX_ATTEMPTS = 50;
+
+    private final LocalDynamoDB localDynamoDB = new LocalDynamoDB();
+    private final DynamoDBMapper mapper = new DynamoDBMapper(localDynamoDB);
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final VersionConfigRepository versionConfigRepository = new VersionConfigRepository(mapper, localDynamoDB);
+    private final VersionConfigService versionConfigService = new VersionConfigService(mapper, localDynamoDB,
+            versionConfigRepository);
+
+    VersionNumberAllocatorTests() {
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(Configuration.class));
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(VersionConfiguration.class));
+        localDynamoDB.createTable(mapper.generateCreateTableRequest(ChangeLogEntry.class));
+
+        ChangeLogService changeLogService = new ChangeLogService(new ChangeLogRepository(mapper),
+                new BatchLoader(mapper, executor, Optional.empty()), executor);
+        ReflectionTestUtils.setField(changeLogService, "shards", 4);
+        SchemaService schemaService = new SchemaService(mapper, new ConfigurationRepository(mapper));
+        ReflectionTestUtils.setField(schemaService, "maxConfigurationRefs", 100);
+
+        ReflectionTestUtils.setField(versionConfigService, "versionNumberAllocator",
+                new VersionNumberAllocator(DEFAULT_MAX_ATTEMPTS));
+        ReflectionTestUtils.setField(versionConfigService, "changeLogService", changeLogService);
+        ReflectionTestUtils.setField(versionConfigService, "schemaService", schemaService);
+
+        // Without a category version there is no schema to check the fields against
+        Configuration configuration = new Configuration();
+        configuration.setCategoryId("c1");
+        configuration.setConfigurationId("cfg-1");
+        configuration.setName("limits");
+        mapper.save(configuration);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void parallelUpdatesProduceAGaplessDuplicateFreeSequence() throws Exception {
+        int updates = 1000;
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < updates; i++) {
+            String writer = "writer-" + i;
+            results.add(pool.submit(() -> {
+                start.await();
+                versionConfigService.addVersionConfiguration("cfg-1", "Pending", null, writer, null,
+                        Map.of("writer", writer));
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        pool.shutdown();
+
+        List<VersionConfiguration> versions = versionConfigRepository.findByConfigurationId("cfg-1");
+        assertEquals(IntStream.rangeClosed(1, updates).boxed().toList(),
+                versions.stream().map(VersionConfiguration::getVersionNum).toList());
+        // Every writer's version survived: nothing was overwritten
+        Set<String> writers = versions.stream().map(VersionConfiguration::getCreatedBy).collect(Collectors.toSet());
+        assertEquals(updates, writers.size());
+    }
+
+    @Test
+    void givesUpAfterTheConfiguredNumberOfAttempts() {
+        VersionNumberAllocator allocator = new VersionNumberAllocator(3);
+
+        assertThrows(RuntimeException.class, () -> allocator.allocate(() -> 1, versionNum -> {
+            throw new ConditionalCheckFailedException("always taken");
+        }));
+    }
+}
@@ -0,0 +1,114 @@
+package com.project.backend_capstone.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class AttributeValuesTests {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private String json(Map<String, AttributeValue> item) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonItemWriter.writeRawItems(List.of(item).stream(), out, true);
+        return out.toString(StandardCharsets.UTF_8).trim();
+    }
+
+    @Test
+    void writesEveryAttributeType() throws IOException {
+        Map<String, AttributeValue> nested = new LinkedHashMap<>();
+        nested.put("inner", new AttributeValue().withS("x"));
+        nested.put("flag", new AttributeValue().withBOOL(false));
+
+        Map<String, AttributeValue> item = new LinkedHashMap<>();
+        item.put("s", new AttributeValue().withS("text \"quoted\""));
+        item.put("n", new AttributeValue().withN("42"));
+        item.put("big", new AttributeValue().withN("123456789012345678901234567890.125"));
+        item.put("bool", new AttributeValue().withBOOL(true));
+        item.put("null", new AttributeValue().withNULL(true));
+        item.put("m", new AttributeValue().withM(nested));
+        item.put("l", new AttributeValue().withL(new AttributeValue().withN("1"), new AttributeValue().withS("two"),
+                new AttributeValue().withM(nested)));
+        item.put("ss", new AttributeValue().withSS("a", "b"));
+        item.put("ns", new AttributeValue().withNS("1", "2.5"));
+        item.put("b", new AttributeValue().withB(ByteBuffer.wrap(new byte[] { 1, 2, 3 })));
+
+        assertEquals("{\"s\":\"text \\\"quoted\\\"\",\"n\":42,\"big\":123456789012345678901234567890.125,"
+                + "\"bool\":true,\"null\":null,\"m\":{\"inner\":\"x\",\"flag\":false},"
+                + "\"l\":[1,\"two\",{\"inner\":\"x\",\"flag\":false}],\"ss\":[\"a\",\"b\"],\"ns\":[1,2.5],"
+                + "\"b\":\"AQID\"}", json(item));
+    }
+
+    @Test
+    void writesJsonArrayAndNdjson() throws IOException {
+        List<Map<String, AttributeValue>> items = List.of(
+                Map.of("id", new AttributeValue().withN("1")),
+                Map.of("id", new AttributeValue().withN("2")));
+
+        ByteArrayOutputStream array = new ByteArrayOutputStream();
+        JsonItemWriter.writeRawItems(items.stream(), array, false);
+        assertEquals("[{\"id\":1},{\"id\":2}]", array.toString(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        JsonItemWriter.writeRawItems(items.stream(), ndjson, true);
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", ndjson.toString(StandardCharsets.UTF_8));
+    }
+
+    // The conversion the raw endpoints used before: a HashMap per row, then Jackson over the map
+    private static Map<String, Object> legacyPlainMap(Map<String, AttributeValue> item) {
+        Map<String, Object> cleanedItem = new HashMap<>();
+        for (Map.Entry<String, AttributeValue> entry : item.entrySet()) {
+            AttributeValue attributeValue = entry.getValue();
+            if (attributeValue.getS() != null) {
+                cleanedItem.put(entry.getKey(), attributeValue.getS());
+            } else if (attributeValue.getN() != null) {
+                cleanedItem.put(entry.getKey(), Integer.parseInt(attributeValue.getN()));
+            } else if (attributeValue.getSS() != null) {
+                cleanedItem.put(entry.getKey(), attributeValue.getSS());
+            }
+        }
+        return cleanedItem;
+    }
+
+    private static List<Map<String, AttributeValue>> sampleItems(int count) {
+        List<Map<String, AttributeValue>> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, AttributeValue> item = new HashMap<>();
+            item.put("category_id", new AttributeValue().withS("category-" + (i % 100)));
+            item.put("version_num", new AttributeValue().withN(Integer.toString(i)));
+            item.put("status", new AttributeValue().withS("APPROVED"));
+            item.put("created_by", new AttributeValue().withS("admin"));
+            item.put("description", new AttributeValue().withS("Generated item number " + i));
+            item.put("tags", new AttributeValue().withSS("a", "b", "c"));
+            items.add(item);
+        }
+        return items;
+    }
+
+    // Writes a varied sample of items both ways and checks the output agrees
+    @Test
+    void directWriterMatchesPerRowMaps() throws IOException {
+        List<Map<String, AttributeValue>> items = sampleItems(10_000);
+
+        ByteArrayOutputStream direct = new ByteArrayOutputStream();
+        JsonItemWriter.writeRawItems(items.stream(), direct, false);
+        ByteArrayOutputStream legacy = new ByteArrayOutputStream();
+        JsonItemWriter.write(items.stream().map(AttributeValuesTests::legacyPlainMap), legacy, false);
+        JsonNode expected = mapper.readTree(legacy.toByteArray());
+        assertEquals(expected, mapper.readTree(direct.toByteArray()));
+    }
+}
@@ -0,0 +1,152 @@
+package com.project.backend_capstone.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.project.backend_capstone.localdb.LocalDynamoDB;
+import com.project.backend_capstone.model.Version;
+
+class TaskScopeTests {
+
+    @Test
+    void forkedLookupsRunSideBySide() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (TaskScope scope = new TaskScope(executor)) {
+            long start = System.nanoTime();
+            TaskScope.Subtask<String> first = scope.fork(() -> sleepThen(200, "first"));
+            TaskScope.Subtask<String> second = scope.fork(() -> sleepThen(200, "second"));
+            scope.join();
+
+            assertEquals("first", first.get());
+            assertEquals("second", second.get());
+            assertTrue((System.nanoTime() - start) / 1_000_000 < 390);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void firstFailureCancelsTheOthersAndIsRethrown() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        try (TaskScope scope = new TaskScope(executor)) {
+            scope.fork(() -> {
+                try {
+                    return sleepThen(10_000, "slow");
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+            });
+            scope.fork(() -> {
+                Thread.sleep(20);
+                throw new IllegalArgumentException("lookup failed");
+            });
+
+            long start = System.nanoTime();
+            assertEquals("lookup failed", assertThrows(IllegalArgumentException.class, scope::join).getMessage());
+            assertTrue((System.nanoTime() - start) / 1_000_000 < 5_000);
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Load test for the virtual thread mode (runs only on Java 21+). 1,000 concurrent "requests" each
+    // read two items in parallel from a store that takes 50 ms per read. On virtual threads far more
+    // reads are in flight at once than Tomcat's 200 platform threads could ever hold.
+    @Test
+    void virtualThreadsScaleBeyondThePlatformPool() throws Exception {
+        assumeTrue(VirtualThreads.isSupported(), "virtual threads need Java 21+");
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        LocalDynamoDB slowStore = new LocalDynamoDB() {
+            @Override
+            public GetItemResult getItem(GetItemRequest request) {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+                return super.getItem(request);
+            }
+        };
+        DynamoDBMapper mapper = new DynamoDBMapper(slowStore);
+        slowStore.createTable(mapper.generateCreateTableRequest(Version.class));
+
+        int requests = 1000;
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor("load-test-").orElseThrow();
+        try {
+            List<Future<?>> handled = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                handled.add(executor.submit(() -> {
+                    try (TaskScope scope = new TaskScope(executor)) {
+                        scope.fork(() -> mapper.load(Version.class, "category", 1));
+                        scope.fork(() -> mapper.load(Version.class, "category", 2));
+                        scope.join();
+                    }
+                }));
+            }
+            for (Future<?> request : handled) {
+                request.get();
+            }
+
+            assertTrue(maxInFlight.get() > 200, "peak concurrency " + maxInFlight.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // The limit that keeps virtual-thread fan-out within the connection pool
+    @Test
+    void boundedExecutorCapsTasksRunningAtOnce() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        ExecutorService executor = VirtualThreads.bounded(Executors.newCachedThreadPool(), 4);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                tasks.add(executor.submit(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    try {
+                        return sleepThen(5, "done");
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                assertEquals("done", task.get());
+            }
+
+            assertTrue(maxInFlight.get() <= 4, "peak concurrency " + maxInFlight.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String sleepThen(long millis, String result) throws InterruptedException {
+        Thread.sleep(millis);
+        return result;
+    }
+}